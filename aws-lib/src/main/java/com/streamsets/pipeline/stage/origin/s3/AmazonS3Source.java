@@ -19,7 +19,6 @@ package com.streamsets.pipeline.stage.origin.s3;
 
 import com.amazonaws.AbortedException;
 import com.amazonaws.AmazonClientException;
-import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.streamsets.pipeline.api.BatchMaker;
 import com.streamsets.pipeline.api.Record;
@@ -35,6 +34,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -51,7 +51,7 @@ public class AmazonS3Source extends BaseSource {
   private S3Spooler spooler;
   private S3ObjectSummary currentObject;
   private DataParser parser;
-  private S3Object object;
+  private InputStream object;
 
   public AmazonS3Source(S3ConfigBean s3ConfigBean) {
     this.s3ConfigBean = s3ConfigBean;
@@ -190,24 +190,23 @@ public class AmazonS3Source extends BaseSource {
     BadSpoolObjectException {
     try {
       if (parser == null) {
-        //Get S3 object instead of stream because we want to call close on the object when we close the
-        // parser (and stream)
+        //Keep the object content stream because we want to call close on it when we close the parser
         if(getContext().isPreview()) {
           long fetchSize = s3Object.getSize() > DEFAULT_FETCH_SIZE ? DEFAULT_FETCH_SIZE : s3Object.getSize();
           if(fetchSize > 0) {
             object = AmazonS3Util.getObjectRange(s3ConfigBean.s3Config.getS3Client(), s3ConfigBean.s3Config.bucket,
-              s3Object.getKey(), fetchSize);
+              s3Object.getKey(), fetchSize).getObjectContent();
           }  else {
             LOG.warn("Size of object with key '{}' is 0", s3Object.getKey());
             object = AmazonS3Util.getObject(s3ConfigBean.s3Config.getS3Client(), s3ConfigBean.s3Config.bucket,
-              s3Object.getKey());
+              s3Object.getKey()).getObjectContent();
           }
         } else {
-          object = AmazonS3Util.getObject(s3ConfigBean.s3Config.getS3Client(), s3ConfigBean.s3Config.bucket,
-            s3Object.getKey());
+          //the spooler may have prefetched the object already
+          object = spooler.openObject(s3Object);
         }
         String recordId = s3ConfigBean.s3Config.bucket + s3ConfigBean.s3Config.delimiter + s3Object.getKey();
-        parser = s3ConfigBean.dataFormatConfig.getParserFactory().getParser(recordId, object.getObjectContent(),
+        parser = s3ConfigBean.dataFormatConfig.getParserFactory().getParser(recordId, object,
           Long.parseLong(offset));
         //we don't use S3 GetObject range capabilities to skip the already process offset because the parsers cannot
         // pick up from a non root doc depth in the case of a single object with records.
@@ -312,13 +311,24 @@ public class AmazonS3Source extends BaseSource {
   }
 
   private boolean isEligible(S3ObjectSummary nextAvailObj, S3Offset s3Offset) {
-    return (nextAvailObj == null) ||
-      (nextAvailObj.getLastModified().getTime() >= Long.parseLong(s3Offset.getTimestamp()));
+    switch (s3ConfigBean.s3FileConfig.objectOrdering) {
+      case LEXICOGRAPHICAL:
+        return (nextAvailObj == null) || s3Offset.getKey() == null ||
+          (nextAvailObj.getKey().compareTo(s3Offset.getKey()) >= 0);
+      default:
+        return (nextAvailObj == null) ||
+          (nextAvailObj.getLastModified().getTime() >= Long.parseLong(s3Offset.getTimestamp()));
+    }
   }
 
   private boolean isLaterThan(String nextKey, long nextTimeStamp, String originalKey, long originalTimestamp) {
-    return (nextTimeStamp > originalTimestamp) ||
-      (nextTimeStamp == originalTimestamp && nextKey.compareTo(originalKey) > 0);
+    switch (s3ConfigBean.s3FileConfig.objectOrdering) {
+      case LEXICOGRAPHICAL:
+        return nextKey.compareTo(originalKey) > 0;
+      default:
+        return (nextTimeStamp > originalTimestamp) ||
+          (nextTimeStamp == originalTimestamp && nextKey.compareTo(originalKey) > 0);
+    }
   }
 
   static class S3Offset {
@@ -23,6 +23,8 @@ import com.amazonaws.services.s3.iterable.S3Objects;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 
@@ -97,6 +99,65 @@ public class AmazonS3Util {
     return new ArrayList<>(treeSet);
   }
 
+  /**
+   * Lists objects from AmazonS3 in lexicographical order of their keys starting right after the key of the previous
+   * offset object [or at the key of the previous offset object if it was not completely processed].
+   *
+   * Unlike {@link #listObjectsChronologically} this does not scan the whole folder, it asks S3 to start the listing
+   * at the offset key and stops as soon as "fetchSize" matching objects have been found.
+   *
+   * @param s3Client
+   * @param s3ConfigBean
+   * @param pathMatcher glob patterns to match file name against
+   * @param s3Offset current offset which provides the key of the previous object
+   * @param fetchSize number of objects to fetch in one go
+   * @return
+   * @throws AmazonClientException
+   */
+  static List<S3ObjectSummary> listObjectsLexicographically(AmazonS3Client s3Client, S3ConfigBean s3ConfigBean,
+                                                            PathMatcher pathMatcher, AmazonS3Source.S3Offset s3Offset,
+                                                            int fetchSize)
+    throws AmazonClientException {
+    List<S3ObjectSummary> list = new ArrayList<>(fetchSize);
+
+    ListObjectsRequest listObjectsRequest = new ListObjectsRequest()
+      .withBucketName(s3ConfigBean.s3Config.bucket)
+      .withPrefix(s3ConfigBean.s3Config.folder)
+      .withMaxKeys(BATCH_SIZE);
+    if (s3Offset.getKey() != null) {
+      if (!"-1".equals(s3Offset.getOffset())) {
+        //the offset object was not completely processed, the marker is exclusive so it has to be looked up on its own
+        S3ObjectSummary s = getObjectSummary(s3Client, s3ConfigBean.s3Config.bucket, s3Offset.getKey());
+        if (s != null) {
+          list.add(s);
+        }
+      }
+      listObjectsRequest.setMarker(s3Offset.getKey());
+    }
+
+    ObjectListing objectListing;
+    do {
+      objectListing = s3Client.listObjects(listObjectsRequest);
+      for (S3ObjectSummary s : objectListing.getObjectSummaries()) {
+        String fileName = s.getKey().substring(s3ConfigBean.s3Config.folder.length(), s.getKey().length());
+        //fileName can be empty, see listObjectsChronologically
+        if (!fileName.isEmpty() && pathMatcher.matches(Paths.get(fileName))) {
+          list.add(s);
+          if (list.size() >= fetchSize) {
+            return list;
+          }
+        }
+      }
+      //next marker is only returned when listing with a delimiter, continue after the last key of this page instead
+      List<S3ObjectSummary> page = objectListing.getObjectSummaries();
+      if (!page.isEmpty()) {
+        listObjectsRequest.setMarker(page.get(page.size() - 1).getKey());
+      }
+    } while (objectListing.isTruncated());
+
+    return list;
+  }
+
   private static boolean isEligible(S3ObjectSummary s, AmazonS3Source.S3Offset s3Offset) {
 
     //The object is eligible if
@@ -19,6 +19,7 @@ package com.streamsets.pipeline.stage.origin.s3;
 
 import com.streamsets.pipeline.api.ConfigDef;
 import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.api.ValueChooserModel;
 
 import java.util.List;
 
@@ -50,6 +51,33 @@ public class S3FileConfig {
   )
   public int overrunLimit;
 
+  @ConfigDef(
+    required = true,
+    type = ConfigDef.Type.MODEL,
+    label = "Read Order",
+    defaultValue = "TIMESTAMP",
+    description = "Order in which objects are read. Lexicographical order lists only the keys after the last " +
+      "processed object instead of the whole folder on every poll",
+    displayPosition = 130,
+    group = "#0"
+  )
+  @ValueChooserModel(ObjectOrderingChooserValues.class)
+  public ObjectOrdering objectOrdering;
+
+  @ConfigDef(
+    required = true,
+    type = ConfigDef.Type.NUMBER,
+    label = "Prefetch Objects",
+    defaultValue = "2",
+    description = "Number of objects to download in the background while the current object is being read. " +
+      "Use 0 to download each object only when it is read",
+    displayPosition = 140,
+    group = "#0",
+    min = 0,
+    max = 100
+  )
+  public int prefetchObjects;
+
   public void init(Stage.Context context, List<Stage.ConfigIssue> issues) {
     validate(context, issues);
   }
@@ -58,6 +86,10 @@ public class S3FileConfig {
     if (overrunLimit < MIN_OVERRUN_LIMIT || overrunLimit >= MAX_OVERRUN_LIMIT) {
       issues.add(context.createConfigIssue(Groups.S3.name(), "overrunLimit", Errors.S3_SPOOLDIR_04));
     }
+    if (prefetchObjects < 0) {
+      issues.add(context.createConfigIssue(Groups.S3.name(), "prefetchObjects", Errors.S3_SPOOLDIR_26,
+        prefetchObjects));
+    }
     if(filePattern == null || filePattern.isEmpty()) {
       issues.add(context.createConfigIssue(Groups.S3.name(), "filePattern", Errors.S3_SPOOLDIR_06));
     }
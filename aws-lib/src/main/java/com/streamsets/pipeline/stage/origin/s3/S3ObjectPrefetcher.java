@@ -0,0 +1,220 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.s3;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Downloads the next objects of the spooler queue in the background while the current object is being parsed.
+ * <p/>
+ * Objects up to {@link #MAX_IN_MEMORY_SIZE} are kept in memory, bigger objects are spilled to a temporary file that is
+ * deleted once the returned stream is closed. At most 'maxObjects' objects are downloaded or held at any time.
+ */
+class S3ObjectPrefetcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(S3ObjectPrefetcher.class);
+
+  static final int MAX_IN_MEMORY_SIZE = 8 * 1024 * 1024;
+
+  private final AmazonS3Client s3Client;
+  private final String bucket;
+  private final int maxObjects;
+  private final ExecutorService executor;
+  // in queue order, objects skipped by the source are released when a later object is opened
+  private final Map<String, Prefetch> prefetches;
+
+  public S3ObjectPrefetcher(AmazonS3Client s3Client, String bucket, int maxObjects) {
+    Preconditions.checkArgument(maxObjects > 0, "maxObjects must be greater than zero");
+    this.s3Client = s3Client;
+    this.bucket = bucket;
+    this.maxObjects = maxObjects;
+    executor = Executors.newFixedThreadPool(maxObjects, new ThreadFactoryBuilder()
+      .setNameFormat("S3ObjectPrefetcher-" + bucket + "-%d").setDaemon(true).build());
+    prefetches = new LinkedHashMap<>();
+  }
+
+  /**
+   * Starts downloading the given object if it is not being downloaded already and there is room for it.
+   */
+  public void prefetch(S3ObjectSummary objectSummary) {
+    if (prefetches.size() < maxObjects && !prefetches.containsKey(objectSummary.getKey())) {
+      LOG.debug("Prefetching object '{}'", objectSummary.getKey());
+      prefetches.put(objectSummary.getKey(), new Prefetch(objectSummary));
+    }
+  }
+
+  public boolean hasRoom() {
+    return prefetches.size() < maxObjects;
+  }
+
+  /**
+   * Returns the content of the given object, waiting for its prefetch to complete if there is one or downloading it
+   * directly otherwise.
+   */
+  public InputStream open(S3ObjectSummary objectSummary) throws AmazonClientException, IOException {
+    Prefetch prefetch = null;
+    Iterator<Map.Entry<String, Prefetch>> iterator = prefetches.entrySet().iterator();
+    while (prefetch == null && iterator.hasNext()) {
+      Map.Entry<String, Prefetch> entry = iterator.next();
+      iterator.remove();
+      if (entry.getKey().equals(objectSummary.getKey())) {
+        prefetch = entry.getValue();
+      } else {
+        //the object was skipped by the source
+        entry.getValue().release();
+      }
+    }
+    InputStream is = null;
+    if (prefetch != null) {
+      try {
+        is = prefetch.open(objectSummary);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        prefetch.release();
+      }
+    }
+    if (is == null) {
+      is = AmazonS3Util.getObject(s3Client, bucket, objectSummary.getKey()).getObjectContent();
+    }
+    return is;
+  }
+
+  public void destroy() {
+    for (Prefetch prefetch : prefetches.values()) {
+      prefetch.release();
+    }
+    prefetches.clear();
+    executor.shutdownNow();
+  }
+
+  private class Prefetch implements Callable<Object> {
+    private final S3ObjectSummary objectSummary;
+    private final Future<Object> future;
+
+    public Prefetch(S3ObjectSummary objectSummary) {
+      this.objectSummary = objectSummary;
+      future = executor.submit(this);
+    }
+
+    // returns either the object content as a byte[] or the File it was spilled to
+    @Override
+    public Object call() throws Exception {
+      try (S3Object object = AmazonS3Util.getObject(s3Client, bucket, objectSummary.getKey())) {
+        if (object.getObjectMetadata().getContentLength() <= MAX_IN_MEMORY_SIZE) {
+          return IOUtils.toByteArray(object.getObjectContent());
+        }
+        File file = File.createTempFile("sdc-s3-prefetch-", ".tmp");
+        try (OutputStream os = new FileOutputStream(file)) {
+          IOUtils.copyLarge(object.getObjectContent(), os);
+        } catch (IOException | RuntimeException ex) {
+          delete(file);
+          throw ex;
+        }
+        if (Thread.interrupted()) {
+          //cancelled while spilling, nobody will release the file
+          delete(file);
+          throw new InterruptedException();
+        }
+        return file;
+      }
+    }
+
+    /**
+     * Returns the prefetched content or NULL if the download failed or the object changed since it was listed, in
+     * which case the caller downloads it again and gets the error, if any, in the pipeline thread.
+     */
+    public InputStream open(S3ObjectSummary current) throws InterruptedException, IOException {
+      Object content;
+      try {
+        content = future.get();
+      } catch (ExecutionException ex) {
+        LOG.debug("Prefetch of object '{}' failed, reason : {}", current.getKey(), ex.getCause().toString());
+        return null;
+      }
+      if (!objectSummary.getETag().equals(current.getETag())) {
+        release(content);
+        return null;
+      }
+      if (content instanceof byte[]) {
+        return new ByteArrayInputStream((byte[]) content);
+      }
+      final File file = (File) content;
+      return new FilterInputStream(new FileInputStream(file)) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            delete(file);
+          }
+        }
+      };
+    }
+
+    public void release() {
+      if (!future.cancel(true)) {
+        try {
+          release(future.get());
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+          //NO-OP, nothing was kept
+        }
+      }
+    }
+
+    private void release(Object content) {
+      if (content instanceof File) {
+        delete((File) content);
+      }
+    }
+
+  }
+
+  private static void delete(File file) {
+    if (!file.delete() && file.exists()) {
+      LOG.warn("Could not delete prefetched object file '{}'", file);
+    }
+  }
+
+}
@@ -27,6 +27,8 @@ import com.streamsets.pipeline.config.PostProcessingOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.FileSystems;
 import java.nio.file.PathMatcher;
 import java.util.Date;
@@ -38,8 +40,9 @@ public class S3Spooler {
 
   private static final Logger LOG = LoggerFactory.getLogger(S3Spooler.class);
 
-  private static final int MAX_SPOOL_SIZE = 1000;
-  private static final int SPOOLER_QUEUE_SIZE = 100;
+  // a full chronological listing keeps up to this many of the oldest eligible objects, the bigger it is the fewer
+  // full listings are needed to go through a folder
+  private static final int SPOOLER_QUEUE_SIZE = 1000;
 
   private final Source.Context context;
   private final S3ConfigBean s3ConfigBean;
@@ -55,6 +58,7 @@ public class S3Spooler {
   private S3ObjectSummary currentObject;
   private ArrayBlockingQueue<S3ObjectSummary> objectQueue;
   private Meter spoolQueueMeter;
+  private S3ObjectPrefetcher prefetcher;
 
   public void init() {
     try {
@@ -63,12 +67,22 @@ public class S3Spooler {
 
       pathMatcher = createPathMatcher(s3ConfigBean.s3FileConfig.filePattern);
 
+      // preview reads only the beginning of the first objects, there is nothing to gain prefetching them
+      if (s3ConfigBean.s3FileConfig.prefetchObjects > 0 && !context.isPreview()) {
+        prefetcher = new S3ObjectPrefetcher(s3Client, s3ConfigBean.s3Config.bucket,
+          s3ConfigBean.s3FileConfig.prefetchObjects);
+      }
+
     } catch (Exception ex) {
       throw new RuntimeException(ex);
     }
   }
 
   public void destroy() {
+    if (prefetcher != null) {
+      prefetcher.destroy();
+      prefetcher = null;
+    }
     if(objectQueue != null) {
       objectQueue.clear();
       objectQueue = null;
@@ -77,8 +91,20 @@ public class S3Spooler {
 
   S3ObjectSummary findAndQueueObjects(AmazonS3Source.S3Offset s3offset, boolean checkCurrent)
     throws AmazonClientException {
-    List<S3ObjectSummary> s3ObjectSummaries = AmazonS3Util.listObjectsChronologically(
-      s3Client, s3ConfigBean, pathMatcher, s3offset, objectQueue.remainingCapacity());
+    List<S3ObjectSummary> s3ObjectSummaries;
+    switch (s3ConfigBean.s3FileConfig.objectOrdering) {
+      case TIMESTAMP:
+        s3ObjectSummaries = AmazonS3Util.listObjectsChronologically(
+          s3Client, s3ConfigBean, pathMatcher, s3offset, objectQueue.remainingCapacity());
+        break;
+      case LEXICOGRAPHICAL:
+        s3ObjectSummaries = AmazonS3Util.listObjectsLexicographically(
+          s3Client, s3ConfigBean, pathMatcher, s3offset, objectQueue.remainingCapacity());
+        break;
+      default:
+        throw new IllegalStateException("Invalid object ordering : " +
+          s3ConfigBean.s3FileConfig.objectOrdering.name());
+    }
     for (S3ObjectSummary objectSummary : s3ObjectSummaries) {
       addObjectToQueue(objectSummary, checkCurrent);
     }
@@ -94,9 +120,6 @@ public class S3Spooler {
         currentObject.getLastModified().compareTo(objectSummary.getLastModified()) < 0);
     }
     if (!objectQueue.contains(objectSummary)) {
-      if (objectQueue.size() >= MAX_SPOOL_SIZE) {
-        LOG.warn("Exceeded '{}' of queued files", objectQueue.size());
-      }
       objectQueue.add(objectSummary);
       spoolQueueMeter.mark(objectQueue.size());
     } else {
@@ -125,9 +148,27 @@ public class S3Spooler {
         currentObject = next;
       }
     }
+    if (prefetcher != null) {
+      for (S3ObjectSummary queued : objectQueue) {
+        if (!prefetcher.hasRoom()) {
+          break;
+        }
+        prefetcher.prefetch(queued);
+      }
+    }
     return next;
   }
 
+  /**
+   * Returns the content of the given object, from the prefetched objects if it was prefetched.
+   */
+  InputStream openObject(S3ObjectSummary objectSummary) throws AmazonClientException, IOException {
+    if (prefetcher != null) {
+      return prefetcher.open(objectSummary);
+    }
+    return AmazonS3Util.getObject(s3Client, s3ConfigBean.s3Config.bucket, objectSummary.getKey()).getObjectContent();
+  }
+
   void postProcessOrErrorHandle(String postProcessObjectKey, PostProcessingOptions postProcessing, String postProcessBucket,
                                 String postProcessFolder, S3ArchivingOption archivingOption) {
     switch (postProcessing) {
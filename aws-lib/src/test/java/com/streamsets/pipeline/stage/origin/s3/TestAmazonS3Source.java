@@ -404,6 +404,8 @@ public class TestAmazonS3Source {
     s3ConfigBean.s3FileConfig = new S3FileConfig();
     s3ConfigBean.s3FileConfig.overrunLimit = 65*1000;
     s3ConfigBean.s3FileConfig.filePattern = "*.log";
+    s3ConfigBean.s3FileConfig.objectOrdering = ObjectOrdering.TIMESTAMP;
+    s3ConfigBean.s3FileConfig.prefetchObjects = 0;
 
     s3ConfigBean.s3Config = new S3Config();
     s3ConfigBean.s3Config.setEndPointForTest("http://localhost:" + port);
@@ -442,6 +444,8 @@ public class TestAmazonS3Source {
     s3ConfigBean.s3FileConfig = new S3FileConfig();
     s3ConfigBean.s3FileConfig.overrunLimit = 65*1000;
     s3ConfigBean.s3FileConfig.filePattern = "*.log";
+    s3ConfigBean.s3FileConfig.objectOrdering = ObjectOrdering.TIMESTAMP;
+    s3ConfigBean.s3FileConfig.prefetchObjects = 0;
 
     s3ConfigBean.s3Config = new S3Config();
     s3ConfigBean.s3Config.setEndPointForTest("http://localhost:" + port);
@@ -480,6 +484,8 @@ public class TestAmazonS3Source {
     s3ConfigBean.s3FileConfig = new S3FileConfig();
     s3ConfigBean.s3FileConfig.overrunLimit = 65*1000;
     s3ConfigBean.s3FileConfig.filePattern = "*.log";
+    s3ConfigBean.s3FileConfig.objectOrdering = ObjectOrdering.TIMESTAMP;
+    s3ConfigBean.s3FileConfig.prefetchObjects = 0;
 
     s3ConfigBean.s3Config = new S3Config();
     s3ConfigBean.s3Config.setEndPointForTest("http://localhost:" + port);
@@ -520,6 +526,8 @@ public class TestAmazonS3Source {
     s3ConfigBean.s3FileConfig = new S3FileConfig();
     s3ConfigBean.s3FileConfig.overrunLimit = 65*1000;
     s3ConfigBean.s3FileConfig.filePattern = "*.log";
+    s3ConfigBean.s3FileConfig.objectOrdering = ObjectOrdering.TIMESTAMP;
+    s3ConfigBean.s3FileConfig.prefetchObjects = 0;
 
     s3ConfigBean.s3Config = new S3Config();
     s3ConfigBean.s3Config.setEndPointForTest("http://localhost:" + port);
@@ -560,6 +568,8 @@ public class TestAmazonS3Source {
     s3ConfigBean.s3FileConfig = new S3FileConfig();
     s3ConfigBean.s3FileConfig.overrunLimit = 65*1000;
     s3ConfigBean.s3FileConfig.filePattern = "*.log";
+    s3ConfigBean.s3FileConfig.objectOrdering = ObjectOrdering.TIMESTAMP;
+    s3ConfigBean.s3FileConfig.prefetchObjects = 0;
 
     s3ConfigBean.s3Config = new S3Config();
     s3ConfigBean.s3Config.setEndPointForTest("http://localhost:" + port);
@@ -600,6 +610,8 @@ public class TestAmazonS3Source {
     s3ConfigBean.s3FileConfig = new S3FileConfig();
     s3ConfigBean.s3FileConfig.overrunLimit = 65*1000;
     s3ConfigBean.s3FileConfig.filePattern = "*.log";
+    s3ConfigBean.s3FileConfig.objectOrdering = ObjectOrdering.TIMESTAMP;
+    s3ConfigBean.s3FileConfig.prefetchObjects = 0;
 
     s3ConfigBean.s3Config = new S3Config();
     s3ConfigBean.s3Config.setEndPointForTest("http://localhost:" + port);
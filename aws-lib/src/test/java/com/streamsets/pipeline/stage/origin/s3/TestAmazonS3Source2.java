@@ -224,6 +224,8 @@ public class TestAmazonS3Source2 {
     s3ConfigBean.s3FileConfig = new S3FileConfig();
     s3ConfigBean.s3FileConfig.overrunLimit = 65*1000;
     s3ConfigBean.s3FileConfig.filePattern = "*/*/*.log";
+    s3ConfigBean.s3FileConfig.objectOrdering = ObjectOrdering.TIMESTAMP;
+    s3ConfigBean.s3FileConfig.prefetchObjects = 0;
 
     s3ConfigBean.s3Config = new S3Config();
     s3ConfigBean.s3Config.setEndPointForTest("http://localhost:" + port);
@@ -0,0 +1,211 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.s3;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.S3ClientOptions;
+import com.amazonaws.services.s3.iterable.S3Objects;
+import com.amazonaws.services.s3.model.CreateBucketRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.streamsets.pipeline.api.BatchMaker;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.config.DataFormat;
+import com.streamsets.pipeline.config.PostProcessingOptions;
+import com.streamsets.pipeline.sdk.SourceRunner;
+import com.streamsets.pipeline.sdk.StageRunner;
+import com.streamsets.pipeline.stage.origin.lib.BasicConfig;
+import com.streamsets.pipeline.stage.origin.lib.DataFormatConfig;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class TestAmazonS3Source3 {
+
+  private static String fakeS3Root;
+  private static ExecutorService executorService;
+  private static FakeS3 fakeS3;
+  private static AmazonS3Client s3client;
+  private static final String BUCKET_NAME = "mybucket3";
+  private static final String FOLDER_NAME = "myFolder/";
+  private static int port;
+
+  @BeforeClass
+  public static void setUpClass() throws IOException, InterruptedException {
+    File dir = new File(new File("target", UUID.randomUUID().toString()), "fakes3_root").getAbsoluteFile();
+    Assert.assertTrue(dir.mkdirs());
+    fakeS3Root = dir.getAbsolutePath();
+    port = getFreePort();
+    fakeS3 = new FakeS3(fakeS3Root, port);
+    Assume.assumeTrue("Please install fakes3 in your system", fakeS3.fakes3Installed());
+    //Start the fakes3 server
+    executorService = Executors.newSingleThreadExecutor();
+    executorService.submit(fakeS3);
+
+    populateFakes3();
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    if(executorService != null) {
+      executorService.shutdownNow();
+    }
+    if(fakeS3 != null) {
+      fakeS3.shutdown();
+    }
+  }
+
+  private static void populateFakes3() throws IOException, InterruptedException {
+    BasicAWSCredentials credentials = new BasicAWSCredentials("foo", "bar");
+    s3client = new AmazonS3Client(credentials);
+    s3client.setEndpoint("http://localhost:" + port);
+    s3client.setS3ClientOptions(new S3ClientOptions().withPathStyleAccess(true));
+
+    if(s3client.doesBucketExist(BUCKET_NAME)) {
+      for(S3ObjectSummary s : S3Objects.inBucket(s3client, BUCKET_NAME)) {
+        s3client.deleteObject(BUCKET_NAME, s.getKey());
+      }
+      s3client.deleteBucket(BUCKET_NAME);
+    }
+    s3client.createBucket(new CreateBucketRequest(BUCKET_NAME));
+
+    //upload in reverse lexicographical order so that chronological and lexicographical orders are different.
+    //the sleep makes sure the objects do not share the same last modified timestamp
+    for (String key : new String[] {"file3.log", "file2.log", "file1.log"}) {
+      InputStream in = new ByteArrayInputStream(("Hello " + key).getBytes());
+      s3client.putObject(new PutObjectRequest(BUCKET_NAME, FOLDER_NAME + key, in, new ObjectMetadata()));
+      Thread.sleep(1100);
+    }
+    //not matching the file name pattern
+    InputStream in = new ByteArrayInputStream("Hello World".getBytes());
+    s3client.putObject(new PutObjectRequest(BUCKET_NAME, FOLDER_NAME + "file0.txt", in, new ObjectMetadata()));
+  }
+
+  @Test
+  public void testProduceChronologically() throws Exception {
+    testProduce(createSource(ObjectOrdering.TIMESTAMP, 0), null, "file3.log", "file2.log", "file1.log");
+  }
+
+  @Test
+  public void testProduceLexicographically() throws Exception {
+    testProduce(createSource(ObjectOrdering.LEXICOGRAPHICAL, 0), null, "file1.log", "file2.log", "file3.log");
+  }
+
+  @Test
+  public void testProduceLexicographicallyFromOffset() throws Exception {
+    S3ObjectSummary file2 = AmazonS3Util.getObjectSummary(s3client, BUCKET_NAME, FOLDER_NAME + "file2.log");
+    Assert.assertNotNull(file2);
+
+    //file2.log completely processed, listing starts after it
+    String offset = FOLDER_NAME + "file2.log::-1::" + file2.getETag() + "::" + file2.getLastModified().getTime();
+    testProduce(createSource(ObjectOrdering.LEXICOGRAPHICAL, 0), offset, "file3.log");
+
+    //file2.log partially processed, it is picked up again
+    offset = FOLDER_NAME + "file2.log::0::" + file2.getETag() + "::" + file2.getLastModified().getTime();
+    testProduce(createSource(ObjectOrdering.LEXICOGRAPHICAL, 0), offset, "file2.log", "file3.log");
+  }
+
+  @Test
+  public void testProduceWithPrefetch() throws Exception {
+    testProduce(createSource(ObjectOrdering.TIMESTAMP, 2), null, "file3.log", "file2.log", "file1.log");
+    testProduce(createSource(ObjectOrdering.LEXICOGRAPHICAL, 1), null, "file1.log", "file2.log", "file3.log");
+  }
+
+  private void testProduce(AmazonS3Source source, String offset, String... expectedKeys) throws Exception {
+    SourceRunner runner = new SourceRunner.Builder(AmazonS3DSource.class, source).addOutputLane("lane").build();
+    runner.runInit();
+    try {
+      for (String key : expectedKeys) {
+        BatchMaker batchMaker = SourceRunner.createTestBatchMaker("lane");
+        offset = source.produce(offset, 60000, batchMaker);
+        Assert.assertNotNull(offset);
+        Assert.assertTrue(offset, offset.startsWith(FOLDER_NAME + key + "::-1::"));
+
+        StageRunner.Output output = SourceRunner.getOutput(batchMaker);
+        List<Record> records = output.getRecords().get("lane");
+        Assert.assertEquals(1, records.size());
+        Assert.assertEquals("Hello " + key, records.get(0).get("/text").getValueAsString());
+      }
+
+      //no more objects
+      BatchMaker batchMaker = SourceRunner.createTestBatchMaker("lane");
+      String lastOffset = source.produce(offset, 60000, batchMaker);
+      Assert.assertEquals(offset, lastOffset);
+      Assert.assertEquals(0, SourceRunner.getOutput(batchMaker).getRecords().get("lane").size());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  private AmazonS3Source createSource(ObjectOrdering objectOrdering, int prefetchObjects) {
+
+    S3ConfigBean s3ConfigBean = new S3ConfigBean();
+    s3ConfigBean.basicConfig = new BasicConfig();
+    s3ConfigBean.basicConfig.maxWaitTime = 1000;
+    s3ConfigBean.basicConfig.maxBatchSize = 60000;
+
+    s3ConfigBean.dataFormatConfig = new DataFormatConfig();
+    s3ConfigBean.dataFormat = DataFormat.TEXT;
+    s3ConfigBean.dataFormatConfig.charset = "UTF-8";
+    s3ConfigBean.dataFormatConfig.textMaxLineLen = 1024;
+
+    s3ConfigBean.errorConfig = new S3ErrorConfig();
+    s3ConfigBean.errorConfig.errorHandlingOption = PostProcessingOptions.NONE;
+
+    s3ConfigBean.postProcessingConfig = new S3PostProcessingConfig();
+    s3ConfigBean.postProcessingConfig.postProcessing = PostProcessingOptions.NONE;
+
+    s3ConfigBean.s3FileConfig = new S3FileConfig();
+    s3ConfigBean.s3FileConfig.overrunLimit = 65*1000;
+    s3ConfigBean.s3FileConfig.filePattern = "*.log";
+    s3ConfigBean.s3FileConfig.objectOrdering = objectOrdering;
+    s3ConfigBean.s3FileConfig.prefetchObjects = prefetchObjects;
+
+    s3ConfigBean.s3Config = new S3Config();
+    s3ConfigBean.s3Config.setEndPointForTest("http://localhost:" + port);
+    s3ConfigBean.s3Config.bucket = BUCKET_NAME;
+    s3ConfigBean.s3Config.accessKeyId = "foo";
+    s3ConfigBean.s3Config.secretAccessKey = "bar";
+    s3ConfigBean.s3Config.folder = FOLDER_NAME;
+    s3ConfigBean.s3Config.delimiter = "/";
+
+    return new AmazonS3Source(s3ConfigBean);
+  }
+
+  public static int getFreePort() throws IOException {
+    ServerSocket serverSocket = new ServerSocket(0);
+    int port = serverSocket.getLocalPort();
+    serverSocket.close();
+    return port;
+  }
+
+}
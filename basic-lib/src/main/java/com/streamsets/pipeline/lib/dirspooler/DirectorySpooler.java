@@ -296,34 +296,33 @@ public class DirectorySpooler {
     Preconditions.checkState(running, "Spool directory watcher not running");
     synchronized (this) {
       if (previousFile != null) {
-        switch (postProcessing) {
-          case NONE:
-            LOG.debug("Previous file '{}' remains in spool directory", previousFile);
-            break;
-          case DELETE:
-            try {
-              LOG.debug("Deleting previous file '{}'", previousFile);
-              Files.delete(previousFile);
-            } catch (IOException ex) {
-              throw new RuntimeException(Utils.format("Could not delete file '{}', {}", previousFile, ex.toString(),
-                                                      ex));
-            }
-            break;
-          case ARCHIVE:
-            try {
-              if (Files.exists(previousFile)) {
-                LOG.debug("Archiving previous file '{}'", previousFile);
-                Files.move(previousFile, archiveDirPath.resolve(previousFile.getFileName()));
-              }
-            } catch (IOException ex) {
-              throw new RuntimeException(Utils.format("Could not move file '{}' to archive dir {}, {}", previousFile,
-                                                      archiveDirPath, ex.toString(), ex));
-            }
-            break;
-        }
+        postProcess(previousFile);
         previousFile = null;
       }
     }
+    Path next = pollQueue(wait, timeUnit);
+    if (next != null) {
+      previousFile = next;
+    }
+    return (next != null) ? next.toFile() : null;
+  }
+
+  /**
+   * Returns the next file without post processing the files previously returned. The caller must post process the
+   * files it is done with, once their data has been committed, using {@link #postProcessFile(File)} or
+   * {@link #handleFileAsError(File)}.
+   * <p/>
+   * This allows callers to read files ahead of the file being committed.
+   */
+  public File readAheadFile(long wait, TimeUnit timeUnit) throws InterruptedException {
+    Preconditions.checkArgument(wait >= 0, "wait must be zero or greater");
+    Preconditions.checkNotNull(timeUnit, "timeUnit cannot be null");
+    Preconditions.checkState(running, "Spool directory watcher not running");
+    Path next = pollQueue(wait, timeUnit);
+    return (next != null) ? next.toFile() : null;
+  }
+
+  private Path pollQueue(long wait, TimeUnit timeUnit) {
     Path next = null;
     try {
       LOG.debug("Polling for file, waiting '{}' ms", TimeUnit.MILLISECONDS.convert(wait, timeUnit));
@@ -334,10 +333,41 @@ public class DirectorySpooler {
       LOG.debug("Polling for file returned '{}'", next);
       if (next != null) {
         currentFile = next.getFileName().toString();
-        previousFile = next;
       }
     }
-    return (next != null) ? next.toFile() : null;
+    return next;
+  }
+
+  public synchronized void postProcessFile(File file) {
+    Preconditions.checkNotNull(file, "file cannot be null");
+    postProcess(file.toPath());
+  }
+
+  private void postProcess(Path file) {
+    switch (postProcessing) {
+      case NONE:
+        LOG.debug("File '{}' remains in spool directory", file);
+        break;
+      case DELETE:
+        try {
+          LOG.debug("Deleting file '{}'", file);
+          Files.delete(file);
+        } catch (IOException ex) {
+          throw new RuntimeException(Utils.format("Could not delete file '{}', {}", file, ex.toString(), ex));
+        }
+        break;
+      case ARCHIVE:
+        try {
+          if (Files.exists(file)) {
+            LOG.debug("Archiving file '{}'", file);
+            Files.move(file, archiveDirPath.resolve(file.getFileName()));
+          }
+        } catch (IOException ex) {
+          throw new RuntimeException(Utils.format("Could not move file '{}' to archive dir {}, {}", file,
+                                                  archiveDirPath, ex.toString(), ex));
+        }
+        break;
+    }
   }
 
   public void handleCurrentFileAsError() throws IOException {
@@ -352,6 +382,17 @@ public class DirectorySpooler {
     }
   }
 
+  public synchronized void handleFileAsError(File file) throws IOException {
+    Preconditions.checkNotNull(file, "file cannot be null");
+    if (errorArchiveDirPath != null) {
+      Path current = spoolDirPath.resolve(file.toPath());
+      LOG.error("Archiving file in error '{}' in error archive directory '{}'", current, errorArchiveDirPath);
+      Files.move(current, errorArchiveDirPath.resolve(current.getFileName()));
+    } else {
+      LOG.error("Leaving file in error '{}' in spool directory", file);
+    }
+  }
+
   String findAndQueueFiles(final String startingFile, final boolean includeStartingFile, boolean checkCurrent)
       throws IOException {
     DirectoryStream.Filter<Path> filter = new DirectoryStream.Filter<Path>() {
@@ -38,13 +38,14 @@ import com.streamsets.pipeline.lib.parser.log.RegExConfig;
 import java.util.List;
 
 @StageDef(
-    version=1,
+    version=2,
     label="File Tail",
     description = "Tails a file. It handles rolling files within the same directory",
     icon="fileTail.png",
     execution = ExecutionMode.STANDALONE,
     outputStreams = FileTailOutputStreams.class,
-    recordsByRef = true
+    recordsByRef = true,
+    upgrader = FileTailSourceUpgrader.class
 )
 @RawSource(rawSourcePreviewer = FileRawSourcePreviewer.class)
 @ConfigGroups(Groups.class)
@@ -150,6 +151,18 @@ public class FileTailDSource extends DSource {
   @ListBeanModel
   public List<FileInfo> fileInfos;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.BOOLEAN,
+      defaultValue = "false",
+      label = "Use File System Events",
+      description = "Reads files only when the file system notifies changes in their directories instead of " +
+                    "checking all files continuously. Files are still checked periodically as fallback",
+      displayPosition = 70,
+      group = "FILES"
+  )
+  public boolean useFileSystemEvents;
+
   // Post processing
 
   @ConfigDef(
@@ -311,7 +324,7 @@ public class FileTailDSource extends DSource {
     return new FileTailSource(dataFormat, multiLineMainPattern, charset, removeCtrlChars, maxLineLength, batchSize,
                               maxWaitTimeSecs, fileInfos, postProcessing, archiveDir, logMode, retainOriginalLine,
                               customLogFormat, regex, fieldPathsToGroupName, grokPatternDefinition, grokPattern,
-                              enableLog4jCustomLogFormat, log4jCustomLogFormat);
+                              enableLog4jCustomLogFormat, log4jCustomLogFormat, useFileSystemEvents);
   }
 
 }
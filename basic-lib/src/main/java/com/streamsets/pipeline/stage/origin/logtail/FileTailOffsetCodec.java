@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.logtail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.binary.Base64;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes and decodes the offsets of all tailed files.
+ * <p/>
+ * Offsets are encoded in a compact binary form, sorted by file key with each key stored as the suffix that differs
+ * from the previous key, deflated and in Base64. The encoded entries are cached and only the entries of files whose offset changed
+ * since the previous batch are encoded again. The offsets last encoded are kept, so if the source gets back the same
+ * offset string it does not decode it again.
+ * <p/>
+ * Offsets encoded in JSON by previous versions are still decoded.
+ * <p/>
+ * It is not thread safe.
+ */
+class FileTailOffsetCodec {
+  static final String BINARY_PREFIX = "2:";
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static class Entry {
+    private final String value;
+    private final byte[] encoded;
+
+    public Entry(String value, byte[] encoded) {
+      this.value = value;
+      this.encoded = encoded;
+    }
+  }
+
+  private final Deflater deflater;
+  private final Map<String, Entry> entries;
+  private List<String> keys;
+  private String lastOffset;
+  private Map<String, String> lastOffsetMap;
+
+  public FileTailOffsetCodec() {
+    deflater = new Deflater(Deflater.BEST_SPEED);
+    entries = new HashMap<>();
+    keys = Collections.emptyList();
+  }
+
+  /**
+   * Decodes an offset string, the returned map must not be modified.
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, String> decode(String offset) throws IOException {
+    Map<String, String> map;
+    if (offset == null) {
+      map = new HashMap<>();
+    } else if (offset.equals(lastOffset)) {
+      map = lastOffsetMap;
+    } else {
+      if (offset.startsWith(BINARY_PREFIX)) {
+        map = decodeBinary(offset);
+      } else {
+        map = OBJECT_MAPPER.readValue(offset, Map.class);
+      }
+      lastOffset = offset;
+      lastOffsetMap = Collections.unmodifiableMap(map);
+    }
+    return map;
+  }
+
+  private Map<String, String> decodeBinary(String offset) throws IOException {
+    byte[] bytes = Base64.decodeBase64(offset.substring(BINARY_PREFIX.length()));
+    try (DataInputStream dis = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(bytes)))) {
+      int count = dis.readInt();
+      Map<String, String> map = new HashMap<>(count * 2);
+      String previousKey = "";
+      for (int i = 0; i < count; i++) {
+        int prefixLen = dis.readInt();
+        String key = previousKey.substring(0, prefixLen) + dis.readUTF();
+        map.put(key, dis.readUTF());
+        previousKey = key;
+      }
+      return map;
+    } catch (RuntimeException ex) {
+      throw new IOException(ex.toString(), ex);
+    }
+  }
+
+  /**
+   * Encodes the offsets, encoding again only the entries that changed since the previous call.
+   */
+  public String encode(Map<String, String> map) throws IOException {
+    if (!map.keySet().equals(entries.keySet())) {
+      // files were added or removed, the entries depend on the previous key so we encode all of them
+      entries.clear();
+      keys = new ArrayList<>(map.keySet());
+      Collections.sort(keys);
+    }
+    ByteArrayOutputStream baos = new ByteArrayOutputStream(keys.size() * 32 + 16);
+    deflater.reset();
+    DeflaterOutputStream deflaterOs = new DeflaterOutputStream(baos, deflater, 8 * 1024);
+    DataOutputStream dos = new DataOutputStream(deflaterOs);
+    dos.writeInt(keys.size());
+    String previousKey = "";
+    for (String key : keys) {
+      String value = map.get(key);
+      Entry entry = entries.get(key);
+      if (entry == null || !entry.value.equals(value)) {
+        entry = new Entry(value, encodeEntry(previousKey, key, value));
+        entries.put(key, entry);
+      }
+      dos.write(entry.encoded);
+      previousKey = key;
+    }
+    dos.flush();
+    // finishing instead of closing as closing would end the reused deflater
+    deflaterOs.finish();
+    lastOffset = BINARY_PREFIX + Base64.encodeBase64String(baos.toByteArray());
+    lastOffsetMap = Collections.unmodifiableMap(new HashMap<>(map));
+    return lastOffset;
+  }
+
+  private static byte[] encodeEntry(String previousKey, String key, String value) throws IOException {
+    int prefixLen = 0;
+    int maxPrefixLen = Math.min(previousKey.length(), key.length());
+    while (prefixLen < maxPrefixLen && previousKey.charAt(prefixLen) == key.charAt(prefixLen)) {
+      prefixLen++;
+    }
+    ByteArrayOutputStream baos = new ByteArrayOutputStream(value.length() + key.length() - prefixLen + 8);
+    try (DataOutputStream dos = new DataOutputStream(baos)) {
+      dos.writeInt(prefixLen);
+      dos.writeUTF(key.substring(prefixLen));
+      dos.writeUTF(value);
+    }
+    return baos.toByteArray();
+  }
+
+}
@@ -17,7 +17,6 @@
  */
 package com.streamsets.pipeline.stage.origin.logtail;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.streamsets.pipeline.api.BatchMaker;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
@@ -91,6 +90,7 @@ public class FileTailSource extends BaseSource {
   private final boolean enableLog4jCustomLogFormat;
   private final String log4jCustomLogFormat;
   private final int scanIntervalSecs;
+  private final boolean useFileSystemEvents;
 
   public FileTailSource(DataFormat dataFormat, String multiLineMainPattern, String charset,  boolean removeCtrlChars,
       int maxLineLength, int batchSize,
@@ -99,14 +99,13 @@ public class FileTailSource extends BaseSource {
       boolean retainOriginalLine, String customLogFormat, String regex,
       List<RegExConfig> fieldPathsToGroupName,
       String grokPatternDefinition, String grokPattern, boolean enableLog4jCustomLogFormat,
-      String log4jCustomLogFormat) {
+      String log4jCustomLogFormat, boolean useFileSystemEvents) {
     this(dataFormat, multiLineMainPattern, charset, removeCtrlChars, maxLineLength, batchSize, maxWaitTimeSecs,
          fileInfos, postProcessing, archiveDir,
          logMode, retainOriginalLine, customLogFormat, regex, fieldPathsToGroupName, grokPatternDefinition,
-         grokPattern, enableLog4jCustomLogFormat, log4jCustomLogFormat, 20);
+         grokPattern, enableLog4jCustomLogFormat, log4jCustomLogFormat, 20, useFileSystemEvents);
   }
 
-
   FileTailSource(DataFormat dataFormat, String multiLineMainPattern, String charset, boolean removeCtrlChars,
       int maxLineLength, int batchSize, int maxWaitTimeSecs, List<FileInfo> fileInfos,
       PostProcessingOptions postProcessing, String archiveDir, LogMode logMode,
@@ -114,6 +113,19 @@ public class FileTailSource extends BaseSource {
       List<RegExConfig> fieldPathsToGroupName,
       String grokPatternDefinition, String grokPattern, boolean enableLog4jCustomLogFormat,
       String log4jCustomLogFormat, int scanIntervalSecs) {
+    this(dataFormat, multiLineMainPattern, charset, removeCtrlChars, maxLineLength, batchSize, maxWaitTimeSecs,
+         fileInfos, postProcessing, archiveDir,
+         logMode, retainOriginalLine, customLogFormat, regex, fieldPathsToGroupName, grokPatternDefinition,
+         grokPattern, enableLog4jCustomLogFormat, log4jCustomLogFormat, scanIntervalSecs, false);
+  }
+
+  FileTailSource(DataFormat dataFormat, String multiLineMainPattern, String charset, boolean removeCtrlChars,
+      int maxLineLength, int batchSize, int maxWaitTimeSecs, List<FileInfo> fileInfos,
+      PostProcessingOptions postProcessing, String archiveDir, LogMode logMode,
+      boolean retainOriginalLine, String customLogFormat, String regex,
+      List<RegExConfig> fieldPathsToGroupName,
+      String grokPatternDefinition, String grokPattern, boolean enableLog4jCustomLogFormat,
+      String log4jCustomLogFormat, int scanIntervalSecs, boolean useFileSystemEvents) {
     this.dataFormat = dataFormat;
     this.multiLineMainPattern = multiLineMainPattern;
     this.charset = charset;
@@ -134,6 +146,7 @@ public class FileTailSource extends BaseSource {
     this.enableLog4jCustomLogFormat = enableLog4jCustomLogFormat;
     this.log4jCustomLogFormat = log4jCustomLogFormat;
     this.scanIntervalSecs = scanIntervalSecs;
+    this.useFileSystemEvents = useFileSystemEvents;
   }
 
   private MultiFileReader multiDirReader;
@@ -248,7 +261,8 @@ public class FileTailSource extends BaseSource {
         try {
           int scanIntervalSecs = (getContext().isPreview()) ? 0 : this.scanIntervalSecs;
           multiDirReader = new MultiFileReader(dirInfos, Charset.forName(charset), maxLineLength,
-                                                    postProcessing, archiveDir, true, scanIntervalSecs);
+                                                    postProcessing, archiveDir, true, scanIntervalSecs,
+                                                    useFileSystemEvents);
         } catch (IOException ex) {
           issues.add(getContext().createConfigIssue(Groups.FILES.name(), "fileInfos", Errors.TAIL_02, ex.toString(), ex));
         }
@@ -305,26 +319,19 @@ public class FileTailSource extends BaseSource {
   }
 
 
-  private final static ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private final FileTailOffsetCodec offsetCodec = new FileTailOffsetCodec();
 
-  @SuppressWarnings("unchecked")
   private Map<String, String> deserializeOffsetMap(String lastSourceOffset) throws StageException {
-    Map<String, String> map;
-    if (lastSourceOffset == null) {
-      map = new HashMap<>();
-    } else {
-      try {
-        map = OBJECT_MAPPER.readValue(lastSourceOffset, Map.class);
-      } catch (IOException ex) {
-        throw new StageException(Errors.TAIL_10, ex.toString(), ex);
-      }
+    try {
+      return offsetCodec.decode(lastSourceOffset);
+    } catch (IOException ex) {
+      throw new StageException(Errors.TAIL_10, ex.toString(), ex);
     }
-    return map;
   }
 
   private String serializeOffsetMap(Map<String, String> map) throws StageException {
     try {
-      return OBJECT_MAPPER.writeValueAsString(map);
+      return offsetCodec.encode(map);
     } catch (IOException ex) {
       throw new StageException(Errors.TAIL_13, ex.toString(), ex);
     }
@@ -355,7 +362,8 @@ public class FileTailSource extends BaseSource {
    first file (according to the defined order) in the directory, or if a 'first file' as been set in the configuration,
    we start from that file.
 
-   We encode in lastSourceOffset the current file and offset from all directories in JSON.
+   We encode in lastSourceOffset the current file and offset from all directories using the FileTailOffsetCodec,
+   offsets encoded in JSON by previous versions are still read.
   */
   @Override
   public String produce(String lastSourceOffset, int maxBatchSize, BatchMaker batchMaker) throws StageException {
@@ -53,6 +53,9 @@ public enum Errors implements ErrorCode {
   SPOOLDIR_30("RegEx {} contains {} groups but the field Path to group mapping specifies group {}."),
   SPOOLDIR_31("Error parsing grok pattern {}, reason {}"),
   SPOOLDIR_32("File Pattern cannot be empty"),
+  SPOOLDIR_33("Parsing threads cannot be less than 1"),
+  SPOOLDIR_34("Parsing with more than one thread is not supported for '{}'"),
+  SPOOLDIR_35("Concurrent files cannot be less than 1"),
   ;
 
   private final String msg;
@@ -51,7 +51,7 @@ import com.streamsets.pipeline.lib.parser.log.RegExConfig;
 import java.util.List;
 
 @StageDef(
-    version = 3,
+    version = 5,
     label = "Directory",
     description = "Reads files from a directory",
     icon="directory.png",
@@ -200,6 +200,36 @@ public class SpoolDirDSource extends DSource {
   @ValueChooserModel(FileCompressionChooserValues.class)
   public FileCompression fileCompression;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1",
+      label = "Parsing Threads",
+      description = "Number of threads parsing a file concurrently. Records must not span lines, multi-line " +
+                    "delimited values and log stack traces are not supported with more than one thread.",
+      displayPosition = 80,
+      group = "FILES",
+      dependsOn = "dataFormat",
+      triggeredByValue = { "TEXT", "JSON", "DELIMITED", "LOG" },
+      min = 1,
+      max = Integer.MAX_VALUE
+  )
+  public int parserThreads;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1",
+      label = "Concurrent Files",
+      description = "Number of files opened, decompressed and parsed concurrently. The next files are read ahead " +
+                    "while the current one is consumed, records are produced in file order.",
+      displayPosition = 85,
+      group = "FILES",
+      min = 1,
+      max = Integer.MAX_VALUE
+  )
+  public int concurrentFiles;
+
 
   @ConfigDef(
       required = false,
@@ -623,7 +653,7 @@ public class SpoolDirDSource extends DSource {
       jsonContent, jsonMaxObjectLen, textMaxObjectLen, xmlRecordElement, xmlMaxObjectLen, logMode,
       logMaxObjectLen, retainOriginalLine, customLogFormat, regex, fieldPathsToGroupName, grokPatternDefinition,
       grokPattern, enableLog4jCustomLogFormat, log4jCustomLogFormat, onParseError, maxStackTraceLines, avroSchema,
-      csvRecordType);
+      csvRecordType, parserThreads, concurrentFiles);
   }
 
 }
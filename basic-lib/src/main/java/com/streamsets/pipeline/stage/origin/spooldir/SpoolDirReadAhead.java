@@ -0,0 +1,265 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.spooldir;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.lib.dirspooler.DirectorySpooler;
+import com.streamsets.pipeline.lib.io.ObjectLengthException;
+import com.streamsets.pipeline.lib.parser.DataParser;
+import com.streamsets.pipeline.lib.parser.DataParserException;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens, decompresses and parses the next files of the spool directory in the background while the current file is
+ * being consumed.
+ * <p/>
+ * Up to <code>maxFiles</code> files, including the one being consumed, are read concurrently. Each file buffers up
+ * to <code>maxRecords</code> records, the file reader blocks until the buffered records are consumed. Files are
+ * handed out in the spooler order, so records are consumed in the same order they would be consumed without
+ * read-ahead.
+ * <p/>
+ * Files are taken from the spooler with {@link DirectorySpooler#readAheadFile(long, TimeUnit)}, the caller must post
+ * process them once their records have been committed.
+ */
+class SpoolDirReadAhead {
+  private static final Logger LOG = LoggerFactory.getLogger(SpoolDirReadAhead.class);
+  private static final String ZERO = "0";
+  private static final String MINUS_ONE = "-1";
+
+  interface ParserCreator {
+
+    DataParser create(File file, String offset) throws IOException, DataParserException;
+
+  }
+
+  private static class Entry {
+    private final Record record;
+    private final String offset;
+    private final Exception error;
+
+    private Entry(Record record, String offset, Exception error) {
+      this.record = record;
+      this.offset = offset;
+      this.error = error;
+    }
+  }
+
+  private static final Entry EOF = new Entry(null, MINUS_ONE, null);
+
+  private class FileReader implements Runnable {
+    private final File file;
+    private final BlockingQueue<Entry> entries;
+    private Future<?> future;
+
+    private FileReader(File file) {
+      this.file = file;
+      entries = new ArrayBlockingQueue<>(maxRecords);
+    }
+
+    @Override
+    public void run() {
+      DataParser parser = null;
+      try {
+        parser = parserCreator.create(file, ZERO);
+        boolean eof = false;
+        while (!eof) {
+          try {
+            Record record = parser.parse();
+            eof = record == null;
+            entries.put((eof) ? EOF : new Entry(record, parser.getOffset(), null));
+          } catch (ObjectLengthException ex) {
+            // the parser skips the object and continues
+            entries.put(new Entry(null, null, ex));
+          }
+        }
+      } catch (InterruptedException ex) {
+        LOG.debug("Read-ahead of file '{}' cancelled", file);
+      } catch (Exception ex) {
+        try {
+          entries.put(new Entry(null, null, ex));
+        } catch (InterruptedException ex1) {
+          LOG.debug("Read-ahead of file '{}' cancelled", file);
+        }
+      } finally {
+        IOUtils.closeQuietly(parser);
+      }
+    }
+
+    private void cancel() {
+      future.cancel(true);
+    }
+  }
+
+  // exposes the records read ahead as a parser, errors are thrown in the same order the file parser threw them
+  private static class ReadAheadParser implements DataParser {
+    private final FileReader reader;
+    private String offset;
+    private boolean eof;
+
+    private ReadAheadParser(FileReader reader) {
+      this.reader = reader;
+      offset = ZERO;
+    }
+
+    @Override
+    public Record parse() throws IOException, DataParserException {
+      Record record = null;
+      if (!eof) {
+        Entry entry;
+        try {
+          entry = reader.entries.take();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while waiting for records of file " + reader.file);
+        }
+        if (entry.error != null) {
+          eof = !(entry.error instanceof ObjectLengthException);
+          if (entry.error instanceof IOException) {
+            throw (IOException) entry.error;
+          } else if (entry.error instanceof DataParserException) {
+            throw (DataParserException) entry.error;
+          } else if (entry.error instanceof RuntimeException) {
+            throw (RuntimeException) entry.error;
+          }
+          throw new IOException(entry.error);
+        }
+        eof = entry == EOF;
+        offset = entry.offset;
+        record = entry.record;
+      }
+      return record;
+    }
+
+    @Override
+    public String getOffset() {
+      return offset;
+    }
+
+    @Override
+    public void close() {
+      reader.cancel();
+    }
+  }
+
+  private final DirectorySpooler spooler;
+  private final ParserCreator parserCreator;
+  private final int maxFiles;
+  private final int maxRecords;
+  private final ExecutorService executor;
+  private final Deque<FileReader> readers;
+  private FileReader next;
+
+  public SpoolDirReadAhead(DirectorySpooler spooler, ParserCreator parserCreator, int maxFiles, int maxRecords) {
+    Preconditions.checkArgument(maxFiles > 1, "maxFiles must be greater than one");
+    Preconditions.checkArgument(maxRecords > 0, "maxRecords must be greater than zero");
+    this.spooler = spooler;
+    this.parserCreator = parserCreator;
+    this.maxFiles = maxFiles;
+    this.maxRecords = maxRecords;
+    executor = Executors.newFixedThreadPool(maxFiles, new ThreadFactoryBuilder()
+        .setNameFormat("SpoolDirSource-read-ahead-%d").setDaemon(true).build());
+    readers = new ArrayDeque<>(maxFiles);
+  }
+
+  private FileReader start(File file) {
+    LOG.debug("Reading ahead file '{}'", file);
+    FileReader reader = new FileReader(file);
+    reader.future = executor.submit(reader);
+    return reader;
+  }
+
+  // the file being consumed is not in the deque, it keeps up to maxFiles - 1 files being read ahead
+  private void fill() throws InterruptedException {
+    while (readers.size() < maxFiles - 1) {
+      File file = spooler.readAheadFile(0, TimeUnit.SECONDS);
+      if (file == null) {
+        break;
+      }
+      readers.add(start(file));
+    }
+  }
+
+  /**
+   * Returns the next file from the spooler, waiting for it if there are no files being read ahead. The file must be
+   * consumed with a parser from {@link #getParser(File, String)} before asking for the next file, otherwise its
+   * read-ahead is discarded.
+   */
+  public File nextFile(long wait, TimeUnit timeUnit) throws InterruptedException {
+    if (next != null) {
+      next.cancel();
+      next = null;
+    }
+    fill();
+    if (readers.isEmpty()) {
+      File file = spooler.readAheadFile(wait, timeUnit);
+      if (file != null) {
+        readers.add(start(file));
+      }
+    }
+    next = readers.poll();
+    fill();
+    return (next != null) ? next.file : null;
+  }
+
+  /**
+   * Returns a parser for the last file returned by {@link #nextFile(long, TimeUnit)}. If the file is not consumed from
+   * the beginning, the read-ahead is discarded and the parser is created in the calling thread.
+   */
+  public DataParser getParser(File file, String offset) throws IOException, DataParserException {
+    DataParser parser;
+    if (next != null && next.file.equals(file) && ZERO.equals(offset)) {
+      parser = new ReadAheadParser(next);
+    } else {
+      if (next != null) {
+        next.cancel();
+      }
+      parser = parserCreator.create(file, offset);
+    }
+    next = null;
+    return parser;
+  }
+
+  public void destroy() {
+    if (next != null) {
+      next.cancel();
+      next = null;
+    }
+    for (FileReader reader : readers) {
+      reader.cancel();
+    }
+    readers.clear();
+    executor.shutdownNow();
+  }
+
+}
@@ -17,6 +17,7 @@
  */
 package com.streamsets.pipeline.stage.origin.spooldir;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.streamsets.pipeline.api.BatchMaker;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
@@ -39,6 +40,7 @@ import com.streamsets.pipeline.lib.parser.DataParser;
 import com.streamsets.pipeline.lib.parser.DataParserException;
 import com.streamsets.pipeline.lib.parser.DataParserFactory;
 import com.streamsets.pipeline.lib.parser.DataParserFactoryBuilder;
+import com.streamsets.pipeline.lib.parser.ParallelDataParser;
 import com.streamsets.pipeline.lib.parser.avro.AvroDataParserFactory;
 import com.streamsets.pipeline.lib.parser.delimited.DelimitedDataParserFactory;
 import com.streamsets.pipeline.lib.parser.log.LogDataFormatValidator;
@@ -50,13 +52,18 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 import java.nio.file.PathMatcher;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 public class SpoolDirSource extends BaseSource {
@@ -67,6 +74,7 @@ public class SpoolDirSource extends BaseSource {
   private static final String NULL_FILE = "NULL_FILE_ID-48496481-5dc5-46ce-9c31-3ab3e034730c";
   private static final int MIN_OVERRUN_LIMIT = 64 * 1024;
   private static final int MAX_OVERRUN_LIMIT = 1024 * 1024;
+  private static final int PARALLEL_FRAGMENT_SIZE = 256 * 1024;
 
   private final DataFormat dataFormat;
   private final String charset;
@@ -108,6 +116,8 @@ public class SpoolDirSource extends BaseSource {
   private final OnParseError onParseError;
   private final String avroSchema;
   private final CsvRecordType csvRecordType;
+  private final int parserThreads;
+  private final int concurrentFiles;
 
   public SpoolDirSource(DataFormat dataFormat, String charset, boolean removeCtrlChars, int overrunLimit,
       String spoolDir, int batchSize, long poolingTimeoutSecs,
@@ -120,6 +130,26 @@ public class SpoolDirSource extends BaseSource {
       String grokPatternDefinition, String grokPattern, boolean enableLog4jCustomLogFormat,
       String log4jCustomLogFormat, OnParseError onParseError, int maxStackTraceLines, String avroSchema,
       CsvRecordType csvRecordType) {
+    this(dataFormat, charset, removeCtrlChars, overrunLimit, spoolDir, batchSize, poolingTimeoutSecs, filePattern,
+         maxSpoolFiles, initialFileToProcess, fileCompression, errorArchiveDir, postProcessing, archiveDir,
+         retentionTimeMins, csvFileFormat, csvHeader, csvMaxObjectLen, csvCustomDelimiter, csvCustomEscape,
+         csvCustomQuote, jsonContent, jsonMaxObjectLen, textMaxLineLen, xmlRecordElement, xmlMaxObjectLen, logMode,
+         logMaxObjectLen, retainOriginalLine, customLogFormat, regex, fieldPathsToGroupName, grokPatternDefinition,
+         grokPattern, enableLog4jCustomLogFormat, log4jCustomLogFormat, onParseError, maxStackTraceLines, avroSchema,
+         csvRecordType, 1, 1);
+  }
+
+  public SpoolDirSource(DataFormat dataFormat, String charset, boolean removeCtrlChars, int overrunLimit,
+      String spoolDir, int batchSize, long poolingTimeoutSecs,
+      String filePattern, int maxSpoolFiles, String initialFileToProcess, FileCompression fileCompression,
+      String errorArchiveDir, PostProcessingOptions postProcessing, String archiveDir, long retentionTimeMins,
+      CsvMode csvFileFormat, CsvHeader csvHeader, int csvMaxObjectLen, char csvCustomDelimiter, char csvCustomEscape,
+      char csvCustomQuote, JsonMode jsonContent, int jsonMaxObjectLen,
+      int textMaxLineLen, String xmlRecordElement, int xmlMaxObjectLen, LogMode logMode, int logMaxObjectLen,
+      boolean retainOriginalLine, String customLogFormat, String regex, List<RegExConfig> fieldPathsToGroupName,
+      String grokPatternDefinition, String grokPattern, boolean enableLog4jCustomLogFormat,
+      String log4jCustomLogFormat, OnParseError onParseError, int maxStackTraceLines, String avroSchema,
+      CsvRecordType csvRecordType, int parserThreads, int concurrentFiles) {
     this.dataFormat = dataFormat;
     this.charset = charset;
     this.removeCtrlChars = removeCtrlChars;
@@ -160,6 +190,8 @@ public class SpoolDirSource extends BaseSource {
     this.maxStackTraceLines = maxStackTraceLines;
     this.avroSchema = avroSchema;
     this.csvRecordType = csvRecordType;
+    this.parserThreads = parserThreads;
+    this.concurrentFiles = concurrentFiles;
   }
 
   private Charset fileCharset;
@@ -168,6 +200,9 @@ public class SpoolDirSource extends BaseSource {
   private DataParserFactory parserFactory;
   private DataParser parser;
   private LogDataFormatValidator logDataFormatValidator;
+  private ExecutorService parserExecutor;
+  private SpoolDirReadAhead readAhead;
+  private final List<File> completedFiles = new ArrayList<>();
 
   @Override
   protected List<ConfigIssue> init() {
@@ -195,6 +230,12 @@ public class SpoolDirSource extends BaseSource {
 
     validateInitialFileToProcess(issues);
 
+    validateParserThreads(issues);
+
+    if (concurrentFiles < 1) {
+      issues.add(getContext().createConfigIssue(Groups.FILES.name(), "concurrentFiles", Errors.SPOOLDIR_35));
+    }
+
     if (errorArchiveDir != null && !errorArchiveDir.isEmpty()) {
       validateDir(errorArchiveDir, Groups.POST_PROCESSING.name(), "errorArchiveDir", issues);
     }
@@ -275,11 +316,53 @@ public class SpoolDirSource extends BaseSource {
       builder.setContext(getContext());
       spooler = builder.build();
       spooler.init(initialFileToProcess);
+
+      if (parserThreads > 1) {
+        parserExecutor = Executors.newFixedThreadPool(parserThreads, new ThreadFactoryBuilder()
+            .setNameFormat("SpoolDirSource-parser-%d").setDaemon(true).build());
+      }
+      if (concurrentFiles > 1) {
+        readAhead = new SpoolDirReadAhead(spooler, new SpoolDirReadAhead.ParserCreator() {
+          @Override
+          public DataParser create(File file, String offset) throws IOException, DataParserException {
+            return createParser(file, offset);
+          }
+        }, concurrentFiles, batchSize);
+      }
     }
 
     return issues;
   }
 
+  // a file can be parsed by multiple threads only if its records do not span lines
+  private void validateParserThreads(List<ConfigIssue> issues) {
+    if (parserThreads < 1) {
+      issues.add(getContext().createConfigIssue(Groups.FILES.name(), "parserThreads", Errors.SPOOLDIR_33));
+    } else if (parserThreads > 1) {
+      switch (dataFormat) {
+        case TEXT:
+        case DELIMITED:
+          break;
+        case JSON:
+          if (jsonContent != JsonMode.MULTIPLE_OBJECTS) {
+            issues.add(getContext().createConfigIssue(Groups.FILES.name(), "parserThreads", Errors.SPOOLDIR_34,
+                                                      jsonContent));
+          }
+          break;
+        case LOG:
+          if (onParseError != OnParseError.ERROR) {
+            issues.add(getContext().createConfigIssue(Groups.FILES.name(), "parserThreads", Errors.SPOOLDIR_34,
+                                                      onParseError));
+          }
+          break;
+        default:
+          issues.add(getContext().createConfigIssue(Groups.FILES.name(), "parserThreads", Errors.SPOOLDIR_34,
+                                                    dataFormat));
+          break;
+      }
+    }
+  }
+
   private void validateDir(String dir, String group, String config, List<ConfigIssue> issues) {
     if (dir.isEmpty()) {
       issues.add(getContext().createConfigIssue(group, config, Errors.SPOOLDIR_11));
@@ -383,6 +466,12 @@ public class SpoolDirSource extends BaseSource {
   @Override
   public void destroy() {
     IOUtils.closeQuietly(parser);
+    if (readAhead != null) {
+      readAhead.destroy();
+    }
+    if (parserExecutor != null) {
+      parserExecutor.shutdownNow();
+    }
     if (spooler != null) {
       spooler.destroy();
     }
@@ -459,6 +548,9 @@ public class SpoolDirSource extends BaseSource {
 
   @Override
   public String produce(String lastSourceOffset, int maxBatchSize, BatchMaker batchMaker) throws StageException {
+    if (readAhead != null) {
+      return produceReadAhead(lastSourceOffset, maxBatchSize, batchMaker);
+    }
     int batchSize = Math.min(this.batchSize, maxBatchSize);
     // if lastSourceOffset is NULL (beginning of source) it returns NULL
     String file = getFileFromSourceOffset(lastSourceOffset);
@@ -522,6 +614,121 @@ public class SpoolDirSource extends BaseSource {
     return createSourceOffset(file, offset);
   }
 
+  private static class CountingBatchMaker implements BatchMaker {
+    private final BatchMaker batchMaker;
+    private int count;
+
+    public CountingBatchMaker(BatchMaker batchMaker) {
+      this.batchMaker = batchMaker;
+    }
+
+    @Override
+    public List<String> getLanes() {
+      return batchMaker.getLanes();
+    }
+
+    @Override
+    public void addRecord(Record record, String... lanes) {
+      batchMaker.addRecord(record, lanes);
+      count++;
+    }
+
+    public int getCount() {
+      return count;
+    }
+  }
+
+  /**
+   * Produces a batch with read-ahead. A batch may span multiple files, files are consumed in the spooler order so the
+   * offset of the last file in the batch is enough to resume, all the previous files have been fully consumed.
+   * Files fully consumed are post processed on the next invocation, once the batch with their last records has been
+   * committed.
+   */
+  private String produceReadAhead(String lastSourceOffset, int maxBatchSize, BatchMaker batchMaker)
+      throws StageException {
+    for (File file : completedFiles) {
+      spooler.postProcessFile(file);
+    }
+    completedFiles.clear();
+
+    int batchSize = Math.min(this.batchSize, maxBatchSize);
+    String file = getFileFromSourceOffset(lastSourceOffset);
+    String offset = getOffsetFromSourceOffset(lastSourceOffset);
+    CountingBatchMaker countingBatchMaker = new CountingBatchMaker(batchMaker);
+    // waits for files only if nothing has been done yet, otherwise the batch is returned
+    long wait = poolingTimeoutSecs;
+    boolean done = false;
+    while (!done) {
+      if (hasToFetchNextFileFromSpooler(file, offset)) {
+        currentFile = null;
+        try {
+          File nextAvailFile = null;
+          do {
+            if (nextAvailFile != null) {
+              LOG.warn("Ignoring file '{}' in spool directory as is lesser than offset file '{}'",
+                       nextAvailFile.getName(), file);
+              completedFiles.add(nextAvailFile);
+            }
+            nextAvailFile = readAhead.nextFile(wait, TimeUnit.SECONDS);
+          } while (!isFileFromSpoolerEligible(nextAvailFile, file, offset));
+
+          if (nextAvailFile != null) {
+            currentFile = nextAvailFile;
+            if (file == null || nextAvailFile.getName().compareTo(file) > 0) {
+              file = currentFile.getName();
+              offset = ZERO;
+            }
+          } else {
+            LOG.debug("No new file available in spool directory after '{}' secs", wait);
+          }
+        } catch (InterruptedException ex) {
+          LOG.warn("Pooling interrupted");
+        }
+      }
+
+      if (currentFile != null) {
+        try {
+          offset = produce(currentFile, offset, batchSize - countingBatchMaker.getCount(), countingBatchMaker);
+          if (MINUS_ONE.equals(offset)) {
+            completedFiles.add(currentFile);
+          }
+        } catch (BadSpoolFileException ex) {
+          LOG.error(Errors.SPOOLDIR_01.getMessage(), ex.getFile(), ex.getPos(), ex.toString(), ex);
+          getContext().reportError(Errors.SPOOLDIR_01, ex.getFile(), ex.getPos(), ex.toString());
+          try {
+            spooler.handleFileAsError(currentFile);
+          } catch (IOException ex1) {
+            throw new StageException(Errors.SPOOLDIR_00, currentFile, ex1.toString(), ex1);
+          }
+          offset = MINUS_ONE;
+        }
+        wait = 0;
+      }
+      done = currentFile == null || !MINUS_ONE.equals(offset) || countingBatchMaker.getCount() >= batchSize;
+    }
+    return createSourceOffset(file, offset);
+  }
+
+  // with read-ahead it is also called by the read-ahead threads, files are opened concurrently but parsers are
+  // created holding the factory lock as factories are not required to be thread safe
+  private DataParser createParser(File file, String offset) throws IOException, DataParserException {
+    if (dataFormat == DataFormat.AVRO) {
+      synchronized (parserFactory) {
+        return parserFactory.getParser(file, offset);
+      }
+    }
+    InputStream is = fileCompression.open(file);
+    if (parserExecutor != null) {
+      return new ParallelDataParser(parserFactory, file.getName(), new InputStreamReader(is, fileCharset),
+                                    Long.parseLong(offset),
+                                    dataFormat == DataFormat.DELIMITED && csvHeader != CsvHeader.NO_HEADER,
+                                    parserExecutor, 2 * parserThreads, PARALLEL_FRAGMENT_SIZE);
+    }
+    synchronized (parserFactory) {
+      return parserFactory.getParser(file.getName(), is, Long.parseLong(offset));
+    }
+  }
+
   /**
    * Processes a batch from the specified file and offset up to a maximum batch size. If the file is fully process
    * it must return -1, otherwise it must return the offset to continue from next invocation.
@@ -531,11 +738,7 @@ public class SpoolDirSource extends BaseSource {
     String sourceFile = file.getName();
     try {
       if (parser == null) {
-        if (dataFormat == DataFormat.AVRO) {
-          parser = parserFactory.getParser(file, offset);
-        } else {
-          parser = parserFactory.getParser(file.getName(), fileCompression.open(file), Long.parseLong(offset));
-        }
+        parser = (readAhead != null) ? readAhead.getParser(file, offset) : createParser(file, offset);
       }
       for (int i = 0; i < maxBatchSize; i++) {
         try {
@@ -33,6 +33,10 @@ public class SpoolDirSourceUpgrader implements StageUpgrader {
         upgradeV1ToV2(configs);
       case 2:
         upgradeV2ToV3(configs);
+      case 3:
+        upgradeV3ToV4(configs);
+      case 4:
+        upgradeV4ToV5(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -50,4 +54,12 @@ public class SpoolDirSourceUpgrader implements StageUpgrader {
   private void upgradeV2ToV3(List<Config> configs) {
     configs.add(new Config("csvRecordType", "LIST"));
   }
+
+  private void upgradeV3ToV4(List<Config> configs) {
+    configs.add(new Config("parserThreads", 1));
+  }
+
+  private void upgradeV4ToV5(List<Config> configs) {
+    configs.add(new Config("concurrentFiles", 1));
+  }
 }
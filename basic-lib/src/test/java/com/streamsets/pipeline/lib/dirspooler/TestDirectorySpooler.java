@@ -203,6 +203,43 @@ public class TestDirectorySpooler {
     spooler.destroy();
   }
 
+  @Test
+  public void testReadAheadDelete() throws Exception {
+    Assert.assertTrue(spoolDir.mkdirs());
+    File logFile1 = new File(spoolDir, "x1.log").getAbsoluteFile();
+    new FileWriter(logFile1).close();
+    File logFile2 = new File(spoolDir, "x2.log").getAbsoluteFile();
+    new FileWriter(logFile2).close();
+    File logFile3 = new File(spoolDir, "x3.log").getAbsoluteFile();
+    new FileWriter(logFile3).close();
+    DirectorySpooler.Builder builder = DirectorySpooler.builder();
+    DirectorySpooler spooler = builder.setContext(context).setDir(spoolDir.getAbsolutePath()).
+        setFilePattern("x[0-9]*.log").setMaxSpoolFiles(3).setPostProcessing(DirectorySpooler.FilePostProcessing.DELETE).
+        build();
+    spooler.init("x1.log");
+
+    // files read ahead are not post processed until requested
+    Assert.assertEquals(logFile1, spooler.readAheadFile(0, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(logFile2, spooler.readAheadFile(0, TimeUnit.MILLISECONDS));
+    Assert.assertEquals("x2.log", spooler.getCurrentFile());
+    Assert.assertEquals(3, spoolDir.list().length);
+
+    spooler.postProcessFile(logFile2);
+    Assert.assertEquals(2, spoolDir.list().length);
+    Assert.assertTrue(logFile1.exists());
+    Assert.assertFalse(logFile2.exists());
+
+    Assert.assertEquals(logFile3, spooler.readAheadFile(0, TimeUnit.MILLISECONDS));
+    Assert.assertNull(spooler.readAheadFile(0, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(2, spoolDir.list().length);
+
+    spooler.postProcessFile(logFile1);
+    spooler.postProcessFile(logFile3);
+    Assert.assertEquals(0, spoolDir.list().length);
+
+    spooler.destroy();
+  }
+
   @Test
   public void testArchive() throws Exception {
     Assert.assertTrue(spoolDir.mkdirs());
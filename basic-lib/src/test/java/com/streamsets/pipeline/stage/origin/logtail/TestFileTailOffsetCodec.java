@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.logtail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestFileTailOffsetCodec {
+
+  private static Map<String, String> createOffsets(int files) {
+    Map<String, String> offsets = new HashMap<>();
+    for (int i = 0; i < files; i++) {
+      offsets.put("/var/log/app" + i + "/app.log||", i + "::{\"path\":\"/var/log/app" + i + "/app.log\"}");
+    }
+    offsets.put("/var/log/empty/app.log||", "");
+    return offsets;
+  }
+
+  @Test
+  public void testNullOffset() throws Exception {
+    Assert.assertTrue(new FileTailOffsetCodec().decode(null).isEmpty());
+  }
+
+  @Test
+  public void testJsonOffset() throws Exception {
+    Map<String, String> offsets = createOffsets(10);
+    String json = new ObjectMapper().writeValueAsString(offsets);
+    Assert.assertEquals(offsets, new FileTailOffsetCodec().decode(json));
+  }
+
+  @Test
+  public void testEncodeDecode() throws Exception {
+    FileTailOffsetCodec codec = new FileTailOffsetCodec();
+    Map<String, String> offsets = createOffsets(100);
+    String encoded = codec.encode(offsets);
+    Assert.assertTrue(encoded.startsWith(FileTailOffsetCodec.BINARY_PREFIX));
+    Assert.assertTrue(encoded.length() < new ObjectMapper().writeValueAsString(offsets).length());
+
+    // decoded from the cached offsets
+    Assert.assertEquals(offsets, codec.decode(encoded));
+    // decoded from the binary encoding
+    Assert.assertEquals(offsets, new FileTailOffsetCodec().decode(encoded));
+  }
+
+  @Test
+  public void testEncodeChanges() throws Exception {
+    FileTailOffsetCodec codec = new FileTailOffsetCodec();
+    Map<String, String> offsets = createOffsets(100);
+    codec.encode(offsets);
+
+    // changed entry
+    offsets.put("/var/log/app5/app.log||", "1000::{\"path\":\"/var/log/app5/app.log\"}");
+    String encoded = codec.encode(offsets);
+    Assert.assertEquals(offsets, new FileTailOffsetCodec().decode(encoded));
+
+    // added and removed entries
+    offsets.remove("/var/log/app7/app.log||");
+    offsets.put("/var/log/app7/other.log||", "");
+    encoded = codec.encode(offsets);
+    Assert.assertEquals(offsets, new FileTailOffsetCodec().decode(encoded));
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidOffset() throws Exception {
+    new FileTailOffsetCodec().decode(FileTailOffsetCodec.BINARY_PREFIX + "AAAAAQ");
+  }
+
+}
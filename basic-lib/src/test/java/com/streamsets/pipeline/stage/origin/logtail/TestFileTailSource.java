@@ -482,14 +482,16 @@ public class TestFileTailSource {
       runner.runInit();
       StageRunner.Output output = runner.runProduce(null, 10);
       output = runner.runProduce(output.getNewOffset(), 10);
-      Assert.assertTrue(output.getNewOffset().contains("log1.txt"));
-      Assert.assertTrue(output.getNewOffset().contains("log2.txt"));
+      String offsets = new FileTailOffsetCodec().decode(output.getNewOffset()).toString();
+      Assert.assertTrue(offsets.contains("log1.txt"));
+      Assert.assertTrue(offsets.contains("log2.txt"));
       Files.delete(file1);
       Files.delete(testDataDir1.toPath());
       output = runner.runProduce(output.getNewOffset(), 10);
       output = runner.runProduce(output.getNewOffset(), 10);
-      Assert.assertFalse(output.getNewOffset().contains("log1.txt"));
-      Assert.assertTrue(output.getNewOffset().contains("log2.txt"));
+      offsets = new FileTailOffsetCodec().decode(output.getNewOffset()).toString();
+      Assert.assertFalse(offsets.contains("log1.txt"));
+      Assert.assertTrue(offsets.contains("log2.txt"));
     } finally {
       runner.runDestroy();
     }
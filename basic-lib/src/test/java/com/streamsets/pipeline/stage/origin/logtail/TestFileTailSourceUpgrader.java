@@ -0,0 +1,40 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.logtail;
+
+import com.streamsets.pipeline.api.Config;
+import com.streamsets.pipeline.api.StageException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestFileTailSourceUpgrader {
+
+  @Test
+  public void testFileTailSourceUpgrader() throws StageException {
+    FileTailSourceUpgrader fileTailSourceUpgrader = new FileTailSourceUpgrader();
+
+    List<Config> upgrade = fileTailSourceUpgrader.upgrade("x", "y", "z", 1, 2, new ArrayList<Config>());
+    Assert.assertEquals(1, upgrade.size());
+    Assert.assertEquals("useFileSystemEvents", upgrade.get(0).getName());
+    Assert.assertEquals(false, upgrade.get(0).getValue());
+  }
+
+}
@@ -31,8 +31,8 @@ public class TestSpoolDirSourceUpgrader {
   public void testSpoolDirSourceUpgrader() throws StageException {
     SpoolDirSourceUpgrader spoolDirSourceUpgrader = new SpoolDirSourceUpgrader();
 
-    List<Config> upgrade = spoolDirSourceUpgrader.upgrade("x", "y", "z", 1, 3, new ArrayList<Config>());
-    Assert.assertEquals(5, upgrade.size());
+    List<Config> upgrade = spoolDirSourceUpgrader.upgrade("x", "y", "z", 1, 5, new ArrayList<Config>());
+    Assert.assertEquals(7, upgrade.size());
     Assert.assertEquals("fileCompression", upgrade.get(0).getName());
     Assert.assertEquals("AUTOMATIC", upgrade.get(0).getValue());
     Assert.assertEquals("csvCustomDelimiter", upgrade.get(1).getName());
@@ -43,6 +43,10 @@ public class TestSpoolDirSourceUpgrader {
     Assert.assertEquals('\"', upgrade.get(3).getValue());
     Assert.assertEquals("csvRecordType", upgrade.get(4).getName());
     Assert.assertEquals("LIST", upgrade.get(4).getValue());
+    Assert.assertEquals("parserThreads", upgrade.get(5).getName());
+    Assert.assertEquals(1, upgrade.get(5).getValue());
+    Assert.assertEquals("concurrentFiles", upgrade.get(6).getName());
+    Assert.assertEquals(1, upgrade.get(6).getValue());
 
   }
 
@@ -58,15 +58,23 @@ public class TestTextSpoolDirSource {
   }
 
   private SpoolDirSource createSource(String charset) {
+    return createSource(charset, 1);
+  }
+
+  private SpoolDirSource createSource(String charset, int parserThreads) {
+    return createSource(charset, parserThreads, 1);
+  }
+
+  private SpoolDirSource createSource(String charset, int parserThreads, int concurrentFiles) {
     return new SpoolDirSource(DataFormat.TEXT, charset, false, 100, createTestDir(), 10, 1, "file-[0-9].log", 10, null,
       FileCompression.NONE, null,
       PostProcessingOptions.ARCHIVE, createTestDir(), 10, null, null, -1, '^', '^', '^', null, 0, 10,
       null, 0, null, 0, false, null, null, null, null, null, false, null, OnParseError.ERROR,
-      -1, null, CsvRecordType.LIST);
+      -1, null, CsvRecordType.LIST, parserThreads, concurrentFiles);
   }
 
-  public void testProduceFullFile(String charset) throws Exception {
-    SpoolDirSource source = createSource(charset);
+  public void testProduceFullFile(String charset, int parserThreads) throws Exception {
+    SpoolDirSource source = createSource(charset, parserThreads);
     SourceRunner runner = new SourceRunner.Builder(SpoolDirDSource.class, source).addOutputLane("lane").build();
     runner.runInit();
     try {
@@ -87,17 +95,31 @@ public class TestTextSpoolDirSource {
 
   @Test
   public void testProduceFullFileUTF8() throws Exception {
-    testProduceFullFile("UTF-8");
+    testProduceFullFile("UTF-8", 1);
   }
 
   @Test
   public void testProduceFullFileIBM500() throws Exception {
-    testProduceFullFile("IBM500");
+    testProduceFullFile("IBM500", 1);
+  }
+
+  @Test
+  public void testProduceFullFileParallel() throws Exception {
+    testProduceFullFile("UTF-8", 4);
   }
 
   @Test
   public void testProduceLessThanFile() throws Exception {
-    SpoolDirSource source = createSource("UTF-8");
+    testProduceLessThanFile(1);
+  }
+
+  @Test
+  public void testProduceLessThanFileParallel() throws Exception {
+    testProduceLessThanFile(4);
+  }
+
+  private void testProduceLessThanFile(int parserThreads) throws Exception {
+    SpoolDirSource source = createSource("UTF-8", parserThreads);
     SourceRunner runner = new SourceRunner.Builder(SpoolDirDSource.class, source).addOutputLane("lane").build();
     runner.runInit();
     try {
@@ -134,4 +156,53 @@ public class TestTextSpoolDirSource {
     }
   }
 
+  @Test
+  public void testProduceConcurrentFiles() throws Exception {
+    SpoolDirSource source = createSource("UTF-8", 1, 3);
+    File[] files = new File[5];
+    for (int i = 0; i < files.length; i++) {
+      files[i] = new File(source.spoolDir, "file-" + i + ".log");
+      IOUtils.write("a" + i + "\nb" + i + "\n", new FileOutputStream(files[i]), "UTF-8");
+    }
+    SourceRunner runner = new SourceRunner.Builder(SpoolDirDSource.class, source).addOutputLane("lane").build();
+    runner.runInit();
+    try {
+      // a batch spans multiple files
+      StageRunner.Output output = runner.runProduce(null, 5);
+      List<Record> records = output.getRecords().get("lane");
+      Assert.assertEquals(5, records.size());
+      String[] expected = {"a0", "b0", "a1", "b1", "a2"};
+      for (int i = 0; i < expected.length; i++) {
+        Assert.assertEquals(expected[i], records.get(i).get().getValueAsMap().get("text").getValueAsString());
+      }
+      Assert.assertEquals("file-2.log::3", output.getNewOffset());
+      // files are archived only after the batch with their records has been committed
+      Assert.assertTrue(files[0].exists());
+      Assert.assertTrue(files[1].exists());
+
+      output = runner.runProduce(output.getNewOffset(), 5);
+      records = output.getRecords().get("lane");
+      Assert.assertEquals(5, records.size());
+      expected = new String[]{"b2", "a3", "b3", "a4", "b4"};
+      for (int i = 0; i < expected.length; i++) {
+        Assert.assertEquals(expected[i], records.get(i).get().getValueAsMap().get("text").getValueAsString());
+      }
+      // the batch is full before reaching the end of the last file
+      Assert.assertEquals("file-4.log::6", output.getNewOffset());
+      Assert.assertFalse(files[0].exists());
+      Assert.assertFalse(files[1].exists());
+      Assert.assertTrue(files[2].exists());
+      Assert.assertTrue(files[3].exists());
+
+      output = runner.runProduce(output.getNewOffset(), 5);
+      Assert.assertEquals(0, output.getRecords().get("lane").size());
+      Assert.assertEquals("file-4.log::-1", output.getNewOffset());
+      Assert.assertFalse(files[2].exists());
+      Assert.assertFalse(files[3].exists());
+      Assert.assertTrue(files[4].exists());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
 }
@@ -0,0 +1,262 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.benchmark;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.lib.generator.DataGenerator;
+import com.streamsets.pipeline.lib.generator.avro.AvroDataOutputStreamGenerator;
+import com.streamsets.pipeline.lib.generator.avro.AvroMessageGenerator;
+import com.streamsets.pipeline.lib.parser.DataParser;
+import com.streamsets.pipeline.lib.parser.avro.AvroDataFileParser;
+import com.streamsets.pipeline.lib.parser.avro.AvroMessageParser;
+import com.streamsets.pipeline.lib.util.AvroTypeUtil;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
+import com.streamsets.pipeline.stage.devtest.RandomDataGeneratorSource;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.file.SeekableFileInput;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Avro parsing and generation going through Avro generic records converted with {@link AvroTypeUtil} (the former
+ * parser and generator path, GENERIC) versus the Avro parsers and generators reading and writing Fields directly
+ * (FIELDS).
+ * <p/>
+ * 'parseDataFile' is the Directory origin path (an Avro data file), 'parseMessage' and 'generateMessage' are the Kafka
+ * path (one binary encoded record per message, no schema) and 'generateDataFile' is the Hadoop FS destination path
+ * (an Avro data file). Scores are records per second, the 'bytes' secondary score is bytes of Avro data per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AvroBenchmark {
+  private static final int RECORDS = 1000;
+  private static final int MAX_OBJECT_LEN = 4096;
+
+  private static final String SCHEMA = "{\n"
+      + "\"type\": \"record\",\n"
+      + "\"name\": \"Benchmark\",\n"
+      + "\"fields\": [\n"
+      + " {\"name\": \"name\", \"type\": \"string\"},\n"
+      + " {\"name\": \"age\", \"type\": \"int\"},\n"
+      + " {\"name\": \"id\", \"type\": \"long\"},\n"
+      + " {\"name\": \"salary\", \"type\": \"double\"},\n"
+      + " {\"name\": \"ratio\", \"type\": \"float\"},\n"
+      + " {\"name\": \"dob\", \"type\": \"long\"},\n"
+      + " {\"name\": \"active\", \"type\": \"boolean\"},\n"
+      + " {\"name\": \"address\", \"type\": [\"null\", \"string\"]}\n"
+      + "]}";
+
+  @Param({"GENERIC", "FIELDS"})
+  public String codec;
+
+  private Stage.Context context;
+  private Schema schema;
+  private List<Record> records;
+  private byte[][] messages;
+  private long messagesSize;
+  private File dataFile;
+  private ByteArrayOutputStream output;
+
+  @Setup
+  public void setup() throws Exception {
+    context = ContextInfoCreator.createSourceContext("benchmark", false, OnRecordError.TO_ERROR,
+                                                     Collections.<String>emptyList());
+    schema = new Schema.Parser().setValidate(true).parse(SCHEMA);
+    records = BenchmarkRecords.generate(RECORDS, RandomDataGeneratorSource.RootType.MAP);
+    for (Record record : records) {
+      // Avro 1.7 has no date type
+      record.set("/dob", Field.create(record.get("/dob").getValueAsDate().getTime()));
+    }
+    messages = new byte[RECORDS][];
+    output = new ByteArrayOutputStream();
+    messagesSize = 0;
+    for (int i = 0; i < RECORDS; i++) {
+      output.reset();
+      DataGenerator generator = new AvroMessageGenerator(output, SCHEMA);
+      generator.write(records.get(i));
+      generator.close();
+      messages[i] = output.toByteArray();
+      messagesSize += messages[i].length;
+    }
+    dataFile = File.createTempFile("avro-benchmark", ".avro");
+    try (OutputStream os = new FileOutputStream(dataFile)) {
+      DataGenerator generator = new AvroDataOutputStreamGenerator(os, SCHEMA);
+      for (Record record : records) {
+        generator.write(record);
+      }
+      generator.close();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (!dataFile.delete()) {
+      dataFile.deleteOnExit();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void parseDataFile(Blackhole blackhole, ByteCounter counter) throws Exception {
+    counter.bytes += dataFile.length();
+    switch (codec) {
+      case "GENERIC":
+        try (DataFileReader<GenericRecord> reader = new DataFileReader<>(new SeekableFileInput(dataFile),
+            new GenericDatumReader<GenericRecord>(schema))) {
+          GenericRecord avroRecord = null;
+          for (int i = 0; reader.hasNext(); i++) {
+            avroRecord = reader.next(avroRecord);
+            Record record = context.createRecord("benchmark::" + i);
+            record.set(AvroTypeUtil.avroToSdcField(record, schema, avroRecord));
+            blackhole.consume(record);
+          }
+        }
+        break;
+      case "FIELDS":
+        try (DataParser parser = new AvroDataFileParser(context, schema, dataFile, null, MAX_OBJECT_LEN)) {
+          for (Record record = parser.parse(); record != null; record = parser.parse()) {
+            blackhole.consume(record);
+          }
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported codec: " + codec);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void parseMessage(Blackhole blackhole, ByteCounter counter) throws Exception {
+    counter.bytes += messagesSize;
+    switch (codec) {
+      case "GENERIC":
+        GenericDatumReader<GenericRecord> datumReader = new GenericDatumReader<>(schema);
+        BinaryDecoder decoder = null;
+        for (int i = 0; i < RECORDS; i++) {
+          decoder = DecoderFactory.get().binaryDecoder(messages[i], decoder);
+          GenericRecord avroRecord = datumReader.read(null, decoder);
+          Record record = context.createRecord("benchmark::" + i);
+          record.set(AvroTypeUtil.avroToSdcField(record, schema, avroRecord));
+          blackhole.consume(record);
+        }
+        break;
+      case "FIELDS":
+        for (int i = 0; i < RECORDS; i++) {
+          try (DataParser parser = new AvroMessageParser(context, schema, messages[i], "benchmark::" + i, false)) {
+            blackhole.consume(parser.parse());
+          }
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported codec: " + codec);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void generateMessage(Blackhole blackhole, ByteCounter counter) throws Exception {
+    output.reset();
+    switch (codec) {
+      case "GENERIC":
+        GenericDatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(output, null);
+        for (Record record : records) {
+          datumWriter.write((GenericRecord) AvroTypeUtil.sdcRecordToAvro(record, schema), encoder);
+        }
+        encoder.flush();
+        break;
+      case "FIELDS":
+        DataGenerator generator = new AvroMessageGenerator(output, SCHEMA);
+        for (Record record : records) {
+          generator.write(record);
+        }
+        generator.close();
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported codec: " + codec);
+    }
+    counter.bytes += output.size();
+    blackhole.consume(output.size());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void generateDataFile(Blackhole blackhole, ByteCounter counter) throws Exception {
+    output.reset();
+    switch (codec) {
+      case "GENERIC":
+        try (DataFileWriter<GenericRecord> writer =
+                 new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(schema))) {
+          writer.create(schema, output);
+          for (Record record : records) {
+            writer.append((GenericRecord) AvroTypeUtil.sdcRecordToAvro(record, schema));
+          }
+        }
+        break;
+      case "FIELDS":
+        DataGenerator generator = new AvroDataOutputStreamGenerator(output, SCHEMA);
+        for (Record record : records) {
+          generator.write(record);
+        }
+        generator.close();
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported codec: " + codec);
+    }
+    counter.bytes += output.size();
+    blackhole.consume(output.size());
+  }
+
+}
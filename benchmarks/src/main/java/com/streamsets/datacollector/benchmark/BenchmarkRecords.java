@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.benchmark;
+
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.sdk.SourceRunner;
+import com.streamsets.pipeline.sdk.StageRunner;
+import com.streamsets.pipeline.stage.devtest.RandomDataGeneratorSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Produces the records the benchmarks run against using the dev-lib {@link RandomDataGeneratorSource}, so the data
+ * has the same shape as the one seen when exercising a pipeline with the 'Dev Data Generator' origin.
+ * <p/>
+ * The source pauses after every batch, records are generated once in a single batch during the benchmark setup and
+ * the benchmarks work on clones of them.
+ */
+public class BenchmarkRecords {
+  public static final String LANE = "lane";
+
+  private BenchmarkRecords() {
+  }
+
+  private static RandomDataGeneratorSource.DataGeneratorConfig createConfig(String field,
+      RandomDataGeneratorSource.Type type) {
+    RandomDataGeneratorSource.DataGeneratorConfig config = new RandomDataGeneratorSource.DataGeneratorConfig();
+    config.field = field;
+    config.type = type;
+    return config;
+  }
+
+  public static List<RandomDataGeneratorSource.DataGeneratorConfig> createConfigs() {
+    List<RandomDataGeneratorSource.DataGeneratorConfig> configs = new ArrayList<>();
+    configs.add(createConfig("name", RandomDataGeneratorSource.Type.STRING));
+    configs.add(createConfig("age", RandomDataGeneratorSource.Type.INTEGER));
+    configs.add(createConfig("id", RandomDataGeneratorSource.Type.LONG));
+    configs.add(createConfig("salary", RandomDataGeneratorSource.Type.DOUBLE));
+    configs.add(createConfig("ratio", RandomDataGeneratorSource.Type.FLOAT));
+    configs.add(createConfig("dob", RandomDataGeneratorSource.Type.DATE));
+    configs.add(createConfig("active", RandomDataGeneratorSource.Type.BOOLEAN));
+    configs.add(createConfig("address", RandomDataGeneratorSource.Type.STRING));
+    return configs;
+  }
+
+  public static List<Record> generate(int count, RandomDataGeneratorSource.RootType rootType) throws StageException {
+    SourceRunner runner = new SourceRunner.Builder(RandomDataGeneratorSource.class)
+        .addConfiguration("dataGenConfigs", createConfigs())
+        .addConfiguration("rootFieldType", rootType)
+        .addOutputLane(LANE)
+        .build();
+    runner.runInit();
+    try {
+      StageRunner.Output output = runner.runProduce(null, count);
+      return output.getRecords().get(LANE);
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  public static List<Record> copy(List<Record> records) {
+    List<Record> copy = new ArrayList<>(records.size());
+    for (Record record : records) {
+      copy.add(((RecordImpl) record).clone());
+    }
+    return copy;
+  }
+
+  /**
+   * Returns the records, which must have a list-map root field, as CSV with a header line.
+   */
+  public static String toCsv(List<Record> records) {
+    StringBuilder sb = new StringBuilder();
+    String separator = "";
+    for (String name : records.get(0).get().getValueAsListMap().keySet()) {
+      sb.append(separator).append(name);
+      separator = ",";
+    }
+    sb.append('\n');
+    for (Record record : records) {
+      separator = "";
+      for (Field field : record.get().getValueAsListMap().values()) {
+        sb.append(separator).append(field.getValueAsString());
+        separator = ",";
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.benchmark;
+
+import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.config.CsvHeader;
+import com.streamsets.pipeline.config.CsvMode;
+import com.streamsets.pipeline.config.JsonMode;
+import com.streamsets.pipeline.lib.generator.DataGenerator;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFactoryBuilder;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFormat;
+import com.streamsets.pipeline.lib.parser.DataParser;
+import com.streamsets.pipeline.lib.parser.DataParserFactory;
+import com.streamsets.pipeline.lib.parser.DataParserFactoryBuilder;
+import com.streamsets.pipeline.lib.parser.DataParserFormat;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
+import com.streamsets.pipeline.stage.devtest.RandomDataGeneratorSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * commonlib parser and generator benchmarks, scores are records per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DataFormatBenchmark {
+  private static final int RECORDS = 1000;
+  private static final int MAX_DATA_LEN = 4096;
+
+  @Param({"JSON", "DELIMITED"})
+  public String format;
+
+  private DataParserFactory parserFactory;
+  private DataGeneratorFactory generatorFactory;
+  private byte[] data;
+  private List<Record> records;
+  private ByteArrayOutputStream output;
+
+  @Setup
+  public void setup() throws Exception {
+    Stage.Context context = ContextInfoCreator.createSourceContext("benchmark", false, OnRecordError.TO_ERROR,
+                                                                   Collections.<String>emptyList());
+    List<Record> generated = BenchmarkRecords.generate(RECORDS, RandomDataGeneratorSource.RootType.LIST_MAP);
+    switch (format) {
+      case "JSON":
+        parserFactory = new DataParserFactoryBuilder(context, DataParserFormat.JSON)
+            .setMode(JsonMode.MULTIPLE_OBJECTS).setMaxDataLen(MAX_DATA_LEN).build();
+        generatorFactory = new DataGeneratorFactoryBuilder(context, DataGeneratorFormat.JSON)
+            .setMode(JsonMode.MULTIPLE_OBJECTS).build();
+        data = write(generatorFactory, generated);
+        break;
+      case "DELIMITED":
+        parserFactory = new DataParserFactoryBuilder(context, DataParserFormat.DELIMITED)
+            .setMode(CsvMode.CSV).setMode(CsvHeader.WITH_HEADER).setMaxDataLen(MAX_DATA_LEN).build();
+        generatorFactory = new DataGeneratorFactoryBuilder(context, DataGeneratorFormat.DELIMITED)
+            .setMode(CsvMode.CSV).setMode(CsvHeader.WITH_HEADER).build();
+        data = BenchmarkRecords.toCsv(generated).getBytes(StandardCharsets.UTF_8);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported format: " + format);
+    }
+    // the generators expect the record structure the parser of the same format produces
+    records = parseAll();
+    output = new ByteArrayOutputStream(data.length * 2);
+  }
+
+  private static byte[] write(DataGeneratorFactory factory, List<Record> records) throws Exception {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    DataGenerator generator = factory.getGenerator(os);
+    for (Record record : records) {
+      generator.write(record);
+    }
+    generator.close();
+    return os.toByteArray();
+  }
+
+  private List<Record> parseAll() throws Exception {
+    List<Record> parsed = new ArrayList<>(RECORDS);
+    try (DataParser parser = parserFactory.getParser("benchmark", data)) {
+      for (Record record = parser.parse(); record != null; record = parser.parse()) {
+        parsed.add(record);
+      }
+    }
+    return parsed;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void parse(Blackhole blackhole) throws Exception {
+    try (DataParser parser = parserFactory.getParser("benchmark", data)) {
+      for (Record record = parser.parse(); record != null; record = parser.parse()) {
+        blackhole.consume(record);
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void generate(Blackhole blackhole) throws Exception {
+    output.reset();
+    DataGenerator generator = generatorFactory.getGenerator(output);
+    for (Record record : records) {
+      generator.write(record);
+    }
+    generator.close();
+    blackhole.consume(output.size());
+  }
+
+}
@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.benchmark;
+
+import com.streamsets.datacollector.el.ELEvaluator;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.el.ELVars;
+import com.streamsets.pipeline.lib.el.RecordEL;
+import com.streamsets.pipeline.lib.el.StringEL;
+import com.streamsets.pipeline.stage.devtest.RandomDataGeneratorSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EL engine benchmarks, scores are evaluations per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ELBenchmark {
+  private static final int RECORDS = 1000;
+
+  @Param({
+      "${record:value('/age') > 30}",
+      "${str:toUpper(record:value('/name'))}",
+      "${record:value('/salary') * 1.1 + record:value('/age')}"
+  })
+  public String expression;
+
+  private List<Record> records;
+  private ELEvaluator evaluator;
+  private ELEvaluator.CompiledExpression<Object> compiled;
+  private ELVars variables;
+
+  @Setup
+  public void setup() throws Exception {
+    records = BenchmarkRecords.generate(RECORDS, RandomDataGeneratorSource.RootType.MAP);
+    evaluator = new ELEvaluator("benchmark", RecordEL.class, StringEL.class);
+    compiled = evaluator.compile(expression, Object.class);
+    variables = evaluator.createVariables();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void evaluate(Blackhole blackhole) throws Exception {
+    for (Record record : records) {
+      RecordEL.setRecordInContext(variables, record);
+      blackhole.consume(evaluator.evaluate(variables, expression, Object.class));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void evaluateCompiled(Blackhole blackhole) throws Exception {
+    for (Record record : records) {
+      RecordEL.setRecordInContext(variables, record);
+      blackhole.consume(compiled.evaluate(variables));
+    }
+  }
+
+}
@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.benchmark;
+
+import com.streamsets.datacollector.runner.BatchImpl;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.lib.jdbc.JdbcGenericRecordWriter;
+import com.streamsets.pipeline.stage.destination.jdbc.JdbcFieldMappingConfig;
+import com.streamsets.pipeline.stage.devtest.RandomDataGeneratorSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generic JDBC writer inserting into an in-memory H2 table, one INSERT per record (SINGLE_ROW) versus multi-row
+ * INSERTs (MULTI_ROW).
+ * <p/>
+ * Scores are rows per second. The batch size is not a power of two, so multi-row INSERTs also exercise the smaller
+ * statements written for the tail of the batch. The table is truncated after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JdbcBenchmark {
+  private static final String CONNECTION_STRING = "jdbc:h2:mem:benchmark";
+  private static final String TABLE_NAME = "BENCHMARK";
+  private static final int RECORDS = 1000;
+
+  @Param({"SINGLE_ROW", "MULTI_ROW"})
+  public String mode;
+
+  private HikariDataSource dataSource;
+  private Connection connection;
+  private JdbcGenericRecordWriter writer;
+  private List<Record> records;
+
+  @Setup
+  public void setup() throws Exception {
+    HikariConfig config = new HikariConfig();
+    config.setJdbcUrl(CONNECTION_STRING);
+    config.setAutoCommit(false);
+    config.setMaximumPoolSize(2);
+    dataSource = new HikariDataSource(config);
+    // keeps the in-memory database alive
+    connection = dataSource.getConnection();
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE " + TABLE_NAME + " (NAME VARCHAR(255), AGE INT, ID BIGINT, SALARY DOUBLE, " +
+          "RATIO REAL, DOB DATE, ACTIVE BOOLEAN, ADDRESS VARCHAR(255))");
+    }
+    connection.commit();
+
+    List<JdbcFieldMappingConfig> mappings = new ArrayList<>();
+    for (RandomDataGeneratorSource.DataGeneratorConfig generatorConfig : BenchmarkRecords.createConfigs()) {
+      mappings.add(new JdbcFieldMappingConfig("/" + generatorConfig.field, generatorConfig.field.toUpperCase()));
+    }
+    writer = new JdbcGenericRecordWriter(CONNECTION_STRING, dataSource, TABLE_NAME, false, mappings,
+        "MULTI_ROW".equals(mode));
+    records = BenchmarkRecords.generate(RECORDS, RandomDataGeneratorSource.RootType.MAP);
+  }
+
+  @TearDown(Level.Iteration)
+  public void truncate() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("TRUNCATE TABLE " + TABLE_NAME);
+    }
+    connection.commit();
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    writer.destroy();
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE " + TABLE_NAME);
+    }
+    connection.commit();
+    connection.close();
+    dataSource.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void write(Blackhole blackhole) throws Exception {
+    blackhole.consume(writer.writeBatch(new BatchImpl("benchmark", "0", records)));
+  }
+
+}
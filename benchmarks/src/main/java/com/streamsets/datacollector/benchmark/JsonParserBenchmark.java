@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.benchmark;
+
+import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.config.JsonMode;
+import com.streamsets.pipeline.lib.generator.DataGenerator;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFactoryBuilder;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFormat;
+import com.streamsets.pipeline.lib.io.OverrunReader;
+import com.streamsets.pipeline.lib.json.OverrunStreamingJsonParser;
+import com.streamsets.pipeline.lib.json.StreamingJsonParser;
+import com.streamsets.pipeline.lib.parser.json.JsonCharDataParser;
+import com.streamsets.pipeline.lib.util.JsonUtil;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
+import com.streamsets.pipeline.stage.devtest.RandomDataGeneratorSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON parsing into records, building the record Fields from the Jackson object tree (the former JsonCharDataParser
+ * path) versus building them straight from the Jackson tokens (JsonCharDataParser).
+ * <p/>
+ * Scores are records per second, the 'bytes' secondary score is bytes of JSON per second. Running with '-prof gc'
+ * the 'gc.alloc.rate.norm' metric is the allocation per record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JsonParserBenchmark {
+  private static final int RECORDS = 1000;
+  private static final int MAX_OBJECT_LEN = 4096;
+
+  @Param({"OBJECT_TREE", "FIELDS"})
+  public String parser;
+
+  @Param({"MAP", "LIST_MAP"})
+  public RandomDataGeneratorSource.RootType rootType;
+
+  private Stage.Context context;
+  private byte[] data;
+
+  @Setup
+  public void setup() throws Exception {
+    context = ContextInfoCreator.createSourceContext("benchmark", false, OnRecordError.TO_ERROR,
+                                                     Collections.<String>emptyList());
+    List<Record> records = BenchmarkRecords.generate(RECORDS, rootType);
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    DataGenerator generator = new DataGeneratorFactoryBuilder(context, DataGeneratorFormat.JSON)
+        .setMode(JsonMode.MULTIPLE_OBJECTS).build().getGenerator(os);
+    for (Record record : records) {
+      generator.write(record);
+    }
+    generator.close();
+    data = os.toByteArray();
+  }
+
+  // same reader stack the JSON parser factory uses for byte input
+  private OverrunReader createReader() {
+    return new OverrunReader(new BufferedReader(new InputStreamReader(new ByteArrayInputStream(data),
+        StandardCharsets.UTF_8)), OverrunReader.getDefaultReadLimit(), false, false);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void parse(Blackhole blackhole, ByteCounter counter) throws Exception {
+    counter.bytes += data.length;
+    switch (parser) {
+      case "OBJECT_TREE":
+        parseObjectTree(blackhole);
+        break;
+      case "FIELDS":
+        parseFields(blackhole);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported parser: " + parser);
+    }
+  }
+
+  private void parseObjectTree(Blackhole blackhole) throws IOException {
+    OverrunStreamingJsonParser jsonParser = new OverrunStreamingJsonParser(createReader(), 0,
+        StreamingJsonParser.Mode.MULTIPLE_OBJECTS, MAX_OBJECT_LEN);
+    try {
+      for (long offset = jsonParser.getReaderPosition(); ; offset = jsonParser.getReaderPosition()) {
+        Object json = jsonParser.read();
+        if (json == null) {
+          break;
+        }
+        Record record = context.createRecord("benchmark::" + offset);
+        record.set(JsonUtil.jsonToField(json));
+        blackhole.consume(record);
+      }
+    } finally {
+      jsonParser.close();
+    }
+  }
+
+  private void parseFields(Blackhole blackhole) throws Exception {
+    try (JsonCharDataParser dataParser = new JsonCharDataParser(context, "benchmark", createReader(), 0,
+        StreamingJsonParser.Mode.MULTIPLE_OBJECTS, MAX_OBJECT_LEN)) {
+      for (Record record = dataParser.parse(); record != null; record = dataParser.parse()) {
+        blackhole.consume(record);
+      }
+    }
+  }
+
+}
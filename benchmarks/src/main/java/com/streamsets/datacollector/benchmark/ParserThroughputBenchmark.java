@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.benchmark;
+
+import com.google.common.base.Strings;
+import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.config.CsvHeader;
+import com.streamsets.pipeline.config.CsvMode;
+import com.streamsets.pipeline.config.JsonMode;
+import com.streamsets.pipeline.lib.generator.DataGenerator;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFactoryBuilder;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFormat;
+import com.streamsets.pipeline.lib.parser.DataParser;
+import com.streamsets.pipeline.lib.parser.DataParserFactory;
+import com.streamsets.pipeline.lib.parser.DataParserFactoryBuilder;
+import com.streamsets.pipeline.lib.parser.DataParserFormat;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
+import com.streamsets.pipeline.stage.devtest.RandomDataGeneratorSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parser throughput over byte input, going through the same reader stack the origins use, with and without
+ * control characters removal.
+ * <p/>
+ * Every operation parses exactly 1 MB of ASCII data, scores are MB per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ParserThroughputBenchmark {
+  private static final int DATA_SIZE = 1024 * 1024;
+  private static final int MAX_DATA_LEN = 4096;
+
+  @Param({"TEXT", "JSON", "DELIMITED"})
+  public String format;
+
+  @Param({"false", "true"})
+  public boolean removeCtrlChars;
+
+  private DataParserFactory parserFactory;
+  private byte[] data;
+
+  @Setup
+  public void setup() throws Exception {
+    Stage.Context context = ContextInfoCreator.createSourceContext("benchmark", false, OnRecordError.TO_ERROR,
+                                                                   Collections.<String>emptyList());
+    List<Record> records = BenchmarkRecords.generate(1000, RandomDataGeneratorSource.RootType.LIST_MAP);
+    String content;
+    switch (format) {
+      case "TEXT":
+        parserFactory = new DataParserFactoryBuilder(context, DataParserFormat.TEXT)
+            .setMaxDataLen(MAX_DATA_LEN).setRemoveCtrlChars(removeCtrlChars).build();
+        content = fill(BenchmarkRecords.toCsv(records), false);
+        break;
+      case "JSON":
+        parserFactory = new DataParserFactoryBuilder(context, DataParserFormat.JSON)
+            .setMode(JsonMode.MULTIPLE_OBJECTS).setMaxDataLen(MAX_DATA_LEN).setRemoveCtrlChars(removeCtrlChars)
+            .build();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        DataGenerator generator = new DataGeneratorFactoryBuilder(context, DataGeneratorFormat.JSON)
+            .setMode(JsonMode.MULTIPLE_OBJECTS).build().getGenerator(os);
+        for (Record record : records) {
+          generator.write(record);
+        }
+        generator.close();
+        content = fill(new String(os.toByteArray(), StandardCharsets.UTF_8), false);
+        break;
+      case "DELIMITED":
+        parserFactory = new DataParserFactoryBuilder(context, DataParserFormat.DELIMITED)
+            .setMode(CsvMode.CSV).setMode(CsvHeader.WITH_HEADER).setMaxDataLen(MAX_DATA_LEN)
+            .setRemoveCtrlChars(removeCtrlChars).build();
+        content = fill(BenchmarkRecords.toCsv(records), true);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported format: " + format);
+    }
+    data = content.getBytes(StandardCharsets.UTF_8);
+  }
+
+  // repeats the lines up to DATA_SIZE and pads the data to exactly DATA_SIZE by growing the last line
+  private static String fill(String text, boolean hasHeader) {
+    String[] lines = text.split("\r?\n");
+    StringBuilder sb = new StringBuilder(DATA_SIZE);
+    int first = 0;
+    if (hasHeader) {
+      sb.append(lines[0]).append('\n');
+      first = 1;
+    }
+    for (int i = first; sb.length() + lines[i].length() + 1 <= DATA_SIZE; i = (i + 1 < lines.length) ? i + 1 : first) {
+      sb.append(lines[i]).append('\n');
+    }
+    // all formats accept trailing spaces in the last value or between JSON objects
+    sb.insert(sb.length() - 1, Strings.repeat(" ", DATA_SIZE - sb.length()));
+    return sb.toString();
+  }
+
+  @Benchmark
+  public void parse(Blackhole blackhole) throws Exception {
+    try (DataParser parser = parserFactory.getParser("benchmark", data)) {
+      for (Record record = parser.parse(); record != null; record = parser.parse()) {
+        blackhole.consume(record);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.benchmark;
+
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.stage.devtest.RandomDataGeneratorSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record model benchmarks, scores are records per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RecordBenchmark {
+  private static final int RECORDS = 1000;
+
+  @Param({"MAP", "LIST_MAP"})
+  public RandomDataGeneratorSource.RootType rootType;
+
+  private List<Record> records;
+
+  @Setup
+  public void setup() throws Exception {
+    records = BenchmarkRecords.generate(RECORDS, rootType);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void create(Blackhole blackhole) {
+    for (int i = 0; i < RECORDS; i++) {
+      RecordImpl record = new RecordImpl("benchmark", "benchmark::" + i, null, null);
+      LinkedHashMap<String, Field> map = new LinkedHashMap<>();
+      map.put("name", Field.create("name"));
+      map.put("age", Field.create(i));
+      map.put("id", Field.create((long) i));
+      map.put("salary", Field.create(1.5d));
+      record.set((rootType == RandomDataGeneratorSource.RootType.MAP) ? Field.create(map) : Field.createListMap(map));
+      blackhole.consume(record);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void cloneRecord(Blackhole blackhole) {
+    for (Record record : records) {
+      blackhole.consume(((RecordImpl) record).clone());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void stageHop(Blackhole blackhole) {
+    // what every stage does to the records it outputs
+    for (Record record : records) {
+      RecordImpl clone = ((RecordImpl) record).clone();
+      clone.addStageToStagePath("processor");
+      clone.createTrackingId();
+      blackhole.consume(clone);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void getField(Blackhole blackhole) {
+    for (Record record : records) {
+      blackhole.consume(record.get("/name"));
+      blackhole.consume(record.get("/salary"));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void setField(Blackhole blackhole) {
+    for (Record record : records) {
+      blackhole.consume(record.set("/added", Field.create("value")));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void getFieldPaths(Blackhole blackhole) {
+    for (Record record : records) {
+      blackhole.consume(record.getFieldPaths());
+    }
+  }
+
+}
@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.config.OnStagePreConditionFailure;
+import com.streamsets.pipeline.sdk.ProcessorRunner;
+import com.streamsets.pipeline.sdk.TargetRunner;
+import com.streamsets.pipeline.stage.destination.devnull.NullDTarget;
+import com.streamsets.pipeline.stage.devtest.RandomDataGeneratorSource;
+import com.streamsets.pipeline.stage.processor.expression.ExpressionDProcessor;
+import com.streamsets.pipeline.stage.processor.expression.ExpressionProcessorConfig;
+import com.streamsets.pipeline.stage.processor.fieldhasher.FieldHasherConfig;
+import com.streamsets.pipeline.stage.processor.fieldhasher.FieldHasherDProcessor;
+import com.streamsets.pipeline.stage.processor.fieldhasher.HashType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stage benchmarks driven through the SDK runners, scores are records per second.
+ * <p/>
+ * Processors modify the records they process, every invocation gets fresh clones of the generated records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StageBenchmark {
+  private static final int RECORDS = 1000;
+
+  @Param({"MAP", "LIST_MAP"})
+  public RandomDataGeneratorSource.RootType rootType;
+
+  private List<Record> generated;
+  private List<Record> batch;
+  private ProcessorRunner expressionRunner;
+  private ProcessorRunner fieldHasherRunner;
+  private TargetRunner nullTargetRunner;
+
+  @Setup
+  public void setup() throws Exception {
+    generated = BenchmarkRecords.generate(RECORDS, rootType);
+
+    ExpressionProcessorConfig expressionConfig = new ExpressionProcessorConfig();
+    expressionConfig.fieldToSet = "/upperName";
+    expressionConfig.expression = "${str:toUpper(record:value('/name'))}";
+    expressionRunner = new ProcessorRunner.Builder(ExpressionDProcessor.class)
+        .addConfiguration("expressionProcessorConfigs", ImmutableList.of(expressionConfig))
+        .addOutputLane(BenchmarkRecords.LANE)
+        .build();
+    expressionRunner.runInit();
+
+    FieldHasherConfig fieldHasherConfig = new FieldHasherConfig();
+    fieldHasherConfig.fieldsToHash = ImmutableList.of("/name", "/address");
+    fieldHasherConfig.hashType = HashType.SHA2;
+    fieldHasherRunner = new ProcessorRunner.Builder(FieldHasherDProcessor.class)
+        .addConfiguration("fieldHasherConfigs", ImmutableList.of(fieldHasherConfig))
+        .addConfiguration("onStagePreConditionFailure", OnStagePreConditionFailure.CONTINUE)
+        .addOutputLane(BenchmarkRecords.LANE)
+        .build();
+    fieldHasherRunner.runInit();
+
+    nullTargetRunner = new TargetRunner.Builder(NullDTarget.class).build();
+    nullTargetRunner.runInit();
+  }
+
+  @Setup(Level.Invocation)
+  public void setupBatch() {
+    batch = BenchmarkRecords.copy(generated);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    expressionRunner.runDestroy();
+    fieldHasherRunner.runDestroy();
+    nullTargetRunner.runDestroy();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void expressionProcessor(Blackhole blackhole) throws Exception {
+    blackhole.consume(expressionRunner.runProcess(batch));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void fieldHasherProcessor(Blackhole blackhole) throws Exception {
+    blackhole.consume(fieldHasherRunner.runProcess(batch));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void nullTarget() throws Exception {
+    nullTargetRunner.runWrite(batch);
+  }
+
+}
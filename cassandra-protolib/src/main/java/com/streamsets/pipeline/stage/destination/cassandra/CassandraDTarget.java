@@ -30,7 +30,7 @@ import java.util.List;
 
 @GenerateResourceBundle
 @StageDef(
-    version = 2,
+    version = 3,
     label = "Cassandra",
     description = "Writes data to Cassandra",
     icon = "cassandra.png",
@@ -106,6 +106,33 @@ public class CassandraDTarget extends DTarget {
   @ListBeanModel
   public List<CassandraFieldMappingConfig> columnNames;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.MODEL,
+      defaultValue = "UNLOGGED",
+      label = "Batch Type",
+      description = "Logged batches write all the records of a batch atomically. Unlogged batches group the " +
+          "records by partition and write the partitions concurrently.",
+      displayPosition = 70,
+      group = "CASSANDRA"
+  )
+  @ValueChooserModel(BatchTypeChooserValues.class)
+  public CassandraBatchType batchType;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "32",
+      label = "Max Concurrent Requests",
+      description = "Maximum number of write requests of a batch sent to the cluster at the same time",
+      displayPosition = 80,
+      group = "CASSANDRA",
+      dependsOn = "batchType",
+      triggeredByValue = {"UNLOGGED", "NONE"},
+      min = 1
+  )
+  public int maxConcurrentRequests;
+
   @ConfigDef(
       required = true,
       type = ConfigDef.Type.STRING,
@@ -139,7 +166,9 @@ public class CassandraDTarget extends DTarget {
         username,
         password,
         qualifiedTableName,
-        columnNames
+        columnNames,
+        batchType,
+        maxConcurrentRequests
     );
   }
 }
@@ -18,12 +18,15 @@
 package com.streamsets.pipeline.stage.destination.cassandra;
 
 import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ColumnMetadata;
 import com.datastax.driver.core.KeyspaceMetadata;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ProtocolOptions;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.TableMetadata;
 import com.datastax.driver.core.exceptions.AuthenticationException;
 import com.datastax.driver.core.exceptions.NoHostAvailableException;
@@ -35,6 +38,7 @@ import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
@@ -49,16 +53,19 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Semaphore;
 
 /**
  * Cassandra Destination for StreamSets Data Collector
@@ -73,6 +80,8 @@ import java.util.TreeSet;
  */
 public class CassandraTarget extends BaseTarget {
   private static final Logger LOG = LoggerFactory.getLogger(CassandraTarget.class);
+  // Unlogged batches of a partition are split to stay clear of Cassandra's batch size warnings
+  private static final int MAX_UNLOGGED_BATCH_STATEMENTS = 20;
 
   private final List<String> addresses;
   private final ProtocolOptions.Compression compression;
@@ -83,6 +92,8 @@ public class CassandraTarget extends BaseTarget {
 
   private final String qualifiedTableName;
   private final List<CassandraFieldMappingConfig> columnNames;
+  private final CassandraBatchType batchType;
+  private final int maxConcurrentRequests;
 
 
   private Cluster cluster = null;
@@ -98,7 +109,9 @@ public class CassandraTarget extends BaseTarget {
       final String username,
       final String password,
       final String qualifiedTableName,
-      final List<CassandraFieldMappingConfig> columnNames
+      final List<CassandraFieldMappingConfig> columnNames,
+      final CassandraBatchType batchType,
+      final int maxConcurrentRequests
   ) {
     this.addresses = addresses;
     this.port = port;
@@ -107,6 +120,8 @@ public class CassandraTarget extends BaseTarget {
     this.password = password;
     this.qualifiedTableName = qualifiedTableName;
     this.columnNames = columnNames;
+    this.batchType = batchType;
+    this.maxConcurrentRequests = maxConcurrentRequests;
   }
 
   @Override
@@ -143,6 +158,17 @@ public class CassandraTarget extends BaseTarget {
       issues.add(context.createConfigIssue(Groups.CASSANDRA.name(), "contactNodes", Errors.CASSANDRA_00));
     }
 
+    if (batchType != CassandraBatchType.LOGGED && maxConcurrentRequests < 1) {
+      issues.add(
+          context.createConfigIssue(
+              Groups.CASSANDRA.name(),
+              "maxConcurrentRequests",
+              Errors.CASSANDRA_10,
+              maxConcurrentRequests
+          )
+      );
+    }
+
     if (!qualifiedTableName.contains(".")) {
       issues.add(context.createConfigIssue(Groups.CASSANDRA.name(), "qualifiedTableName", Errors.CASSANDRA_02));
     }
@@ -268,8 +294,15 @@ public class CassandraTarget extends BaseTarget {
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public void write(Batch batch) throws StageException {
+    if (batchType == CassandraBatchType.LOGGED) {
+      writeLoggedBatch(batch);
+    } else {
+      writeAsync(batch);
+    }
+  }
+
+  private void writeLoggedBatch(Batch batch) throws StageException {
     // The batch holding the current batch to INSERT.
     BatchStatement batchedStatement = new BatchStatement();
 
@@ -279,80 +312,211 @@ public class CassandraTarget extends BaseTarget {
         final Record record = records.next();
 
         try {
-          ImmutableList.Builder<Object> values = new ImmutableList.Builder<>();
-          SortedSet<String> columnsPresent = Sets.newTreeSet(columnMappings.keySet());
-          for (Map.Entry<String, String> mapping : columnMappings.entrySet()) {
-            String columnName = mapping.getKey();
-            String fieldPath = mapping.getValue();
-
-            // If we're missing fields, skip them.
-            if (!record.has(fieldPath)) {
-              columnsPresent.remove(columnName);
-              continue;
-            }
+          batchedStatement.add(recordToBoundStatement(record));
+        } catch (Exception e) {
+          handlePrepareError(record, e);
+        }
+      }
 
-            final Object value = record.get(fieldPath).getValue();
-            // Special cases for handling SDC Lists and Maps,
-            // basically unpacking them into raw types.
-            if (value instanceof List) {
-              List<Object> unpackedList = new ArrayList<>();
-              for (Field item : (List<Field>) value) {
-                unpackedList.add(item.getValue());
-              }
-              values.add(unpackedList);
-            } else if (value instanceof Map) {
-              Map<Object, Object> unpackedMap = new HashMap<>();
-              for (Map.Entry<String, Field> entry : ((Map<String, Field>) value).entrySet()) {
-                unpackedMap.put(entry.getKey(), entry.getValue().getValue());
-              }
-              values.add(unpackedMap);
-            } else {
-              values.add(value);
-            }
-          }
+      if (batchedStatement.size() > 0) {
+        try {
+          session.execute(batchedStatement);
+        } catch (Exception e) {
+          handleWriteError(batch.getRecords(), e);
+        }
+      }
+  }
 
-          // .toArray required to pass in a list to a varargs method.
-          batchedStatement.add(statementCache.get(columnsPresent).bind(values.build().toArray()));
+  /**
+   * Writes the records of the batch with asynchronous requests. Records of the same partition are sent together in
+   * unlogged batches (or one by one if batching is disabled), so that the token aware load balancing policy of the
+   * driver routes each request straight to a replica of its partition.
+   */
+  private void writeAsync(Batch batch) throws StageException {
+    final Semaphore permits = new Semaphore(maxConcurrentRequests);
+    Runnable releasePermit = new Runnable() {
+      @Override
+      public void run() {
+        permits.release();
+      }
+    };
+    List<PendingWrite> pendingWrites = new ArrayList<>();
+    // statements of each partition that have not been sent yet, in order of appearance
+    Map<ByteBuffer, PendingWrite> partitions = new LinkedHashMap<>();
+    boolean completed = false;
+    try {
+      Iterator<Record> records = batch.getRecords();
+      while (records.hasNext()) {
+        final Record record = records.next();
+
+        BoundStatement statement;
+        try {
+          statement = recordToBoundStatement(record);
         } catch (Exception e) {
-          switch (getContext().getOnErrorRecord()) {
-            case DISCARD:
-              break;
-            case TO_ERROR:
-              getContext().toError(record, Errors.CASSANDRA_06, record.getHeader().getSourceId(), e.toString());
-              break;
-            case STOP_PIPELINE:
-              throw new StageException(Errors.CASSANDRA_06, record.getHeader().getSourceId(), e.toString());
-            default:
-              throw new IllegalStateException(
-                  Utils.format("It should never happen. OnError '{}'", getContext().getOnErrorRecord(), e)
-              );
+          handlePrepareError(record, e);
+          continue;
+        }
+
+        ByteBuffer routingKey = statement.getRoutingKey();
+        if (batchType == CassandraBatchType.NONE || routingKey == null) {
+          PendingWrite write = new PendingWrite();
+          write.add(record, statement);
+          send(write, permits, releasePermit, pendingWrites);
+        } else {
+          PendingWrite write = partitions.get(routingKey);
+          if (write == null) {
+            write = new PendingWrite();
+            partitions.put(routingKey, write);
+          }
+          write.add(record, statement);
+          if (write.records.size() >= MAX_UNLOGGED_BATCH_STATEMENTS) {
+            partitions.remove(routingKey);
+            send(write, permits, releasePermit, pendingWrites);
           }
         }
       }
+      for (PendingWrite write : partitions.values()) {
+        send(write, permits, releasePermit, pendingWrites);
+      }
 
-      if (batchedStatement.size() > 0) {
+      StageException stageException = null;
+      for (PendingWrite write : pendingWrites) {
         try {
-          session.execute(batchedStatement);
+          write.future.getUninterruptibly();
         } catch (Exception e) {
-          switch (getContext().getOnErrorRecord()) {
-            case DISCARD:
-              break;
-            case TO_ERROR:
-              Iterator<Record> failedRecords = batch.getRecords();
-              while (failedRecords.hasNext()) {
-                final Record record = failedRecords.next();
-                getContext().toError(record, Errors.CASSANDRA_09, record.getHeader().getSourceId(), e.toString());
-              }
-              break;
-            case STOP_PIPELINE:
-              throw new StageException(Errors.CASSANDRA_07, e.toString());
-            default:
-              throw new IllegalStateException(
-                  Utils.format("It should never happen. OnError '{}'", getContext().getOnErrorRecord(), e)
-              );
+          try {
+            handleWriteError(write.records.iterator(), e);
+          } catch (StageException ex) {
+            // stop the pipeline once all requests of the batch have completed
+            if (stageException == null) {
+              stageException = ex;
+            }
+          }
+        }
+      }
+      completed = true;
+      if (stageException != null) {
+        throw stageException;
+      }
+    } finally {
+      if (!completed) {
+        for (PendingWrite write : pendingWrites) {
+          try {
+            write.future.getUninterruptibly();
+          } catch (Exception e) {
+            LOG.debug("Write failed after the batch was aborted: {}", e.toString(), e);
           }
         }
       }
+    }
+  }
+
+  private void send(PendingWrite write, Semaphore permits, Runnable releasePermit, List<PendingWrite> pendingWrites)
+      throws StageException {
+    Statement statement;
+    if (write.statements.size() == 1) {
+      statement = write.statements.get(0);
+    } else {
+      statement = new BatchStatement(BatchStatement.Type.UNLOGGED).addAll(write.statements);
+    }
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StageException(Errors.CASSANDRA_07, e.toString(), e);
+    }
+    write.future = session.executeAsync(statement);
+    write.future.addListener(releasePermit, MoreExecutors.directExecutor());
+    // the statements are not needed anymore, only the records to report errors
+    write.statements = null;
+    pendingWrites.add(write);
+  }
+
+  /**
+   * Records and statements that go to the cluster in a single request.
+   */
+  private static class PendingWrite {
+    private final List<Record> records = new ArrayList<>();
+    private List<Statement> statements = new ArrayList<>();
+    private ResultSetFuture future;
+
+    private void add(Record record, Statement statement) {
+      records.add(record);
+      statements.add(statement);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private BoundStatement recordToBoundStatement(Record record) throws Exception {
+    ImmutableList.Builder<Object> values = new ImmutableList.Builder<>();
+    SortedSet<String> columnsPresent = Sets.newTreeSet(columnMappings.keySet());
+    for (Map.Entry<String, String> mapping : columnMappings.entrySet()) {
+      String columnName = mapping.getKey();
+      String fieldPath = mapping.getValue();
+
+      // If we're missing fields, skip them.
+      if (!record.has(fieldPath)) {
+        columnsPresent.remove(columnName);
+        continue;
+      }
+
+      final Object value = record.get(fieldPath).getValue();
+      // Special cases for handling SDC Lists and Maps,
+      // basically unpacking them into raw types.
+      if (value instanceof List) {
+        List<Object> unpackedList = new ArrayList<>();
+        for (Field item : (List<Field>) value) {
+          unpackedList.add(item.getValue());
+        }
+        values.add(unpackedList);
+      } else if (value instanceof Map) {
+        Map<Object, Object> unpackedMap = new HashMap<>();
+        for (Map.Entry<String, Field> entry : ((Map<String, Field>) value).entrySet()) {
+          unpackedMap.put(entry.getKey(), entry.getValue().getValue());
+        }
+        values.add(unpackedMap);
+      } else {
+        values.add(value);
+      }
+    }
+
+    // .toArray required to pass in a list to a varargs method.
+    return statementCache.get(columnsPresent).bind(values.build().toArray());
+  }
+
+  private void handlePrepareError(Record record, Exception e) throws StageException {
+    switch (getContext().getOnErrorRecord()) {
+      case DISCARD:
+        break;
+      case TO_ERROR:
+        getContext().toError(record, Errors.CASSANDRA_06, record.getHeader().getSourceId(), e.toString());
+        break;
+      case STOP_PIPELINE:
+        throw new StageException(Errors.CASSANDRA_06, record.getHeader().getSourceId(), e.toString());
+      default:
+        throw new IllegalStateException(
+            Utils.format("It should never happen. OnError '{}'", getContext().getOnErrorRecord(), e)
+        );
+    }
+  }
+
+  private void handleWriteError(Iterator<Record> failedRecords, Exception e) throws StageException {
+    switch (getContext().getOnErrorRecord()) {
+      case DISCARD:
+        break;
+      case TO_ERROR:
+        while (failedRecords.hasNext()) {
+          final Record record = failedRecords.next();
+          getContext().toError(record, Errors.CASSANDRA_09, record.getHeader().getSourceId(), e.toString());
+        }
+        break;
+      case STOP_PIPELINE:
+        throw new StageException(Errors.CASSANDRA_07, e.toString());
+      default:
+        throw new IllegalStateException(
+            Utils.format("It should never happen. OnError '{}'", getContext().getOnErrorRecord(), e)
+        );
+    }
   }
 
   private Cluster getCluster() {
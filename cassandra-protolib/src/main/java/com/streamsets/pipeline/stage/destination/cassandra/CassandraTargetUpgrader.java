@@ -30,6 +30,8 @@ public class CassandraTargetUpgrader implements StageUpgrader {
     switch(fromVersion) {
       case 1:
         upgradeV1ToV2(configs);
+      case 2:
+        upgradeV2ToV3(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -40,4 +42,10 @@ public class CassandraTargetUpgrader implements StageUpgrader {
   private void upgradeV1ToV2(List<Config> configs) {
     configs.add(new Config("compression", "NONE"));
   }
+
+  private void upgradeV2ToV3(List<Config> configs) {
+    // existing pipelines keep writing each batch atomically
+    configs.add(new Config("batchType", "LOGGED"));
+    configs.add(new Config("maxConcurrentRequests", 32));
+  }
 }
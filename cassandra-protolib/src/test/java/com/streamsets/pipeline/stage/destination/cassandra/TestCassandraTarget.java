@@ -113,6 +113,7 @@ public class TestCassandraTarget {
         .addConfiguration("contactNodes", ImmutableList.of("localhost"))
         .addConfiguration("useCredentials", false)
         .addConfiguration("compression", CassandraCompressionCodec.NONE)
+        .addConfiguration("batchType", CassandraBatchType.LOGGED)
         .addConfiguration("qualifiedTableName", tableName)
         .addConfiguration("columnNames", fieldMappings)
         .addConfiguration("port", CASSANDRA_NATIVE_PORT)
@@ -139,6 +140,7 @@ public class TestCassandraTarget {
         .addConfiguration("contactNodes", ImmutableList.of("localhost"))
         .addConfiguration("useCredentials", false)
         .addConfiguration("compression", CassandraCompressionCodec.NONE)
+        .addConfiguration("batchType", CassandraBatchType.LOGGED)
         .addConfiguration("qualifiedTableName", tableName)
         .addConfiguration("columnNames", fieldMappings)
         .addConfiguration("port", CASSANDRA_NATIVE_PORT)
@@ -188,6 +190,7 @@ public class TestCassandraTarget {
         .addConfiguration("contactNodes", ImmutableList.of("localhost"))
         .addConfiguration("useCredentials", false)
         .addConfiguration("compression", CassandraCompressionCodec.NONE)
+        .addConfiguration("batchType", CassandraBatchType.LOGGED)
         .addConfiguration("qualifiedTableName", tableName)
         .addConfiguration("columnNames", fieldMappings)
         .addConfiguration("port", CASSANDRA_NATIVE_PORT)
@@ -235,6 +238,7 @@ public class TestCassandraTarget {
         .addConfiguration("contactNodes", ImmutableList.of("localhost"))
         .addConfiguration("useCredentials", false)
         .addConfiguration("compression", CassandraCompressionCodec.NONE)
+        .addConfiguration("batchType", CassandraBatchType.LOGGED)
         .addConfiguration("qualifiedTableName", tableName)
         .addConfiguration("columnNames", fieldMappings)
         .addConfiguration("port", CASSANDRA_NATIVE_PORT)
@@ -280,6 +284,7 @@ public class TestCassandraTarget {
         .addConfiguration("contactNodes", ImmutableList.of("localhost"))
         .addConfiguration("useCredentials", false)
         .addConfiguration("compression", CassandraCompressionCodec.NONE)
+        .addConfiguration("batchType", CassandraBatchType.LOGGED)
         .addConfiguration("qualifiedTableName", tableName)
         .addConfiguration("columnNames", fieldMappings)
         .addConfiguration("port", CASSANDRA_NATIVE_PORT)
@@ -325,6 +330,7 @@ public class TestCassandraTarget {
         .addConfiguration("contactNodes", ImmutableList.of("localhost"))
         .addConfiguration("useCredentials", false)
         .addConfiguration("compression", CassandraCompressionCodec.NONE)
+        .addConfiguration("batchType", CassandraBatchType.LOGGED)
         .addConfiguration("qualifiedTableName", tableName)
         .addConfiguration("columnNames", fieldMappings)
         .addConfiguration("port", CASSANDRA_NATIVE_PORT)
@@ -370,6 +376,7 @@ public class TestCassandraTarget {
         .addConfiguration("contactNodes", ImmutableList.of("localhost"))
         .addConfiguration("useCredentials", false)
         .addConfiguration("compression", CassandraCompressionCodec.NONE)
+        .addConfiguration("batchType", CassandraBatchType.LOGGED)
         .addConfiguration("qualifiedTableName", tableName)
         .addConfiguration("columnNames", fieldMappings)
         .addConfiguration("port", CASSANDRA_NATIVE_PORT)
@@ -405,4 +412,76 @@ public class TestCassandraTarget {
     Assert.assertEquals(null, row.getBytesUnsafe("x"));
     Assert.assertEquals(5.0, row.getDouble("y"), EPSILON);
   }
+
+  private void testWriteAsync(CassandraBatchType batchType) throws StageException {
+    final String tableName = "test.trips";
+    List<CassandraFieldMappingConfig> fieldMappings = ImmutableList.of(
+        new CassandraFieldMappingConfig("[0]", "driver_id"),
+        new CassandraFieldMappingConfig("[1]", "trip_id"),
+        new CassandraFieldMappingConfig("[2]", "time"),
+        new CassandraFieldMappingConfig("[3]", "x"),
+        new CassandraFieldMappingConfig("[4]", "y")
+    );
+
+    TargetRunner targetRunner = new TargetRunner.Builder(CassandraDTarget.class)
+        .addConfiguration("contactNodes", ImmutableList.of("localhost"))
+        .addConfiguration("useCredentials", false)
+        .addConfiguration("compression", CassandraCompressionCodec.NONE)
+        .addConfiguration("batchType", batchType)
+        .addConfiguration("maxConcurrentRequests", 2)
+        .addConfiguration("qualifiedTableName", tableName)
+        .addConfiguration("columnNames", fieldMappings)
+        .addConfiguration("port", CASSANDRA_NATIVE_PORT)
+        .setOnRecordError(OnRecordError.TO_ERROR)
+        .build();
+
+    // 5 partitions, some of them with more rows than fit in a single unlogged batch
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Record record = RecordCreator.create();
+      List<Field> fields = new ArrayList<>();
+      fields.add(Field.create(i % 5));
+      fields.add(Field.create(i));
+      fields.add(Field.create(i * 10));
+      fields.add(Field.create(4.0));
+      fields.add(Field.create(5.0));
+      record.set(Field.create(fields));
+      records.add(record);
+    }
+    // a record that can not be bound
+    Record record = RecordCreator.create();
+    List<Field> fields = new ArrayList<>();
+    fields.add(Field.create(1.3));
+    fields.add(Field.create(2));
+    fields.add(Field.create(3));
+    fields.add(Field.create(4.0));
+    fields.add(Field.create(5.0));
+    record.set(Field.create(fields));
+    records.add(record);
+
+    targetRunner.runInit();
+    targetRunner.runWrite(records);
+
+    Assert.assertEquals(1, targetRunner.getErrorRecords().size());
+    Assert.assertTrue(targetRunner.getErrors().isEmpty());
+
+    targetRunner.runDestroy();
+
+    ResultSet resultSet = session.execute("SELECT * FROM test.trips");
+    List<Row> allRows = resultSet.all();
+    Assert.assertEquals(100, allRows.size());
+
+    Row row = session.execute("SELECT * FROM test.trips WHERE driver_id = 3 AND trip_id = 98").one();
+    Assert.assertEquals(980, row.getInt("time"));
+  }
+
+  @Test
+  public void testWriteUnloggedBatches() throws Exception {
+    testWriteAsync(CassandraBatchType.UNLOGGED);
+  }
+
+  @Test
+  public void testWriteNoBatch() throws Exception {
+    testWriteAsync(CassandraBatchType.NONE);
+  }
 }
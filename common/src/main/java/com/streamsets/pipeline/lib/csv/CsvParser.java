@@ -56,12 +56,14 @@ public class CsvParser implements Closeable, AutoCloseable {
     currentPos = initialPosition;
     this.maxObjectLen = maxObjectLen;
     if (initialPosition == 0) {
+      // the reader may hold a fragment starting at a position of a larger content, positions are relative to it
+      currentPos = reader.getPos();
       if (format.getSkipHeaderRecord()) {
         format = format.withSkipHeaderRecord(false);
-        parser = new CSVParser(reader, format, 0, 0);
+        parser = new CSVParser(reader, format, currentPos, 0);
         headers = read();
       } else {
-        parser = new CSVParser(reader, format, 0, 0);
+        parser = new CSVParser(reader, format, currentPos, 0);
         headers = null;
       }
     } else {
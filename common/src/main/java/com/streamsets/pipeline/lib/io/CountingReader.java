@@ -29,7 +29,16 @@ public class CountingReader extends ProxyReader  {
   private long readAfterMark = 0;
 
   public CountingReader(Reader reader) {
+    this(reader, 0);
+  }
+
+  /**
+   * Creates a reader for data that starts at the given position of a larger content, positions are reported relative
+   * to the larger content.
+   */
+  public CountingReader(Reader reader, long initialPosition) {
     super(reader);
+    pos = initialPosition;
   }
 
   @Override
@@ -41,7 +41,12 @@ public class OverrunReader extends CountingReader {
   private boolean enabled;
 
   public OverrunReader(Reader in, int readLimit, boolean overrunCheckEnabled, boolean removeCtrlChars) {
-    super(in);
+    this(in, 0, readLimit, overrunCheckEnabled, removeCtrlChars);
+  }
+
+  public OverrunReader(Reader in, long initialPosition, int readLimit, boolean overrunCheckEnabled,
+      boolean removeCtrlChars) {
+    super(in, initialPosition);
     this.removeCtrlChars = removeCtrlChars;
     this.readLimit = readLimit;
     setEnabled(overrunCheckEnabled);
@@ -58,57 +63,60 @@ public class OverrunReader extends CountingReader {
     return enabled;
   }
 
+  // parsers use the reader from a single thread, this runs on every read and it is not synchronized
   @Override
-  protected synchronized void afterRead(int n) {
+  protected void afterRead(int n) {
     super.afterRead(n);
-    if (isEnabled() && getCount() > readLimit) {
+    if (enabled && getCount() > readLimit) {
       ExceptionUtils.throwUndeclared(new OverrunException(Utils.format(
           "Reader exceeded the read limit '{}'", readLimit), getPos()));
     }
   }
 
-  private char[] oneCharBuf = new char[1];
+  // used only by read(CharBuffer) for buffers without an accessible array, allocated on first use and reused
+  private char[] transferBuffer;
 
   @Override
   public int read() throws IOException {
+    int c = super.read();
     if (removeCtrlChars) {
-      int r = read(oneCharBuf, 0, 1);
-      while (r > -1 && r == 0) {
-        r = read(oneCharBuf, 0, 1);
+      while (c > -1 && isControl((char) c)) {
+        c = super.read();
       }
-      return (r == -1) ? -1 : oneCharBuf[0];
-    } else {
-      return super.read();
     }
+    return c;
   }
 
   @Override
   public int read(char[] buffer) throws IOException {
-    if (removeCtrlChars) {
-      return read(buffer, 0, buffer.length);
-    } else {
-      return super.read(buffer);
-    }
+    return read(buffer, 0, buffer.length);
   }
 
   @Override
   public int read(char[] buffer, int offset, int len) throws IOException {
-    if (removeCtrlChars) {
-      char[] internalBuffer = new char[len];
-      int r = super.read(internalBuffer, 0, len);
-      return (r == -1) ? -1 : removeControlChars(internalBuffer, r, buffer, offset);
-    } else {
-      return super.read(buffer, offset, len);
-    }
+    int r = super.read(buffer, offset, len);
+    // control chars are removed in place, the count and position keep tracking the chars read from the stream
+    return (removeCtrlChars && r > 0) ? removeControlChars(buffer, offset, r) : r;
   }
 
   @Override
   public int read(CharBuffer target) throws IOException {
     if (removeCtrlChars) {
-      char[] buffer = new char[target.limit()];
-      int r = read(buffer);
-      if (r > 0) {
-        target.put(buffer, 0, r);
+      int r;
+      if (target.hasArray()) {
+        r = read(target.array(), target.arrayOffset() + target.position(), target.remaining());
+        if (r > 0) {
+          target.position(target.position() + r);
+        }
+      } else {
+        int len = target.remaining();
+        if (transferBuffer == null || transferBuffer.length < len) {
+          transferBuffer = new char[len];
+        }
+        r = read(transferBuffer, 0, len);
+        if (r > 0) {
+          target.put(transferBuffer, 0, r);
+        }
       }
       return r;
     } else {
@@ -116,6 +124,23 @@ public class OverrunReader extends CountingReader {
     }
   }
 
+  // removes the control chars of the buffer segment compacting it in place, returns the new length of the segment
+  static int removeControlChars(char[] buffer, int offset, int len) {
+    int end = offset + len;
+    int controlPos = findFirstControlIdx(buffer, offset, end);
+    if (controlPos == -1) {
+      return len;
+    }
+    int dst = controlPos;
+    for (int pos = controlPos + 1; pos < end; pos++) {
+      char c = buffer[pos];
+      if (!isControl(c)) {
+        buffer[dst++] = c;
+      }
+    }
+    return dst - offset;
+  }
+
   static int removeControlChars(char[] intBuffer, int len, char[] extBuffer, int offset) {
     int removed = 0;
     int extPos = 0;
@@ -180,7 +180,7 @@ public class OverrunStreamingJsonParser extends StreamingJsonParser {
       TL.set(this);
       return super.readObjectFromArray();
     } catch (Exception ex) {
-      ObjectLengthException olex = ExceptionUtils.findSpecificCause(ex, ObjectLengthException.class);
+      ObjectLengthException olex = findCause(ex, ObjectLengthException.class);
       if (olex != null) {
         JsonParser parser = getJsonParser();
         JsonToken token = parser.getCurrentToken();
@@ -192,7 +192,7 @@ public class OverrunStreamingJsonParser extends StreamingJsonParser {
         }
         throw olex;
       } else {
-        OverrunException oex = ExceptionUtils.findSpecificCause(ex, OverrunException.class);
+        OverrunException oex = findCause(ex, OverrunException.class);
         if (oex != null) {
           overrun = true;
           throw oex;
@@ -213,12 +213,12 @@ public class OverrunStreamingJsonParser extends StreamingJsonParser {
       TL.set(this);
       return super.readObjectFromStream();
     } catch (Exception ex) {
-      ObjectLengthException olex = ExceptionUtils.findSpecificCause(ex, ObjectLengthException.class);
+      ObjectLengthException olex = findCause(ex, ObjectLengthException.class);
       if (olex != null) {
         fastForwardToNextRootObject();
         throw olex;
       } else {
-        OverrunException oex = ExceptionUtils.findSpecificCause(ex, OverrunException.class);
+        OverrunException oex = findCause(ex, OverrunException.class);
         if (oex != null) {
           overrun = true;
           throw oex;
@@ -230,13 +230,24 @@ public class OverrunStreamingJsonParser extends StreamingJsonParser {
     }
   }
 
+  // values read token by token by subclasses surface the exceptions as they are, not wrapped by Jackson
+  private static <E extends Throwable> E findCause(Exception ex, Class<E> causeClass) {
+    return (causeClass.isInstance(ex)) ? causeClass.cast(ex) : ExceptionUtils.findSpecificCause(ex, causeClass);
+  }
+
   private static void checkIfLengthExceededForObjectRead(Object json) {
-    OverrunStreamingJsonParser enforcer = TL.get();
-    if (enforcer.maxObjectLen > -1) {
-      if (enforcer.getJsonParser().getCurrentLocation().getCharOffset() > enforcer.limitOffset) {
+    TL.get().checkObjectLength();
+  }
+
+  /**
+   * Throws an undeclared ObjectLengthException if the object being read exceeds the max object length, subclasses
+   * reading values on their own must call it after reading every map entry and list element.
+   */
+  protected void checkObjectLength() {
+    if (maxObjectLen > -1) {
+      if (getJsonParser().getCurrentLocation().getCharOffset() > limitOffset) {
         ExceptionUtils.throwUndeclared(new ObjectLengthException(Utils.format(
-            "JSON Object at offset '{}' exceeds max length '{}'", enforcer.startOffset, enforcer.maxObjectLen),
-                                                                 enforcer.startOffset));
+            "JSON Object at offset '{}' exceeds max length '{}'", startOffset, maxObjectLen), startOffset));
       }
     }
   }
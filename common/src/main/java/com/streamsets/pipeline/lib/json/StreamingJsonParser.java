@@ -25,6 +25,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import com.google.common.base.Preconditions;
 import com.streamsets.pipeline.api.impl.Utils;
+import com.streamsets.pipeline.lib.io.CountingReader;
 import com.streamsets.pipeline.lib.io.OverrunException;
 import org.apache.commons.io.IOUtils;
 
@@ -61,6 +62,10 @@ public class StreamingJsonParser {
     starting = true;
     this.reader = reader;
     if (mode == Mode.MULTIPLE_OBJECTS) {
+      if (reader instanceof CountingReader) {
+        // the reader may hold a fragment starting at a position of a larger content, positions are relative to it
+        posCorrection = ((CountingReader) reader).getPos();
+      }
       if (initialPosition > 0) {
         IOUtils.skipFully(reader, initialPosition);
         posCorrection += initialPosition;
@@ -127,12 +132,19 @@ public class StreamingJsonParser {
     JsonToken token = jsonParser.nextToken();
     if (token != null) {
       if (token != JsonToken.END_ARRAY) {
-        value = jsonParser.readValueAs(Object.class);
+        value = readValue(Object.class);
       }
     }
     return value;
   }
 
+  /**
+   * Reads the value starting at the current token, when it returns the parser must be at the last token of the value.
+   */
+  protected Object readValue(Class<?> expectedClass) throws IOException {
+    return jsonParser.readValueAs(expectedClass);
+  }
+
   private JsonToken nextToken;
 
   protected Class getExpectedClass() {
@@ -147,7 +159,7 @@ public class StreamingJsonParser {
       nextToken = jsonParser.nextToken();
     }
     if (nextToken != null) {
-      value = jsonParser.readValueAs(getExpectedClass());
+      value = readValue(getExpectedClass());
       nextToken = jsonParser.nextToken();
       if (nextToken == null) {
         // if we reached the EOF Jackson JSON parser keeps the as getTokenLocation() the location of the last token,
@@ -31,6 +31,7 @@ public enum CommonError implements ErrorCode {
   CMN_0104("Error evaluating expression {}: {}"),
   CMN_0105("Error parsing expression {}: {}"),
   CMN_0106("Error resolving union for value of type {} using schema {}: {}"),
+  CMN_0107("Value of '{}' cannot be null for schema {}"),
 
   ;
   private final String msg;
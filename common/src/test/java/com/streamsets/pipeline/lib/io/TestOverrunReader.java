@@ -24,6 +24,7 @@ import org.junit.Test;
 import java.io.BufferedReader;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 
 public class TestOverrunReader {
@@ -166,4 +167,62 @@ public class TestOverrunReader {
     testControlChars(true, "{\"a\":\0 \"foo\2ba\3r\4\"}", "{\"a\": \"foobar\"}");
   }
 
+  @Test
+  public void testRemoveControlCharsInPlace() {
+    char[] buffer = new char[] { 'x', 0, 'a', 0, 0, 'b', 1, 'x' };
+    Assert.assertEquals(2, OverrunReader.removeControlChars(buffer, 1, 6));
+    Assert.assertEquals('x', buffer[0]);
+    Assert.assertEquals('a', buffer[1]);
+    Assert.assertEquals('b', buffer[2]);
+    Assert.assertEquals('x', buffer[7]);
+
+    buffer = new char[] { 'a', 'b' };
+    Assert.assertEquals(2, OverrunReader.removeControlChars(buffer, 0, 2));
+    Assert.assertArrayEquals(new char[] { 'a', 'b' }, buffer);
+
+    buffer = new char[] { 0, 1 };
+    Assert.assertEquals(0, OverrunReader.removeControlChars(buffer, 0, 2));
+  }
+
+  @Test
+  public void testReadCharRemoveControlChars() throws Exception {
+    try (OverrunReader reader = new OverrunReader(new StringReader("\0a\1\2b\0"), -1, false, true)) {
+      Assert.assertEquals('a', reader.read());
+      Assert.assertEquals('b', reader.read());
+      Assert.assertEquals(-1, reader.read());
+      // removed chars are still accounted as read from the underlying reader
+      Assert.assertEquals(6, reader.getPos());
+    }
+  }
+
+  @Test
+  public void testReadRemoveControlCharsBufferOffset() throws Exception {
+    try (Reader reader = new OverrunReader(new StringReader("foo\0bar"), -1, false, true)) {
+      char[] buff = new char[10];
+      Assert.assertEquals(6, reader.read(buff, 2, 8));
+      Assert.assertEquals("foobar", new String(buff, 2, 6));
+    }
+  }
+
+  @Test
+  public void testReadRemoveControlCharsBufferPosition() throws Exception {
+    try (Reader reader = new OverrunReader(new StringReader("foo\0bar"), -1, false, true)) {
+      CharBuffer buff = CharBuffer.allocate(10);
+      buff.put("xx");
+      Assert.assertEquals(6, reader.read(buff));
+      buff.flip();
+      Assert.assertEquals("xxfoobar", buff.toString());
+    }
+  }
+
+  @Test
+  public void testReadRemoveControlCharsDirectBuffer() throws Exception {
+    try (Reader reader = new OverrunReader(new StringReader("foo\0bar"), -1, false, true)) {
+      CharBuffer buff = ByteBuffer.allocateDirect(20).asCharBuffer();
+      Assert.assertEquals(6, reader.read(buff));
+      buff.flip();
+      Assert.assertEquals("foobar", buff.toString());
+    }
+  }
+
 }
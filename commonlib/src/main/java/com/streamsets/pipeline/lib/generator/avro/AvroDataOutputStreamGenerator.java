@@ -21,27 +21,35 @@ import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
 import com.streamsets.pipeline.lib.generator.DataGeneratorException;
-import com.streamsets.pipeline.lib.util.AvroTypeUtil;
+import com.streamsets.pipeline.lib.util.AvroFieldCodec;
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.generic.GenericDatumWriter;
-import org.apache.avro.generic.GenericRecord;
-import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 public class AvroDataOutputStreamGenerator implements DataGenerator {
 
   private final Schema schema;
   private boolean closed;
-  private final DataFileWriter<GenericRecord> dataFileWriter;
+  private final AvroFieldCodec codec;
+  private final ByteArrayOutputStream buffer;
+  private BinaryEncoder binaryEncoder;
+  private final DataFileWriter<Object> dataFileWriter;
 
   public AvroDataOutputStreamGenerator(OutputStream outputStream, String avroSchema)
       throws IOException {
     schema = new Schema.Parser().setValidate(true).parse(avroSchema);
-    DatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
-    dataFileWriter = new DataFileWriter<>(datumWriter);
+    codec = AvroFieldCodec.get(schema);
+    buffer = new ByteArrayOutputStream(1024);
+    binaryEncoder = EncoderFactory.get().binaryEncoder(buffer, null);
+    // records are appended already encoded, the datum writer is never used
+    dataFileWriter = new DataFileWriter<>(new GenericDatumWriter<>(schema));
     dataFileWriter.create(schema, outputStream);
   }
 
@@ -50,11 +58,21 @@ public class AvroDataOutputStreamGenerator implements DataGenerator {
     if (closed) {
       throw new IOException("generator has been closed");
     }
+    buffer.reset();
+    boolean encoded = false;
     try {
-      dataFileWriter.append((GenericRecord)AvroTypeUtil.sdcRecordToAvro(record, schema));
+      codec.write(record, binaryEncoder);
+      binaryEncoder.flush();
+      encoded = true;
     } catch (StageException e) {
       throw new DataGeneratorException(e.getErrorCode(), e.getParams()); // params includes cause
+    } finally {
+      if (!encoded) {
+        // drop whatever the encoder buffered for the failed record, conversion errors may be unchecked exceptions
+        binaryEncoder = EncoderFactory.get().binaryEncoder(buffer, null);
+      }
     }
+    dataFileWriter.appendEncoded(ByteBuffer.wrap(buffer.toByteArray()));
   }
 
   @Override
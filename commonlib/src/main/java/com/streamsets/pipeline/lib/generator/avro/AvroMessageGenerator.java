@@ -21,14 +21,12 @@ import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
 import com.streamsets.pipeline.lib.generator.DataGeneratorException;
-import com.streamsets.pipeline.lib.util.AvroTypeUtil;
+import com.streamsets.pipeline.lib.util.AvroFieldCodec;
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericDatumWriter;
-import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.BinaryEncoder;
-import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.EncoderFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
@@ -36,7 +34,8 @@ public class AvroMessageGenerator implements DataGenerator {
 
   private Schema schema;
   private boolean closed;
-  private DatumWriter<GenericRecord> datumWriter;
+  private final AvroFieldCodec codec;
+  private final ByteArrayOutputStream buffer;
   private BinaryEncoder binaryEncoder;
   private final OutputStream outputStream;
 
@@ -44,8 +43,10 @@ public class AvroMessageGenerator implements DataGenerator {
       throws IOException {
     this.outputStream = outputStream;
     schema = new Schema.Parser().setValidate(true).parse(avroSchema);
-    datumWriter = new GenericDatumWriter<>(schema);
-    binaryEncoder = EncoderFactory.get().binaryEncoder(outputStream, null);
+    codec = AvroFieldCodec.get(schema);
+    // records are encoded into a buffer first so a record failing conversion does not leave partial data behind
+    buffer = new ByteArrayOutputStream(1024);
+    binaryEncoder = EncoderFactory.get().binaryEncoder(buffer, null);
   }
 
   @Override
@@ -53,11 +54,21 @@ public class AvroMessageGenerator implements DataGenerator {
     if (closed) {
       throw new IOException("generator has been closed");
     }
+    buffer.reset();
+    boolean encoded = false;
     try {
-      datumWriter.write((GenericRecord) AvroTypeUtil.sdcRecordToAvro(record, schema), binaryEncoder);
+      codec.write(record, binaryEncoder);
+      binaryEncoder.flush();
+      encoded = true;
     } catch (StageException e) {
       throw new DataGeneratorException(e.getErrorCode(), e.getParams()); // params includes cause
+    } finally {
+      if (!encoded) {
+        // drop whatever the encoder buffered for the failed record, conversion errors may be unchecked exceptions
+        binaryEncoder = EncoderFactory.get().binaryEncoder(buffer, null);
+      }
     }
+    buffer.writeTo(outputStream);
   }
 
   @Override
@@ -65,16 +76,12 @@ public class AvroMessageGenerator implements DataGenerator {
     if (closed) {
       throw new IOException("generator has been closed");
     }
-    binaryEncoder.flush();
+    outputStream.flush();
   }
 
   @Override
   public void close() throws IOException {
     closed = true;
-    try {
-      binaryEncoder.flush();
-    } finally {
-      outputStream.close();
-    }
+    outputStream.close();
   }
 }
@@ -188,6 +188,10 @@ public class FileContext {
     return multiFileInfo;
   }
 
+  public Path getDir() {
+    return dir;
+  }
+
   public LiveFile getStartingCurrentFileName() {
     Utils.checkState(open, "FileContext is closed");
     return startingCurrentFileName;
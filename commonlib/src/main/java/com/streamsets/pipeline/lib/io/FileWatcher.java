@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The <code>FileWatcher</code> keeps track of the directories that had file system events (files created, modified,
+ * deleted or renamed) using a {@link WatchService}, inotify on Linux.
+ * <p/>
+ * Every time events are collected a sequence is incremented and recorded for the directories that had events, callers
+ * remember the sequence when they find a file without new data and check later if its directory had events since.
+ * <p/>
+ * It is not thread safe.
+ */
+class FileWatcher implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(FileWatcher.class);
+
+  private final WatchService watchService;
+  private final Map<Path, WatchKey> dirs;
+  private final Map<WatchKey, Path> keys;
+  private final Map<Path, Long> dirSequences;
+  private final Map<Path, Long> dirTimes;
+  private long sequence;
+  private long overflowSequence;
+
+  public FileWatcher() throws IOException {
+    watchService = FileSystems.getDefault().newWatchService();
+    dirs = new HashMap<>();
+    keys = new HashMap<>();
+    dirSequences = new HashMap<>();
+    dirTimes = new HashMap<>();
+    overflowSequence = -1;
+  }
+
+  /**
+   * Starts watching the given directory if not watched already.
+   *
+   * @return if the directory is being watched, if not the caller cannot rely on events for it.
+   */
+  public boolean watch(Path dir) {
+    if (!dirs.containsKey(dir)) {
+      try {
+        WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        dirs.put(dir, key);
+        keys.put(key, dir);
+        LOG.debug("Watching directory '{}'", dir);
+      } catch (IOException | UnsupportedOperationException ex) {
+        LOG.trace("Could not watch directory '{}': {}", dir, ex.toString());
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the current sequence.
+   */
+  public long getSequence() {
+    return sequence;
+  }
+
+  /**
+   * Returns if the given directory had events after the given sequence, an event queue overflow counts as an event on
+   * every directory.
+   */
+  public boolean hasEventsSince(Path dir, long since) {
+    Long dirSequence = dirSequences.get(dir);
+    return overflowSequence > since || (dirSequence != null && dirSequence > since);
+  }
+
+  /**
+   * Returns if the given directory had events in the last given milliseconds.
+   */
+  public boolean hasEventsWithin(Path dir, long millis) {
+    Long dirTime = dirTimes.get(dir);
+    return dirTime != null && System.currentTimeMillis() - dirTime <= millis;
+  }
+
+  /**
+   * Collects the pending events, waiting up to the given time for the first one if there are none.
+   *
+   * @return if there were events.
+   */
+  public boolean collect(long waitMillis) {
+    boolean collected = false;
+    try {
+      WatchKey key = (waitMillis > 0) ? watchService.poll(waitMillis, TimeUnit.MILLISECONDS) : watchService.poll();
+      if (key != null) {
+        sequence++;
+        long now = System.currentTimeMillis();
+        while (key != null) {
+          Path dir = keys.get(key);
+          for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+              LOG.debug("Events lost for directory '{}'", dir);
+              overflowSequence = sequence;
+            }
+          }
+          if (dir != null) {
+            dirSequences.put(dir, sequence);
+            dirTimes.put(dir, now);
+          }
+          if (!key.reset()) {
+            // the directory is gone, it will be watched again if recreated
+            LOG.debug("Directory '{}' is not watchable anymore", dir);
+            keys.remove(key);
+            if (dir != null) {
+              dirs.remove(dir);
+            }
+          }
+          key = watchService.poll();
+        }
+        collected = true;
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    return collected;
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+}
@@ -59,6 +59,7 @@ public class LiveFile {
   private final String headHash;
   private final int headLen;
   private final String iNode;
+  private String serialized;
 
   /**
    * Creates a <code>LiveFile</code> given a {@link Path}.
@@ -151,16 +152,20 @@ public class LiveFile {
    */
   @SuppressWarnings("unchecked")
   public String serialize() {
-    Map map = new LinkedHashMap();
-    map.put("path", path.toString());
-    map.put("headHash", headHash);
-    map.put("headLen", headLen);
-    map.put("inode", iNode);
-    try {
-      return OBJECT_MAPPER.writeValueAsString(map);
-    } catch (Exception ex) {
-      throw new RuntimeException("It should not happen: " + ex.toString(), ex);
+    // offsets are reported on every batch, the LiveFile is immutable so we serialize it once
+    if (serialized == null) {
+      Map map = new LinkedHashMap();
+      map.put("path", path.toString());
+      map.put("headHash", headHash);
+      map.put("headLen", headLen);
+      map.put("inode", iNode);
+      try {
+        serialized = OBJECT_MAPPER.writeValueAsString(map);
+      } catch (Exception ex) {
+        throw new RuntimeException("It should not happen: " + ex.toString(), ex);
+      }
     }
+    return serialized;
   }
 
   /**
@@ -26,9 +26,11 @@ import org.slf4j.LoggerFactory;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * The <code>MultiFileReader</code> is a Reader that allows to read multiple files in a 'tail -f' mode while
@@ -39,6 +41,10 @@ import java.util.Map;
  * <p/>
  * Directories are read in round-robin fashion to avoid starvation.
  * <p/>
+ * If file system events are used, files that had no new data are not checked again until their directory has an event
+ * (or, as fallback, until a while has passed) and, if there is no data in any file, the reader blocks waiting for
+ * events instead of yielding CPU for a fixed time.
+ * <p/>
  * The usage pattern is:
  * <p/>
  * <pre>
@@ -58,10 +64,29 @@ public class MultiFileReader implements Closeable {
 
   private final static long MAX_YIELD_TIME = Integer.parseInt(System.getProperty("MultiFileReader.yield.ms", "500"));
 
+  // files without new data are checked again after this time even if their directory had no events
+  private final static long WATCH_FALLBACK_TIME =
+      Integer.parseInt(System.getProperty("MultiFileReader.watch.fallback.ms", "5000"));
+
+  // after an event files are checked for this time as the live file readers detect renames on refresh only
+  private final static long WATCH_GRACE_TIME = 2 * SingleLineLiveFileReader.REFRESH_INTERVAL;
+
   private final FileContextProvider fileContextProvider;
   private final List<FileEvent> events;
+  private final FileWatcher watcher;
+  private final Map<FileContext, Idle> idles;
   private boolean open;
 
+  private static class Idle {
+    private final long sequence;
+    private final long time;
+
+    public Idle(long sequence, long time) {
+      this.sequence = sequence;
+      this.time = time;
+    }
+  }
+
   /**
    * Creates a <code>MultiFileReader</code> that will scan/read multiple directories for data.
    *
@@ -73,6 +98,21 @@ public class MultiFileReader implements Closeable {
   public MultiFileReader(List<MultiFileInfo> fileInfos, Charset charset, int maxLineLength,
       PostProcessingOptions postProcessing, String archiveDir, boolean globbing, int scanIntervalSecs)
       throws IOException {
+    this(fileInfos, charset, maxLineLength, postProcessing, archiveDir, globbing, scanIntervalSecs, false);
+  }
+
+  /**
+   * Creates a <code>MultiFileReader</code> that will scan/read multiple directories for data.
+   *
+   * @param fileInfos a list with the information for for each directory to scan/read.
+   * @param charset the data charset (for all files)
+   * @param maxLineLength the maximum line length (for all files)
+   * @param useFileSystemEvents if file system events should be used to detect files with new data.
+   * @throws IOException thrown if there was an IO error while creating the reader.
+   */
+  public MultiFileReader(List<MultiFileInfo> fileInfos, Charset charset, int maxLineLength,
+      PostProcessingOptions postProcessing, String archiveDir, boolean globbing, int scanIntervalSecs,
+      boolean useFileSystemEvents) throws IOException {
     Utils.checkNotNull(fileInfos, "fileInfos");
     Utils.checkArgument(!fileInfos.isEmpty(), "fileInfos cannot be empty");
     Utils.checkNotNull(charset, "charset");
@@ -97,9 +137,20 @@ public class MultiFileReader implements Closeable {
                                                         postProcessing, archiveDir, eventPublisher)
                           : new ExactFileContextProvider(fileInfos, charset, maxLineLength, postProcessing,
                                                          archiveDir, eventPublisher);
+    watcher = (useFileSystemEvents) ? createWatcher() : null;
+    idles = new WeakHashMap<>();
     open = true;
   }
 
+  private static FileWatcher createWatcher() {
+    try {
+      return new FileWatcher();
+    } catch (IOException | UnsupportedOperationException ex) {
+      LOG.warn("File system events not available, polling files: {}", ex.toString(), ex);
+      return null;
+    }
+  }
+
   /**
    * Sets the file offsets to use for the next read. To work correctly, the last return offsets should be used or
    * an empty <code>Map</code> if there is none.
@@ -155,6 +206,44 @@ public class MultiFileReader implements Closeable {
     return (remaining > 0) ? remaining : 0;
   }
 
+  // if the file context may have new data, it is always the case if not using file system events
+  private boolean isReady(FileContext fileContext) {
+    boolean ready = true;
+    if (watcher != null) {
+      Path dir = fileContext.getDir();
+      Idle idle = idles.get(fileContext);
+      // if the directory cannot be watched we poll it
+      if (idle != null && watcher.watch(dir)) {
+        ready = watcher.hasEventsSince(dir, idle.sequence) || watcher.hasEventsWithin(dir, WATCH_GRACE_TIME) ||
+                System.currentTimeMillis() - idle.time > WATCH_FALLBACK_TIME;
+        if (ready) {
+          idles.remove(fileContext);
+        }
+      } else if (idle == null) {
+        // watching before reading so no data written after the read goes unnoticed
+        watcher.watch(dir);
+      }
+    }
+    return ready;
+  }
+
+  // the file context had no new data, it won't be read again until it is ready
+  private void setIdle(FileContext fileContext) {
+    if (watcher != null) {
+      idles.put(fileContext, new Idle(watcher.getSequence(), System.currentTimeMillis()));
+    }
+  }
+
+  // waits for file system events or yields CPU, returns false if interrupted
+  private boolean waitForData(long waitMillis) {
+    if (watcher != null) {
+      watcher.collect(waitMillis);
+      return !Thread.currentThread().isInterrupted();
+    } else {
+      return ThreadUtil.sleep(waitMillis);
+    }
+  }
+
   /**
    * Reads the next {@link LiveFileChunk} from the directories waiting the specified time for one.
    *
@@ -167,40 +256,55 @@ public class MultiFileReader implements Closeable {
     long startTime = System.currentTimeMillis();
     LiveFileChunk chunk = null;
     boolean exit = false;
+    if (watcher != null) {
+      // events received since the last call, idle files with new data are read in the first loop without waiting
+      watcher.collect(0);
+    }
     fileContextProvider.startNewLoop();
     while (!exit) {
       if (!fileContextProvider.didFullLoop()) {
         FileContext fileContext = fileContextProvider.next();
-        try {
-          LiveFileReader reader = fileContext.getReader();
-          if (reader != null) {
-            if (reader.hasNext()) {
-              chunk = reader.next(0);
-              if (LOG.isTraceEnabled()) {
-                LOG.trace("next(): directory '{}', file '{}', offset '{}' got data '{}'",
-                          fileContext.getMultiFileInfo().getFileFullPath(),
-                          reader.getLiveFile(), reader.getOffset(), chunk != null);
+        if (isReady(fileContext)) {
+          try {
+            LiveFileReader reader = fileContext.getReader();
+            if (reader != null) {
+              if (reader.hasNext()) {
+                chunk = reader.next(0);
+                if (LOG.isTraceEnabled()) {
+                  LOG.trace("next(): directory '{}', file '{}', offset '{}' got data '{}'",
+                            fileContext.getMultiFileInfo().getFileFullPath(),
+                            reader.getLiveFile(), reader.getOffset(), chunk != null);
+                }
+              } else {
+                if (LOG.isTraceEnabled()) {
+                  LOG.trace("next(): directory '{}', file '{}', offset '{}' EOF reached",
+                            fileContext.getMultiFileInfo().getFileFullPath(),
+                            reader.getLiveFile(), reader.getOffset());
+                }
+              }
+              fileContext.releaseReader(false);
+              if (chunk == null) {
+                setIdle(fileContext);
               }
             } else {
               if (LOG.isTraceEnabled()) {
-                LOG.trace("next(): directory '{}', file '{}', offset '{}' EOF reached",
-                          fileContext.getMultiFileInfo().getFileFullPath(),
-                          reader.getLiveFile(), reader.getOffset());
+                LOG.trace("next(): directory '{}', no reader available",
+                          fileContext.getMultiFileInfo().getFileFullPath());
               }
+              setIdle(fileContext);
             }
-            fileContext.releaseReader(false);
-          } else {
-            if (LOG.isTraceEnabled()) {
-              LOG.trace("next(): directory '{}', no reader available",
-                        fileContext.getMultiFileInfo().getFileFullPath());
+          } catch (IOException ex) {
+            LOG.warn("Error while reading file: {}", ex.toString(), ex);
+            try {
+              fileContext.releaseReader(true);
+            } catch (IOException ex1) {
+              LOG.warn("Error while releasing reader in error: {}", ex1.toString(), ex1);
             }
           }
-        } catch (IOException ex) {
-          LOG.warn("Error while reading file: {}", ex.toString(), ex);
-          try {
-            fileContext.releaseReader(true);
-          } catch (IOException ex1) {
-            LOG.warn("Error while releasing reader in error: {}", ex1.toString(), ex1);
+        } else {
+          if (LOG.isTraceEnabled()) {
+            LOG.trace("next(): directory '{}', no file system events, skipping",
+                      fileContext.getMultiFileInfo().getFileFullPath());
           }
         }
       }
@@ -214,7 +318,7 @@ public class MultiFileReader implements Closeable {
           if (!exit && LOG.isTraceEnabled()) {
             LOG.trace("next(): looped through all directories, yielding CPU");
           }
-          exit = exit || !ThreadUtil.sleep(Math.min(getRemainingWaitTime(startTime, waitMillis), MAX_YIELD_TIME));
+          exit = exit || !waitForData(Math.min(getRemainingWaitTime(startTime, waitMillis), MAX_YIELD_TIME));
           fileContextProvider.startNewLoop();
         }
       }
@@ -229,6 +333,9 @@ public class MultiFileReader implements Closeable {
     if (open) {
       open = false;
       fileContextProvider.close();
+      if (watcher != null) {
+        watcher.close();
+      }
     }
   }
 }
@@ -67,6 +67,27 @@ public abstract class DataParserFactory extends DataFactory {
 
   public abstract DataParser getParser(String id, Reader reader, long offset) throws DataParserException;
 
+  /**
+   * Returns if {@link #getFragmentParser(String, Reader, long)} is supported with the factory settings.
+   * <p/>
+   * Only formats whose records start on a new line and can be parsed without the data preceding them support
+   * fragments.
+   */
+  public boolean supportsFragments() {
+    return false;
+  }
+
+  /**
+   * Returns a parser for a fragment of a larger character data, the fragment starts at the given position of the
+   * larger data and the record IDs and offsets of the parser are positions in the larger data. A fragment must start
+   * at a record boundary.
+   * <p/>
+   * It must be called only if {@link #supportsFragments()} returns <code>true</code>.
+   */
+  public DataParser getFragmentParser(String id, Reader fragment, long position) throws DataParserException {
+    throw new UnsupportedOperationException(Utils.format("{} does not support fragments", getClass().getName()));
+  }
+
   protected OverrunReader createReader(InputStream is) {
     Reader bufferedReader = new BufferedReader(new InputStreamReader(is, getSettings().getCharset()));
     OverrunReader overrunReader = new OverrunReader(bufferedReader, getSettings().getOverRunLimit(), false,
@@ -75,10 +96,14 @@ public abstract class DataParserFactory extends DataFactory {
   }
 
   protected OverrunReader createReader(Reader reader) {
+    return createReader(reader, 0);
+  }
+
+  protected OverrunReader createReader(Reader reader, long initialPosition) {
     if (!(reader instanceof BufferedReader)) {
       reader = new BufferedReader(reader);
     }
-    OverrunReader overrunReader = new OverrunReader(reader, getSettings().getOverRunLimit(), false,
+    OverrunReader overrunReader = new OverrunReader(reader, initialPosition, getSettings().getOverRunLimit(), false,
                                                     getSettings().getRemoveCtrlChars());
     return overrunReader;
   }
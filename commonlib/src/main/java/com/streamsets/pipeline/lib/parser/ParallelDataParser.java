@@ -0,0 +1,278 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.parser;
+
+import com.google.common.base.Throwables;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.impl.Utils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedReader;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Parses character data with multiple threads. The data is split in fragments ending at line boundaries and the
+ * fragments are parsed concurrently with parsers obtained from
+ * {@link DataParserFactory#getFragmentParser(String, Reader, long)}.
+ * <p/>
+ * Records are returned in the order they have in the data. The offset is a position in the data, the same position a
+ * parser obtained from {@link DataParserFactory#getParser(String, Reader, long)} resumes from, so a file can be
+ * resumed in either mode.
+ * <p/>
+ * Records must not span lines. If the data has a header line, the header is prefixed to every fragment.
+ * <p/>
+ * The data is read and split by the thread calling {@link #parse()}, keeping up to <code>maxPendingFragments</code>
+ * fragments being parsed ahead of the records being consumed.
+ */
+public class ParallelDataParser implements DataParser {
+  private static final String MINUS_ONE = "-1";
+
+  private static class Fragment {
+    private final long end;
+    private final List<Record> records;
+    private final List<String> offsets;
+    private Exception error;
+
+    private Fragment(long end) {
+      this.end = end;
+      records = new ArrayList<>();
+      offsets = new ArrayList<>();
+    }
+  }
+
+  private final DataParserFactory parserFactory;
+  private final String id;
+  private final Reader reader;
+  private final ExecutorService executor;
+  private final int maxPendingFragments;
+  private final int fragmentSize;
+  private final char[] header;
+  private final Deque<Future<Fragment>> pending;
+  private long position;
+  private char[] carry;
+  private int carryLen;
+  private boolean readerEof;
+  private Fragment current;
+  private int currentIdx;
+  private String offset;
+  private boolean closed;
+
+  public ParallelDataParser(DataParserFactory parserFactory, String id, Reader reader, long offset, boolean hasHeader,
+      ExecutorService executor, int maxPendingFragments, int fragmentSize) throws IOException {
+    Utils.checkArgument(parserFactory.supportsFragments(), Utils.formatL("'{}' does not support fragments",
+                                                                         parserFactory.getClass().getName()));
+    Utils.checkArgument(maxPendingFragments > 0, "maxPendingFragments must be greater than zero");
+    Utils.checkArgument(fragmentSize > 0, "fragmentSize must be greater than zero");
+    this.parserFactory = parserFactory;
+    this.id = id;
+    this.reader = (reader instanceof BufferedReader) ? reader : new BufferedReader(reader);
+    this.executor = executor;
+    this.maxPendingFragments = maxPendingFragments;
+    this.fragmentSize = fragmentSize;
+    header = (hasHeader) ? readLine() : new char[0];
+    position = header.length;
+    if (offset > position) {
+      IOUtils.skipFully(this.reader, offset - position);
+      position = offset;
+    }
+    pending = new ArrayDeque<>(maxPendingFragments);
+    carry = new char[0];
+    this.offset = String.valueOf(position);
+  }
+
+  // reads the first line including its line feed
+  private char[] readLine() throws IOException {
+    StringBuilder sb = new StringBuilder();
+    int c = reader.read();
+    while (c > -1) {
+      sb.append((char) c);
+      if (c == '\n') {
+        break;
+      }
+      c = reader.read();
+    }
+    return sb.toString().toCharArray();
+  }
+
+  private static int lastLineFeed(char[] buffer, int from, int to) {
+    for (int i = to - 1; i >= from; i--) {
+      if (buffer[i] == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  // reads the next fragment, up to the last line feed, and submits its parsing. Returns NULL if there is no more data
+  private Future<Fragment> submitNextFragment() throws IOException, DataParserException {
+    int prefix = header.length;
+    char[] buffer = new char[prefix + Math.max(fragmentSize, carryLen)];
+    System.arraycopy(header, 0, buffer, 0, prefix);
+    System.arraycopy(carry, 0, buffer, prefix, carryLen);
+    int len = prefix + carryLen;
+    int end = -1;
+    while (end == -1) {
+      while (len < buffer.length && !readerEof) {
+        int read = reader.read(buffer, len, buffer.length - len);
+        if (read == -1) {
+          readerEof = true;
+        } else {
+          len += read;
+        }
+      }
+      if (readerEof) {
+        end = len;
+      } else {
+        end = lastLineFeed(buffer, prefix, len);
+        if (end == -1) {
+          // a line longer than the fragment size, the fragment grows until the end of the line
+          buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        } else {
+          end++;
+        }
+      }
+    }
+    carryLen = len - end;
+    if (carry.length < carryLen) {
+      carry = new char[carryLen];
+    }
+    System.arraycopy(buffer, end, carry, 0, carryLen);
+    if (end == prefix) {
+      return null;
+    }
+    long fragmentPosition = position - prefix;
+    position += end - prefix;
+    final long fragmentEnd = position;
+    // parsers are not created by the executor threads as factories are not required to be thread safe, the factory
+    // may also be shared with other threads
+    final DataParser parser;
+    synchronized (parserFactory) {
+      parser = parserFactory.getFragmentParser(id, new CharArrayReader(buffer, 0, end), fragmentPosition);
+    }
+    return executor.submit(new Callable<Fragment>() {
+      @Override
+      public Fragment call() throws Exception {
+        return parseFragment(parser, fragmentEnd);
+      }
+    });
+  }
+
+  private static Fragment parseFragment(DataParser parser, long end) throws IOException {
+    Fragment fragment = new Fragment(end);
+    try {
+      for (Record record = parser.parse(); record != null; record = parser.parse()) {
+        fragment.records.add(record);
+        fragment.offsets.add(parser.getOffset());
+      }
+      // the fragment has been fully parsed, parsers may report -1 or the end of the last record instead
+      if (!fragment.offsets.isEmpty()) {
+        fragment.offsets.set(fragment.offsets.size() - 1, String.valueOf(end));
+      }
+    } catch (IOException | DataParserException ex) {
+      fragment.error = ex;
+    } finally {
+      parser.close();
+    }
+    return fragment;
+  }
+
+  private void fill() throws IOException, DataParserException {
+    while (pending.size() < maxPendingFragments && !(readerEof && carryLen == 0)) {
+      Future<Fragment> future = submitNextFragment();
+      if (future == null) {
+        break;
+      }
+      pending.add(future);
+    }
+  }
+
+  private Fragment nextFragment() throws IOException, DataParserException {
+    fill();
+    Future<Fragment> future = pending.poll();
+    if (future == null) {
+      return null;
+    }
+    // keeps the executor busy while waiting for the fragment
+    fill();
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(Utils.format("Interrupted while parsing '{}'", id));
+    } catch (ExecutionException ex) {
+      Throwables.propagateIfPossible(ex.getCause(), IOException.class);
+      throw new IOException(ex.getCause());
+    }
+  }
+
+  @Override
+  public Record parse() throws IOException, DataParserException {
+    if (closed) {
+      throw new IOException("The parser is closed");
+    }
+    Record record = null;
+    while (record == null && !MINUS_ONE.equals(offset)) {
+      if (current != null && currentIdx < current.records.size()) {
+        offset = current.offsets.get(currentIdx);
+        record = current.records.get(currentIdx++);
+      } else if (current != null && current.error != null) {
+        Exception error = current.error;
+        current.error = null;
+        if (error instanceof DataParserException) {
+          throw (DataParserException) error;
+        }
+        throw (IOException) error;
+      } else {
+        current = nextFragment();
+        currentIdx = 0;
+        if (current == null) {
+          offset = MINUS_ONE;
+        }
+      }
+    }
+    return record;
+  }
+
+  @Override
+  public String getOffset() {
+    return offset;
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    for (Future<Fragment> future : pending) {
+      future.cancel(true);
+    }
+    pending.clear();
+    reader.close();
+  }
+
+}
@@ -69,6 +69,16 @@ public class WrapperDataParserFactory extends DataParserFactory {
     return new WrapperDataParser(factory.getParser(id, reader, offset));
   }
 
+  @Override
+  public boolean supportsFragments() {
+    return factory.supportsFragments();
+  }
+
+  @Override
+  public DataParser getFragmentParser(String id, Reader fragment, long position) throws DataParserException {
+    return new WrapperDataParser(factory.getFragmentParser(id, fragment, position));
+  }
+
 
   private static class WrapperDataParser implements DataParser {
     private final DataParser dataParser;
@@ -17,18 +17,15 @@
  */
 package com.streamsets.pipeline.lib.parser.avro;
 
+import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.lib.parser.DataParser;
 import com.streamsets.pipeline.lib.parser.DataParserException;
-import com.streamsets.pipeline.lib.util.AvroTypeUtil;
+import com.streamsets.pipeline.lib.util.AvroFieldDatumReader;
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileReader;
-import org.apache.avro.generic.GenericData;
-import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.generic.GenericRecord;
-import org.apache.avro.io.DatumReader;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -42,21 +39,17 @@ public class AvroDataFileParser implements DataParser {
   private final File file;
   private long previousSync;
   private long recordCount;
-  private final DatumReader<GenericRecord> datumReader;
-  private final DataFileReader<GenericRecord> dataFileReader;
+  private final AvroFieldDatumReader datumReader;
+  private final DataFileReader<Field> dataFileReader;
   private boolean eof;
   private Stage.Context context;
 
-  public AvroDataFileParser(Stage.Context context, String schema, File file, String readerOffset, int maxObjectLength)
+  public AvroDataFileParser(Stage.Context context, Schema schema, File file, String readerOffset, int maxObjectLength)
     throws IOException {
     this.context = context;
-    if(schema != null && !schema.isEmpty()) {
-      avroSchema = new Schema.Parser().setValidate(true).parse(schema);
-    } else {
-      avroSchema = null;
-    }
+    avroSchema = schema;
     this.file = file;
-    datumReader = new GenericDatumReader<>(avroSchema, avroSchema, GenericData.get()); //Reader schema argument is optional
+    datumReader = new AvroFieldDatumReader(avroSchema); //Reader schema argument is optional
     dataFileReader = new DataFileReader<>(new SeekableOverrunFileInputStream(
       new FileInputStream(file), maxObjectLength, true), datumReader);
     if(readerOffset != null && !readerOffset.isEmpty() && !readerOffset.equals("0")) {
@@ -83,7 +76,7 @@ public class AvroDataFileParser implements DataParser {
   public Record parse() throws IOException, DataParserException {
     //seekToOffset to the required position
     if(dataFileReader.hasNext()) {
-      GenericRecord avroRecord = dataFileReader.next();
+      Field field = dataFileReader.next();
       if (dataFileReader.previousSync() > previousSync) {
         previousSync = dataFileReader.previousSync();
         recordCount = 1;
@@ -91,7 +84,8 @@ public class AvroDataFileParser implements DataParser {
         recordCount++;
       }
       Record record = context.createRecord(file.getName() + OFFSET_SEPARATOR + previousSync + OFFSET_SEPARATOR + recordCount);
-      record.set(AvroTypeUtil.avroToSdcField(record, avroRecord.getSchema(), avroRecord));
+      record.set(field);
+      datumReader.setUnionAttributes(record);
       return record;
     }
     eof = true;
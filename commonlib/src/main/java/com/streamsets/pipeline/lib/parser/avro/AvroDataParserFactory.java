@@ -23,6 +23,7 @@ import com.streamsets.pipeline.lib.parser.DataParser;
 import com.streamsets.pipeline.lib.parser.DataParserException;
 import com.streamsets.pipeline.lib.parser.DataParserFactory;
 import com.streamsets.pipeline.lib.parser.Errors;
+import org.apache.avro.Schema;
 
 import java.io.File;
 import java.io.IOException;
@@ -56,6 +57,7 @@ public class AvroDataParserFactory extends DataParserFactory {
 
   private final String schema;
   private final boolean schemaInMessage;
+  private Schema avroSchema;
 
   public AvroDataParserFactory(Settings settings) {
     super(settings);
@@ -64,6 +66,14 @@ public class AvroDataParserFactory extends DataParserFactory {
     Utils.checkNotNull(schema, "Avro Schema");
   }
 
+  // parsed once on first use, a parser is created per message
+  private synchronized Schema getAvroSchema() {
+    if (avroSchema == null && !schema.isEmpty()) {
+      avroSchema = new Schema.Parser().setValidate(true).parse(schema);
+    }
+    return avroSchema;
+  }
+
   @Override
   public DataParser getParser(String id, InputStream is, long offset) throws DataParserException {
     throw new UnsupportedOperationException();
@@ -77,7 +87,7 @@ public class AvroDataParserFactory extends DataParserFactory {
   @Override
   public DataParser getParser(String id, byte[] data) throws DataParserException {
     try {
-      return new AvroMessageParser(getSettings().getContext(), schema, data, id, schemaInMessage);
+      return new AvroMessageParser(getSettings().getContext(), getAvroSchema(), data, id, schemaInMessage);
     } catch (IOException e) {
       throw new DataParserException(Errors.DATA_PARSER_01, e.toString(), e);
     }
@@ -87,7 +97,7 @@ public class AvroDataParserFactory extends DataParserFactory {
   public DataParser getParser(File file, String fileOffset)
     throws DataParserException {
     try {
-      return new AvroDataFileParser(getSettings().getContext(), schema, file, fileOffset,
+      return new AvroDataFileParser(getSettings().getContext(), getAvroSchema(), file, fileOffset,
         getSettings().getOverRunLimit());
     } catch (IOException e) {
       throw new DataParserException(Errors.DATA_PARSER_01, e.toString(), e);
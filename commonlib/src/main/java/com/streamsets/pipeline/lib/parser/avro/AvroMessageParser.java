@@ -17,73 +17,67 @@
  */
 package com.streamsets.pipeline.lib.parser.avro;
 
+import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.lib.parser.DataParser;
 import com.streamsets.pipeline.lib.parser.DataParserException;
-import com.streamsets.pipeline.lib.util.AvroTypeUtil;
+import com.streamsets.pipeline.lib.util.AvroFieldDatumReader;
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileReader;
 import org.apache.avro.file.SeekableByteArrayInput;
-import org.apache.avro.generic.GenericData;
-import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.BinaryDecoder;
-import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DecoderFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 
 public class AvroMessageParser implements DataParser {
 
   private Schema avroSchema;
-  private DatumReader<GenericRecord> datumReader;
-  private DataFileReader<GenericRecord> dataFileReader;
+  private AvroFieldDatumReader datumReader;
+  private DataFileReader<Field> dataFileReader;
   private BinaryDecoder decoder;
-  private GenericData.Record avroRecord;
   private boolean eof;
   private final Stage.Context context;
   private final String messageId;
   private final boolean messageHasSchema;
 
-  public AvroMessageParser(Stage.Context context, String schema, byte[] message, String messageId,
+  public AvroMessageParser(Stage.Context context, Schema schema, byte[] message, String messageId,
                            boolean messageHasSchema) throws IOException {
     this.context = context;
     this.messageId = messageId;
     this.messageHasSchema = messageHasSchema;
+    avroSchema = schema;
     if(messageHasSchema) {
-      if(schema != null && !schema.isEmpty()) {
-        avroSchema = new Schema.Parser().setValidate(true).parse(schema);
-      }
-      datumReader = new GenericDatumReader<>(avroSchema); //Reader schema argument is optional
+      datumReader = new AvroFieldDatumReader(avroSchema); //Reader schema argument is optional
       dataFileReader = new DataFileReader<>(new SeekableByteArrayInput(message), datumReader);
     } else {
-      avroSchema = new Schema.Parser().setValidate(true).parse(schema);
-      datumReader = new GenericDatumReader<>(avroSchema); //Reader schema argument is optional
-      decoder = DecoderFactory.get().binaryDecoder(new ByteArrayInputStream(message), null);
-      avroRecord = new GenericData.Record(avroSchema);
+      Utils.checkNotNull(avroSchema, "Avro Schema");
+      datumReader = new AvroFieldDatumReader(avroSchema); //Reader schema argument is optional
+      decoder = DecoderFactory.get().binaryDecoder(message, null);
     }
   }
 
   @Override
   public Record parse() throws IOException, DataParserException {
-    GenericRecord genericRecord;
+    Field field;
     Record record = null;
     if(messageHasSchema) {
-      genericRecord = parseMessageWithSchema();
+      field = parseMessageWithSchema();
     } else {
-      genericRecord = parseMessageWithoutSchema();
+      field = parseMessageWithoutSchema();
     }
-    if(genericRecord != null) {
+    if(field != null) {
       record = context.createRecord(messageId);
-      record.set(AvroTypeUtil.avroToSdcField(record, genericRecord.getSchema(), genericRecord));
+      record.set(field);
+      datumReader.setUnionAttributes(record);
     }
     return record;
   }
 
-  private GenericRecord parseMessageWithSchema() {
+  private Field parseMessageWithSchema() {
     if(dataFileReader.hasNext()) {
       return dataFileReader.next();
     }
@@ -91,9 +85,9 @@ public class AvroMessageParser implements DataParser {
     return null;
   }
 
-  private GenericRecord parseMessageWithoutSchema() throws IOException {
+  private Field parseMessageWithoutSchema() throws IOException {
     try {
-      return datumReader.read(avroRecord, decoder);
+      return datumReader.read(null, decoder);
     } catch (EOFException e) {
       eof = true;
     }
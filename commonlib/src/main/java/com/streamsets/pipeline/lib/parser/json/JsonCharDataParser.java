@@ -17,6 +17,9 @@
  */
 package com.streamsets.pipeline.lib.parser.json;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Stage;
@@ -28,18 +31,122 @@ import com.streamsets.pipeline.lib.parser.DataParser;
 import com.streamsets.pipeline.lib.parser.DataParserException;
 
 import java.io.IOException;
-import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 public class JsonCharDataParser implements DataParser {
+
+  // shared so all parsers use the same root symbol table, field names are canonicalized once and the same String
+  // instances are reused across records and parsers
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  /**
+   * Builds the record Fields straight from the Jackson tokens, without the intermediate Map/List object tree.
+   * <p/>
+   * Unsupported values are recorded and the value is read until its end so the parser stays positioned for the
+   * next object, the caller must check {@link #getUnsupportedType()} after every read.
+   */
+  static class FieldJsonParser extends OverrunStreamingJsonParser {
+    private String unsupportedType;
+
+    public FieldJsonParser(OverrunReader reader, long initialPosition, Mode mode, int maxObjectLen)
+        throws IOException {
+      super(reader, initialPosition, mode, maxObjectLen);
+    }
+
+    @Override
+    protected ObjectMapper getObjectMapper() {
+      return OBJECT_MAPPER;
+    }
+
+    public String getUnsupportedType() {
+      return unsupportedType;
+    }
+
+    @Override
+    protected Object readValue(Class<?> expectedClass) throws IOException {
+      unsupportedType = null;
+      JsonParser jsonParser = getJsonParser();
+      // a root null is EOF for the callers, same as with the object tree
+      return (jsonParser.getCurrentToken() == JsonToken.VALUE_NULL) ? null : readField(jsonParser);
+    }
+
+    private Field readField(JsonParser jsonParser) throws IOException {
+      Field field;
+      switch (jsonParser.getCurrentToken()) {
+        case START_OBJECT:
+          LinkedHashMap<String, Field> map = new LinkedHashMap<>();
+          while (jsonParser.nextToken() != JsonToken.END_OBJECT) {
+            String name = jsonParser.getCurrentName();
+            jsonParser.nextToken();
+            map.put(name, readField(jsonParser));
+            checkObjectLength();
+          }
+          field = Field.create(map);
+          break;
+        case START_ARRAY:
+          List<Field> list = new ArrayList<>();
+          while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+            list.add(readField(jsonParser));
+            checkObjectLength();
+          }
+          field = Field.create(list);
+          break;
+        case VALUE_STRING:
+          field = Field.create(jsonParser.getText());
+          break;
+        case VALUE_NUMBER_INT:
+          switch (jsonParser.getNumberType()) {
+            case INT:
+              field = Field.create(jsonParser.getIntValue());
+              break;
+            case LONG:
+              field = Field.create(jsonParser.getLongValue());
+              break;
+            default:
+              field = unsupported(jsonParser.getNumberValue().getClass().getSimpleName());
+          }
+          break;
+        case VALUE_NUMBER_FLOAT:
+          field = Field.create(jsonParser.getDoubleValue());
+          break;
+        case VALUE_TRUE:
+          field = Field.create(true);
+          break;
+        case VALUE_FALSE:
+          field = Field.create(false);
+          break;
+        case VALUE_NULL:
+          field = Field.create(Field.Type.STRING, null);
+          break;
+        case VALUE_EMBEDDED_OBJECT:
+          Object value = jsonParser.getEmbeddedObject();
+          if (value instanceof byte[]) {
+            field = Field.create((byte[]) value);
+          } else {
+            field = unsupported((value == null) ? "null" : value.getClass().getSimpleName());
+          }
+          break;
+        default:
+          field = unsupported(jsonParser.getCurrentToken().name());
+      }
+      return field;
+    }
+
+    private Field unsupported(String type) {
+      if (unsupportedType == null) {
+        unsupportedType = type;
+      }
+      return Field.create(Field.Type.STRING, null);
+    }
+
+  }
+
   private final Stage.Context context;
   private final String readerId;
   private final int maxObjectLen;
-  private final OverrunStreamingJsonParser parser;
+  private final FieldJsonParser parser;
   private boolean eof;
 
   public JsonCharDataParser(Stage.Context context, String readerId, OverrunReader reader, long readerOffset,
@@ -47,91 +154,44 @@ public class JsonCharDataParser implements DataParser {
     this.context = context;
     this.readerId = readerId;
     this.maxObjectLen = maxObjectLen;
-    parser = new OverrunStreamingJsonParser(reader, readerOffset, mode, maxObjectLen);
+    parser = new FieldJsonParser(reader, readerOffset, mode, maxObjectLen);
   }
 
   @Override
   public Record parse() throws IOException, DataParserException {
     Record record = null;
     long offset = parser.getReaderPosition();
-    try {
-      Object json = parser.read();
-      if (json != null) {
-        record = createRecord(offset, json);
-      } else {
-        eof = true;
-      }
-    } catch (ObjectLengthException ex) {
-      throw new DataParserException(Errors.JSON_PARSER_02, readerId, offset, maxObjectLen);
+    Field field = readField(offset);
+    if (field != null) {
+      record = createRecord(offset, field);
+    } else {
+      eof = true;
     }
     return record;
   }
 
   public Field parseAsField() throws IOException, DataParserException {
-    long offset = parser.getReaderPosition();
+    return readField(parser.getReaderPosition());
+  }
+
+  private Field readField(long offset) throws IOException, DataParserException {
     try {
-      Object json = parser.read();
-      return (json != null) ? jsonToField(json,  offset) : null;
+      Field field = (Field) parser.read();
+      if (parser.getUnsupportedType() != null) {
+        throw new DataParserException(Errors.JSON_PARSER_01, readerId, offset, parser.getUnsupportedType());
+      }
+      return field;
     } catch (ObjectLengthException ex) {
       throw new DataParserException(Errors.JSON_PARSER_02, readerId, offset, maxObjectLen);
     }
   }
 
-  protected Record createRecord(long offset, Object json) throws DataParserException {
+  protected Record createRecord(long offset, Field field) throws DataParserException {
     Record record = context.createRecord(readerId + "::" + offset);
-    record.set(jsonToField(json,  offset));
+    record.set(field);
     return record;
   }
 
-  @SuppressWarnings("unchecked")
-  protected Field jsonToField(Object json, long offset) throws DataParserException {
-    Field field;
-    if (json == null) {
-      field = Field.create(Field.Type.STRING, null);
-    } else if (json instanceof List) {
-      List jsonList = (List) json;
-      List<Field> list = new ArrayList<>(jsonList.size());
-      for (Object element : jsonList) {
-        list.add(jsonToField(element, offset));
-      }
-      field = Field.create(list);
-    } else if (json instanceof Map) {
-      Map<String, Object> jsonMap = (Map<String, Object>) json;
-      Map<String, Field> map = new LinkedHashMap<>();
-      for (Map.Entry<String, Object> entry : jsonMap.entrySet()) {
-        map.put(entry.getKey(), jsonToField(entry.getValue(), offset));
-      }
-      field = Field.create(map);
-    } else if (json instanceof String) {
-      field = Field.create((String) json);
-    } else if (json instanceof Boolean) {
-      field = Field.create((Boolean) json);
-    } else if (json instanceof Character) {
-      field = Field.create((Character) json);
-    } else if (json instanceof Byte) {
-      field = Field.create((Byte) json);
-    } else if (json instanceof Short) {
-      field = Field.create((Short) json);
-    } else if (json instanceof Integer) {
-      field = Field.create((Integer) json);
-    } else if (json instanceof Long) {
-      field = Field.create((Long) json);
-    } else if (json instanceof Float) {
-      field = Field.create((Float) json);
-    } else if (json instanceof Double) {
-      field = Field.create((Double) json);
-    } else if (json instanceof byte[]) {
-      field = Field.create((byte[]) json);
-    } else if (json instanceof Date) {
-      field = Field.createDate((Date) json);
-    } else if (json instanceof BigDecimal) {
-      field = Field.create((BigDecimal) json);
-    } else {
-      throw new DataParserException(Errors.JSON_PARSER_01, readerId, offset, json.getClass().getSimpleName());
-    }
-    return field;
-  }
-
   @Override
   public String getOffset() {
     return (eof) ? String.valueOf(-1) : String.valueOf(parser.getReaderPosition());
@@ -60,7 +60,7 @@ public abstract class LogCharDataParser implements DataParser {
     sb = new StringBuilder(maxObjectLen > 0 ? maxObjectLen : 1024);
     previousLine = new StringBuilder(maxObjectLen > 0 ? maxObjectLen : 1024);
     fieldsFromPrevLine = new LinkedHashMap<>();
-    currentOffset = readerOffset;
+    currentOffset = reader.getPos();
     this.maxStackTraceLines = maxStackTraceLines;
   }
 
@@ -134,9 +134,19 @@ public class LogDataParserFactory extends DataParserFactory {
     return createParser(id, createReader(reader), offset);
   }
 
+  @Override
+  public boolean supportsFragments() {
+    return true;
+  }
+
+  @Override
+  public DataParser getFragmentParser(String id, Reader fragment, long position) throws DataParserException {
+    return createParser(id, createReader(fragment, position), 0);
+  }
+
   private DataParser createParser(String id, OverrunReader reader, long offset) throws DataParserException {
-    Utils.checkState(reader.getPos() == 0, Utils.formatL("reader must be in position '0', it is at '{}'",
-      reader.getPos()));
+    Utils.checkState(reader.getCount() == 0, Utils.formatL("reader must not have been read, it read '{}' chars",
+                                                         reader.getCount()));
     try {
       switch (logMode) {
         case COMMON_LOG_FORMAT:
@@ -0,0 +1,851 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.util;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.api.impl.Utils;
+import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.io.ResolvingDecoder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads Avro binary data into {@link Field}s and writes {@link Field}s as Avro binary data, without intermediate
+ * Avro generic objects.
+ * <p/>
+ * A codec is compiled once per schema into a tree of nodes, one per schema type, and cached. The {@link Field}s
+ * produced are the same {@link AvroTypeUtil#avroToSdcField(com.streamsets.pipeline.api.Record, Schema, Object)}
+ * produces.
+ * <p/>
+ * When writing, a union branch is resolved from the field type and, for maps, from the field names of the record
+ * branches. That is lossy for ambiguous unions, unions with more than one branch producing the same field type (a
+ * string and an enum, bytes and a fixed, records and maps or arrays), so their branches are collected by field path
+ * when reading. They are kept as the same <code>avro.union.typeIndex.&lt;path&gt;</code> record header attributes
+ * {@link AvroTypeUtil} sets for every union, and writing a record honours those attributes when present.
+ */
+public class AvroFieldCodec {
+
+  private static final LoadingCache<Schema, AvroFieldCodec> CODECS = CacheBuilder.newBuilder().maximumSize(100).build(
+      new CacheLoader<Schema, AvroFieldCodec>() {
+        @Override
+        public AvroFieldCodec load(Schema schema) {
+          return new AvroFieldCodec(schema);
+        }
+      });
+
+  public static AvroFieldCodec get(Schema schema) {
+    return CODECS.getUnchecked(schema);
+  }
+
+  private final Schema schema;
+  private final Node root;
+  private final boolean ambiguousUnions;
+
+  private AvroFieldCodec(Schema schema) {
+    this.schema = schema;
+    root = compile(schema, new HashMap<String, RecordNode>());
+    ambiguousUnions = hasAmbiguousUnions(schema, new HashSet<String>());
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Returns if the schema has unions whose branches must be collected when reading to be written back the same.
+   */
+  public boolean hasAmbiguousUnions() {
+    return ambiguousUnions;
+  }
+
+  /**
+   * Reads a datum. If the decoder is a {@link ResolvingDecoder}, the codec schema must be its reader schema.
+   */
+  public Field read(Decoder decoder) throws IOException {
+    return root.read(decoder, null);
+  }
+
+  /**
+   * Reads a datum collecting the branches of the ambiguous unions, keyed by field path, into the given map.
+   */
+  public Field read(Decoder decoder, Map<String, Integer> unionBranches) throws IOException {
+    return root.read(decoder, (ambiguousUnions) ? new Path(unionBranches) : null);
+  }
+
+  public void write(Field field, Encoder encoder) throws IOException, StageException {
+    root.write(field, encoder, null);
+  }
+
+  /**
+   * Writes the record root field, taking union branches from the record union type index header attributes when
+   * present.
+   */
+  public void write(Record record, Encoder encoder) throws IOException, StageException {
+    root.write(record.get(), encoder, (hasUnionAttributes(record)) ? new Path(record.getHeader()) : null);
+  }
+
+  /**
+   * Sets the union branches collected when reading as union type index header attributes of the record.
+   */
+  public static void setUnionAttributes(Record record, Map<String, Integer> unionBranches) {
+    for (Map.Entry<String, Integer> entry : unionBranches.entrySet()) {
+      record.getHeader().setAttribute(AvroTypeUtil.AVRO_UNION_TYPE_INDEX_PREFIX + entry.getKey(),
+                                      String.valueOf(entry.getValue()));
+    }
+  }
+
+  private static boolean hasUnionAttributes(Record record) {
+    for (String name : record.getHeader().getAttributeNames()) {
+      if (name.startsWith(AvroTypeUtil.AVRO_UNION_TYPE_INDEX_PREFIX)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // the field type a branch is read as, branches with the same one cannot be told apart when writing
+  private static Schema.Type getFieldKind(Schema schema) {
+    switch (schema.getType()) {
+      case ENUM:
+        return Schema.Type.STRING;
+      case FIXED:
+        return Schema.Type.BYTES;
+      case RECORD:
+        return Schema.Type.MAP;
+      default:
+        return schema.getType();
+    }
+  }
+
+  private static boolean isAmbiguous(Schema union) {
+    Set<Schema.Type> kinds = new HashSet<>();
+    for (Schema branch : union.getTypes()) {
+      if (branch.getType() != Schema.Type.NULL && !kinds.add(getFieldKind(branch))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasAmbiguousUnions(Schema schema, Set<String> visitedRecords) {
+    switch (schema.getType()) {
+      case ARRAY:
+        return hasAmbiguousUnions(schema.getElementType(), visitedRecords);
+      case MAP:
+        return hasAmbiguousUnions(schema.getValueType(), visitedRecords);
+      case UNION:
+        boolean ambiguous = isAmbiguous(schema);
+        for (int i = 0; i < schema.getTypes().size() && !ambiguous; i++) {
+          ambiguous = hasAmbiguousUnions(schema.getTypes().get(i), visitedRecords);
+        }
+        return ambiguous;
+      case RECORD:
+        boolean found = false;
+        if (visitedRecords.add(schema.getFullName())) {
+          for (int i = 0; i < schema.getFields().size() && !found; i++) {
+            found = hasAmbiguousUnions(schema.getFields().get(i).schema(), visitedRecords);
+          }
+        }
+        return found;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Field path of the value being read or written, only tracked when union branches are collected or honoured. The
+   * path has the same format {@link AvroTypeUtil} uses for the union type index header attributes.
+   */
+  private static class Path {
+    private final StringBuilder path;
+    private final Map<String, Integer> unionBranches;
+    private final Record.Header header;
+
+    Path(Map<String, Integer> unionBranches) {
+      this(unionBranches, null);
+    }
+
+    Path(Record.Header header) {
+      this(null, header);
+    }
+
+    private Path(Map<String, Integer> unionBranches, Record.Header header) {
+      path = new StringBuilder();
+      this.unionBranches = unionBranches;
+      this.header = header;
+    }
+
+    int push(String name) {
+      int length = path.length();
+      path.append('/').append(name);
+      return length;
+    }
+
+    int push(int index) {
+      int length = path.length();
+      path.append('[').append(index).append(']');
+      return length;
+    }
+
+    void pop(int length) {
+      path.setLength(length);
+    }
+
+    void setBranch(int branch) {
+      unionBranches.put(path.toString(), branch);
+    }
+
+    // the branch in the header attribute, -1 if none
+    int getBranch() {
+      String branch = header.getAttribute(AvroTypeUtil.AVRO_UNION_TYPE_INDEX_PREFIX + path);
+      if (branch != null && !branch.isEmpty()) {
+        try {
+          return Integer.parseInt(branch);
+        } catch (NumberFormatException ex) {
+          return -1;
+        }
+      }
+      return -1;
+    }
+  }
+
+  private static Node compile(Schema schema, Map<String, RecordNode> records) {
+    switch (schema.getType()) {
+      case NULL:
+        return new NullNode(schema);
+      case BOOLEAN:
+        return new BooleanNode(schema);
+      case INT:
+        return new IntNode(schema);
+      case LONG:
+        return new LongNode(schema);
+      case FLOAT:
+        return new FloatNode(schema);
+      case DOUBLE:
+        return new DoubleNode(schema);
+      case STRING:
+        return new StringNode(schema);
+      case BYTES:
+        return new BytesNode(schema);
+      case FIXED:
+        return new FixedNode(schema);
+      case ENUM:
+        return new EnumNode(schema);
+      case ARRAY:
+        return new ArrayNode(schema, compile(schema.getElementType(), records));
+      case MAP:
+        return new MapNode(schema, compile(schema.getValueType(), records));
+      case UNION:
+        List<Node> branches = new ArrayList<>(schema.getTypes().size());
+        for (Schema branch : schema.getTypes()) {
+          branches.add(compile(branch, records));
+        }
+        return new UnionNode(schema, branches);
+      case RECORD:
+        // records may be recursive, the node is registered before compiling its fields
+        RecordNode node = records.get(schema.getFullName());
+        if (node == null) {
+          node = new RecordNode(schema);
+          records.put(schema.getFullName(), node);
+          node.compileFields(records);
+        }
+        return node;
+      default:
+        throw new IllegalArgumentException(Utils.format("Unexpected schema type {}", schema.getType()));
+    }
+  }
+
+  private static final int NO_MATCH = 0;
+  private static final int COMPATIBLE = 1;
+  private static final int EXACT = 2;
+
+  private static boolean isNull(Field field) {
+    return field == null || field.getValue() == null;
+  }
+
+  private abstract static class Node {
+    protected final Schema schema;
+
+    protected Node(Schema schema) {
+      this.schema = schema;
+    }
+
+    abstract Field read(Decoder in, Path path) throws IOException;
+
+    void write(Field field, Encoder out, Path path) throws IOException, StageException {
+      if (isNull(field)) {
+        throw new StageException(CommonError.CMN_0107, schema.getType().getName(), schema);
+      }
+      writeValue(field, out, path);
+    }
+
+    abstract void writeValue(Field field, Encoder out, Path path) throws IOException, StageException;
+
+    // how well a non NULL field matches the node when resolving a union branch
+    abstract int match(Field field);
+
+    boolean isNullable() {
+      return false;
+    }
+  }
+
+  private static class NullNode extends Node {
+    NullNode(Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      in.readNull();
+      return Field.create(Field.Type.MAP, null);
+    }
+
+    @Override
+    void write(Field field, Encoder out, Path path) throws IOException {
+      out.writeNull();
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException {
+      out.writeNull();
+    }
+
+    @Override
+    int match(Field field) {
+      return NO_MATCH;
+    }
+
+    @Override
+    boolean isNullable() {
+      return true;
+    }
+  }
+
+  private static class BooleanNode extends Node {
+    BooleanNode(Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      return Field.create(in.readBoolean());
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException {
+      out.writeBoolean(field.getValueAsBoolean());
+    }
+
+    @Override
+    int match(Field field) {
+      return (field.getType() == Field.Type.BOOLEAN) ? EXACT : NO_MATCH;
+    }
+  }
+
+  private static class IntNode extends Node {
+    IntNode(Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      return Field.create(in.readInt());
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException {
+      out.writeInt(field.getValueAsInteger());
+    }
+
+    @Override
+    int match(Field field) {
+      switch (field.getType()) {
+        case INTEGER:
+          return EXACT;
+        case SHORT:
+        case BYTE:
+          return COMPATIBLE;
+        default:
+          return NO_MATCH;
+      }
+    }
+  }
+
+  private static class LongNode extends Node {
+    LongNode(Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      return Field.create(in.readLong());
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException {
+      out.writeLong(field.getValueAsLong());
+    }
+
+    @Override
+    int match(Field field) {
+      switch (field.getType()) {
+        case LONG:
+          return EXACT;
+        case INTEGER:
+        case SHORT:
+        case BYTE:
+          return COMPATIBLE;
+        default:
+          return NO_MATCH;
+      }
+    }
+  }
+
+  private static class FloatNode extends Node {
+    FloatNode(Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      return Field.create(in.readFloat());
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException {
+      out.writeFloat(field.getValueAsFloat());
+    }
+
+    @Override
+    int match(Field field) {
+      return (field.getType() == Field.Type.FLOAT) ? EXACT : NO_MATCH;
+    }
+  }
+
+  private static class DoubleNode extends Node {
+    DoubleNode(Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      return Field.create(in.readDouble());
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException {
+      out.writeDouble(field.getValueAsDouble());
+    }
+
+    @Override
+    int match(Field field) {
+      switch (field.getType()) {
+        case DOUBLE:
+          return EXACT;
+        case FLOAT:
+        case DECIMAL:
+          return COMPATIBLE;
+        default:
+          return NO_MATCH;
+      }
+    }
+  }
+
+  private static class StringNode extends Node {
+    StringNode(Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      return Field.create(in.readString());
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException {
+      out.writeString(field.getValueAsString());
+    }
+
+    @Override
+    int match(Field field) {
+      switch (field.getType()) {
+        case STRING:
+        case CHAR:
+          return EXACT;
+        default:
+          return NO_MATCH;
+      }
+    }
+  }
+
+  private static class BytesNode extends Node {
+    BytesNode(Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      return Field.create(in.readBytes(null).array());
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException {
+      out.writeBytes(field.getValueAsByteArray());
+    }
+
+    @Override
+    int match(Field field) {
+      return (field.getType() == Field.Type.BYTE_ARRAY) ? EXACT : NO_MATCH;
+    }
+  }
+
+  private static class FixedNode extends Node {
+    private final int size;
+
+    FixedNode(Schema schema) {
+      super(schema);
+      size = schema.getFixedSize();
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      byte[] bytes = new byte[size];
+      in.readFixed(bytes);
+      return Field.create(bytes);
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException {
+      out.writeFixed(field.getValueAsByteArray());
+    }
+
+    @Override
+    int match(Field field) {
+      return (field.getType() == Field.Type.BYTE_ARRAY && field.getValueAsByteArray().length == size)
+             ? EXACT : NO_MATCH;
+    }
+  }
+
+  private static class EnumNode extends Node {
+    private final List<String> symbols;
+
+    EnumNode(Schema schema) {
+      super(schema);
+      symbols = schema.getEnumSymbols();
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      return Field.create(symbols.get(in.readEnum()));
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException {
+      out.writeEnum(schema.getEnumOrdinal(field.getValueAsString()));
+    }
+
+    @Override
+    int match(Field field) {
+      return (field.getType() == Field.Type.STRING && schema.hasEnumSymbol(field.getValueAsString()))
+             ? EXACT : NO_MATCH;
+    }
+  }
+
+  private static class ArrayNode extends Node {
+    private final Node element;
+
+    ArrayNode(Schema schema, Node element) {
+      super(schema);
+      this.element = element;
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      List<Field> list = new ArrayList<>();
+      for (long n = in.readArrayStart(); n > 0; n = in.arrayNext()) {
+        for (long i = 0; i < n; i++) {
+          if (path == null) {
+            list.add(element.read(in, null));
+          } else {
+            int length = path.push(list.size());
+            list.add(element.read(in, path));
+            path.pop(length);
+          }
+        }
+      }
+      return Field.create(list);
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException, StageException {
+      List<Field> list = field.getValueAsList();
+      out.writeArrayStart();
+      out.setItemCount(list.size());
+      for (int i = 0; i < list.size(); i++) {
+        out.startItem();
+        if (path == null) {
+          element.write(list.get(i), out, null);
+        } else {
+          int length = path.push(i);
+          element.write(list.get(i), out, path);
+          path.pop(length);
+        }
+      }
+      out.writeArrayEnd();
+    }
+
+    @Override
+    int match(Field field) {
+      return (field.getType() == Field.Type.LIST) ? EXACT : NO_MATCH;
+    }
+  }
+
+  private static class MapNode extends Node {
+    private final Node value;
+
+    MapNode(Schema schema, Node value) {
+      super(schema);
+      this.value = value;
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      Map<String, Field> map = new LinkedHashMap<>();
+      for (long n = in.readMapStart(); n > 0; n = in.mapNext()) {
+        for (long i = 0; i < n; i++) {
+          String key = in.readString();
+          if (path == null) {
+            map.put(key, value.read(in, null));
+          } else {
+            int length = path.push(key);
+            map.put(key, value.read(in, path));
+            path.pop(length);
+          }
+        }
+      }
+      return Field.create(map);
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException, StageException {
+      Map<String, Field> map = field.getValueAsMap();
+      out.writeMapStart();
+      out.setItemCount(map.size());
+      for (Map.Entry<String, Field> entry : map.entrySet()) {
+        out.startItem();
+        out.writeString(entry.getKey());
+        if (path == null) {
+          value.write(entry.getValue(), out, null);
+        } else {
+          int length = path.push(entry.getKey());
+          value.write(entry.getValue(), out, path);
+          path.pop(length);
+        }
+      }
+      out.writeMapEnd();
+    }
+
+    @Override
+    int match(Field field) {
+      // a record with matching field names is a better match
+      return (field.getType() == Field.Type.MAP || field.getType() == Field.Type.LIST_MAP) ? COMPATIBLE : NO_MATCH;
+    }
+  }
+
+  private static class RecordNode extends Node {
+    private String[] names;
+    private Node[] fields;
+
+    RecordNode(Schema schema) {
+      super(schema);
+    }
+
+    void compileFields(Map<String, RecordNode> records) {
+      List<Schema.Field> schemaFields = schema.getFields();
+      names = new String[schemaFields.size()];
+      fields = new Node[schemaFields.size()];
+      for (Schema.Field schemaField : schemaFields) {
+        names[schemaField.pos()] = schemaField.name();
+        fields[schemaField.pos()] = compile(schemaField.schema(), records);
+      }
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      Map<String, Field> map = new LinkedHashMap<>();
+      if (in instanceof ResolvingDecoder) {
+        for (Schema.Field schemaField : ((ResolvingDecoder) in).readFieldOrder()) {
+          map.put(schemaField.name(), readField(schemaField.pos(), in, path));
+        }
+      } else {
+        for (int i = 0; i < fields.length; i++) {
+          map.put(names[i], readField(i, in, path));
+        }
+      }
+      return Field.create(map);
+    }
+
+    private Field readField(int pos, Decoder in, Path path) throws IOException {
+      if (path == null) {
+        return fields[pos].read(in, null);
+      }
+      int length = path.push(names[pos]);
+      Field field = fields[pos].read(in, path);
+      path.pop(length);
+      return field;
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException, StageException {
+      Map<String, Field> map = field.getValueAsMap();
+      for (int i = 0; i < fields.length; i++) {
+        Field value = map.get(names[i]);
+        if (isNull(value) && !fields[i].isNullable()) {
+          throw new StageException(CommonError.CMN_0107, names[i], schema.getName());
+        }
+        if (path == null) {
+          fields[i].write(value, out, null);
+        } else {
+          int length = path.push(names[i]);
+          fields[i].write(value, out, path);
+          path.pop(length);
+        }
+      }
+    }
+
+    @Override
+    int match(Field field) {
+      if (field.getType() != Field.Type.MAP && field.getType() != Field.Type.LIST_MAP) {
+        return NO_MATCH;
+      }
+      Map<String, Field> map = field.getValueAsMap();
+      for (String key : map.keySet()) {
+        if (schema.getField(key) == null) {
+          return NO_MATCH;
+        }
+      }
+      for (int i = 0; i < fields.length; i++) {
+        if (isNull(map.get(names[i])) && !fields[i].isNullable()) {
+          return NO_MATCH;
+        }
+      }
+      // a record with exactly the field names is preferred to one with additional nullable fields
+      return (map.size() == fields.length) ? EXACT : COMPATIBLE;
+    }
+  }
+
+  private static class UnionNode extends Node {
+    private final Node[] branches;
+    private final int nullBranch;
+    private final boolean ambiguous;
+
+    UnionNode(Schema schema, List<Node> branches) {
+      super(schema);
+      this.branches = branches.toArray(new Node[branches.size()]);
+      ambiguous = isAmbiguous(schema);
+      int nullIdx = -1;
+      for (int i = 0; i < this.branches.length && nullIdx == -1; i++) {
+        if (this.branches[i] instanceof NullNode) {
+          nullIdx = i;
+        }
+      }
+      nullBranch = nullIdx;
+    }
+
+    @Override
+    Field read(Decoder in, Path path) throws IOException {
+      int branch = in.readIndex();
+      if (path != null && ambiguous) {
+        path.setBranch(branch);
+      }
+      return branches[branch].read(in, path);
+    }
+
+    @Override
+    void write(Field field, Encoder out, Path path) throws IOException, StageException {
+      int branch = (path != null) ? getRecordedBranch(field, path) : -1;
+      if (branch == -1) {
+        branch = (isNull(field)) ? nullBranch : resolve(field);
+      }
+      if (branch == -1) {
+        if (isNull(field)) {
+          throw new StageException(CommonError.CMN_0107, schema.getType().getName(), schema);
+        }
+        throw new StageException(CommonError.CMN_0106, field.getType(), schema, "no matching union branch");
+      }
+      out.writeIndex(branch);
+      branches[branch].write(field, out, path);
+    }
+
+    @Override
+    void writeValue(Field field, Encoder out, Path path) throws IOException, StageException {
+      write(field, out, path);
+    }
+
+    // the branch of the header attribute if the field still fits it, the field may have been modified since read
+    private int getRecordedBranch(Field field, Path path) {
+      int branch = path.getBranch();
+      if (branch < 0 || branch >= branches.length) {
+        return -1;
+      }
+      if (isNull(field)) {
+        return (branch == nullBranch) ? branch : -1;
+      }
+      return (branches[branch].match(field) != NO_MATCH) ? branch : -1;
+    }
+
+    private int resolve(Field field) {
+      int branch = -1;
+      int best = NO_MATCH;
+      for (int i = 0; i < branches.length && best < EXACT; i++) {
+        int match = branches[i].match(field);
+        if (match > best) {
+          best = match;
+          branch = i;
+        }
+      }
+      return branch;
+    }
+
+    @Override
+    int match(Field field) {
+      // unions cannot be nested in unions
+      return NO_MATCH;
+    }
+
+    @Override
+    boolean isNullable() {
+      return nullBranch > -1;
+    }
+  }
+
+}
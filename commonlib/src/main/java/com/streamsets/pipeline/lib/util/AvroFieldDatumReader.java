@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.util;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import org.apache.avro.Schema;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.ResolvingDecoder;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link DatumReader} producing {@link Field}s with an {@link AvroFieldCodec}, resolving the writer schema against
+ * the reader schema when they differ.
+ * <p/>
+ * The branches of the ambiguous unions of the last datum read are kept, {@link #setUnionAttributes(Record)} sets them
+ * in the record created for the datum so generators write them back the same.
+ */
+public class AvroFieldDatumReader implements DatumReader<Field> {
+  private final Schema readerSchema;
+  private AvroFieldCodec codec;
+  private ResolvingDecoder resolver;
+  private final Map<String, Integer> unionBranches = new LinkedHashMap<>();
+
+  public AvroFieldDatumReader() {
+    this(null);
+  }
+
+  public AvroFieldDatumReader(Schema readerSchema) {
+    this.readerSchema = readerSchema;
+    if (readerSchema != null) {
+      setSchema(readerSchema);
+    }
+  }
+
+  @Override
+  public void setSchema(Schema writerSchema) {
+    Schema schema = (readerSchema != null) ? readerSchema : writerSchema;
+    codec = AvroFieldCodec.get(schema);
+    resolver = null;
+    if (!schema.equals(writerSchema)) {
+      try {
+        resolver = DecoderFactory.get().resolvingDecoder(writerSchema, schema, null);
+      } catch (IOException ex) {
+        throw new IllegalArgumentException(ex.getMessage(), ex);
+      }
+    }
+  }
+
+  @Override
+  public Field read(Field reuse, Decoder in) throws IOException {
+    Field field;
+    unionBranches.clear();
+    if (resolver == null) {
+      field = codec.read(in, unionBranches);
+    } else {
+      resolver.configure(in);
+      field = codec.read(resolver, unionBranches);
+      resolver.drain();
+    }
+    return field;
+  }
+
+  /**
+   * Sets the union branches of the last datum read as union type index header attributes of the record.
+   */
+  public void setUnionAttributes(Record record) {
+    AvroFieldCodec.setUnionAttributes(record, unionBranches);
+  }
+
+}
@@ -38,7 +38,6 @@ import java.util.Map;
 
 public class AvroTypeUtil {
 
-  @VisibleForTesting
   static final String AVRO_UNION_TYPE_INDEX_PREFIX = "avro.union.typeIndex.";
   private static final String FORWARD_SLASH = "/";
 
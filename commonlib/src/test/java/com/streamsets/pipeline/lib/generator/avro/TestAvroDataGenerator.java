@@ -35,6 +35,8 @@ import org.apache.avro.file.DataFileReader;
 import org.apache.avro.file.SeekableByteArrayInput;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -138,6 +140,56 @@ public class TestAvroDataGenerator {
     System.out.println(new String(baos.toByteArray()));
   }
 
+  // a record failing conversion after part of it was encoded
+  private Record createBadRecord() throws IOException {
+    Record record = createRecord();
+    record.set("/age", Field.create("not a number"));
+    return record;
+  }
+
+  @Test
+  public void testFailedRecordDoesNotCorruptNextRecord() throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    DataGenerator gen = new AvroDataOutputStreamGenerator(baos, AVRO_SCHEMA);
+    try {
+      gen.write(createBadRecord());
+      Assert.fail();
+    } catch (Exception ex) {
+      // expected
+    }
+    gen.write(createRecord());
+    gen.close();
+
+    DataFileReader<GenericRecord> dataFileReader = new DataFileReader<>(
+      new SeekableByteArrayInput(baos.toByteArray()), new GenericDatumReader<GenericRecord>());
+    Assert.assertTrue(dataFileReader.hasNext());
+    GenericRecord readRecord = dataFileReader.next();
+    Assert.assertEquals("hari", readRecord.get("name").toString());
+    Assert.assertEquals(3100, readRecord.get("age"));
+    Assert.assertFalse(dataFileReader.hasNext());
+  }
+
+  @Test
+  public void testMessageFailedRecordDoesNotCorruptNextRecord() throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    DataGenerator gen = new AvroMessageGenerator(baos, AVRO_SCHEMA);
+    try {
+      gen.write(createBadRecord());
+      Assert.fail();
+    } catch (Exception ex) {
+      // expected
+    }
+    gen.write(createRecord());
+    gen.close();
+
+    Schema schema = new Schema.Parser().parse(AVRO_SCHEMA);
+    BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(baos.toByteArray(), null);
+    GenericRecord readRecord = new GenericDatumReader<GenericRecord>(schema).read(null, decoder);
+    Assert.assertEquals("hari", readRecord.get("name").toString());
+    Assert.assertEquals(3100, readRecord.get("age"));
+    Assert.assertTrue(decoder.isEnd());
+  }
+
   private Record createRecord() throws IOException {
     Map<String, Object> obj = new HashMap<>();
     obj.put("name", "hari");
@@ -30,9 +30,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -101,6 +103,83 @@ public class TestMultiFileReader {
     mdr.close();
   }
 
+  @Test
+  public void testWithFileSystemEvents() throws Exception {
+    final File file1 = new File(testDir1, "f1.txt");
+    File file2 = new File(testDir2, "f2.txt");
+    Files.write(file1.toPath(), Arrays.asList("f1.0"), UTF8);
+    Files.write(file2.toPath(), Arrays.asList("f2.0"), UTF8);
+    MultiFileInfo di1 =
+        new MultiFileInfo("tag1", file1.getPath(), FileRollMode.REVERSE_COUNTER, "", "", "");
+    MultiFileInfo di2 =
+        new MultiFileInfo("tag2", file2.getPath(), FileRollMode.REVERSE_COUNTER, "", "", "");
+    MultiFileReader mdr = new MultiFileReader(Arrays.asList(di1, di2), UTF8, 1024, PostProcessingOptions.NONE, null,
+                                              false, 0, true);
+    mdr.setOffsets(new HashMap<String, String>());
+
+    Set<String> lines = new HashSet<>();
+    LiveFileChunk chunk = mdr.next(1000);
+    Assert.assertNotNull(chunk);
+    lines.add(chunk.getLines().get(0).getText());
+    chunk = mdr.next(1000);
+    Assert.assertNotNull(chunk);
+    lines.add(chunk.getLines().get(0).getText());
+    Assert.assertEquals(new HashSet<>(Arrays.asList("f1.0\n", "f2.0\n")), lines);
+    Assert.assertNull(mdr.next(0));
+
+    // data written while waiting wakes up the reader
+    Thread writer = new Thread() {
+      @Override
+      public void run() {
+        try {
+          Thread.sleep(200);
+          Files.write(file1.toPath(), Arrays.asList("f1.1"), UTF8, StandardOpenOption.APPEND);
+        } catch (Exception ex) {
+          throw new RuntimeException(ex);
+        }
+      }
+    };
+    writer.start();
+    long start = System.currentTimeMillis();
+    chunk = mdr.next(10000);
+    writer.join();
+    Assert.assertTrue(System.currentTimeMillis() - start < 10000);
+    Assert.assertNotNull(chunk);
+    Assert.assertEquals("tag1", chunk.getTag());
+    Assert.assertEquals("f1.1\n", chunk.getLines().get(0).getText());
+
+    // data written before waiting is read as well
+    Assert.assertNull(mdr.next(0));
+    Files.write(file2.toPath(), Arrays.asList("f2.1"), UTF8, StandardOpenOption.APPEND);
+    chunk = mdr.next(10000);
+    Assert.assertNotNull(chunk);
+    Assert.assertEquals("tag2", chunk.getTag());
+    Assert.assertEquals("f2.1\n", chunk.getLines().get(0).getText());
+
+    // data written to an idle file is read while another file keeps producing chunks, past the events grace time
+    Thread.sleep(1100);
+    List<String> f2Lines = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      f2Lines.add("f2." + (i + 2));
+    }
+    Files.write(file2.toPath(), f2Lines, UTF8, StandardOpenOption.APPEND);
+    chunk = mdr.next(10000);
+    Assert.assertNotNull(chunk);
+    Assert.assertEquals("tag2", chunk.getTag());
+    Files.write(file1.toPath(), Arrays.asList("f1.2"), UTF8, StandardOpenOption.APPEND);
+    Thread.sleep(200);
+    chunk = mdr.next(0);
+    Assert.assertNotNull(chunk);
+    if (chunk.getTag().equals("tag2")) {
+      chunk = mdr.next(0);
+    }
+    Assert.assertNotNull(chunk);
+    Assert.assertEquals("tag1", chunk.getTag());
+    Assert.assertEquals("f1.2\n", chunk.getLines().get(0).getText());
+
+    mdr.close();
+  }
+
   @Test(expected = IOException.class)
   public void testWithMultipleFilesInSameDirectoryWithSameName() throws Exception {
     File file1 = new File(testDir1, "f1.txt");
@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.parser;
+
+import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.config.CsvHeader;
+import com.streamsets.pipeline.config.CsvMode;
+import com.streamsets.pipeline.config.CsvRecordType;
+import com.streamsets.pipeline.config.JsonMode;
+import com.streamsets.pipeline.lib.parser.text.TextDataParserFactory;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class TestParallelDataParser {
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private Stage.Context getContext() {
+    return ContextInfoCreator.createSourceContext("i", false, OnRecordError.TO_ERROR, Collections.EMPTY_LIST);
+  }
+
+  // returns the record IDs, with the offset after each record, and the final offset
+  private List<String> parseAll(DataParser parser) throws Exception {
+    List<String> result = new ArrayList<>();
+    for (Record record = parser.parse(); record != null; record = parser.parse()) {
+      result.add(record.getHeader().getSourceId() + " " + record.get() + " " + parser.getOffset());
+    }
+    result.add(parser.getOffset());
+    parser.close();
+    return result;
+  }
+
+  private void testSameAsSequential(DataParserFactory factory, String data, boolean hasHeader) throws Exception {
+    List<String> expected = parseAll(factory.getParser("id", new StringReader(data), 0));
+    Assert.assertTrue(expected.size() > 10);
+    // small fragments to have many of them, some smaller than a line
+    for (int fragmentSize : new int[] {10, 100, 1000, 100000}) {
+      DataParser parser = new ParallelDataParser(factory, "id", new StringReader(data), 0, hasHeader, executor, 3,
+                                                 fragmentSize);
+      Assert.assertEquals(expected, parseAll(parser));
+    }
+  }
+
+  private void testResume(DataParserFactory factory, String data, boolean hasHeader) throws Exception {
+    DataParser parser = new ParallelDataParser(factory, "id", new StringReader(data), 0, hasHeader, executor, 3, 100);
+    for (int i = 0; i < 25; i++) {
+      Assert.assertNotNull(parser.parse());
+    }
+    long offset = Long.parseLong(parser.getOffset());
+    parser.close();
+
+    List<String> expected = parseAll(factory.getParser("id", new StringReader(data), offset));
+    parser = new ParallelDataParser(factory, "id", new StringReader(data), offset, hasHeader, executor, 3, 100);
+    Assert.assertEquals(expected, parseAll(parser));
+  }
+
+  private String createLines(String format) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      sb.append(String.format(format, i, i * 3)).append((i % 2 == 0) ? "\n" : "\r\n");
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testText() throws Exception {
+    DataParserFactory factory = new DataParserFactoryBuilder(getContext(), DataParserFormat.TEXT)
+        .setMaxDataLen(1000).build();
+    String data = createLines("line %d %d");
+    testSameAsSequential(factory, data, false);
+    testResume(factory, data, false);
+    // no line feed at the end
+    testSameAsSequential(factory, data + "last", false);
+  }
+
+  @Test
+  public void testJson() throws Exception {
+    DataParserFactory factory = new DataParserFactoryBuilder(getContext(), DataParserFormat.JSON)
+        .setMode(JsonMode.MULTIPLE_OBJECTS).setMaxDataLen(1000).build();
+    // the sequential parser reports the end of the last object as last offset, not the end of the data
+    String data = createLines("{\"a\":%d,\"b\":[\"%d\"]}").trim();
+    testSameAsSequential(factory, data, false);
+    testResume(factory, data, false);
+  }
+
+  @Test
+  public void testDelimitedWithHeader() throws Exception {
+    DataParserFactory factory = new DataParserFactoryBuilder(getContext(), DataParserFormat.DELIMITED)
+        .setMode(CsvMode.CSV).setMode(CsvHeader.WITH_HEADER).setMode(CsvRecordType.LIST).setMaxDataLen(1000).build();
+    String data = "a,b\n" + createLines("%d,%d");
+    testSameAsSequential(factory, data, true);
+    testResume(factory, data, true);
+  }
+
+  @Test
+  public void testError() throws Exception {
+    DataParserFactory factory = new DataParserFactoryBuilder(getContext(), DataParserFormat.JSON)
+        .setMode(JsonMode.MULTIPLE_OBJECTS).setMaxDataLen(1000).build();
+    String data = "{\"a\":1}\n{\"a\":2}\n{\"a\":\n{\"a\":4}\n";
+    DataParser parser = new ParallelDataParser(factory, "id", new StringReader(data), 0, false, executor, 3, 8);
+    Assert.assertNotNull(parser.parse());
+    Assert.assertNotNull(parser.parse());
+    Assert.assertEquals("16", parser.getOffset());
+    try {
+      parser.parse();
+      Assert.fail();
+    } catch (Exception ex) {
+      // expected
+    }
+    parser.close();
+  }
+
+  @Test
+  public void testSupportsFragments() throws Exception {
+    Assert.assertTrue(new DataParserFactoryBuilder(getContext(), DataParserFormat.JSON)
+        .setMode(JsonMode.MULTIPLE_OBJECTS).setMaxDataLen(1000).build().supportsFragments());
+    Assert.assertFalse(new DataParserFactoryBuilder(getContext(), DataParserFormat.JSON)
+        .setMode(JsonMode.ARRAY_OBJECTS).setMaxDataLen(1000).build().supportsFragments());
+    Assert.assertTrue(new DataParserFactoryBuilder(getContext(), DataParserFormat.TEXT)
+        .setMaxDataLen(1000).build().supportsFragments());
+    Assert.assertFalse(new DataParserFactoryBuilder(getContext(), DataParserFormat.TEXT)
+        .setConfig(TextDataParserFactory.MULTI_LINE_KEY, true).setMaxDataLen(1000).build().supportsFragments());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFragmentsNotSupported() throws Exception {
+    DataParserFactory factory = new DataParserFactoryBuilder(getContext(), DataParserFormat.JSON)
+        .setMode(JsonMode.ARRAY_OBJECTS).setMaxDataLen(1000).build();
+    new ParallelDataParser(factory, "id", new StringReader("[]"), 0, false, executor, 3, 8);
+  }
+
+}
@@ -17,6 +17,7 @@
  */
 package com.streamsets.pipeline.lib.parser.json;
 
+import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.OnRecordError;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Stage;
@@ -24,13 +25,18 @@ import com.streamsets.pipeline.lib.io.OverrunReader;
 import com.streamsets.pipeline.lib.json.OverrunStreamingJsonParser;
 import com.streamsets.pipeline.lib.json.StreamingJsonParser;
 import com.streamsets.pipeline.lib.parser.DataParser;
+import com.streamsets.pipeline.lib.parser.DataParserException;
 import com.streamsets.pipeline.sdk.ContextInfoCreator;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 public class TestJsonCharDataParser {
 
@@ -194,4 +200,53 @@ public class TestJsonCharDataParser {
     parser.close();
   }
 
+  @Test
+  public void testParseFieldTypes() throws Exception {
+    OverrunReader reader = new OverrunReader(new StringReader(
+        "{\"s\":\"a\",\"i\":1,\"l\":10000000000,\"d\":1.5,\"b\":true,\"n\":null,\"m\":{\"x\":[1,\"y\"]}}"),
+        1000, true, false);
+    DataParser parser = new JsonCharDataParser(getContext(), "id", reader, 0,
+                                               OverrunStreamingJsonParser.Mode.MULTIPLE_OBJECTS, 1000);
+    Record record = parser.parse();
+    Assert.assertNotNull(record);
+    Map<String, Field> map = record.get().getValueAsMap();
+    Assert.assertEquals(Arrays.asList("s", "i", "l", "d", "b", "n", "m"), new ArrayList<>(map.keySet()));
+    Assert.assertEquals(Field.create("a"), map.get("s"));
+    Assert.assertEquals(Field.create(1), map.get("i"));
+    Assert.assertEquals(Field.create(10000000000L), map.get("l"));
+    Assert.assertEquals(Field.create(1.5d), map.get("d"));
+    Assert.assertEquals(Field.create(true), map.get("b"));
+    Assert.assertEquals(Field.create(Field.Type.STRING, null), map.get("n"));
+    List<Field> list = map.get("m").getValueAsMap().get("x").getValueAsList();
+    Assert.assertEquals(Arrays.asList(Field.create(1), Field.create("y")), list);
+    Assert.assertNull(parser.parse());
+    parser.close();
+  }
+
+  @Test
+  public void testParseUnsupportedTypeAndMaxLengthRecover() throws Exception {
+    OverrunReader reader = new OverrunReader(new StringReader(
+        "{\"a\":12345678901234567890}\n{\"b\":\"0123456789012345678901234567890123456789\"}\n{\"c\":1}"),
+        1000, true, false);
+    DataParser parser = new JsonCharDataParser(getContext(), "id", reader, 0,
+                                               OverrunStreamingJsonParser.Mode.MULTIPLE_OBJECTS, 30);
+    try {
+      parser.parse();
+      Assert.fail();
+    } catch (DataParserException ex) {
+      Assert.assertEquals(Errors.JSON_PARSER_01, ex.getErrorCode());
+    }
+    try {
+      parser.parse();
+      Assert.fail();
+    } catch (DataParserException ex) {
+      Assert.assertEquals(Errors.JSON_PARSER_02, ex.getErrorCode());
+    }
+    Record record = parser.parse();
+    Assert.assertNotNull(record);
+    Assert.assertEquals(1, record.get().getValueAsMap().get("c").getValueAsInteger());
+    Assert.assertNull(parser.parse());
+    parser.close();
+  }
+
 }
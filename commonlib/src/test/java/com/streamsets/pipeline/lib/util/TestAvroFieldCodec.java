@@ -0,0 +1,327 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.util;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestAvroFieldCodec {
+
+  private static final String SCHEMA = "{\n"
+    +"\"type\": \"record\",\n"
+    +"\"name\": \"All\",\n"
+    +"\"fields\": [\n"
+    +" {\"name\": \"b\", \"type\": \"boolean\"},\n"
+    +" {\"name\": \"i\", \"type\": \"int\"},\n"
+    +" {\"name\": \"l\", \"type\": \"long\"},\n"
+    +" {\"name\": \"f\", \"type\": \"float\"},\n"
+    +" {\"name\": \"d\", \"type\": \"double\"},\n"
+    +" {\"name\": \"s\", \"type\": \"string\"},\n"
+    +" {\"name\": \"bytes\", \"type\": \"bytes\"},\n"
+    +" {\"name\": \"fixed\", \"type\": {\"type\": \"fixed\", \"name\": \"Two\", \"size\": 2}},\n"
+    +" {\"name\": \"e\", \"type\": {\"type\": \"enum\", \"name\": \"Color\", \"symbols\": [\"RED\", \"GREEN\"]}},\n"
+    +" {\"name\": \"a\", \"type\": {\"type\": \"array\", \"items\": \"int\"}},\n"
+    +" {\"name\": \"m\", \"type\": {\"type\": \"map\", \"values\": \"string\"}},\n"
+    +" {\"name\": \"u\", \"type\": [\"null\", \"long\", \"string\"]}\n"
+    +"]}";
+
+  private static byte[] write(Schema schema, Field field) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(baos, null);
+    AvroFieldCodec.get(schema).write(field, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+
+  private static Field read(Schema schema, byte[] data) throws Exception {
+    return AvroFieldCodec.get(schema).read(DecoderFactory.get().binaryDecoder(data, null));
+  }
+
+  private static Object readGeneric(Schema schema, byte[] data) throws Exception {
+    return new GenericDatumReader<>(schema).read(null, DecoderFactory.get().binaryDecoder(data, null));
+  }
+
+  private static GenericRecord createGenericRecord(Schema schema) {
+    GenericRecord record = new GenericData.Record(schema);
+    record.put("b", true);
+    record.put("i", 1);
+    record.put("l", 2L);
+    record.put("f", 3.5f);
+    record.put("d", 4.5d);
+    record.put("s", "hello");
+    record.put("bytes", ByteBuffer.wrap(new byte[]{1, 2, 3}));
+    record.put("fixed", new GenericData.Fixed(schema.getField("fixed").schema(), new byte[]{4, 5}));
+    record.put("e", new GenericData.EnumSymbol(schema.getField("e").schema(), "GREEN"));
+    record.put("a", Arrays.asList(6, 7));
+    Map<String, String> map = new LinkedHashMap<>();
+    map.put("k", "v");
+    record.put("m", map);
+    record.put("u", "union");
+    return record;
+  }
+
+  @Test
+  public void testReadMatchesAvroTypeUtil() throws Exception {
+    Schema schema = new Schema.Parser().parse(SCHEMA);
+    GenericRecord genericRecord = createGenericRecord(schema);
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(baos, null);
+    new GenericDatumWriter<GenericRecord>(schema).write(genericRecord, encoder);
+    encoder.flush();
+
+    Field field = read(schema, baos.toByteArray());
+    Record record = RecordCreator.create();
+    Field expected = AvroTypeUtil.avroToSdcField(record, schema, readGeneric(schema, baos.toByteArray()));
+
+    assertField("", expected, field);
+  }
+
+  private static void assertField(String path, Field expected, Field actual) {
+    Assert.assertEquals(path, expected.getType(), actual.getType());
+    switch (expected.getType()) {
+      case MAP:
+        Map<String, Field> expectedMap = expected.getValueAsMap();
+        Assert.assertEquals(path, expectedMap.keySet(), actual.getValueAsMap().keySet());
+        for (Map.Entry<String, Field> entry : expectedMap.entrySet()) {
+          assertField(path + "/" + entry.getKey(), entry.getValue(), actual.getValueAsMap().get(entry.getKey()));
+        }
+        break;
+      case LIST:
+        List<Field> expectedList = expected.getValueAsList();
+        Assert.assertEquals(path, expectedList.size(), actual.getValueAsList().size());
+        for (int i = 0; i < expectedList.size(); i++) {
+          assertField(path + "[" + i + "]", expectedList.get(i), actual.getValueAsList().get(i));
+        }
+        break;
+      case BYTE_ARRAY:
+        Assert.assertArrayEquals(path, expected.getValueAsByteArray(), actual.getValueAsByteArray());
+        break;
+      default:
+        Assert.assertEquals(path, expected.getValueAsString(), actual.getValueAsString());
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    Schema schema = new Schema.Parser().parse(SCHEMA);
+    GenericRecord genericRecord = createGenericRecord(schema);
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(baos, null);
+    new GenericDatumWriter<GenericRecord>(schema).write(genericRecord, encoder);
+    encoder.flush();
+
+    Field field = read(schema, baos.toByteArray());
+    Assert.assertArrayEquals(baos.toByteArray(), write(schema, field));
+  }
+
+  @Test
+  public void testUnionResolution() throws Exception {
+    Schema schema = new Schema.Parser().parse("[\"null\", \"long\", \"string\"]");
+    Assert.assertNull(readGeneric(schema, write(schema, Field.create(Field.Type.MAP, null))));
+    Assert.assertNull(readGeneric(schema, write(schema, Field.create(Field.Type.STRING, null))));
+    Assert.assertEquals(5L, readGeneric(schema, write(schema, Field.create(5))));
+    Assert.assertEquals(6L, readGeneric(schema, write(schema, Field.create(6L))));
+    Assert.assertEquals("x", readGeneric(schema, write(schema, Field.create("x"))).toString());
+
+    // an exact match wins over an earlier compatible branch
+    schema = new Schema.Parser().parse("[\"long\", \"int\"]");
+    Assert.assertEquals(5, readGeneric(schema, write(schema, Field.create(5))));
+
+    // a map goes to the record branch whose fields match its keys
+    schema = new Schema.Parser().parse("[" +
+        "{\"type\": \"record\", \"name\": \"A\", \"fields\": [{\"name\": \"a\", \"type\": \"int\"}]}," +
+        "{\"type\": \"record\", \"name\": \"B\", \"fields\": [{\"name\": \"b\", \"type\": \"int\"}]}" +
+        "]");
+    Map<String, Field> map = new LinkedHashMap<>();
+    map.put("b", Field.create(1));
+    GenericRecord avroRecord = (GenericRecord) readGeneric(schema, write(schema, Field.create(map)));
+    Assert.assertEquals("B", avroRecord.getSchema().getName());
+    Assert.assertEquals(1, avroRecord.get("b"));
+  }
+
+  @Test
+  public void testRecursiveSchema() throws Exception {
+    Schema schema = new Schema.Parser().parse(SdcAvroTestUtil.AVRO_SCHEMA1);
+    List<Record> records = SdcAvroTestUtil.getRecords1();
+    for (Record record : records) {
+      byte[] data = write(schema, record.get());
+      GenericRecord avroRecord = (GenericRecord) readGeneric(schema, data);
+      Assert.assertEquals(record.get("/name").getValueAsString(), avroRecord.get("name").toString());
+      Assert.assertEquals(record.get("/boss/name").getValueAsString(),
+          ((GenericRecord) avroRecord.get("boss")).get("name").toString());
+      Assert.assertNull(((GenericRecord) avroRecord.get("boss")).get("boss"));
+
+      Field field = read(schema, data);
+      Assert.assertEquals(record.get("/boss/age"), field.getValueAsMap().get("boss").getValueAsMap().get("age"));
+      Assert.assertEquals(Field.Type.MAP,
+          field.getValueAsMap().get("boss").getValueAsMap().get("boss").getType());
+      Assert.assertNull(field.getValueAsMap().get("boss").getValueAsMap().get("boss").getValue());
+    }
+  }
+
+  @Test
+  public void testSchemaResolution() throws Exception {
+    Schema writerSchema = new Schema.Parser().parse(SdcAvroTestUtil.AVRO_SCHEMA1);
+    Schema readerSchema = new Schema.Parser().parse(SdcAvroTestUtil.AVRO_SCHEMA2);
+    byte[] data = write(writerSchema, SdcAvroTestUtil.getRecords1().get(0).get());
+
+    AvroFieldDatumReader reader = new AvroFieldDatumReader(readerSchema);
+    reader.setSchema(writerSchema);
+    Field field = reader.read(null, DecoderFactory.get().binaryDecoder(data, null));
+    Map<String, Field> map = field.getValueAsMap();
+    Assert.assertEquals(ImmutableList.of("name", "emails", "boss"), ImmutableList.copyOf(map.keySet()));
+    Assert.assertEquals("a", map.get("name").getValueAsString());
+    Assert.assertFalse(map.get("boss").getValueAsMap().containsKey("age"));
+  }
+
+  @Test
+  public void testNullForNonNullable() throws Exception {
+    Schema schema = new Schema.Parser().parse(SdcAvroTestUtil.AVRO_SCHEMA1);
+    Map<String, Field> map = new LinkedHashMap<>();
+    map.put("name", Field.create("a"));
+    try {
+      write(schema, Field.create(map));
+      Assert.fail();
+    } catch (StageException ex) {
+      Assert.assertEquals(CommonError.CMN_0107, ex.getErrorCode());
+    }
+  }
+
+  @Test
+  public void testNoMatchingUnionBranch() throws Exception {
+    Schema schema = new Schema.Parser().parse("[\"null\", \"long\"]");
+    try {
+      write(schema, Field.create("x"));
+      Assert.fail();
+    } catch (StageException ex) {
+      Assert.assertEquals(CommonError.CMN_0106, ex.getErrorCode());
+    }
+  }
+
+  private static final String AMBIGUOUS_SCHEMA = "{\n"
+    +"\"type\": \"record\",\n"
+    +"\"name\": \"Ambiguous\",\n"
+    +"\"fields\": [\n"
+    +" {\"name\": \"es\", \"type\": [\"null\", "
+    +"{\"type\": \"enum\", \"name\": \"Color\", \"symbols\": [\"RED\", \"GREEN\"]}, \"string\"]},\n"
+    +" {\"name\": \"fb\", \"type\": [{\"type\": \"fixed\", \"name\": \"Sixteen\", \"size\": 16}, \"bytes\"]},\n"
+    +" {\"name\": \"ab\", \"type\": ["
+    +"{\"type\": \"record\", \"name\": \"A\", \"fields\": "
+    +"[{\"name\": \"a\", \"type\": \"int\"}, {\"name\": \"b\", \"type\": \"int\"}]}, "
+    +"{\"type\": \"record\", \"name\": \"B\", \"fields\": [{\"name\": \"a\", \"type\": \"int\"}]}]},\n"
+    +" {\"name\": \"list\", \"type\": {\"type\": \"array\", \"items\": [\"string\", \"Color\"]}}\n"
+    +"]}";
+
+  private static byte[] createAmbiguousData(Schema schema) throws Exception {
+    GenericRecord genericRecord = new GenericData.Record(schema);
+    Schema colorSchema = schema.getField("es").schema().getTypes().get(1);
+    genericRecord.put("es", "RED");
+    genericRecord.put("fb", ByteBuffer.wrap(new byte[16]));
+    GenericRecord b = new GenericData.Record(schema.getField("ab").schema().getTypes().get(1));
+    b.put("a", 1);
+    genericRecord.put("ab", b);
+    genericRecord.put("list", Arrays.asList(new GenericData.EnumSymbol(colorSchema, "GREEN"), "GREEN"));
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(baos, null);
+    new GenericDatumWriter<GenericRecord>(schema).write(genericRecord, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+
+  private static byte[] write(Schema schema, Record record) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(baos, null);
+    AvroFieldCodec.get(schema).write(record, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+
+  @Test
+  public void testAmbiguousUnionsRoundTrip() throws Exception {
+    Schema schema = new Schema.Parser().parse(AMBIGUOUS_SCHEMA);
+    Assert.assertTrue(AvroFieldCodec.get(schema).hasAmbiguousUnions());
+    Assert.assertFalse(AvroFieldCodec.get(new Schema.Parser().parse(SCHEMA)).hasAmbiguousUnions());
+    byte[] data = createAmbiguousData(schema);
+
+    AvroFieldDatumReader reader = new AvroFieldDatumReader(schema);
+    Record record = RecordCreator.create();
+    record.set(reader.read(null, DecoderFactory.get().binaryDecoder(data, null)));
+    reader.setUnionAttributes(record);
+    Assert.assertEquals("2", record.getHeader().getAttribute("avro.union.typeIndex./es"));
+    Assert.assertEquals("1", record.getHeader().getAttribute("avro.union.typeIndex./fb"));
+    Assert.assertEquals("1", record.getHeader().getAttribute("avro.union.typeIndex./ab"));
+    Assert.assertEquals("1", record.getHeader().getAttribute("avro.union.typeIndex./list[0]"));
+    Assert.assertEquals("0", record.getHeader().getAttribute("avro.union.typeIndex./list[1]"));
+
+    Assert.assertArrayEquals(data, write(schema, record));
+
+    // without the branches the field types alone pick the first matching branches
+    Assert.assertFalse(Arrays.equals(data, write(schema, record.get())));
+  }
+
+  @Test
+  public void testAvroTypeUtilUnionAttributes() throws Exception {
+    Schema schema = new Schema.Parser().parse(AMBIGUOUS_SCHEMA);
+    byte[] data = createAmbiguousData(schema);
+    Record record = RecordCreator.create();
+    record.set(AvroTypeUtil.avroToSdcField(record, schema, readGeneric(schema, data)));
+    Assert.assertArrayEquals(data, write(schema, record));
+  }
+
+  @Test
+  public void testUnionAttributeForModifiedField() throws Exception {
+    Schema schema = new Schema.Parser().parse("[\"null\", {\"type\": \"enum\", \"name\": \"Color\", " +
+        "\"symbols\": [\"RED\", \"GREEN\"]}, \"string\"]");
+    Record record = RecordCreator.create();
+    record.set(Field.create("BLUE"));
+    // the enum branch recorded when reading cannot take the new value
+    record.getHeader().setAttribute("avro.union.typeIndex.", "1");
+    Assert.assertEquals("BLUE", readGeneric(schema, write(schema, record)).toString());
+  }
+
+  @Test
+  public void testRecordBranchWithRequiredFields() throws Exception {
+    Schema schema = new Schema.Parser().parse(AMBIGUOUS_SCHEMA).getField("ab").schema();
+    Map<String, Field> map = new LinkedHashMap<>();
+    map.put("a", Field.create(1));
+    GenericRecord avroRecord = (GenericRecord) readGeneric(schema, write(schema, Field.create(map)));
+    Assert.assertEquals("B", avroRecord.getSchema().getName());
+    Assert.assertEquals(1, avroRecord.get("a"));
+  }
+
+}
@@ -40,6 +40,17 @@ public class AlertsUtil {
     }
   }
 
+  public static boolean evaluateRecord(Record record, ELEvaluator.CompiledExpression<Boolean> predicate,
+                                       ELVariables variables) throws ObserverException {
+    try {
+      RecordEL.setRecordInContext(variables, record);
+      return predicate.evaluate(variables);
+    } catch (Exception ex) {
+      throw new ObserverException(ContainerError.CONTAINER_0400, predicate.getExpression(),
+        record.getHeader().getSourceId(), ex.toString(), ex);
+    }
+  }
+
   public static boolean evaluateExpression(String predicate, ELVariables variables,
                                        ELEvaluator elEvaluator) throws ObserverException {
     try {
@@ -19,6 +19,7 @@ package com.streamsets.datacollector.callback;
 
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.metrics.MetricsEventListener;
+import com.streamsets.datacollector.metrics.MetricsSubscription;
 import com.streamsets.datacollector.restapi.bean.BeanHelper;
 import com.streamsets.datacollector.util.AuthzRole;
 import com.streamsets.pipeline.api.impl.Utils;
@@ -82,4 +83,10 @@ public class CallbackServerMetricsEventListener implements MetricsEventListener
       LOG.warn("Error while calling callback to Callback Server , {}", ex.toString(), ex);
     }
   }
+
+  @Override
+  public MetricsSubscription getSubscription() {
+    return null;
+  }
+
 }
@@ -26,6 +26,8 @@ import com.streamsets.datacollector.config.MemoryLimitExceededChooserValues;
 import com.streamsets.datacollector.config.PipelineGroups;
 import com.streamsets.datacollector.config.PipelineState;
 import com.streamsets.datacollector.config.PipelineStateChooserValues;
+import com.streamsets.datacollector.config.SourceRecordRetention;
+import com.streamsets.datacollector.config.SourceRecordRetentionChooserValues;
 import com.streamsets.pipeline.api.ConfigDef;
 import com.streamsets.pipeline.api.ConfigGroups;
 import com.streamsets.pipeline.api.ExecutionMode;
@@ -47,7 +49,7 @@ import java.util.Map;
 @ConfigGroups(PipelineGroups.class)
 public class PipelineConfigBean implements Stage {
 
-  public static final int VERSION = 3;
+  public static final int VERSION = 4;
 
   @ConfigDef(
       required = true,
@@ -161,6 +163,19 @@ public class PipelineConfigBean implements Stage {
   @ValueChooserModel(ErrorHandlingChooserValues.class)
   public String badRecordsHandling;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.MODEL,
+      defaultValue = "COMPACT",
+      label = "Original Record Retention",
+      description = "How the original record produced by the origin is kept for the error records. 'Compact copy' " +
+        "keeps it serialized and rebuilds it only for error records, 'None' writes the error record as is",
+      displayPosition = 95,
+      group = "BAD_RECORDS"
+  )
+  @ValueChooserModel(SourceRecordRetentionChooserValues.class)
+  public SourceRecordRetention sourceRecordRetention;
+
 
   @ConfigDef(
       required = true,
@@ -19,6 +19,7 @@ package com.streamsets.datacollector.creation;
 
 import com.google.common.collect.ImmutableList;
 import com.streamsets.datacollector.config.PipelineState;
+import com.streamsets.datacollector.config.SourceRecordRetention;
 import com.streamsets.pipeline.api.Config;
 import com.streamsets.pipeline.api.ExecutionMode;
 import com.streamsets.pipeline.api.StageException;
@@ -38,6 +39,8 @@ public class PipelineConfigUpgrader implements StageUpgrader {
         upgradeV1ToV2(configs);
       case 2:
         upgradeV2ToV3(configs);
+      case 3:
+        upgradeV3ToV4(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -57,4 +60,8 @@ public class PipelineConfigUpgrader implements StageUpgrader {
     configs.add(new Config("emailIDs", Collections.EMPTY_LIST));
   }
 
+  private void upgradeV3ToV4(List<Config> configs) {
+    configs.add(new Config("sourceRecordRetention", SourceRecordRetention.COMPACT));
+  }
+
 }
@@ -39,6 +39,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
@@ -77,8 +78,8 @@ public abstract class
   }
 
   private AtomicInteger indexCounter;
-  private final Map<Method, ElFunctionDefinition> elFunctions;
-  private final Map<Field, ElConstantDefinition> elConstants;
+  private final ConcurrentMap<Method, ElFunctionDefinition> elFunctions;
+  private final ConcurrentMap<Field, ElConstantDefinition> elConstants;
   private final Map<String, ElFunctionDefinition> elFunctionsIdx;
   private final Map<String, ElConstantDefinition> elConstantsIdx;
 
@@ -173,8 +174,13 @@ public abstract class
               fDef = new ElFunctionDefinition(Integer.toString(indexCounter.incrementAndGet()), fAnnotation.prefix(),
                                               fName, fAnnotation.description(), fArgDefs,
                                               method.getReturnType().getSimpleName(), method);
-              elFunctionsIdx.put(fDef.getIndex(), fDef);
-              elFunctions.put(method, fDef);
+              // stage libraries are loaded in parallel, if another library registered the function we use that one
+              ElFunctionDefinition existing = elFunctions.putIfAbsent(method, fDef);
+              if (existing == null) {
+                elFunctionsIdx.put(fDef.getIndex(), fDef);
+              } else {
+                fDef = existing;
+              }
             }
           }
           if (fDef != null) {
@@ -241,8 +247,12 @@ public abstract class
               }
               cDef = new ElConstantDefinition(Integer.toString(indexCounter.incrementAndGet()), cName,
                                               cAnnotation.description(), field.getType().getSimpleName(), value);
-              elConstantsIdx.put(cDef.getIndex(), cDef);
-              elConstants.put(field, cDef);
+              ElConstantDefinition existing = elConstants.putIfAbsent(field, cDef);
+              if (existing == null) {
+                elConstantsIdx.put(cDef.getIndex(), cDef);
+              } else {
+                cDef = existing;
+              }
             }
           }
           if (cDef != null) {
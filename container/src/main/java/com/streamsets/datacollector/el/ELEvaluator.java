@@ -28,6 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.jsp.el.ELException;
+import javax.servlet.jsp.el.Expression;
 import javax.servlet.jsp.el.FunctionMapper;
 import javax.servlet.jsp.el.VariableResolver;
 import java.lang.reflect.Method;
@@ -97,10 +98,8 @@ public class ELEvaluator extends ELEval {
     }
   }
 
-  @Override
-  @SuppressWarnings("unchecked")
-  public <T> T evaluate (final ELVars vars, String expression, Class<T> returnType) throws ELEvalException {
-    VariableResolver variableResolver = new VariableResolver() {
+  private VariableResolver createVariableResolver(final ELVars vars) {
+    return new VariableResolver() {
 
       @Override
       public Object resolveVariable(String name) throws ELException {
@@ -115,15 +114,65 @@ public class ELEvaluator extends ELEval {
         return value;
       }
     };
+  }
+
+  private static ELEvalException createEvalException(String expression, ELException e) {
+    LOG.debug("Error valuating EL '{}': {}", expression, e.toString(), e);
+    Throwable t = e;
+    if(e.getRootCause() != null) {
+      t = e.getRootCause();
+    }
+    return new ELEvalException(CommonError.CMN_0104, expression, t.toString(), e);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T evaluate (final ELVars vars, String expression, Class<T> returnType) throws ELEvalException {
+    try {
+      return (T) EVALUATOR.evaluate(expression, returnType, createVariableResolver(vars), functionMapper);
+    } catch (ELException e) {
+      throw createEvalException(expression, e);
+    }
+  }
+
+  /**
+   * Parses an expression once so it can be evaluated many times without looking it up in the shared parsed
+   * expressions cache, which is synchronized.
+   *
+   * @param expression the expression to compile.
+   * @param returnType the expected type of the expression value.
+   * @return the compiled expression, it can be evaluated concurrently.
+   * @throws ELEvalException thrown if the expression is not valid.
+   */
+  public <T> CompiledExpression<T> compile(String expression, Class<T> returnType) throws ELEvalException {
     try {
-      return (T) EVALUATOR.evaluate(expression, returnType, variableResolver, functionMapper);
+      return new CompiledExpression<>(expression, EVALUATOR.parseExpression(expression, returnType, functionMapper));
     } catch (ELException e) {
-      LOG.debug("Error valuating EL '{}': {}", expression, e.toString(), e);
-      Throwable t = e;
-      if(e.getRootCause() != null) {
-        t = e.getRootCause();
+      LOG.debug("Error parsering EL '{}': {}", expression, e.toString(), e);
+      throw new ELEvalException(CommonError.CMN_0105, expression, e.toString(), e);
+    }
+  }
+
+  public class CompiledExpression<T> {
+    private final String expression;
+    private final Expression parsed;
+
+    private CompiledExpression(String expression, Expression parsed) {
+      this.expression = expression;
+      this.parsed = parsed;
+    }
+
+    public String getExpression() {
+      return expression;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T evaluate(ELVars vars) throws ELEvalException {
+      try {
+        return (T) parsed.evaluate(createVariableResolver(vars));
+      } catch (ELException e) {
+        throw createEvalException(expression, e);
       }
-      throw new ELEvalException(CommonError.CMN_0104, expression, t.toString(), e);
     }
   }
 
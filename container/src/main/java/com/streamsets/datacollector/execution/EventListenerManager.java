@@ -23,6 +23,7 @@ import com.google.common.collect.ImmutableList;
 import com.streamsets.datacollector.alerts.AlertEventListener;
 import com.streamsets.datacollector.execution.alerts.AlertInfo;
 import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.execution.metrics.MetricsFrameEncoder;
 import com.streamsets.datacollector.metrics.MetricsEventListener;
 import com.streamsets.dc.execution.manager.standalone.ThreadUsage;
 import org.slf4j.Logger;
@@ -160,4 +161,24 @@ public class EventListenerManager {
     }
   }
 
+  public void broadcastMetrics(String pipelineName, MetricsFrameEncoder metricsFrameEncoder) {
+    if(metricsEventListenerMap.containsKey(pipelineName) && metricsEventListenerMap.get(pipelineName).size() > 0) {
+      List<MetricsEventListener> metricsEventListenerListCopy;
+      synchronized (metricsEventListenerMap) {
+        metricsEventListenerListCopy = new ArrayList(metricsEventListenerMap.get(pipelineName));
+      }
+
+      for(MetricsEventListener metricsEventListener : metricsEventListenerListCopy) {
+        try {
+          String frame = metricsFrameEncoder.encode(metricsEventListener.getSubscription());
+          if (frame != null) {
+            metricsEventListener.notification(frame);
+          }
+        } catch(Exception ex) {
+          LOG.warn("Error while notifying metrics, {}", ex.toString(), ex);
+        }
+      }
+    }
+  }
+
 }
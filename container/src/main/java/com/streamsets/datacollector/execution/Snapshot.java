@@ -17,6 +17,7 @@
  */
 package com.streamsets.datacollector.execution;
 
+import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.util.PipelineException;
 
 import java.io.Closeable;
@@ -28,4 +29,8 @@ public interface Snapshot extends Closeable {
 
   public InputStream getOutput() throws PipelineException;
 
+  // returns the output of a stage for a batch with at most 'length' records, starting at 'offset', per lane and
+  // for the error records. Returns NULL if there is no data for the given batch and stage.
+  public StageOutput getStageOutput(int batch, String instanceName, int offset, int length) throws PipelineException;
+
 }
@@ -31,7 +31,12 @@ public interface SnapshotStore {
   // creates a snapshot info, in progress
   public SnapshotInfo create(String user, String name, String rev, String id) throws PipelineException;;
 
-  // saves the data of the snapshot and updates the corresponding snapshot info.
+  // appends the data of a captured batch to the snapshot, the snapshot info remains in progress.
+  public void appendBatch(String name, String rev, String id, List<StageOutput> snapshotBatch)
+    throws PipelineException;
+
+  // saves the data of the snapshot (appended to any batch already saved with appendBatch()) and updates the
+  // corresponding snapshot info.
   public SnapshotInfo save(String name, String rev, String id, List<List<StageOutput>> snapshotBatches)
     throws PipelineException;
 
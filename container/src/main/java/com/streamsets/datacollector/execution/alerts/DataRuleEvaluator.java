@@ -37,8 +37,10 @@ import com.streamsets.datacollector.restapi.bean.CounterJson;
 import com.streamsets.datacollector.restapi.bean.MetricRegistryJson;
 import com.streamsets.datacollector.runner.LaneResolver;
 import com.streamsets.datacollector.util.Configuration;
+import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.datacollector.util.ObserverException;
 import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.el.ELEvalException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,6 +86,8 @@ public class DataRuleEvaluator {
   private final String name;
   private final String rev;
   private final MetricRegistryJson metricRegistryJson;
+  private final ELEvaluator.CompiledExpression<Boolean> condition;
+  private final ELEvalException conditionError;
 
 
   public DataRuleEvaluator(String name, String rev, MetricRegistry metrics, AlertManager alertManager,
@@ -96,12 +100,71 @@ public class DataRuleEvaluator {
     this.configuration = configuration;
     this.alertManager = alertManager;
     this.metricRegistryJson = metricRegistryJson;
+    //the condition is compiled once, evaluators are reused for all the sampled batches
+    ELEvaluator.CompiledExpression<Boolean> compiled = null;
+    ELEvalException error = null;
+    try {
+      compiled = EL_EVALUATOR.compile(dataRuleDefinition.getCondition(), Boolean.class);
+    } catch (ELEvalException e) {
+      error = e;
+    }
+    condition = compiled;
+    conditionError = error;
+  }
+
+  /**
+   * Result of evaluating the rule condition on sampled records.
+   */
+  public static class Evaluation {
+    private final List<Record> records;
+    private final boolean[] matches;
+    private final ObserverException[] errors;
+
+    private Evaluation(List<Record> records) {
+      this.records = records;
+      matches = new boolean[records.size()];
+      errors = new ObserverException[records.size()];
+    }
   }
 
   public void evaluateRule(List<Record> sampleRecords, String lane,
       Map<String, EvictingQueue<SampledRecord>> ruleToSampledRecordsMap) {
-
     if (dataRuleDefinition.isEnabled() && sampleRecords != null && sampleRecords.size() > 0) {
+      applyEvaluation(evaluateCondition(sampleRecords), lane, ruleToSampledRecordsMap);
+    }
+  }
+
+  /**
+   * Evaluates the rule condition on the sampled records. It does not update sampled records, metrics or alerts, so the
+   * conditions of different rules can be evaluated concurrently.
+   */
+  public Evaluation evaluateCondition(List<Record> sampleRecords) {
+    Evaluation evaluation = new Evaluation(sampleRecords);
+    ELVariables variables = new ELVariables();
+    for (int i = 0; i < sampleRecords.size(); i++) {
+      Record record = sampleRecords.get(i);
+      try {
+        if (condition != null) {
+          evaluation.matches[i] = AlertsUtil.evaluateRecord(record, condition, variables);
+        } else {
+          throw new ObserverException(ContainerError.CONTAINER_0400, dataRuleDefinition.getCondition(),
+                                      record.getHeader().getSourceId(), conditionError.toString(), conditionError);
+        }
+      } catch (ObserverException e) {
+        evaluation.errors[i] = e;
+      }
+    }
+    return evaluation;
+  }
+
+  /**
+   * Updates the sampled records, metrics and alerts of the rule with an evaluation of its condition. It must be called
+   * from the observer thread.
+   */
+  public void applyEvaluation(Evaluation evaluation, String lane,
+      Map<String, EvictingQueue<SampledRecord>> ruleToSampledRecordsMap) {
+    List<Record> sampleRecords = evaluation.records;
+    if (dataRuleDefinition.isEnabled() && sampleRecords.size() > 0) {
       //cache all sampled records for this data rule definition in an evicting queue
       EvictingQueue<SampledRecord> sampledRecords = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
       if (sampledRecords == null) {
@@ -119,10 +182,11 @@ public class DataRuleEvaluator {
       //evaluate sample set of records for condition
       int matchingRecordCount = 0;
       int evaluatedRecordCount = 0;
-      for (Record r : sampleRecords) {
+      for (int i = 0; i < sampleRecords.size(); i++) {
+        Record r = sampleRecords.get(i);
         evaluatedRecordCount++;
         //evaluate
-        boolean success = evaluate(r, dataRuleDefinition.getCondition(), dataRuleDefinition.getId());
+        boolean success = evaluate(evaluation, i);
         if (success) {
           sampledRecords.add(new SampledRecord(r, true));
           matchingRecordCount++;
@@ -197,19 +261,19 @@ public class DataRuleEvaluator {
     }
   }
 
-  private boolean evaluate(Record record, String condition, String id) {
-    try {
-      return AlertsUtil.evaluateRecord(record, condition, new ELVariables(), EL_EVALUATOR);
-    } catch (ObserverException e) {
+  private boolean evaluate(Evaluation evaluation, int index) {
+    ObserverException e = evaluation.errors[index];
+    if (e != null) {
       //A faulty condition should not take down rest of the alerts with it.
       //Log and it and continue for now
-      LOG.error("Error processing metric definition '{}', reason: {}", id, e.toString(), e);
+      LOG.error("Error processing metric definition '{}', reason: {}", dataRuleDefinition.getId(), e.toString(), e);
 
       //Trigger alert with exception message
       alertManager.alertException(e.toString(), dataRuleDefinition);
 
       return false;
     }
+    return evaluation.matches[index];
   }
 
   @VisibleForTesting
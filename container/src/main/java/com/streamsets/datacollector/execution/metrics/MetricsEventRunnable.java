@@ -19,7 +19,6 @@
 package com.streamsets.datacollector.execution.metrics;
 
 import com.codahale.metrics.MetricRegistry;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.streamsets.datacollector.callback.CallbackInfo;
 import com.streamsets.datacollector.execution.EventListenerManager;
 import com.streamsets.datacollector.execution.PipelineState;
@@ -27,9 +26,13 @@ import com.streamsets.datacollector.execution.PipelineStateStore;
 import com.streamsets.datacollector.execution.runner.cluster.SlaveCallbackManager;
 import com.streamsets.datacollector.execution.runner.common.ThreadHealthReporter;
 import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.metrics.BucketedReservoir;
+import com.streamsets.datacollector.metrics.BucketedSnapshot;
 import com.streamsets.datacollector.restapi.bean.CounterJson;
+import com.streamsets.datacollector.restapi.bean.HistogramJson;
 import com.streamsets.datacollector.restapi.bean.MeterJson;
 import com.streamsets.datacollector.restapi.bean.MetricRegistryJson;
+import com.streamsets.datacollector.restapi.bean.TimerJson;
 import com.streamsets.datacollector.store.PipelineStoreException;
 import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.pipeline.api.ExecutionMode;
@@ -38,15 +41,18 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
-import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 public class MetricsEventRunnable implements Runnable {
 
@@ -64,6 +70,7 @@ public class MetricsEventRunnable implements Runnable {
   private final String name;
   private final String rev;
   private int scheduledDelay;
+  private final MetricsFrameEncoder metricsFrameEncoder;
 
   @Inject
   public MetricsEventRunnable(@Named("name") String name, @Named("rev") String rev, Configuration configuration,
@@ -79,6 +86,7 @@ public class MetricsEventRunnable implements Runnable {
     this.name = name;
     this.rev = rev;
     this.scheduledDelay = configuration.get(REFRESH_INTERVAL_PROPERTY, REFRESH_INTERVAL_PROPERTY_DEFAULT);
+    this.metricsFrameEncoder = new MetricsFrameEncoder(ObjectMapperFactory.get());
   }
 
   public void setThreadHealthReporter(ThreadHealthReporter threadHealthReporter) {
@@ -97,19 +105,14 @@ public class MetricsEventRunnable implements Runnable {
       }
       PipelineState state = pipelineStateStore.getState(name, rev);
       if (eventListenerManager.hasMetricEventListeners(name) && state.getStatus().isActive()) {
-        ObjectMapper objectMapper = ObjectMapperFactory.get();
-        String metricsJSONStr;
         if(state.getExecutionMode() == ExecutionMode.CLUSTER) {
-          MetricRegistryJson metricRegistryJson = getAggregatedMetrics();
-          metricsJSONStr = objectMapper.writer().writeValueAsString(metricRegistryJson);
+          metricsFrameEncoder.reset(getAggregatedMetrics());
         } else {
-          metricsJSONStr =
-            objectMapper.writer().writeValueAsString(metricRegistry);
+          metricsFrameEncoder.reset(metricRegistry);
         }
-        eventListenerManager.broadcastMetrics(name, metricsJSONStr);
+        eventListenerManager.broadcastMetrics(name, metricsFrameEncoder);
+        metricsFrameEncoder.reset(null);
       }
-    } catch (IOException ex) {
-      LOG.warn("Error while serializing metrics, {}", ex.toString(), ex);
     } catch (PipelineStoreException ex) {
       LOG.warn("Error while fetching status of pipeline,  {}", ex.toString(), ex);
     }
@@ -198,13 +201,233 @@ public class MetricsEventRunnable implements Runnable {
       }
     }
 
+    Map<String, HistogramJson> aggregatedHistograms = new HashMap<>();
+    Map<String, long[]> histogramBuckets = new HashMap<>();
+    Map<String, TimerJson> aggregatedTimers = new HashMap<>();
+    Map<String, long[]> timerBuckets = new HashMap<>();
+    // histograms and timers with values from slaves without buckets
+    Set<String> legacyHistograms = new HashSet<>();
+    Set<String> legacyTimers = new HashSet<>();
+    for(MetricRegistryJson metrics : slaveMetrics.values()) {
+      if(metrics.getHistograms() != null) {
+        for(Map.Entry<String, HistogramJson> entry : metrics.getHistograms().entrySet()) {
+          aggregateHistogram(aggregatedHistograms, histogramBuckets, legacyHistograms, entry.getKey(),
+              entry.getValue());
+        }
+      }
+      if(metrics.getTimers() != null) {
+        for(Map.Entry<String, TimerJson> entry : metrics.getTimers().entrySet()) {
+          aggregateTimer(aggregatedTimers, timerBuckets, legacyTimers, entry.getKey(), entry.getValue());
+        }
+      }
+    }
+    for(Map.Entry<String, long[]> entry : histogramBuckets.entrySet()) {
+      setSnapshotValues(aggregatedHistograms.get(entry.getKey()), new BucketedSnapshot(entry.getValue()),
+          legacyHistograms.contains(entry.getKey()));
+    }
+    for(Map.Entry<String, long[]> entry : timerBuckets.entrySet()) {
+      setSnapshotValues(aggregatedTimers.get(entry.getKey()), new BucketedSnapshot(entry.getValue()),
+          legacyTimers.contains(entry.getKey()));
+    }
+
     aggregatedMetrics.setCounters(aggregatedCounters);
     aggregatedMetrics.setMeters(aggregatedMeters);
+    aggregatedMetrics.setHistograms(aggregatedHistograms);
+    aggregatedMetrics.setTimers(aggregatedTimers);
     aggregatedMetrics.setSlaves(slaves);
 
     return aggregatedMetrics;
   }
 
+  // slaves with bucketed histograms are merged exactly using the bucket counts, for the others (older slaves) we can
+  // only keep the lowest min and the highest of the other values reported
+  private static void aggregateHistogram(Map<String, HistogramJson> aggregatedHistograms,
+      Map<String, long[]> histogramBuckets, Set<String> legacyHistograms, String name, HistogramJson slaveHistogram) {
+    HistogramJson aggregatedHistogram = aggregatedHistograms.get(name);
+    if(aggregatedHistogram == null) {
+      aggregatedHistogram = new HistogramJson();
+      aggregatedHistograms.put(name, aggregatedHistogram);
+    }
+    aggregatedHistogram.setCount(aggregatedHistogram.getCount() + slaveHistogram.getCount());
+    if(slaveHistogram.getBuckets() != null) {
+      addBuckets(histogramBuckets, name, slaveHistogram.getBuckets());
+    } else {
+      // the initial min of 0 is not a value
+      boolean first = legacyHistograms.add(name);
+      SnapshotValues values = SnapshotValues.of(slaveHistogram);
+      if(!first) {
+        values = SnapshotValues.of(aggregatedHistogram).merge(values, true);
+      }
+      values.setTo(aggregatedHistogram);
+    }
+  }
+
+  private static void aggregateTimer(Map<String, TimerJson> aggregatedTimers, Map<String, long[]> timerBuckets,
+      Set<String> legacyTimers, String name, TimerJson slaveTimer) {
+    TimerJson aggregatedTimer = aggregatedTimers.get(name);
+    if(aggregatedTimer == null) {
+      aggregatedTimer = new TimerJson();
+      aggregatedTimer.setDuration_units(slaveTimer.getDuration_units());
+      aggregatedTimer.setRate_units(slaveTimer.getRate_units());
+      aggregatedTimers.put(name, aggregatedTimer);
+    }
+    aggregatedTimer.setCount(aggregatedTimer.getCount() + slaveTimer.getCount());
+    aggregatedTimer.setM1_rate(aggregatedTimer.getM1_rate() + slaveTimer.getM1_rate());
+    aggregatedTimer.setM5_rate(aggregatedTimer.getM5_rate() + slaveTimer.getM5_rate());
+    aggregatedTimer.setM15_rate(aggregatedTimer.getM15_rate() + slaveTimer.getM15_rate());
+    aggregatedTimer.setMean_rate(aggregatedTimer.getMean_rate() + slaveTimer.getMean_rate());
+    if(slaveTimer.getBuckets() != null) {
+      addBuckets(timerBuckets, name, slaveTimer.getBuckets());
+    } else {
+      boolean first = legacyTimers.add(name);
+      SnapshotValues values = SnapshotValues.of(slaveTimer);
+      if(!first) {
+        values = SnapshotValues.of(aggregatedTimer).merge(values, true);
+      }
+      values.setTo(aggregatedTimer);
+    }
+  }
+
+  private static void addBuckets(Map<String, long[]> aggregatedBuckets, String name, List<Long> buckets) {
+    long[] counts = aggregatedBuckets.get(name);
+    if(counts == null) {
+      counts = new long[BucketedReservoir.BUCKETS];
+      aggregatedBuckets.put(name, counts);
+    }
+    BucketedSnapshot.addBuckets(counts, buckets);
+  }
+
+  private static void setSnapshotValues(HistogramJson histogram, BucketedSnapshot snapshot, boolean merge) {
+    getSnapshotValues(SnapshotValues.of(histogram), snapshot, 1.0, merge).setTo(histogram);
+    histogram.setBuckets(snapshot.getBuckets());
+  }
+
+  // timer buckets are in nanoseconds, values are reported in the duration unit of the slaves
+  private static void setSnapshotValues(TimerJson timer, BucketedSnapshot snapshot, boolean merge) {
+    double durationFactor = 1.0 / TimeUnit.SECONDS.toNanos(1);
+    if(timer.getDuration_units() != null) {
+      try {
+        durationFactor = 1.0 / TimeUnit.valueOf(timer.getDuration_units().toUpperCase(Locale.US)).toNanos(1);
+      } catch (IllegalArgumentException ex) {
+        LOG.warn("Unknown timer duration unit '{}', using seconds", timer.getDuration_units());
+      }
+    }
+    getSnapshotValues(SnapshotValues.of(timer), snapshot, durationFactor, merge).setTo(timer);
+    timer.setBuckets(snapshot.getBuckets());
+  }
+
+  // with values already merged from slaves without buckets the snapshot values are merged the same way
+  private static SnapshotValues getSnapshotValues(SnapshotValues aggregated, BucketedSnapshot snapshot, double factor,
+      boolean merge) {
+    SnapshotValues values = SnapshotValues.of(snapshot, factor);
+    return (merge) ? aggregated.merge(values, snapshot.size() > 0) : values;
+  }
+
+  /**
+   * Min, max, mean, percentiles and standard deviation of a histogram or a timer while they are aggregated.
+   */
+  private static class SnapshotValues {
+    private double max;
+    private double mean;
+    private double min;
+    private double p50;
+    private double p75;
+    private double p95;
+    private double p98;
+    private double p99;
+    private double p999;
+    private double stddev;
+
+    private static SnapshotValues of(HistogramJson histogram) {
+      SnapshotValues values = new SnapshotValues();
+      values.max = histogram.getMax();
+      values.mean = histogram.getMean();
+      values.min = histogram.getMin();
+      values.p50 = histogram.getP50();
+      values.p75 = histogram.getP75();
+      values.p95 = histogram.getP95();
+      values.p98 = histogram.getP98();
+      values.p99 = histogram.getP99();
+      values.p999 = histogram.getP999();
+      values.stddev = histogram.getStddev();
+      return values;
+    }
+
+    private static SnapshotValues of(TimerJson timer) {
+      SnapshotValues values = new SnapshotValues();
+      values.max = timer.getMax();
+      values.mean = timer.getMean();
+      values.min = timer.getMin();
+      values.p50 = timer.getP50();
+      values.p75 = timer.getP75();
+      values.p95 = timer.getP95();
+      values.p98 = timer.getP98();
+      values.p99 = timer.getP99();
+      values.p999 = timer.getP999();
+      values.stddev = timer.getStddev();
+      return values;
+    }
+
+    // the values of the snapshot are multiplied by the factor, timers use it to convert to their duration unit
+    private static SnapshotValues of(BucketedSnapshot snapshot, double factor) {
+      SnapshotValues values = new SnapshotValues();
+      values.max = snapshot.getMax() * factor;
+      values.mean = snapshot.getMean() * factor;
+      values.min = snapshot.getMin() * factor;
+      values.p50 = snapshot.getMedian() * factor;
+      values.p75 = snapshot.get75thPercentile() * factor;
+      values.p95 = snapshot.get95thPercentile() * factor;
+      values.p98 = snapshot.get98thPercentile() * factor;
+      values.p99 = snapshot.get99thPercentile() * factor;
+      values.p999 = snapshot.get999thPercentile() * factor;
+      values.stddev = snapshot.getStdDev() * factor;
+      return values;
+    }
+
+    // keeps the lowest min, if the other values have one, and the highest of the other values
+    private SnapshotValues merge(SnapshotValues other, boolean mergeMin) {
+      if(mergeMin) {
+        min = Math.min(min, other.min);
+      }
+      max = Math.max(max, other.max);
+      mean = Math.max(mean, other.mean);
+      p50 = Math.max(p50, other.p50);
+      p75 = Math.max(p75, other.p75);
+      p95 = Math.max(p95, other.p95);
+      p98 = Math.max(p98, other.p98);
+      p99 = Math.max(p99, other.p99);
+      p999 = Math.max(p999, other.p999);
+      stddev = Math.max(stddev, other.stddev);
+      return this;
+    }
+
+    private void setTo(HistogramJson histogram) {
+      histogram.setMax((long) max);
+      histogram.setMean(mean);
+      histogram.setMin((long) min);
+      histogram.setP50(p50);
+      histogram.setP75(p75);
+      histogram.setP95(p95);
+      histogram.setP98(p98);
+      histogram.setP99(p99);
+      histogram.setP999(p999);
+      histogram.setStddev(stddev);
+    }
+
+    private void setTo(TimerJson timer) {
+      timer.setMax(max);
+      timer.setMean(mean);
+      timer.setMin(min);
+      timer.setP50(p50);
+      timer.setP75(p75);
+      timer.setP95(p95);
+      timer.setP98(p98);
+      timer.setP99(p99);
+      timer.setP999(p999);
+      timer.setStddev(stddev);
+    }
+  }
+
   public int getScheduledDelay() {
     return scheduledDelay;
   }
@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.metrics;
+
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.streamsets.datacollector.metrics.MetricsSubscription;
+import com.streamsets.datacollector.restapi.bean.MetricRegistryJson;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes the metrics of a pipeline for its {@link com.streamsets.datacollector.metrics.MetricsEventListener}s.
+ * <p/>
+ * Listeners without subscription share the complete metrics JSON, converted once per tick. Listeners with a
+ * subscription get a frame with the subscribed metrics only (only the changed ones in delta mode), only the
+ * subscribed metrics are serialized and each of them at most once per tick. All frames are written into the same
+ * reused buffer, instances are not thread safe.
+ */
+public class MetricsFrameEncoder {
+  public static final String DELTA = "delta";
+
+  // what the metrics-json MetricsModule writes as 'version' for a MetricRegistry
+  private static final String METRICS_JSON_VERSION = "3.0.0";
+  private static final String VERSION = "version";
+  private static final String SLAVES = "slaves";
+  private static final String GAUGES = "gauges";
+  private static final String COUNTERS = "counters";
+  private static final String HISTOGRAMS = "histograms";
+  private static final String METERS = "meters";
+  private static final String TIMERS = "timers";
+
+  private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+  private final ObjectMapper objectMapper;
+  private final ObjectWriter metricWriter;
+  private final ByteArrayOutputStream buffer;
+  private final Map<String, String> serialized;
+  private Object metrics;
+  private String fullFrame;
+
+  public MetricsFrameEncoder(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+    metricWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    buffer = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+    serialized = new HashMap<>();
+  }
+
+  /**
+   * Sets the metrics (a <code>MetricRegistry</code> or a <code>MetricRegistryJson</code>) to encode for this tick.
+   */
+  public void reset(Object metrics) {
+    this.metrics = metrics;
+    fullFrame = null;
+    serialized.clear();
+  }
+
+  /**
+   * Returns the frame for the given subscription, or <code>null</code> if there is nothing to send.
+   */
+  public String encode(MetricsSubscription subscription) throws IOException {
+    if (subscription == null) {
+      if (fullFrame == null) {
+        buffer.reset();
+        objectMapper.writeValue(buffer, metrics);
+        fullFrame = buffer.toString(StandardCharsets.UTF_8.name());
+      }
+      return fullFrame;
+    }
+    buffer.reset();
+    boolean hasMetrics = false;
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8)) {
+      generator.writeStartObject();
+      generator.writeBooleanField(DELTA, subscription.isDelta());
+      for (Map.Entry<String, Object> entry : getValues().entrySet()) {
+        // version, slaves, not metrics themselves
+        writeValue(generator, subscription, entry.getKey(), entry.getValue());
+      }
+      for (Map.Entry<String, Map<String, ?>> section : getSections(subscription).entrySet()) {
+        hasMetrics |= writeSection(generator, subscription, section.getKey(), section.getValue());
+      }
+      generator.writeEndObject();
+    }
+    return (hasMetrics || !subscription.isDelta()) ? buffer.toString(StandardCharsets.UTF_8.name()) : null;
+  }
+
+  private Map<String, Object> getValues() {
+    Map<String, Object> values = new LinkedHashMap<>();
+    if (metrics instanceof MetricRegistryJson) {
+      MetricRegistryJson registryJson = (MetricRegistryJson) metrics;
+      values.put(VERSION, registryJson.getVersion());
+      if (registryJson.getSlaves() != null) {
+        values.put(SLAVES, registryJson.getSlaves());
+      }
+    } else {
+      values.put(VERSION, METRICS_JSON_VERSION);
+    }
+    return values;
+  }
+
+  // the subscribed metrics only, per section
+  private Map<String, Map<String, ?>> getSections(final MetricsSubscription subscription) {
+    Map<String, Map<String, ?>> sections = new LinkedHashMap<>();
+    if (metrics instanceof MetricRegistry) {
+      MetricRegistry registry = (MetricRegistry) metrics;
+      MetricFilter filter = new MetricFilter() {
+        @Override
+        public boolean matches(String name, Metric metric) {
+          return subscription.matches(name);
+        }
+      };
+      sections.put(GAUGES, registry.getGauges(filter));
+      sections.put(COUNTERS, registry.getCounters(filter));
+      sections.put(HISTOGRAMS, registry.getHistograms(filter));
+      sections.put(METERS, registry.getMeters(filter));
+      sections.put(TIMERS, registry.getTimers(filter));
+    } else if (metrics instanceof MetricRegistryJson) {
+      MetricRegistryJson registryJson = (MetricRegistryJson) metrics;
+      sections.put(GAUGES, filter(registryJson.getGauges(), subscription));
+      sections.put(COUNTERS, filter(registryJson.getCounters(), subscription));
+      sections.put(HISTOGRAMS, filter(registryJson.getHistograms(), subscription));
+      sections.put(METERS, filter(registryJson.getMeters(), subscription));
+      sections.put(TIMERS, filter(registryJson.getTimers(), subscription));
+    }
+    return sections;
+  }
+
+  private static Map<String, ?> filter(Map<String, ?> metrics, MetricsSubscription subscription) {
+    Map<String, Object> filtered = new LinkedHashMap<>();
+    if (metrics != null) {
+      for (Map.Entry<String, ?> metric : metrics.entrySet()) {
+        if (subscription.matches(metric.getKey())) {
+          filtered.put(metric.getKey(), metric.getValue());
+        }
+      }
+    }
+    return filtered;
+  }
+
+  private String serialize(String key, Object value) throws IOException {
+    String json = serialized.get(key);
+    if (json == null) {
+      json = metricWriter.writeValueAsString(value);
+      serialized.put(key, json);
+    }
+    return json;
+  }
+
+  private void writeValue(JsonGenerator generator, MetricsSubscription subscription, String key, Object value)
+      throws IOException {
+    String json = serialize(key, value);
+    if (subscription.hasChanged(key, json)) {
+      generator.writeFieldName(key);
+      generator.writeRawValue(json);
+    }
+  }
+
+  private boolean writeSection(JsonGenerator generator, MetricsSubscription subscription, String sectionName,
+      Map<String, ?> section) throws IOException {
+    boolean started = false;
+    for (Map.Entry<String, ?> metric : section.entrySet()) {
+      String json = serialize(sectionName + "." + metric.getKey(), metric.getValue());
+      if (subscription.hasChanged(metric.getKey(), json)) {
+        if (!started) {
+          generator.writeObjectFieldStart(sectionName);
+          started = true;
+        }
+        generator.writeFieldName(metric.getKey());
+        generator.writeRawValue(json);
+      }
+    }
+    if (started) {
+      generator.writeEndObject();
+    } else if (!subscription.isDelta()) {
+      generator.writeObjectFieldStart(sectionName);
+      generator.writeEndObject();
+    }
+    return started;
+  }
+
+}
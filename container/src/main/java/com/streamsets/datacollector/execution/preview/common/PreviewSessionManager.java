@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.preview.common;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.streamsets.datacollector.runner.preview.PreviewSession;
+import com.streamsets.datacollector.util.Configuration;
+import com.streamsets.pipeline.lib.executor.SafeScheduledExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a preview session per pipeline and revision so consecutive previews reuse the initialized stages. A session
+ * is closed, destroying its stages, once it has not been used for <code>preview.session.idleTimeout.secs</code>.
+ */
+public class PreviewSessionManager {
+  private static final Logger LOG = LoggerFactory.getLogger(PreviewSessionManager.class);
+
+  public static final String SESSION_ENABLED_KEY = "preview.session.enabled";
+  public static final boolean SESSION_ENABLED_DEFAULT = false;
+  public static final String SESSION_IDLE_TIMEOUT_KEY = "preview.session.idleTimeout.secs";
+  public static final long SESSION_IDLE_TIMEOUT_DEFAULT = 600;
+  public static final String SESSION_REPLAY_SOURCE_KEY = "preview.session.replaySource";
+  public static final boolean SESSION_REPLAY_SOURCE_DEFAULT = true;
+
+  private final boolean enabled;
+  private final boolean replaySource;
+  private final Cache<String, PreviewSession> sessions;
+
+  public PreviewSessionManager(Configuration configuration, SafeScheduledExecutorService executor) {
+    enabled = configuration.get(SESSION_ENABLED_KEY, SESSION_ENABLED_DEFAULT);
+    replaySource = configuration.get(SESSION_REPLAY_SOURCE_KEY, SESSION_REPLAY_SOURCE_DEFAULT);
+    long idleTimeout = configuration.get(SESSION_IDLE_TIMEOUT_KEY, SESSION_IDLE_TIMEOUT_DEFAULT);
+    sessions = CacheBuilder.newBuilder()
+      .expireAfterAccess(idleTimeout, TimeUnit.SECONDS).removalListener(new RemovalListener<String, PreviewSession>() {
+        @Override
+        public void onRemoval(RemovalNotification<String, PreviewSession> removal) {
+          PreviewSession session = removal.getValue();
+          LOG.debug("Closing preview session '{}::{}', cause '{}'", session.getName(), session.getRev(),
+            removal.getCause());
+          session.close();
+        }
+      }).build();
+    if (enabled) {
+      // the cache only evicts on access, idle sessions hold stage resources until they are closed
+      long period = Math.max(1, Math.min(60, idleTimeout));
+      executor.scheduleWithFixedDelayAndForget(new Runnable() {
+        @Override
+        public void run() {
+          sessions.cleanUp();
+        }
+      }, period, period, TimeUnit.SECONDS);
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public boolean isReplaySource() {
+    return replaySource;
+  }
+
+  public PreviewSession getSession(String name, String rev, Callable<PreviewSession> sessionCreator) {
+    try {
+      return sessions.get(getKey(name, rev), sessionCreator);
+    } catch (ExecutionException ex) {
+      throw Throwables.propagate(ex.getCause());
+    }
+  }
+
+  public void closeSession(String name, String rev) {
+    sessions.invalidate(getKey(name, rev));
+  }
+
+  private static String getKey(String name, String rev) {
+    return name + "::" + rev;
+  }
+
+}
@@ -19,17 +19,21 @@ package com.streamsets.datacollector.execution.preview.common.dagger;
 
 import com.streamsets.datacollector.execution.executor.ExecutorModule;
 import com.streamsets.datacollector.execution.manager.PreviewerProvider;
+import com.streamsets.datacollector.execution.preview.common.PreviewSessionManager;
 import com.streamsets.datacollector.execution.preview.common.PreviewerProviderImpl;
+import com.streamsets.datacollector.util.Configuration;
+import com.streamsets.pipeline.lib.executor.SafeScheduledExecutorService;
 
 import dagger.Module;
 import dagger.Provides;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 /**
- * Provides a singleton instance of PreviewerProvider.
+ * Provides singleton instances of PreviewerProvider and PreviewSessionManager.
  */
-@Module(injects = PreviewerProvider.class, includes = {ExecutorModule.class})
+@Module(injects = PreviewerProvider.class, library = true, includes = {ExecutorModule.class})
 public class PreviewerProviderModule {
 
   @Provides @Singleton
@@ -37,4 +41,10 @@ public class PreviewerProviderModule {
     return previewerProvider;
   }
 
+  @Provides @Singleton
+  public PreviewSessionManager providePreviewSessionManager(Configuration configuration,
+      @Named("previewExecutor") SafeScheduledExecutorService previewExecutor) {
+    return new PreviewSessionManager(configuration, previewExecutor);
+  }
+
 }
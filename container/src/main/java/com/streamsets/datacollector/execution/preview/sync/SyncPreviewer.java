@@ -30,6 +30,7 @@ import com.streamsets.datacollector.execution.PreviewerListener;
 import com.streamsets.datacollector.execution.RawPreview;
 import com.streamsets.datacollector.execution.preview.common.PreviewError;
 import com.streamsets.datacollector.execution.preview.common.PreviewOutputImpl;
+import com.streamsets.datacollector.execution.preview.common.PreviewSessionManager;
 import com.streamsets.datacollector.execution.preview.common.RawPreviewImpl;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
@@ -39,6 +40,7 @@ import com.streamsets.datacollector.runner.preview.PreviewPipeline;
 import com.streamsets.datacollector.runner.preview.PreviewPipelineBuilder;
 import com.streamsets.datacollector.runner.preview.PreviewPipelineOutput;
 import com.streamsets.datacollector.runner.preview.PreviewPipelineRunner;
+import com.streamsets.datacollector.runner.preview.PreviewSession;
 import com.streamsets.datacollector.runner.preview.PreviewSourceOffsetTracker;
 import com.streamsets.datacollector.stagelibrary.StageLibraryTask;
 import com.streamsets.datacollector.store.PipelineStoreException;
@@ -63,6 +65,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 public class SyncPreviewer implements Previewer {
 
@@ -81,9 +84,11 @@ public class SyncPreviewer implements Previewer {
   @Inject StageLibraryTask stageLibrary;
   @Inject PipelineStoreTask pipelineStore;
   @Inject RuntimeInfo runtimeInfo;
+  @Inject PreviewSessionManager previewSessionManager;
   private volatile PreviewStatus previewStatus;
   private volatile PreviewOutput previewOutput;
   private volatile PreviewPipeline previewPipeline;
+  private volatile PreviewSession previewSession;
 
   public SyncPreviewer(String id, String name, String rev, PreviewerListener previewerListener,
                        ObjectGraph objectGraph) {
@@ -163,8 +168,13 @@ public class SyncPreviewer implements Previewer {
     throws PipelineException {
     changeState(PreviewStatus.RUNNING, null);
     try {
-      previewPipeline = buildPreviewPipeline(batches, batchSize, stopStage, skipTargets);
-      PreviewPipelineOutput output = previewPipeline.run(stagesOverride);
+      PreviewPipelineOutput output;
+      if (previewSessionManager.isEnabled()) {
+        output = runPreviewSession(batches, batchSize, stopStage, skipTargets, stagesOverride);
+      } else {
+        previewPipeline = buildPreviewPipeline(batches, batchSize, stopStage, skipTargets);
+        output = previewPipeline.run(stagesOverride);
+      }
       changeState(PreviewStatus.FINISHED, new PreviewOutputImpl(PreviewStatus.FINISHED, output.getIssues(),
         output.getBatchesOutput(), null));
     } catch (PipelineRuntimeException e) {
@@ -202,6 +212,7 @@ public class SyncPreviewer implements Previewer {
       previewPipeline.destroy();
       previewPipeline = null;
     }
+    closePreviewSession();
     if(previewStatus == PreviewStatus.CANCELLING) {
       changeState(PreviewStatus.CANCELLED, null);
     }
@@ -216,6 +227,7 @@ public class SyncPreviewer implements Previewer {
       previewPipeline.destroy();
       previewPipeline = null;
     }
+    closePreviewSession();
     if(previewStatus == PreviewStatus.TIMING_OUT) {
       changeState(PreviewStatus.TIMED_OUT, null);
     }
@@ -258,6 +270,35 @@ public class SyncPreviewer implements Previewer {
       .build(runner);
   }
 
+  private PreviewPipelineOutput runPreviewSession(int batches, int batchSize, String endStageInstanceName,
+                                                  boolean skipTargets, List<StageOutput> stagesOverride)
+    throws PipelineStoreException, StageException, PipelineRuntimeException {
+
+    batchSize = Math.min(configuration.get(MAX_BATCH_SIZE_KEY, MAX_BATCH_SIZE_DEFAULT), batchSize);
+    batches = Math.min(configuration.get(MAX_BATCHES_KEY, MAX_BATCHES_DEFAULT), batches);
+    PipelineConfiguration pipelineConf = pipelineStore.load(name, rev);
+    previewSession = previewSessionManager.getSession(name, rev, new Callable<PreviewSession>() {
+      @Override
+      public PreviewSession call() {
+        return new PreviewSession(stageLibrary, configuration, runtimeInfo, name, rev,
+          previewSessionManager.isReplaySource());
+      }
+    });
+    try {
+      return previewSession.run(pipelineConf, endStageInstanceName, batchSize, batches, skipTargets, stagesOverride);
+    } finally {
+      previewSession = null;
+    }
+  }
+
+  private void closePreviewSession() {
+    //a cancelled preview may leave the stages of the session in any state
+    if(previewSession != null) {
+      previewSessionManager.closeSession(name, rev);
+      previewSession = null;
+    }
+  }
+
   private RawSourcePreviewer createRawSourcePreviewer(MultivaluedMap<String, String> previewParams)
     throws PipelineRuntimeException, PipelineStoreException {
 
@@ -0,0 +1,297 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.runner.common;
+
+import com.google.common.base.Preconditions;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, lock-free, multi-producer/multi-consumer FIFO queue backed by a preallocated ring of slots.
+ * <p/>
+ * Every slot carries a sequence number which tells producers and consumers whether the slot is free for the current
+ * lap of the ring, so offering and polling only need a CAS on the tail or head position and never take a lock. The
+ * pipeline thread hands requests to the observer thread through it without contending on a lock with the consumer.
+ * <p/>
+ * The blocking methods first try the lock-free path and only when the ring is empty (or full) wait on a condition,
+ * like {@link java.util.concurrent.ArrayBlockingQueue} does. Producers and consumers take the lock to signal only
+ * when a thread is waiting on the other side, so the fast path stays lock-free.
+ */
+public class BoundedRingBuffer<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+  private final int capacity;
+  private final int slots;
+  private final AtomicReferenceArray<E> elements;
+  private final AtomicLongArray sequences;
+  private final AtomicLong head;
+  private final AtomicLong tail;
+  private final ReentrantLock lock;
+  private final Condition notEmpty;
+  private final Condition notFull;
+  // only modified while holding the lock
+  private volatile int waitingConsumers;
+  private volatile int waitingProducers;
+
+  public BoundedRingBuffer(int capacity) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be greater than zero");
+    this.capacity = capacity;
+    // with a single slot a published and a released slot would have the same sequence number
+    slots = Math.max(2, capacity);
+    elements = new AtomicReferenceArray<>(slots);
+    sequences = new AtomicLongArray(slots);
+    for (int i = 0; i < slots; i++) {
+      sequences.set(i, i);
+    }
+    head = new AtomicLong();
+    tail = new AtomicLong();
+    lock = new ReentrantLock();
+    notEmpty = lock.newCondition();
+    notFull = lock.newCondition();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  @Override
+  public boolean offer(E e) {
+    Preconditions.checkNotNull(e, "element cannot be null");
+    if (tryOffer(e)) {
+      // the element is published before the check, a consumer that registers as waiting afterwards finds it
+      if (waitingConsumers > 0) {
+        signal(notEmpty);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private boolean tryOffer(E e) {
+    long pos = tail.get();
+    while (true) {
+      int index = (int) (pos % slots);
+      long diff = sequences.get(index) - pos;
+      if (diff == 0) {
+        if (slots > capacity && pos - head.get() >= capacity) {
+          return false;
+        }
+        if (tail.compareAndSet(pos, pos + 1)) {
+          elements.set(index, e);
+          // publishes the element to consumers
+          sequences.set(index, pos + 1);
+          return true;
+        }
+        pos = tail.get();
+      } else if (diff < 0) {
+        // the slot still holds the element of the previous lap, the ring is full
+        return false;
+      } else {
+        pos = tail.get();
+      }
+    }
+  }
+
+  @Override
+  public E poll() {
+    E e = tryPoll();
+    if (e != null && waitingProducers > 0) {
+      signal(notFull);
+    }
+    return e;
+  }
+
+  private E tryPoll() {
+    long pos = head.get();
+    while (true) {
+      int index = (int) (pos % slots);
+      long diff = sequences.get(index) - (pos + 1);
+      if (diff == 0) {
+        if (head.compareAndSet(pos, pos + 1)) {
+          E e = elements.get(index);
+          elements.set(index, null);
+          // releases the slot for the next lap of producers
+          sequences.set(index, pos + slots);
+          return e;
+        }
+        pos = head.get();
+      } else if (diff < 0) {
+        // the slot has not been published yet, the ring is empty
+        return null;
+      } else {
+        pos = head.get();
+      }
+    }
+  }
+
+  @Override
+  public E peek() {
+    while (true) {
+      long pos = head.get();
+      int index = (int) (pos % slots);
+      if (sequences.get(index) - (pos + 1) < 0) {
+        return null;
+      }
+      E e = elements.get(index);
+      if (e != null && head.get() == pos) {
+        return e;
+      }
+    }
+  }
+
+  @Override
+  public void put(E e) throws InterruptedException {
+    if (!offer(e)) {
+      awaitOffer(e, 0, false);
+    }
+  }
+
+  @Override
+  public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+    return offer(e) || awaitOffer(e, unit.toNanos(timeout), true);
+  }
+
+  private boolean awaitOffer(E e, long nanos, boolean timed) throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      waitingProducers++;
+      try {
+        // the counter is raised before retrying so a consumer releasing a slot after the retry signals us
+        while (!offer(e)) {
+          if (!timed) {
+            notFull.await();
+          } else if (nanos > 0) {
+            nanos = notFull.awaitNanos(nanos);
+          } else {
+            return false;
+          }
+        }
+        return true;
+      } finally {
+        waitingProducers--;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public E take() throws InterruptedException {
+    E e = poll();
+    return (e != null) ? e : awaitPoll(0, false);
+  }
+
+  @Override
+  public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+    E e = poll();
+    return (e != null) ? e : awaitPoll(unit.toNanos(timeout), true);
+  }
+
+  private E awaitPoll(long nanos, boolean timed) throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      waitingConsumers++;
+      try {
+        E e;
+        // the counter is raised before retrying so a producer publishing after the retry signals us
+        while ((e = poll()) == null) {
+          if (!timed) {
+            notEmpty.await();
+          } else if (nanos > 0) {
+            nanos = notEmpty.awaitNanos(nanos);
+          } else {
+            return null;
+          }
+        }
+        return e;
+      } finally {
+        waitingConsumers--;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void signal(Condition condition) {
+    lock.lock();
+    try {
+      // waiters may time out or lose the element to a lock-free poll/offer, waking all of them is the safe choice
+      condition.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    // head is read first so a concurrent poll cannot make the size negative
+    long h = head.get();
+    long t = tail.get();
+    return (int) Math.max(0, Math.min(capacity, t - h));
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return capacity - size();
+  }
+
+  @Override
+  public int drainTo(Collection<? super E> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(Collection<? super E> c, int maxElements) {
+    Preconditions.checkNotNull(c, "collection cannot be null");
+    Preconditions.checkArgument(c != this, "cannot drain to itself");
+    int count = 0;
+    E e;
+    while (count < maxElements && (e = poll()) != null) {
+      c.add(e);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Returns a weakly consistent, read-only iterator over a snapshot of the elements currently in the ring.
+   */
+  @Override
+  public Iterator<E> iterator() {
+    List<E> snapshot = new ArrayList<>(size());
+    long t = tail.get();
+    for (long pos = head.get(); pos < t; pos++) {
+      E e = elements.get((int) (pos % slots));
+      if (e != null) {
+        snapshot.add(e);
+      }
+    }
+    return Collections.unmodifiableList(snapshot).iterator();
+  }
+
+}
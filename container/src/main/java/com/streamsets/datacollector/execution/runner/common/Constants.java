@@ -41,8 +41,12 @@ public class Constants {
   public static final int SNAPSHOT_MAX_BATCH_SIZE_DEFAULT = 10;
   public static final int SAMPLED_RECORDS_MAX_CACHE_SIZE_DEFAULT = 100;
   public static final String SAMPLED_RECORDS_MAX_CACHE_SIZE_KEY = "observer.sampled.records.cache.size";
+  public static final String DATA_RULES_EVALUATION_THREADS_KEY = "observer.data.rules.evaluation.threads";
+  public static final int DATA_RULES_EVALUATION_THREADS_DEFAULT = 1;
   public static final String MAX_OBSERVER_REQUEST_OFFER_WAIT_TIME_MS_KEY = "observer.queue.offer.max.wait.time.ms";
   public static final int MAX_OBSERVER_REQUEST_OFFER_WAIT_TIME_MS_DEFAULT = 1000;
+  public static final String OBSERVER_QUEUE_FULL_POLICY_KEY = "observer.queue.full.policy";
+  public static final String OBSERVER_QUEUE_FULL_POLICY_DEFAULT = ProductionObserver.QueueFullPolicy.WAIT.name();
 
   public static final String STOP_PIPELINE_MESSAGE = "Requested via REST API";
 }
@@ -82,6 +82,7 @@ public class DataObserverRunnable implements Runnable {
         }
       }
     } finally {
+      dataObserverRunner.stop();
       Thread.currentThread().setName(originalName);
     }
   }
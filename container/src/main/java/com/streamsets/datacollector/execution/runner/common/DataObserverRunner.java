@@ -18,6 +18,7 @@
 package com.streamsets.datacollector.execution.runner.common;
 
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.EvictingQueue;
 import com.streamsets.datacollector.config.DataRuleDefinition;
@@ -30,20 +31,29 @@ import com.streamsets.datacollector.runner.production.PipelineErrorNotificationR
 import com.streamsets.datacollector.runner.production.RulesConfigurationChangeRequest;
 import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.lib.executor.SafeScheduledExecutorService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class DataObserverRunner {
 
   private static final Logger LOG = LoggerFactory.getLogger(DataObserverRunner.class);
   private static final String USER_PREFIX = "user.";
+  private static final String QUEUE_LATENCY = "observer.queueLatency";
 
   private RulesConfigurationChangeRequest rulesConfigurationChangeRequest;
   private final Map<String, EvictingQueue<SampledRecord>> ruleToSampledRecordsMap;
@@ -53,18 +63,53 @@ public class DataObserverRunner {
   private final String name;
   private final String rev;
   private MetricRegistryJson metricRegistryJson;
+  private final Map<String, DataRuleEvaluator> dataRuleEvaluators;
+  private final int evaluationThreads;
+  private ExecutorService evaluationExecutor;
+  private final Timer queueLatencyTimer;
 
   public DataObserverRunner(String name, String rev, MetricRegistry metrics, AlertManager alertManager,
                             Configuration configuration) {
     this.metrics = metrics;
-    this.ruleToSampledRecordsMap = new HashMap<>();
+    this.ruleToSampledRecordsMap = new ConcurrentHashMap<>();
     this.configuration = configuration;
     this.alertManager = alertManager;
     this.name = name;
     this.rev = rev;
+    this.dataRuleEvaluators = new HashMap<>();
+    this.evaluationThreads = configuration.get(Constants.DATA_RULES_EVALUATION_THREADS_KEY,
+      Constants.DATA_RULES_EVALUATION_THREADS_DEFAULT);
+    Timer timer = MetricsConfigurator.getTimer(metrics, QUEUE_LATENCY);
+    if (timer == null) {
+      timer = MetricsConfigurator.createTimer(metrics, QUEUE_LATENCY, name, rev);
+    }
+    this.queueLatencyTimer = timer;
+  }
+
+  //evaluators are cached per rule, they are discarded on configuration changes
+  private DataRuleEvaluator getDataRuleEvaluator(DataRuleDefinition dataRuleDefinition) {
+    DataRuleEvaluator dataRuleEvaluator = dataRuleEvaluators.get(dataRuleDefinition.getId());
+    if (dataRuleEvaluator == null) {
+      dataRuleEvaluator = new DataRuleEvaluator(name, rev, metrics, alertManager,
+        rulesConfigurationChangeRequest.getRuleDefinitions().getEmailIds(), dataRuleDefinition, configuration,
+        metricRegistryJson);
+      dataRuleEvaluators.put(dataRuleDefinition.getId(), dataRuleEvaluator);
+    }
+    return dataRuleEvaluator;
+  }
+
+  private ExecutorService getEvaluationExecutor() {
+    if (evaluationExecutor == null) {
+      evaluationExecutor = new SafeScheduledExecutorService(evaluationThreads, "DataRuleEvaluator");
+    }
+    return evaluationExecutor;
   }
 
   public void handleDataRulesEvaluationRequest(DataRulesEvaluationRequest dataRulesEvaluationRequest) {
+    queueLatencyTimer.update(System.nanoTime() - dataRulesEvaluationRequest.getCreatedNanos(), TimeUnit.NANOSECONDS);
+    List<String> lanes = new ArrayList<>();
+    List<DataRuleEvaluator> evaluators = new ArrayList<>();
+    List<List<Record>> evaluatorsRecords = new ArrayList<>();
 
     //This is the map of ruleId vs sampled records
     Map<String, Map<String, List<Record>>> snapshot = dataRulesEvaluationRequest.getSnapshot();
@@ -79,9 +124,9 @@ public class DataObserverRunner {
           List<Record> sampledRecords = ruleIdToSampledRecords.get(dataRuleDefinition.getId());
           if(dataRuleDefinition.isEnabled()  && sampledRecords != null && sampledRecords.size() > 0) {
             //evaluate rule only if it is enabled and there are sampled records.
-            DataRuleEvaluator dataRuleEvaluator = new DataRuleEvaluator(name, rev, metrics, alertManager,
-              rulesConfigurationChangeRequest.getRuleDefinitions().getEmailIds(), dataRuleDefinition, configuration, metricRegistryJson);
-            dataRuleEvaluator.evaluateRule(sampledRecords, lane, ruleToSampledRecordsMap);
+            lanes.add(lane);
+            evaluators.add(getDataRuleEvaluator(dataRuleDefinition));
+            evaluatorsRecords.add(sampledRecords);
           } else if (!dataRuleDefinition.isEnabled()) {
             //If data rule is disabled, clear the sampled records for that rule
             EvictingQueue<SampledRecord> records = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
@@ -92,11 +137,48 @@ public class DataObserverRunner {
         }
       }
     }
+    evaluateRules(lanes, evaluators, evaluatorsRecords);
+  }
+
+  private void evaluateRules(List<String> lanes, List<DataRuleEvaluator> evaluators,
+      List<List<Record>> evaluatorsRecords) {
+    if (evaluationThreads > 1 && evaluators.size() > 1) {
+      //conditions are evaluated concurrently, sampled records, metrics and alerts are updated in this thread
+      List<Future<DataRuleEvaluator.Evaluation>> futures = new ArrayList<>(evaluators.size());
+      for (int i = 0; i < evaluators.size(); i++) {
+        final DataRuleEvaluator evaluator = evaluators.get(i);
+        final List<Record> records = evaluatorsRecords.get(i);
+        futures.add(getEvaluationExecutor().submit(new Callable<DataRuleEvaluator.Evaluation>() {
+          @Override
+          public DataRuleEvaluator.Evaluation call() {
+            return evaluator.evaluateCondition(records);
+          }
+        }));
+      }
+      for (int i = 0; i < evaluators.size(); i++) {
+        DataRuleEvaluator.Evaluation evaluation;
+        try {
+          evaluation = futures.get(i).get();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return;
+        } catch (ExecutionException ex) {
+          LOG.error("Error evaluating data rules for lane '{}': {}", lanes.get(i), ex.toString(), ex);
+          continue;
+        }
+        evaluators.get(i).applyEvaluation(evaluation, lanes.get(i), ruleToSampledRecordsMap);
+      }
+    } else {
+      for (int i = 0; i < evaluators.size(); i++) {
+        evaluators.get(i).evaluateRule(evaluatorsRecords.get(i), lanes.get(i), ruleToSampledRecordsMap);
+      }
+    }
   }
 
   public void handleConfigurationChangeRequest(RulesConfigurationChangeRequest rulesConfigurationChangeRequest) {
     //update config changes
     this.rulesConfigurationChangeRequest = rulesConfigurationChangeRequest;
+    dataRuleEvaluators.clear();
 
     //remove metrics for changed / deleted rules
     for(String ruleId : rulesConfigurationChangeRequest.getRulesToRemove()) {
@@ -161,6 +243,14 @@ public class DataObserverRunner {
 
   public void setMetricRegistryJson(MetricRegistryJson metricRegistryJson) {
     this.metricRegistryJson = metricRegistryJson;
+    dataRuleEvaluators.clear();
+  }
+
+  public void stop() {
+    if (evaluationExecutor != null) {
+      evaluationExecutor.shutdownNow();
+      evaluationExecutor = null;
+    }
   }
 
 }
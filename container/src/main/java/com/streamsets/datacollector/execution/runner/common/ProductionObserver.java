@@ -17,8 +17,11 @@
  */
 package com.streamsets.datacollector.execution.runner.common;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
 import com.streamsets.datacollector.config.DataRuleDefinition;
+import com.streamsets.datacollector.metrics.MetricsConfigurator;
 import com.streamsets.datacollector.record.RecordImpl;
 import com.streamsets.datacollector.runner.Observer;
 import com.streamsets.datacollector.runner.Pipe;
@@ -31,56 +34,72 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Random;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 public class ProductionObserver implements Observer {
 
   private static final Logger LOG = LoggerFactory.getLogger(ProductionObserver.class);
+  private static final String DROPPED_REQUESTS = "observer.droppedRequests";
+
+  /**
+   * What to do with a data rule evaluation request when the observer queue is full.
+   */
+  public enum QueueFullPolicy {
+    // wait up to observer.queue.offer.max.wait.time.ms for room in the queue, then drop the request
+    WAIT,
+    // drop the request right away, records are not sampled while the queue is full
+    DROP,
+  }
 
   private final com.streamsets.datacollector.util.Configuration configuration;
   private BlockingQueue<Object> observeRequests;
   private final MetricsObserverRunner metricsObserverRunner;
+  private final QueueFullPolicy queueFullPolicy;
+  private final long maxOfferWaitTimeMs;
+  private final Counter droppedRequestsCounter;
 
   private volatile RulesConfigurationChangeRequest currentConfig;
   private volatile RulesConfigurationChangeRequest newConfig;
 
    /*A lane has multiple rules with different sampling percentages.
-    Pick the one with highest sampling %, say n and generate n integers between 0 and 99.
-    All other rules for that lane pick a subset of numbers from that generated list based on their sampling %.
+    Pick the one with highest sampling %, say n and shuffle the integers between 0 and 99, the first n of them are
+    the record indexes to pick up.
+    All other rules for that lane pick a prefix of those n integers based on their sampling %.
     Maintain a record counter per lane that counts the records that flows through it.
-    If the counter matches a generated number, that record is picked uo, cloned and sent for evaluation.
-    This map holds the n generated numbers for the rule with max sampling % */
-  private final Map<String, Set<Integer>> laneToMaxRecordIndexMap;
-  /*This map holds the generated numbers for each rule, which is selected from the n generated numbers for the rule
-  with max sampling %.*/
-  private final Map<String, Set<Integer>> ruleIdToRecordIndexMap;
-  /*This map holds the count of records that have flown though that lane. The counter is reset when it reaches 100*/
-  private final Map<String, Integer> laneToRecordCounterMap;
-  /*Contains integers between 0 and 99 and n random numbers are selected by shuffling this list and picking the first
-  n*/
-  private final List<Integer> randomNumberSampleSpace;
+    If the counter matches a picked index, that record is picked up, cloned and sent for evaluation.
+    This map holds the sampling state of each lane, it is allocated once per lane and reused for every batch */
+  private final Map<String, LaneSampler> laneSamplers;
+  private final Random random;
 
   @Inject
-  public ProductionObserver(Configuration configuration, MetricsObserverRunner metricsObserverRunner) {
+  public ProductionObserver(@Named("name") String name, @Named("rev") String rev, Configuration configuration,
+                            MetricsObserverRunner metricsObserverRunner, MetricRegistry metrics) {
     this.configuration = configuration;
     this.metricsObserverRunner = metricsObserverRunner;
-    this.laneToMaxRecordIndexMap = new HashMap<>();
-    this.ruleIdToRecordIndexMap = new HashMap<>();
-    this.laneToRecordCounterMap = new HashMap<>();
-    randomNumberSampleSpace = new ArrayList<>(100);
-    for(int i = 0; i < 100; i++) {
-      randomNumberSampleSpace.add(i);
+    this.laneSamplers = new HashMap<>();
+    this.random = new Random();
+    this.queueFullPolicy = QueueFullPolicy.valueOf(configuration.get(Constants.OBSERVER_QUEUE_FULL_POLICY_KEY,
+      Constants.OBSERVER_QUEUE_FULL_POLICY_DEFAULT).trim().toUpperCase());
+    this.maxOfferWaitTimeMs = configuration.get(Constants.MAX_OBSERVER_REQUEST_OFFER_WAIT_TIME_MS_KEY,
+      Constants.MAX_OBSERVER_REQUEST_OFFER_WAIT_TIME_MS_DEFAULT);
+    Counter counter = MetricsConfigurator.getCounter(metrics, DROPPED_REQUESTS);
+    if (counter == null) {
+      counter = MetricsConfigurator.createCounter(metrics, DROPPED_REQUESTS, name, rev);
     }
+    this.droppedRequestsCounter = counter;
+  }
+
+  @VisibleForTesting
+  ProductionObserver(Configuration configuration, MetricsObserverRunner metricsObserverRunner) {
+    this(null, null, configuration, metricsObserverRunner, new MetricRegistry());
   }
 
   public void setObserveRequests(BlockingQueue<Object> observeRequests) {
@@ -118,8 +137,12 @@ public class ProductionObserver implements Observer {
 
   @Override
   public void observe(Pipe pipe, Map<String, List<Record>> snapshot) {
+    if (queueFullPolicy == QueueFullPolicy.DROP && observeRequests.remainingCapacity() == 0) {
+      //the request would be dropped anyway, don't pay for sampling and cloning records
+      dropRequest();
+      return;
+    }
     Map<String, Map<String, List<Record>>> laneToRecordsMap = new HashMap<>();
-    Map<String, List<Record>> ruleIdToRecordsMap = new HashMap<>();
     Map<String, Integer> laneToRecordsSizeMap = new HashMap<>();
     for(Map.Entry<String, List<Record>> entry : snapshot.entrySet()) {
       String lane = entry.getKey();
@@ -127,28 +150,41 @@ public class ProductionObserver implements Observer {
       laneToRecordsSizeMap.put(lane, allRecords.size());
       List<DataRuleDefinition> dataRuleDefinitions = currentConfig.getLaneToDataRuleMap().get(lane);
       if(dataRuleDefinitions != null) {
-        Map<String, List<Record>> sampleRecords = getSampleRecords(dataRuleDefinitions, allRecords, lane);
-        for(Map.Entry<String, List<Record>> e : sampleRecords.entrySet()) {
-          ruleIdToRecordsMap.put(e.getKey(), e.getValue());
-        }
+        laneToRecordsMap.put(lane, getSampleRecords(dataRuleDefinitions, allRecords, lane));
       }
-      laneToRecordsMap.put(lane, ruleIdToRecordsMap);
     }
     boolean offered;
     try {
-      offered = observeRequests.offer(new DataRulesEvaluationRequest(laneToRecordsMap, laneToRecordsSizeMap),
-        configuration.get(Constants.MAX_OBSERVER_REQUEST_OFFER_WAIT_TIME_MS_KEY,
-        Constants.MAX_OBSERVER_REQUEST_OFFER_WAIT_TIME_MS_DEFAULT), TimeUnit.MILLISECONDS);
+      DataRulesEvaluationRequest request = new DataRulesEvaluationRequest(laneToRecordsMap, laneToRecordsSizeMap);
+      if (queueFullPolicy == QueueFullPolicy.DROP) {
+        offered = observeRequests.offer(request);
+      } else {
+        offered = observeRequests.offer(request, maxOfferWaitTimeMs, TimeUnit.MILLISECONDS);
+      }
     } catch (InterruptedException e) {
       offered = false;
     }
     if(!offered) {
+      dropRequest();
+    }
+  }
+
+  private void dropRequest() {
+    droppedRequestsCounter.inc();
+    if (queueFullPolicy == QueueFullPolicy.WAIT) {
       LOG.error("Dropping DataRules Evaluation Request as observer queue is full. " +
         "Please resize the observer queue or decrease the sampling percentage.");
       //reconfigure queue size or tune sampling %
+    } else {
+      LOG.debug("Dropping DataRules Evaluation Request as observer queue is full");
     }
   }
 
+  @VisibleForTesting
+  long getDroppedRequests() {
+    return droppedRequestsCounter.getCount();
+  }
+
   @Override
   public void setConfiguration(RulesConfigurationChangeRequest rulesConfigurationChangeRequest) {
     this.newConfig = rulesConfigurationChangeRequest;
@@ -173,24 +209,27 @@ public class ProductionObserver implements Observer {
 
       Algorithm implementation:
       -------------------------
-      To start with, all maps and counters are empty.
+      To start with, the lane has no sampling state.
 
       Say this lane has 2 rules, rule 1 and rule 2 with sampling % N and M respectively, N > M.
 
       In the first iteration, the rule with the max sampling %, for that lane is selected, which happens to be N in our
-      case, and N unique integers between 0 and 99 are generated.
-      Look at "getRecordsToPickUp(List<DataRuleDefinition> dataRuleDefinitions)" method for the generation algorithm.
+      case, and the integers between 0 and 99 are shuffled. The position of every integer in the shuffled order is its
+      rank, the N integers with rank lower than N are picked up for rule 1.
+      Look at "LaneSampler.reset(List<DataRuleDefinition> dataRuleDefinitions)" method for the generation algorithm.
 
-      rule 2 will pick up M numbers from the set of N numbers generated for rule1.
+      rule 2 picks up the M integers with rank lower than M, a subset of the N integers picked up for rule1.
       This way we clone only N% of records and both rules share the same cloned records.
 
       rule1 evaluates all sampled records and rule2 will evaluate its share of records from the same list.
 
+      The ranks are held in an array preallocated per lane, so no per batch or per rule state is created.
+
       Picking up new configuration:
       -----------------------------
 
       When the record counter for that lane hits 100, it is reset to 0.
-      At that moment all maps and counters are cleared so that in the next iteration everything is computed fresh again.
+      At that moment the ranks are discarded so that in the next iteration everything is computed fresh again.
 
       This is the moment when any changes to sampling % of data rule definitions are picked up.
 
@@ -201,45 +240,29 @@ public class ProductionObserver implements Observer {
       "com.streamsets.pipeline.runner.production.TestProductionObserver.testGetSampledRecordsLowThroughput"
     */
 
-    //record counter for this lane, reset when the count reaches 100
-    int recordCounter = 0;
-    if(laneToRecordCounterMap.containsKey(lane)) {
-      recordCounter = laneToRecordCounterMap.get(lane);
-    } else {
-      laneToRecordCounterMap.put(lane, recordCounter);
+    LaneSampler sampler = laneSamplers.get(lane);
+    if (sampler == null) {
+      sampler = new LaneSampler();
+      laneSamplers.put(lane, sampler);
     }
     Map<String, List<Record>> sampledRecordsMap = new HashMap<>();
 
-    //Get the max percentage records to be sampled for this lane.
-    //Generates a set n random integers, where n is max percentage for this lane [say n = 50] between 0 and 99
-    //The set of integers generated is cached on a per lane basis.
-    Set<Integer> recordIndexToPickup;
-    if(laneToMaxRecordIndexMap.containsKey(lane)) {
-      recordIndexToPickup = laneToMaxRecordIndexMap.get(lane);
-    } else {
-      recordIndexToPickup = getRecordsToPickUp(dataRuleDefinitions);
-      laneToMaxRecordIndexMap.put(lane, recordIndexToPickup);
-    }
-
     //Go over all records for this lane and determine if it needs to be cloned.
     for(Record record : allRecords) {
-      if(recordIndexToPickup.contains(recordCounter)) {
+      if (sampler.recordCounter == 0) {
+        //Get the max percentage records to be sampled for this lane and generate the record indexes to pick up.
+        //It will also pick up any changes done to sampling percentages of rules.
+        sampler.reset(dataRuleDefinitions, random);
+      }
+      int rank = sampler.ranks[sampler.recordCounter];
+      if(rank < sampler.maxPercentage) {
         //needs to be cloned
         Record recordClone = ((RecordImpl) record).clone();
         for(DataRuleDefinition d : dataRuleDefinitions) {
-          //for every rule in this lane, check the integers generated for it to see if this record needs to be
-          //sampled
-          Set<Integer> recordsToPickup;
-          if (ruleIdToRecordIndexMap.containsKey(d.getId())) {
-            recordsToPickup = ruleIdToRecordIndexMap.get(d.getId());
-          } else {
-            //the integers generated to pick up records for sampling is shared between all rules for that lane.
-            //the rule with least percentage contains records which are subset of rule with max percentage.
-            //this is to minimize cloning of records.
-            recordsToPickup = getRecordsToPickUp(recordIndexToPickup, (int)d.getSamplingPercentage());
-            ruleIdToRecordIndexMap.put(d.getId(), recordsToPickup);
-          }
-          if (recordsToPickup.contains(recordCounter)) {
+          //for every rule in this lane, check the rank of the record index to see if this record needs to be sampled.
+          //the rule with least percentage contains records which are subset of rule with max percentage.
+          //this is to minimize cloning of records.
+          if (rank < (int) d.getSamplingPercentage()) {
             //this record must be picked up by this rule
             List<Record> sampledRecords = sampledRecordsMap.get(d.getId());
             if (sampledRecords == null) {
@@ -250,45 +273,51 @@ public class ProductionObserver implements Observer {
           }
         }
       }
-      recordCounter++;
-      if(recordCounter == 100) {
-        //clear all records to pick up.
-        //It will be generated the next time the sampling is attempted
-        //It will also pick up any changes done to sampling percentages of rules in the next iteration.
-        recordCounter = 0;
-        for(DataRuleDefinition d : dataRuleDefinitions) {
-          ruleIdToRecordIndexMap.remove(d.getId());
-        }
-        laneToMaxRecordIndexMap.remove(lane);
+      sampler.recordCounter++;
+      if(sampler.recordCounter == 100) {
+        //the record indexes to pick up are generated again the next time the sampling is attempted
+        sampler.recordCounter = 0;
       }
     }
-    laneToRecordCounterMap.put(lane, recordCounter);
     return sampledRecordsMap;
   }
 
-  private Set<Integer> getRecordsToPickUp(List<DataRuleDefinition> dataRuleDefinitions) {
-    //Max percentage
-    double percentage = 0;
-    for(DataRuleDefinition dataRuleDefinition : dataRuleDefinitions) {
-      if (dataRuleDefinition.getSamplingPercentage() > percentage) {
-        percentage = dataRuleDefinition.getSamplingPercentage();
+  private static class LaneSampler {
+    //record counter for this lane, reset when the count reaches 100
+    private int recordCounter;
+    //max sampling percentage of the rules of this lane when the ranks were generated
+    private int maxPercentage;
+    //integers between 0 and 99, shuffled to generate the ranks
+    private final int[] sampleSpace = new int[100];
+    //rank of every record index, a record is picked up by a rule if its rank is lower than the rule sampling %
+    private final int[] ranks = new int[100];
+
+    LaneSampler() {
+      for (int i = 0; i < sampleSpace.length; i++) {
+        sampleSpace[i] = i;
       }
     }
-    Set<Integer> recordsToPickup = new HashSet<>();
-    Collections.shuffle(randomNumberSampleSpace);
-    recordsToPickup.addAll(randomNumberSampleSpace.subList(0, (int) percentage));
-    return recordsToPickup;
-  }
 
-  private Set<Integer> getRecordsToPickUp(Set<Integer> recordIndexToPickup, int samplePercentage) {
-    Set<Integer> recordsToPickup = new HashSet<>();
-    Iterator<Integer> iterator = recordIndexToPickup.iterator();
-    int counter = 0;
-    while(iterator.hasNext() && counter < samplePercentage) {
-      recordsToPickup.add(iterator.next());
-      counter++;
+    void reset(List<DataRuleDefinition> dataRuleDefinitions, Random random) {
+      //Max percentage
+      double percentage = 0;
+      for(DataRuleDefinition dataRuleDefinition : dataRuleDefinitions) {
+        if (dataRuleDefinition.getSamplingPercentage() > percentage) {
+          percentage = dataRuleDefinition.getSamplingPercentage();
+        }
+      }
+      maxPercentage = (int) percentage;
+      //Fisher-Yates shuffle, only the first maxPercentage positions matter
+      for (int i = 0; i < maxPercentage; i++) {
+        int j = i + random.nextInt(sampleSpace.length - i);
+        int tmp = sampleSpace[i];
+        sampleSpace[i] = sampleSpace[j];
+        sampleSpace[j] = tmp;
+      }
+      for (int i = 0; i < sampleSpace.length; i++) {
+        ranks[sampleSpace[i]] = i;
+      }
     }
-    return recordsToPickup;
   }
 
 }
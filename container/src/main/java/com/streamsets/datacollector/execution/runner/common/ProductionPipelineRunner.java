@@ -29,6 +29,7 @@ import com.google.common.collect.Sets;
 import com.streamsets.datacollector.config.DeliveryGuarantee;
 import com.streamsets.datacollector.config.MemoryLimitConfiguration;
 import com.streamsets.datacollector.config.MemoryLimitExceeded;
+import com.streamsets.datacollector.config.SourceRecordRetention;
 import com.streamsets.datacollector.config.StageType;
 import com.streamsets.datacollector.execution.SnapshotStore;
 import com.streamsets.datacollector.main.RuntimeInfo;
@@ -90,6 +91,7 @@ public class ProductionPipelineRunner implements PipelineRunner {
   private String sourceOffset;
   private String newSourceOffset;
   private DeliveryGuarantee deliveryGuarantee;
+  private SourceRecordRetention sourceRecordRetention = SourceRecordRetention.FULL;
   private final String pipelineName;
   private final String revision;
 
@@ -126,7 +128,8 @@ public class ProductionPipelineRunner implements PipelineRunner {
   private MemoryLimitConfiguration memoryLimitConfiguration;
   private long lastMemoryLimitNotification;
   private ThreadHealthReporter threadHealthReporter;
-  private final List<List<StageOutput>> capturedBatches = new ArrayList<>();
+  /*number of batches already streamed to the snapshot store for the snapshot being captured*/
+  private int capturedBatches;
 
   @Inject
   public ProductionPipelineRunner(@Named("name") String pipelineName, @Named ("rev") String revision,
@@ -202,6 +205,10 @@ public class ProductionPipelineRunner implements PipelineRunner {
     this.deliveryGuarantee = deliveryGuarantee;
   }
 
+  public void setSourceRecordRetention(SourceRecordRetention sourceRecordRetention) {
+    this.sourceRecordRetention = sourceRecordRetention;
+  }
+
   public void setMemoryLimitConfiguration(MemoryLimitConfiguration memoryLimitConfiguration) {
     this.memoryLimitConfiguration = memoryLimitConfiguration;
   }
@@ -331,7 +338,7 @@ public class ProductionPipelineRunner implements PipelineRunner {
     synchronized (this) {
       this.snapshotBatchSize = 0;
       this.batchesToCapture = 0;
-      capturedBatches.clear();
+      capturedBatches = 0;
     }
   }
 
@@ -347,11 +354,12 @@ public class ProductionPipelineRunner implements PipelineRunner {
 
     if(batchesToCapture > 0) {
       batchCaptured = true;
-      pipeBatch = new FullPipeBatch(offsetTracker, snapshotBatchSize, true /*snapshot stage output*/);
+      pipeBatch = new FullPipeBatch(offsetTracker, snapshotBatchSize, true /*snapshot stage output*/,
+        sourceRecordRetention);
     } else {
       pipeBatch = new FullPipeBatch(offsetTracker,
         configuration.get(Constants.MAX_BATCH_SIZE_KEY, Constants.MAX_BATCH_SIZE_DEFAULT),
-        false /*snapshot stage output*/);
+        false /*snapshot stage output*/, sourceRecordRetention);
     }
 
     long start = System.currentTimeMillis();
@@ -395,7 +403,9 @@ public class ProductionPipelineRunner implements PipelineRunner {
       if(batchCaptured && batchesToCapture > 0) {
         List<StageOutput> snapshot = pipeBatch.getSnapshotsOfAllStagesOutput();
         if (!snapshot.isEmpty()) {
-          capturedBatches.add(snapshot);
+          // stream each batch to the store as it completes instead of holding all of them in memory
+          snapshotStore.appendBatch(pipelineName, revision, snapshotName, snapshot);
+          capturedBatches++;
         }
         /*
          * Reset the capture snapshot variable only after capturing the snapshot
@@ -405,9 +415,9 @@ public class ProductionPipelineRunner implements PipelineRunner {
         if (batchesToCapture == 0) {
           snapshotBatchSize = 0;
           batchesToCapture = 0;
-          if (!capturedBatches.isEmpty()) {
-            snapshotStore.save(pipelineName, revision, snapshotName, capturedBatches);
-            capturedBatches.clear();
+          if (capturedBatches > 0) {
+            snapshotStore.save(pipelineName, revision, snapshotName, Collections.<List<StageOutput>>emptyList());
+            capturedBatches = 0;
           }
         }
       }
@@ -420,7 +430,9 @@ public class ProductionPipelineRunner implements PipelineRunner {
   }
 
   private RecordImpl getSourceRecord(Record record) {
-    return (RecordImpl) ((RecordImpl)record).getHeader().getSourceRecord();
+    RecordImpl sourceRecord = (RecordImpl) ((RecordImpl)record).getHeader().getSourceRecord();
+    // without source record retention the error record itself is reported
+    return (sourceRecord != null) ? sourceRecord : (RecordImpl) record;
   }
 
   private void injectErrorInfo(RecordImpl sourceRecord, Record record) {
@@ -19,7 +19,6 @@ package com.streamsets.datacollector.execution.runner.standalone;
 
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -44,7 +43,9 @@ import com.streamsets.datacollector.execution.SnapshotStore;
 import com.streamsets.datacollector.execution.StateListener;
 import com.streamsets.datacollector.execution.alerts.AlertInfo;
 import com.streamsets.datacollector.execution.metrics.MetricsEventRunnable;
+import com.streamsets.datacollector.execution.metrics.MetricsFrameEncoder;
 import com.streamsets.datacollector.execution.runner.RetryUtils;
+import com.streamsets.datacollector.execution.runner.common.BoundedRingBuffer;
 import com.streamsets.datacollector.execution.runner.common.Constants;
 import com.streamsets.datacollector.execution.runner.common.DataObserverRunnable;
 import com.streamsets.datacollector.execution.runner.common.MetricObserverRunnable;
@@ -102,7 +103,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
@@ -497,13 +497,15 @@ public class StandaloneRunner extends AbstractRunner implements StateListener {
         || (toStatus == PipelineStatus.RETRY && fromState.getStatus() != PipelineStatus.CONNECTING)) {
         Object metrics = getMetrics();
         if (metrics != null) {
-          ObjectMapper objectMapper = ObjectMapperFactory.get();
+          // same encoder path as the periodic metrics, subscribed listeners get their own frames
+          MetricsFrameEncoder metricsFrameEncoder = new MetricsFrameEncoder(ObjectMapperFactory.get());
+          metricsFrameEncoder.reset(metrics);
           try {
-            metricString = objectMapper.writeValueAsString(metrics);
-          } catch (JsonProcessingException e) {
+            metricString = metricsFrameEncoder.encode(null);
+          } catch (IOException e) {
             throw new PipelineStoreException(ContainerError.CONTAINER_0210, e.toString(), e);
           }
-          eventListenerManager.broadcastMetrics(name, metricString);
+          eventListenerManager.broadcastMetrics(name, metricsFrameEncoder);
         }
         if (metricString == null) {
           metricString = getState().getMetrics();
@@ -589,7 +591,7 @@ public class StandaloneRunner extends AbstractRunner implements StateListener {
        * Implementation Notes: --------------------- What are the different threads and runnables created? - - - - - - - -
        * - - - - - - - - - - - - - - - - - - - RulesConfigLoader ProductionObserver MetricObserver
        * ProductionPipelineRunner How do threads communicate? - - - - - - - - - - - - - - RulesConfigLoader,
-       * ProductionObserver and ProductionPipelineRunner share a blocking queue which will hold record samples to be
+       * ProductionObserver and ProductionPipelineRunner share a lock-free bounded queue which will hold record samples to be
        * evaluated by the Observer [Data Rule evaluation] and rules configuration change requests computed by the
        * RulesConfigLoader. MetricsObserverRunner handles evaluating metric rules and a reference is passed to Production
        * Observer which updates the MetricsObserverRunner when configuration changes. Other classes: - - - - - - - - Alert
@@ -607,8 +609,8 @@ public class StandaloneRunner extends AbstractRunner implements StateListener {
         MemoryLimitConfiguration memoryLimitConfiguration = getMemoryLimitConfiguration(pipelineConfigBean);
 
         BlockingQueue<Object> productionObserveRequests =
-          new ArrayBlockingQueue<>(configuration.get(Constants.OBSERVER_QUEUE_SIZE_KEY,
-            Constants.OBSERVER_QUEUE_SIZE_DEFAULT), true /* FIFO */);
+          new BoundedRingBuffer<>(configuration.get(Constants.OBSERVER_QUEUE_SIZE_KEY,
+            Constants.OBSERVER_QUEUE_SIZE_DEFAULT));
 
         //Need to augment the existing object graph with pipeline related modules.
         //This ensures that the singletons defined in those modules are singletons within the
@@ -649,6 +651,7 @@ public class StandaloneRunner extends AbstractRunner implements StateListener {
         productionObserver.setObserveRequests(productionObserveRequests);
         runner.setObserveRequests(productionObserveRequests);
         runner.setDeliveryGuarantee(pipelineConfigBean.deliveryGuarantee);
+        runner.setSourceRecordRetention(pipelineConfigBean.sourceRecordRetention);
         runner.setMemoryLimitConfiguration(memoryLimitConfiguration);
 
         prodPipeline = builder.build(pipelineConfiguration);
@@ -66,6 +66,22 @@ public class CacheSnapshotStore implements SnapshotStore {
     }
   }
 
+  @Override
+  public void appendBatch(String name, String rev, String id, List<StageOutput> snapshotBatch)
+    throws PipelineException {
+    synchronized (lockCache.getLock(name)) {
+      try {
+        SnapshotInfo snapshotInfo = getSnapshotInfoFromCache(name, rev, id);
+        if (snapshotInfo == null) {
+          throw new PipelineException(ContainerError.CONTAINER_0605);
+        }
+        snapshotStore.appendBatch(name, rev, id, snapshotBatch);
+      } catch (ExecutionException e) {
+        throw new PipelineException(ContainerError.CONTAINER_0600, id, name, rev, e.toString(), e);
+      }
+    }
+  }
+
   @Override
   public SnapshotInfo save(String name, String rev, String id, List<List<StageOutput>> snapshotBatches)
     throws PipelineException {
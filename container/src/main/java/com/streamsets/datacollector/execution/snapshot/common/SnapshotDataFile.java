@@ -0,0 +1,339 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.snapshot.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.restapi.bean.BeanHelper;
+import com.streamsets.datacollector.restapi.bean.ErrorMessageJson;
+import com.streamsets.datacollector.restapi.bean.RecordJson;
+import com.streamsets.datacollector.runner.StageOutput;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.impl.ErrorMessage;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Line delimited on-disk format of the snapshot data.
+ * <p/>
+ * The data file has one line per stage output (same JSON as <code>StageOutputJson</code>), each batch is terminated
+ * by an empty line. Batches are appended to the file as they are captured, so the snapshot is never fully kept in
+ * memory. The index file has one JSON line per stage output with its batch, stage instance name and byte range in
+ * the data file, it is used to read a page of a stage output without parsing the rest of the snapshot.
+ */
+public class SnapshotDataFile {
+  private static final String BATCH = "batch";
+  private static final String INSTANCE_NAME = "instanceName";
+  private static final String OFFSET = "offset";
+  private static final String LENGTH = "length";
+  private static final String OUTPUT = "output";
+  private static final String ERROR_RECORDS = "errorRecords";
+  private static final String STAGE_ERRORS = "stageErrors";
+
+  private final File dataFile;
+  private final File indexFile;
+  private final ObjectMapper json;
+
+  public SnapshotDataFile(File dataFile, File indexFile) {
+    this.dataFile = dataFile;
+    this.indexFile = indexFile;
+    json = ObjectMapperFactory.getOneLine();
+  }
+
+  public boolean exists() {
+    return dataFile.exists();
+  }
+
+  public void delete() {
+    dataFile.delete();
+    indexFile.delete();
+  }
+
+  public static class IndexEntry {
+    private final int batch;
+    private final String instanceName;
+    private final long offset;
+    private final long length;
+
+    IndexEntry(int batch, String instanceName, long offset, long length) {
+      this.batch = batch;
+      this.instanceName = instanceName;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    public int getBatch() {
+      return batch;
+    }
+
+    public String getInstanceName() {
+      return instanceName;
+    }
+
+    public long getOffset() {
+      return offset;
+    }
+
+    public long getLength() {
+      return length;
+    }
+  }
+
+  public List<IndexEntry> readIndex() throws IOException {
+    if (!indexFile.exists()) {
+      return Collections.emptyList();
+    }
+    List<IndexEntry> index = new ArrayList<>();
+    try (InputStream is = new BufferedInputStream(new FileInputStream(indexFile))) {
+      MappingIterator<Map<String, Object>> iterator =
+          json.reader(new TypeReference<Map<String, Object>>() {}).readValues(is);
+      while (iterator.hasNext()) {
+        Map<String, Object> entry = iterator.next();
+        index.add(new IndexEntry(((Number) entry.get(BATCH)).intValue(), (String) entry.get(INSTANCE_NAME),
+                                 ((Number) entry.get(OFFSET)).longValue(), ((Number) entry.get(LENGTH)).longValue()));
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Appends a captured batch to the data file and its entries to the index file.
+   */
+  public void appendBatch(List<StageOutput> snapshotBatch) throws IOException {
+    if (snapshotBatch.isEmpty()) {
+      return;
+    }
+    List<IndexEntry> index = readIndex();
+    int batch = (index.isEmpty()) ? 0 : index.get(index.size() - 1).getBatch() + 1;
+    long dataOffset = dataFile.length();
+    List<IndexEntry> newEntries = new ArrayList<>(snapshotBatch.size());
+    try (CountingOutputStream out = new CountingOutputStream(
+        new BufferedOutputStream(new FileOutputStream(dataFile, true)))) {
+      JsonGenerator generator = json.getFactory().createGenerator(out);
+      for (StageOutput stageOutput : snapshotBatch) {
+        long start = out.getByteCount();
+        generator.writeStartObject();
+        generator.writeStringField(INSTANCE_NAME, stageOutput.getInstanceName());
+        generator.writeObjectField(OUTPUT, BeanHelper.wrapRecordsMap(stageOutput.getOutput()));
+        generator.writeObjectField(ERROR_RECORDS, BeanHelper.wrapRecords(stageOutput.getErrorRecords()));
+        generator.writeObjectField(STAGE_ERRORS, BeanHelper.wrapErrorMessages(stageOutput.getStageErrors()));
+        generator.writeEndObject();
+        generator.flush();
+        newEntries.add(new IndexEntry(batch, stageOutput.getInstanceName(), dataOffset + start,
+                                      out.getByteCount() - start));
+        out.write('\n');
+      }
+      generator.close();
+      // empty line, end of batch
+      out.write('\n');
+    }
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(indexFile, true))) {
+      for (IndexEntry entry : newEntries) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put(BATCH, entry.getBatch());
+        map.put(INSTANCE_NAME, entry.getInstanceName());
+        map.put(OFFSET, entry.getOffset());
+        map.put(LENGTH, entry.getLength());
+        json.writeValue(out, map);
+        out.write('\n');
+      }
+    }
+  }
+
+  /**
+   * Returns the snapshot data in the <code>SnapshotDataJson</code> format, converted on the fly from the data file.
+   */
+  public InputStream getOutput() throws IOException {
+    return new SnapshotDataInputStream(new BufferedInputStream(new FileInputStream(dataFile)));
+  }
+
+  /**
+   * Reads the output of a stage for a batch, only the records in the <code>[offset, offset + length)</code> range of
+   * each output lane and of the error records are deserialized. Returns NULL if the batch or stage does not exist.
+   */
+  public StageOutput readStageOutput(int batch, String instanceName, int offset, int length) throws IOException {
+    IndexEntry entry = null;
+    for (IndexEntry candidate : readIndex()) {
+      if (candidate.getBatch() == batch && candidate.getInstanceName().equals(instanceName)) {
+        entry = candidate;
+        break;
+      }
+    }
+    if (entry == null) {
+      return null;
+    }
+    try (InputStream is = new FileInputStream(dataFile)) {
+      IOUtils.skipFully(is, entry.getOffset());
+      JsonParser parser = json.getFactory().createParser(new BoundedInputStream(is, entry.getLength()));
+      Map<String, List<Record>> output = new HashMap<>();
+      List<Record> errorRecords = null;
+      List<ErrorMessage> stageErrors = null;
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Invalid snapshot data, expected stage output object");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String fieldName = parser.getCurrentName();
+        JsonToken token = parser.nextToken();
+        switch (fieldName) {
+          case OUTPUT:
+            if (token == JsonToken.START_OBJECT) {
+              while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String lane = parser.getCurrentName();
+                parser.nextToken();
+                output.put(lane, readRecords(parser, offset, length));
+              }
+            }
+            break;
+          case ERROR_RECORDS:
+            errorRecords = readRecords(parser, offset, length);
+            break;
+          case STAGE_ERRORS:
+            if (token != JsonToken.VALUE_NULL) {
+              List<ErrorMessageJson> errors = parser.readValueAs(new TypeReference<List<ErrorMessageJson>>() {});
+              stageErrors = BeanHelper.unwrapErrorMessages(errors);
+            }
+            break;
+          default:
+            parser.skipChildren();
+            break;
+        }
+      }
+      return new StageOutput(instanceName, output, errorRecords, stageErrors);
+    }
+  }
+
+  private List<Record> readRecords(JsonParser parser, int offset, int length) throws IOException {
+    if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+      parser.skipChildren();
+      return null;
+    }
+    List<Record> records = new ArrayList<>();
+    int i = 0;
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (i >= offset && i - offset < length) {
+        records.add(BeanHelper.unwrapRecord(parser.readValueAs(RecordJson.class)));
+      } else {
+        parser.skipChildren();
+      }
+      i++;
+    }
+    return records;
+  }
+
+  /**
+   * Converts the line delimited data file into the <code>SnapshotDataJson</code> JSON format on the fly,
+   * stage outputs in a batch are separated by ',' and batches by '],['.
+   */
+  static class SnapshotDataInputStream extends InputStream {
+    private static final byte[] PREFIX = "{\"snapshotBatches\":[[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUFFIX = "]]}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EMPTY = "{\"snapshotBatches\":[]}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] STAGE_SEPARATOR = ",".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BATCH_SEPARATOR = "],[".getBytes(StandardCharsets.UTF_8);
+
+    private final InputStream is;
+    private byte[] pending;
+    private int pendingPos;
+    private int pendingByte = -1;
+    private boolean started;
+    private boolean ended;
+    private int newLines;
+
+    SnapshotDataInputStream(InputStream is) {
+      this.is = is;
+    }
+
+    @Override
+    public int read() throws IOException {
+      while (true) {
+        if (pending != null) {
+          if (pendingPos < pending.length) {
+            return pending[pendingPos++] & 0xFF;
+          }
+          pending = null;
+        }
+        if (pendingByte > -1) {
+          int b = pendingByte;
+          pendingByte = -1;
+          return b;
+        }
+        if (ended) {
+          return -1;
+        }
+        int b = is.read();
+        if (!started) {
+          started = true;
+          if (b == -1) {
+            ended = true;
+            setPending(EMPTY, -1);
+          } else {
+            setPending(PREFIX, b);
+          }
+        } else if (b == -1) {
+          ended = true;
+          setPending(SUFFIX, -1);
+        } else if (b == '\n') {
+          newLines++;
+        } else {
+          if (newLines > 1) {
+            setPending(BATCH_SEPARATOR, b);
+          } else if (newLines == 1) {
+            setPending(STAGE_SEPARATOR, b);
+          } else {
+            return b;
+          }
+          newLines = 0;
+        }
+      }
+    }
+
+    private void setPending(byte[] bytes, int b) {
+      pending = bytes;
+      pendingPos = 0;
+      pendingByte = b;
+    }
+
+    @Override
+    public void close() throws IOException {
+      is.close();
+    }
+  }
+
+}
@@ -19,26 +19,42 @@ package com.streamsets.datacollector.execution.snapshot.common;
 
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.restapi.bean.SnapshotDataJson;
+import com.streamsets.datacollector.restapi.bean.StageOutputJson;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
+import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.util.ContainerError;
+import com.streamsets.pipeline.api.Record;
 
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class SnapshotImpl implements Snapshot, Closeable {
 
   private SnapshotInfo snapshotInfo;
   private File snapshotFile;
+  private SnapshotDataFile snapshotDataFile;
   private InputStream output;
 
+  // snapshot data in the legacy single JSON document format
   public SnapshotImpl(SnapshotInfo snapshotInfo, File snapshotFile) {
     this.snapshotInfo = snapshotInfo;
     this.snapshotFile = snapshotFile;
   }
 
+  // snapshot data in the line delimited format
+  public SnapshotImpl(SnapshotInfo snapshotInfo, SnapshotDataFile snapshotDataFile) {
+    this.snapshotInfo = snapshotInfo;
+    this.snapshotDataFile = snapshotDataFile;
+  }
+
   @Override
   public SnapshotInfo getInfo() {
     return snapshotInfo;
@@ -46,6 +62,15 @@ public class SnapshotImpl implements Snapshot, Closeable {
 
   @Override
   public InputStream getOutput() throws PipelineRuntimeException {
+    if(snapshotDataFile != null) {
+      try {
+        output = snapshotDataFile.getOutput();
+        return output;
+      } catch (Exception ex) {
+        throw new PipelineRuntimeException(ContainerError.CONTAINER_0600, snapshotInfo.getId(), snapshotInfo.getName(),
+          snapshotInfo.getRev(), ex.toString(), ex);
+      }
+    }
     if(snapshotFile != null) {
       try {
         output = new FileInputStream(snapshotFile);
@@ -58,13 +83,58 @@ public class SnapshotImpl implements Snapshot, Closeable {
     return null;
   }
 
+  @Override
+  public StageOutput getStageOutput(int batch, String instanceName, int offset, int length)
+    throws PipelineRuntimeException {
+    try {
+      if (snapshotDataFile != null) {
+        return snapshotDataFile.readStageOutput(batch, instanceName, offset, length);
+      }
+      if (snapshotFile != null) {
+        // legacy format, there is no index, the whole snapshot has to be loaded
+        SnapshotDataJson data;
+        try (InputStream is = new FileInputStream(snapshotFile)) {
+          data = ObjectMapperFactory.get().readValue(is, SnapshotDataJson.class);
+        }
+        List<List<StageOutputJson>> batches = data.getSnapshotBatches();
+        if (batch >= 0 && batch < batches.size()) {
+          for (StageOutputJson stageOutputJson : batches.get(batch)) {
+            StageOutput stageOutput = stageOutputJson.getStageOutput();
+            if (stageOutput.getInstanceName().equals(instanceName)) {
+              Map<String, List<Record>> output = new HashMap<>();
+              for (Map.Entry<String, List<Record>> entry : stageOutput.getOutput().entrySet()) {
+                output.put(entry.getKey(), subList(entry.getValue(), offset, length));
+              }
+              return new StageOutput(instanceName, output, subList(stageOutput.getErrorRecords(), offset, length),
+                stageOutput.getStageErrors());
+            }
+          }
+        }
+      }
+      return null;
+    } catch (IOException ex) {
+      throw new PipelineRuntimeException(ContainerError.CONTAINER_0600, snapshotInfo.getId(), snapshotInfo.getName(),
+        snapshotInfo.getRev(), ex.toString(), ex);
+    }
+  }
+
+  private static <T> List<T> subList(List<T> list, int offset, int length) {
+    if (list == null) {
+      return null;
+    }
+    int from = Math.min(offset, list.size());
+    int to = (int) Math.min((long) from + Math.max(0, length), list.size());
+    return list.subList(from, to);
+  }
+
   @Override
   public void close() throws IOException {
     snapshotInfo = null;
-    if(snapshotFile != null && output != null) {
+    if(output != null) {
       output.close();
       output = null;
-      snapshotFile = null;
     }
+    snapshotFile = null;
+    snapshotDataFile = null;
   }
 }
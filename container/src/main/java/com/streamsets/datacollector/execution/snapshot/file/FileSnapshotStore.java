@@ -21,13 +21,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.SnapshotStore;
-import com.streamsets.datacollector.execution.snapshot.common.SnapshotData;
+import com.streamsets.datacollector.execution.snapshot.common.SnapshotDataFile;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotImpl;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotInfoImpl;
 import com.streamsets.datacollector.io.DataStore;
 import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.RuntimeInfo;
-import com.streamsets.datacollector.restapi.bean.SnapshotDataJson;
 import com.streamsets.datacollector.restapi.bean.SnapshotInfoJson;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
 import com.streamsets.datacollector.runner.StageOutput;
@@ -50,7 +49,10 @@ import java.util.Collections;
 import java.util.List;
 
 public class FileSnapshotStore implements SnapshotStore {
+  // legacy format, the whole snapshot in a single JSON document
   private static final String SNAPSHOT_FILE_NAME = "snapshot.json";
+  private static final String SNAPSHOT_DATA_FILE_NAME = "snapshot-data.json";
+  private static final String SNAPSHOT_INDEX_FILE_NAME = "snapshot-index.json";
   private static final String INFO_FILE_NAME = "info.json";
   private final LockCache<String> lockCache;
   private final RuntimeInfo runtimeInfo;
@@ -67,12 +69,27 @@ public class FileSnapshotStore implements SnapshotStore {
   public SnapshotInfo create(String user, String name, String rev, String id) throws PipelineException {
     synchronized (lockCache.getLock(name)) {
       PipelineDirectoryUtil.createPipelineSnapshotDir(runtimeInfo, name, rev, id);
+      // a snapshot may be re-captured with the same ID, discard any previous data
+      getSnapshotDataFile(name, rev, id).delete();
+      getPipelineSnapshotFile(name, rev, id).delete();
       SnapshotInfo snapshotInfo = new SnapshotInfoImpl(user, id, name, rev, System.currentTimeMillis(), true);
       persistSnapshotInfo(snapshotInfo);
       return snapshotInfo;
     }
   }
 
+  @Override
+  public void appendBatch(String name, String rev, String id, List<StageOutput> snapshotBatch)
+    throws PipelineException {
+    synchronized (lockCache.getLock(name)) {
+      SnapshotInfo existingInfo = getInfo(name, rev, id);
+      if (existingInfo == null) {
+        throw new PipelineException(ContainerError.CONTAINER_0605);
+      }
+      persistSnapshotBatch(name, rev, id, snapshotBatch);
+    }
+  }
+
   @Override
   public SnapshotInfo save(String name, String rev, String id, List<List<StageOutput>> snapshotBatches)
     throws PipelineException {
@@ -81,7 +98,9 @@ public class FileSnapshotStore implements SnapshotStore {
       if (existingInfo == null) {
         throw new PipelineException(ContainerError.CONTAINER_0605);
       }
-      persistSnapshot(name, rev, id, snapshotBatches);
+      for (List<StageOutput> snapshotBatch : snapshotBatches) {
+        persistSnapshotBatch(name, rev, id, snapshotBatch);
+      }
       SnapshotInfo updatedSnapshotInfo =
         new SnapshotInfoImpl(existingInfo.getUser(), id, name, rev, System.currentTimeMillis(), false);
       persistSnapshotInfo(updatedSnapshotInfo);
@@ -93,8 +112,15 @@ public class FileSnapshotStore implements SnapshotStore {
   public Snapshot get(String name, String rev, String id) throws PipelineException {
     synchronized (lockCache.getLock(name)) {
       SnapshotInfo info = getInfo(name, rev, id);
-      File data = getData(name, rev, id);
-      return new SnapshotImpl(info, data);
+      if (info == null || info.isInProgress()) {
+        // data is not available until the snapshot is complete
+        return new SnapshotImpl(info, (File) null);
+      }
+      SnapshotDataFile dataFile = getSnapshotDataFile(name, rev, id);
+      if (dataFile.exists()) {
+        return new SnapshotImpl(info, dataFile);
+      }
+      return new SnapshotImpl(info, getData(name, rev, id));
     }
   }
 
@@ -169,6 +195,11 @@ public class FileSnapshotStore implements SnapshotStore {
       SNAPSHOT_FILE_NAME);
   }
 
+  private SnapshotDataFile getSnapshotDataFile(String pipelineName, String rev, String snapshotName) {
+    File dir = PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, pipelineName, rev, snapshotName);
+    return new SnapshotDataFile(new File(dir, SNAPSHOT_DATA_FILE_NAME), new File(dir, SNAPSHOT_INDEX_FILE_NAME));
+  }
+
   private File getPipelineSnapshotInfoFile(String name, String rev, String id) {
     return new File(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, name, rev, id),
       INFO_FILE_NAME);
@@ -185,10 +216,10 @@ public class FileSnapshotStore implements SnapshotStore {
     }
   }
 
-  private void persistSnapshot(String name, String rev, String id, List<List<StageOutput>> snapshotBatches)
+  private void persistSnapshotBatch(String name, String rev, String id, List<StageOutput> snapshotBatch)
     throws PipelineRuntimeException {
-    try (OutputStream out = new DataStore(getPipelineSnapshotFile(name, rev, id)).getOutputStream()) {
-      json.writeValue(out, new SnapshotDataJson(new SnapshotData(snapshotBatches)));
+    try {
+      getSnapshotDataFile(name, rev, id).appendBatch(snapshotBatch);
     } catch (IOException e) {
       throw new PipelineRuntimeException(ContainerError.CONTAINER_0603, id, name, rev, e.toString(), e);
     }
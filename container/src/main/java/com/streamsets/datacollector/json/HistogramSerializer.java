@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.json;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Snapshot;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.streamsets.datacollector.metrics.BucketedSnapshot;
+
+import java.io.IOException;
+
+/**
+ * Same output as the metrics library histogram serializer plus the bucket counts of bucketed histograms so that
+ * they can be merged by the cluster pipeline master.
+ */
+public class HistogramSerializer extends JsonSerializer<Histogram> {
+
+  @Override
+  public void serialize(Histogram histogram, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+    Snapshot snapshot = histogram.getSnapshot();
+    jgen.writeStartObject();
+    jgen.writeNumberField("count", histogram.getCount());
+    jgen.writeNumberField("max", snapshot.getMax());
+    jgen.writeNumberField("mean", snapshot.getMean());
+    jgen.writeNumberField("min", snapshot.getMin());
+    jgen.writeNumberField("p50", snapshot.getMedian());
+    jgen.writeNumberField("p75", snapshot.get75thPercentile());
+    jgen.writeNumberField("p95", snapshot.get95thPercentile());
+    jgen.writeNumberField("p98", snapshot.get98thPercentile());
+    jgen.writeNumberField("p99", snapshot.get99thPercentile());
+    jgen.writeNumberField("p999", snapshot.get999thPercentile());
+    jgen.writeNumberField("stddev", snapshot.getStdDev());
+    if (snapshot instanceof BucketedSnapshot) {
+      jgen.writeObjectField("buckets", ((BucketedSnapshot) snapshot).getBuckets());
+    }
+    jgen.writeEndObject();
+  }
+
+}
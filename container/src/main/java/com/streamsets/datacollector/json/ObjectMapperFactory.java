@@ -17,7 +17,9 @@
  */
 package com.streamsets.datacollector.json;
 
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.Timer;
 import com.codahale.metrics.json.MetricsModule;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -45,6 +47,8 @@ public class ObjectMapperFactory {
     SimpleModule module = new SimpleModule();
     module.addDeserializer(FieldJson.class, new FieldDeserializer());
     module.addSerializer(ExtendedMeter.class, new ExtendedMeterSerializer(TimeUnit.SECONDS));
+    module.addSerializer(Histogram.class, new HistogramSerializer());
+    module.addSerializer(Timer.class, new TimerSerializer(TimeUnit.SECONDS, TimeUnit.SECONDS));
     module.addDeserializer(ErrorMessage.class, new ErrorMessageDeserializer());
     objectMapper.registerModule(module);
     if (indent) {
@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.json;
+
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.streamsets.datacollector.metrics.BucketedSnapshot;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Same output as the metrics library timer serializer plus the bucket counts (in nanoseconds) of bucketed timers so
+ * that they can be merged by the cluster pipeline master.
+ */
+public class TimerSerializer extends JsonSerializer<Timer> {
+  private final String rateUnit;
+  private final double rateFactor;
+  private final String durationUnit;
+  private final double durationFactor;
+
+  private static String calculateRateUnit(TimeUnit unit, String name) {
+    String s = unit.toString().toLowerCase(Locale.US);
+    return name + '/' + s.substring(0, s.length() - 1);
+  }
+
+  public TimerSerializer(TimeUnit rateUnit, TimeUnit durationUnit) {
+    this.rateFactor = (double) rateUnit.toSeconds(1L);
+    this.rateUnit = calculateRateUnit(rateUnit, "calls");
+    this.durationFactor = 1.0 / durationUnit.toNanos(1L);
+    this.durationUnit = durationUnit.toString().toLowerCase(Locale.US);
+  }
+
+  @Override
+  public void serialize(Timer timer, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+    Snapshot snapshot = timer.getSnapshot();
+    jgen.writeStartObject();
+    jgen.writeNumberField("count", timer.getCount());
+    jgen.writeNumberField("max", snapshot.getMax() * durationFactor);
+    jgen.writeNumberField("mean", snapshot.getMean() * durationFactor);
+    jgen.writeNumberField("min", snapshot.getMin() * durationFactor);
+    jgen.writeNumberField("p50", snapshot.getMedian() * durationFactor);
+    jgen.writeNumberField("p75", snapshot.get75thPercentile() * durationFactor);
+    jgen.writeNumberField("p95", snapshot.get95thPercentile() * durationFactor);
+    jgen.writeNumberField("p98", snapshot.get98thPercentile() * durationFactor);
+    jgen.writeNumberField("p99", snapshot.get99thPercentile() * durationFactor);
+    jgen.writeNumberField("p999", snapshot.get999thPercentile() * durationFactor);
+    jgen.writeNumberField("stddev", snapshot.getStdDev() * durationFactor);
+    jgen.writeNumberField("m15_rate", timer.getFifteenMinuteRate() * rateFactor);
+    jgen.writeNumberField("m1_rate", timer.getOneMinuteRate() * rateFactor);
+    jgen.writeNumberField("m5_rate", timer.getFiveMinuteRate() * rateFactor);
+    jgen.writeNumberField("mean_rate", timer.getMeanRate() * rateFactor);
+    jgen.writeStringField("duration_units", durationUnit);
+    jgen.writeStringField("rate_units", rateUnit);
+    if (snapshot instanceof BucketedSnapshot) {
+      jgen.writeObjectField("buckets", ((BucketedSnapshot) snapshot).getBuckets());
+    }
+    jgen.writeEndObject();
+  }
+
+}
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed memory reservoir keeping log-linear bucket counts (HDR histogram style) of the values recorded within a
+ * sliding time window.
+ * <p/>
+ * Values below 64 have their own bucket, bigger values share buckets with a relative width of 1/32, values are
+ * then reported within ~3% of the recorded ones. Values bigger than 2^40 (~18 minutes in nanoseconds) are recorded
+ * in the last bucket.
+ * <p/>
+ * The window is divided in slices, each slice has its own bucket counts, when a slice falls out of the window its
+ * counts are dropped. Unlike sample based reservoirs, the bucket counts of different reservoirs (i.e. cluster
+ * pipeline slaves) can be merged exactly, see {@link BucketedSnapshot}.
+ */
+public class BucketedReservoir implements Reservoir {
+  private static final int PRECISION_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << PRECISION_BITS;
+  private static final int LINEAR_BUCKETS = 2 * SUB_BUCKETS;
+  private static final int MAX_MAGNITUDE = 40;
+  public static final int BUCKETS = LINEAR_BUCKETS + (MAX_MAGNITUDE - PRECISION_BITS - 1) * SUB_BUCKETS;
+  private static final long NO_SLICE = Long.MIN_VALUE;
+
+  private final Clock clock;
+  private final long sliceNanos;
+  private final int sliceCount;
+  private final AtomicReferenceArray<AtomicLongArray> slices;
+  private final AtomicLongArray sliceIds;
+
+  public BucketedReservoir(long window, TimeUnit windowUnit, int sliceCount) {
+    this(window, windowUnit, sliceCount, Clock.defaultClock());
+  }
+
+  public BucketedReservoir(long window, TimeUnit windowUnit, int sliceCount, Clock clock) {
+    Preconditions.checkArgument(sliceCount > 0, "sliceCount must be greater than zero");
+    this.clock = clock;
+    this.sliceCount = sliceCount;
+    sliceNanos = Math.max(1, windowUnit.toNanos(window) / sliceCount);
+    slices = new AtomicReferenceArray<>(sliceCount);
+    sliceIds = new AtomicLongArray(sliceCount);
+    for (int i = 0; i < sliceCount; i++) {
+      slices.set(i, new AtomicLongArray(BUCKETS));
+      sliceIds.set(i, NO_SLICE);
+    }
+  }
+
+  static int bucketIndex(long value) {
+    if (value < LINEAR_BUCKETS) {
+      return (int) Math.max(0, value);
+    }
+    int magnitude = 63 - Long.numberOfLeadingZeros(value);
+    if (magnitude >= MAX_MAGNITUDE) {
+      return BUCKETS - 1;
+    }
+    int shift = magnitude - PRECISION_BITS;
+    return LINEAR_BUCKETS + (magnitude - PRECISION_BITS - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+  }
+
+  private static int bucketShift(int index) {
+    return (index < LINEAR_BUCKETS) ? 0 : (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+  }
+
+  static long lowestEquivalentValue(int index) {
+    if (index < LINEAR_BUCKETS) {
+      return index;
+    }
+    int shift = bucketShift(index);
+    return (long) (SUB_BUCKETS + (index - LINEAR_BUCKETS) % SUB_BUCKETS) << shift;
+  }
+
+  static long highestEquivalentValue(int index) {
+    return lowestEquivalentValue(index) + (1L << bucketShift(index)) - 1;
+  }
+
+  static long medianEquivalentValue(int index) {
+    return lowestEquivalentValue(index) + ((1L << bucketShift(index)) - 1) / 2;
+  }
+
+  private int slot(long sliceId) {
+    return (int) (((sliceId % sliceCount) + sliceCount) % sliceCount);
+  }
+
+  private AtomicLongArray currentSlice() {
+    long sliceId = clock.getTick() / sliceNanos;
+    int slot = slot(sliceId);
+    if (sliceIds.get(slot) != sliceId) {
+      synchronized (this) {
+        if (sliceIds.get(slot) != sliceId) {
+          slices.set(slot, new AtomicLongArray(BUCKETS));
+          sliceIds.set(slot, sliceId);
+        }
+      }
+    }
+    return slices.get(slot);
+  }
+
+  @Override
+  public int size() {
+    return getSnapshot().size();
+  }
+
+  @Override
+  public void update(long value) {
+    currentSlice().incrementAndGet(bucketIndex(value));
+  }
+
+  @Override
+  public Snapshot getSnapshot() {
+    long currentSliceId = clock.getTick() / sliceNanos;
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < sliceCount; i++) {
+      long sliceId = sliceIds.get(i);
+      if (sliceId != NO_SLICE && sliceId > currentSliceId - sliceCount) {
+        AtomicLongArray slice = slices.get(i);
+        for (int j = 0; j < BUCKETS; j++) {
+          counts[j] += slice.get(j);
+        }
+      }
+    }
+    return new BucketedSnapshot(counts);
+  }
+
+}
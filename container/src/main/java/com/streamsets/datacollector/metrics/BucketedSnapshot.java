@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.metrics;
+
+import com.codahale.metrics.Snapshot;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot of a {@link BucketedReservoir}, values are reported with the precision of the bucket they fall in.
+ * <p/>
+ * The bucket counts can be exported in sparse form, <code>[index, count, index, count, ...]</code>, and merged
+ * exactly with the buckets of other snapshots (for example to aggregate the metrics of cluster pipeline slaves).
+ */
+public class BucketedSnapshot extends Snapshot {
+  private final long[] counts;
+  private final long count;
+  private final int minIndex;
+  private final int maxIndex;
+
+  public BucketedSnapshot(long[] counts) {
+    this.counts = counts;
+    long total = 0;
+    int min = -1;
+    int max = -1;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] > 0) {
+        total += counts[i];
+        if (min == -1) {
+          min = i;
+        }
+        max = i;
+      }
+    }
+    count = total;
+    minIndex = min;
+    maxIndex = max;
+  }
+
+  public static BucketedSnapshot fromBuckets(List<Long> buckets) {
+    long[] counts = new long[BucketedReservoir.BUCKETS];
+    addBuckets(counts, buckets);
+    return new BucketedSnapshot(counts);
+  }
+
+  /**
+   * Adds sparse bucket counts, as returned by {@link #getBuckets()}, to the given bucket counts.
+   */
+  public static void addBuckets(long[] counts, List<Long> buckets) {
+    if (buckets != null) {
+      for (int i = 0; i + 1 < buckets.size(); i += 2) {
+        int index = buckets.get(i).intValue();
+        if (index >= 0 && index < counts.length) {
+          counts[index] += buckets.get(i + 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the non empty buckets as <code>[index, count, index, count, ...]</code>.
+   */
+  public List<Long> getBuckets() {
+    List<Long> buckets = new ArrayList<>();
+    for (int i = minIndex; i >= 0 && i <= maxIndex; i++) {
+      if (counts[i] > 0) {
+        buckets.add((long) i);
+        buckets.add(counts[i]);
+      }
+    }
+    return buckets;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  @Override
+  public double getValue(double quantile) {
+    if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+      throw new IllegalArgumentException(quantile + " is not in [0..1]");
+    }
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * count));
+    long seen = 0;
+    for (int i = minIndex; i <= maxIndex; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return BucketedReservoir.medianEquivalentValue(i);
+      }
+    }
+    return BucketedReservoir.medianEquivalentValue(maxIndex);
+  }
+
+  @Override
+  public long[] getValues() {
+    long[] values = new long[size()];
+    int pos = 0;
+    for (int i = minIndex; i >= 0 && i <= maxIndex; i++) {
+      long value = BucketedReservoir.medianEquivalentValue(i);
+      for (long j = 0; j < counts[i] && pos < values.length; j++) {
+        values[pos++] = value;
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public int size() {
+    return (int) Math.min(count, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public long getMax() {
+    return (count == 0) ? 0 : BucketedReservoir.highestEquivalentValue(maxIndex);
+  }
+
+  @Override
+  public double getMean() {
+    if (count == 0) {
+      return 0;
+    }
+    double sum = 0;
+    for (int i = minIndex; i <= maxIndex; i++) {
+      sum += (double) counts[i] * BucketedReservoir.medianEquivalentValue(i);
+    }
+    return sum / count;
+  }
+
+  @Override
+  public long getMin() {
+    return (count == 0) ? 0 : BucketedReservoir.lowestEquivalentValue(minIndex);
+  }
+
+  @Override
+  public double getStdDev() {
+    if (count <= 1) {
+      return 0;
+    }
+    double mean = getMean();
+    double sum = 0;
+    for (int i = minIndex; i <= maxIndex; i++) {
+      double diff = BucketedReservoir.medianEquivalentValue(i) - mean;
+      sum += counts[i] * diff * diff;
+    }
+    return Math.sqrt(sum / (count - 1));
+  }
+
+  @Override
+  public void dump(OutputStream output) {
+    PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    for (int i = minIndex; i >= 0 && i <= maxIndex; i++) {
+      if (counts[i] > 0) {
+        out.printf("%d\t%d%n", BucketedReservoir.medianEquivalentValue(i), counts[i]);
+      }
+    }
+    out.flush();
+  }
+
+}
@@ -23,4 +23,10 @@ public interface MetricsEventListener extends EventListener {
 
   void notification(String metrics);
 
+  /**
+   * Returns the metrics the listener is interested in, or <code>null</code> to receive the complete metrics on
+   * every notification.
+   */
+  MetricsSubscription getSubscription();
+
 }
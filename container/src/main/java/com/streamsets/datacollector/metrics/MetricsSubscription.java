@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.metrics;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metric names a {@link MetricsEventListener} wants to be notified about. A name ending with <code>*</code> matches
+ * all metrics starting with the given prefix, an empty subscription matches all metrics.
+ * <p/>
+ * In delta mode the subscription also remembers the last JSON sent for every metric so that following
+ * notifications only carry the metrics that changed. Frames are sent asynchronously, if one is lost the listener
+ * must {@link #reset()} the subscription.
+ */
+public class MetricsSubscription {
+  private static final String WILDCARD = "*";
+
+  private final Set<String> names;
+  private final List<String> prefixes;
+  private final boolean delta;
+  private final Map<String, String> lastSent;
+
+  public MetricsSubscription(Collection<String> metricNames, boolean delta) {
+    ImmutableSet.Builder<String> namesBuilder = ImmutableSet.builder();
+    ImmutableList.Builder<String> prefixesBuilder = ImmutableList.builder();
+    if (metricNames != null) {
+      for (String metricName : metricNames) {
+        if (metricName.endsWith(WILDCARD)) {
+          prefixesBuilder.add(metricName.substring(0, metricName.length() - WILDCARD.length()));
+        } else {
+          namesBuilder.add(metricName);
+        }
+      }
+    }
+    names = namesBuilder.build();
+    prefixes = prefixesBuilder.build();
+    this.delta = delta;
+    lastSent = new ConcurrentHashMap<>();
+  }
+
+  public boolean isDelta() {
+    return delta;
+  }
+
+  public boolean matches(String metricName) {
+    if (names.isEmpty() && prefixes.isEmpty()) {
+      return true;
+    }
+    if (names.contains(metricName)) {
+      return true;
+    }
+    for (String prefix : prefixes) {
+      if (metricName.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns <code>true</code> if the value has to be sent, in delta mode only if it differs from the last JSON
+   * sent for the given key.
+   */
+  public boolean hasChanged(String key, String json) {
+    if (!delta) {
+      return true;
+    }
+    String previous = lastSent.put(key, json);
+    return previous == null || !previous.equals(json);
+  }
+
+  /**
+   * Forgets the values sent so far, the next notification carries all the subscribed metrics again.
+   */
+  public void reset() {
+    lastSent.clear();
+  }
+
+}
@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Small map for record header attributes, keys and values are kept in a single array and looked up linearly.
+ * <p/>
+ * Headers have a handful of attributes and they are cloned every time a record is copied, a copy shares the array
+ * with the original map until one of them is modified (copy on write).
+ */
+final class AttributeMap extends AbstractMap<String, Object> {
+  private static final int INITIAL_CAPACITY = 8;
+
+  private Object[] table;
+  private int size;
+  private boolean shared;
+  private int modCount;
+
+  AttributeMap() {
+    table = new Object[INITIAL_CAPACITY * 2];
+  }
+
+  AttributeMap(Map<String, Object> map) {
+    table = new Object[Math.max(INITIAL_CAPACITY, map.size()) * 2];
+    putAll(map);
+  }
+
+  private AttributeMap(AttributeMap map) {
+    table = map.table;
+    size = map.size;
+    shared = true;
+  }
+
+  AttributeMap copy() {
+    shared = true;
+    return new AttributeMap(this);
+  }
+
+  private int indexOf(Object key) {
+    for (int i = 0; i < size; i++) {
+      Object k = table[i * 2];
+      if (k == key || k.equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  // makes the array private to this map and big enough for the given number of attributes
+  private void beforeWrite(int minSize) {
+    if (minSize * 2 > table.length) {
+      table = Arrays.copyOf(table, Math.max(table.length * 2, minSize * 2));
+      shared = false;
+    } else if (shared) {
+      table = table.clone();
+      shared = false;
+    }
+    modCount++;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public Object get(Object key) {
+    int idx = indexOf(key);
+    return (idx >= 0) ? table[idx * 2 + 1] : null;
+  }
+
+  @Override
+  public Object put(String key, Object value) {
+    if (key == null) {
+      throw new NullPointerException("key cannot be null");
+    }
+    int idx = indexOf(key);
+    if (idx >= 0) {
+      Object old = table[idx * 2 + 1];
+      if (old != value) {
+        beforeWrite(size);
+        table[idx * 2 + 1] = value;
+      }
+      return old;
+    }
+    beforeWrite(size + 1);
+    table[size * 2] = key;
+    table[size * 2 + 1] = value;
+    size++;
+    return null;
+  }
+
+  @Override
+  public Object remove(Object key) {
+    int idx = indexOf(key);
+    if (idx < 0) {
+      return null;
+    }
+    Object old = table[idx * 2 + 1];
+    removeAt(idx);
+    return old;
+  }
+
+  private void removeAt(int idx) {
+    beforeWrite(size);
+    System.arraycopy(table, (idx + 1) * 2, table, idx * 2, (size - idx - 1) * 2);
+    size--;
+    table[size * 2] = null;
+    table[size * 2 + 1] = null;
+  }
+
+  @Override
+  public void clear() {
+    if (size > 0) {
+      if (shared) {
+        table = new Object[table.length];
+        shared = false;
+        modCount++;
+      } else {
+        beforeWrite(0);
+        Arrays.fill(table, 0, size * 2, null);
+      }
+      size = 0;
+    }
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new AbstractSet<Entry<String, Object>>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private class EntryIterator implements Iterator<Entry<String, Object>> {
+    private int next;
+    private int last = -1;
+    private int expectedModCount = modCount;
+
+    @Override
+    public boolean hasNext() {
+      return next < size;
+    }
+
+    @Override
+    public Entry<String, Object> next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (next >= size) {
+        throw new NoSuchElementException();
+      }
+      last = next++;
+      return new SimpleImmutableEntry<>((String) table[last * 2], table[last * 2 + 1]);
+    }
+
+    @Override
+    public void remove() {
+      if (last < 0) {
+        throw new IllegalStateException();
+      }
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      removeAt(last);
+      next = last;
+      last = -1;
+      expectedModCount = modCount;
+    }
+  }
+
+}
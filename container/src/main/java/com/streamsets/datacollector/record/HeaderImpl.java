@@ -22,13 +22,16 @@ import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.streamsets.datacollector.record.io.SerializedRecord;
 import com.streamsets.pipeline.api.impl.ErrorMessage;
 import com.streamsets.pipeline.api.impl.LocalizableString;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.impl.Utils;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 public class HeaderImpl implements Record.Header, Predicate<String> {
@@ -51,13 +54,14 @@ public class HeaderImpl implements Record.Header, Predicate<String> {
   private final Map<String, Object> map;
 
   public HeaderImpl() {
-    map = new HashMap<>();
+    map = new AttributeMap();
     map.put(SOURCE_RECORD_ATTR, null);
   }
 
   // for clone() purposes
   private HeaderImpl(HeaderImpl header) {
-    this.map = new HashMap<>(header.map);
+    this.map = (header.map instanceof AttributeMap) ? ((AttributeMap) header.map).copy()
+                                                    : new AttributeMap(header.map);
   }
 
   // Predicate interface
@@ -79,19 +83,25 @@ public class HeaderImpl implements Record.Header, Predicate<String> {
     return (String) map.get(RECORD_SOURCE_ID_ATTR);
   }
 
+  // the stage path and the tracking IDs may be held as StagePath and TrackingId, their strings are built on read
+
   @Override
   public String getStagesPath() {
-    return (String) map.get(STAGES_PATH_ATTR);
+    return asString(map.get(STAGES_PATH_ATTR));
   }
 
   @Override
   public String getTrackingId() {
-    return (String) map.get(TRACKING_ID_ATTR);
+    return asString(map.get(TRACKING_ID_ATTR));
   }
 
   @Override
   public String getPreviousTrackingId() {
-    return (String) map.get(PREVIOUS_TRACKING_ID_ATTR);
+    return asString(map.get(PREVIOUS_TRACKING_ID_ATTR));
+  }
+
+  private static String asString(Object value) {
+    return (value == null) ? null : value.toString();
   }
 
   @Override
@@ -201,6 +211,38 @@ public class HeaderImpl implements Record.Header, Predicate<String> {
     map.put(SOURCE_RECORD_ATTR, null);
   }
 
+  // For binary serialization, gives access to all attributes, reserved ones included
+
+  public Map<String, Object> getAllAttributes() {
+    return Collections.unmodifiableMap(map);
+  }
+
+  // For reflection based serialization (KRYO1), a copy of the header backed by a HashMap with the stage path and
+  // tracking IDs as strings, the format of the data is the same as before those were built lazily
+
+  public HeaderImpl copyForSerialization() {
+    Map<String, Object> attributes = new HashMap<>(map);
+    for (String attr : new String[] {STAGES_PATH_ATTR, TRACKING_ID_ATTR, PREVIOUS_TRACKING_ID_ATTR}) {
+      if (attributes.get(attr) != null) {
+        attributes.put(attr, attributes.get(attr).toString());
+      }
+    }
+    return new HeaderImpl(attributes);
+  }
+
+  private HeaderImpl(Map<String, Object> map) {
+    this.map = map;
+  }
+
+  public void setAllAttributes(Map<String, Object> attributes) {
+    Preconditions.checkNotNull(attributes, "attributes cannot be null");
+    map.clear();
+    map.putAll(attributes);
+    if (!map.containsKey(SOURCE_RECORD_ATTR)) {
+      map.put(SOURCE_RECORD_ATTR, null);
+    }
+  }
+
   // HeaderImpl setter methods
 
   public void setStageCreator(String stateCreator) {
@@ -223,6 +265,32 @@ public class HeaderImpl implements Record.Header, Predicate<String> {
     map.put(TRACKING_ID_ATTR, trackingId);
   }
 
+  void addStageToStagesPath(String stage) {
+    Object stagesPath = map.get(STAGES_PATH_ATTR);
+    map.put(STAGES_PATH_ATTR, (stagesPath == null) ? StagePath.root(stage) : toStagePath(stagesPath).append(stage));
+  }
+
+  void createTrackingId() {
+    Object trackingId = map.get(TRACKING_ID_ATTR);
+    if (trackingId != null) {
+      map.put(PREVIOUS_TRACKING_ID_ATTR, trackingId);
+    }
+    Object stagesPath = map.get(STAGES_PATH_ATTR);
+    map.put(TRACKING_ID_ATTR, new TrackingId(getSourceId(), (stagesPath == null) ? null : toStagePath(stagesPath)));
+  }
+
+  // copies the tracking ID of another header without building its string
+  void copyTrackingIdFrom(HeaderImpl header) {
+    Object trackingId = header.map.get(TRACKING_ID_ATTR);
+    if (trackingId != null) {
+      map.put(TRACKING_ID_ATTR, trackingId);
+    }
+  }
+
+  private static StagePath toStagePath(Object stagesPath) {
+    return (stagesPath instanceof StagePath) ? (StagePath) stagesPath : StagePath.valueOf((String) stagesPath);
+  }
+
   public void setPreviousTrackingId(String previousTrackingId) {
     Preconditions.checkNotNull(previousTrackingId, "previousTrackingId cannot be null");
     map.put(PREVIOUS_TRACKING_ID_ATTR, previousTrackingId);
@@ -264,8 +332,14 @@ public class HeaderImpl implements Record.Header, Predicate<String> {
     map.put(SOURCE_RECORD_ATTR, record);
   }
 
+  // the source record is decoded when requested, every call returns a new record
+  public void setSourceRecord(SerializedRecord record) {
+    map.put(SOURCE_RECORD_ATTR, record);
+  }
+
   public Record getSourceRecord() {
-    return (Record) map.get(SOURCE_RECORD_ATTR);
+    Object sourceRecord = map.get(SOURCE_RECORD_ATTR);
+    return (sourceRecord instanceof SerializedRecord) ? ((SerializedRecord) sourceRecord).get() : (Record) sourceRecord;
   }
 
   // Object methods
@@ -289,6 +363,11 @@ public class HeaderImpl implements Record.Header, Predicate<String> {
           switch (key) {
             case SOURCE_RECORD_ATTR:
               break;
+            case STAGES_PATH_ATTR:
+            case TRACKING_ID_ATTR:
+            case PREVIOUS_TRACKING_ID_ATTR:
+              eq = Objects.equals(asString(value), asString(otherValue));
+              break;
             case RAW_DATA_ATTR:
               eq = value == otherValue;
               if (!eq && value != null && otherValue != null) {
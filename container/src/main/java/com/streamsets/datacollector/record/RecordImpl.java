@@ -61,9 +61,13 @@ public class RecordImpl implements Record {
 
   public RecordImpl(String stageCreator, Record originatorRecord, byte[] raw, String rawMime) {
     this(stageCreator, originatorRecord.getHeader().getSourceId(), raw, rawMime);
-    String trackingId = originatorRecord.getHeader().getTrackingId();
-    if (trackingId != null) {
-      header.setTrackingId(trackingId);
+    if (originatorRecord.getHeader() instanceof HeaderImpl) {
+      header.copyTrackingIdFrom((HeaderImpl) originatorRecord.getHeader());
+    } else {
+      String trackingId = originatorRecord.getHeader().getTrackingId();
+      if (trackingId != null) {
+        header.setTrackingId(trackingId);
+      }
     }
   }
 
@@ -77,17 +81,11 @@ public class RecordImpl implements Record {
 
   public void addStageToStagePath(String stage) {
     Preconditions.checkNotNull(stage, "stage cannot be null");
-    String currentPath = (header.getStagesPath() == null) ? "" : header.getStagesPath() + ":";
-    header.setStagesPath(currentPath + stage);
+    header.addStageToStagesPath(stage);
   }
 
   public void createTrackingId() {
-    String currentTrackingId = header.getTrackingId();
-    String newTrackingId = getHeader().getSourceId() + "::" + getHeader().getStagesPath();
-    if (currentTrackingId != null) {
-      header.setPreviousTrackingId(currentTrackingId);
-    }
-    header.setTrackingId(newTrackingId);
+    header.createTrackingId();
   }
 
   @Override
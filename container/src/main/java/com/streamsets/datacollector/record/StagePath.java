@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Immutable stage path of a record, a linked list of stage instance names from the last stage back to the origin.
+ * <p/>
+ * Adding a stage to the path is a constant time operation, the string form (stage names separated by ':') is built
+ * only when it is read and then it is cached. Stage names are interned and every node remembers the last node
+ * appended to it, so all the records of a batch going through the same stages share the same path nodes.
+ */
+final class StagePath {
+  private static final Interner<String> STAGE_NAMES = Interners.newWeakInterner();
+  private static final Interner<StagePath> ROOTS = Interners.newWeakInterner();
+
+  private final StagePath parent;
+  private final String stage;
+  private final int depth;
+  private StagePath lastChild;
+  private String path;
+
+  private StagePath(StagePath parent, String stage) {
+    this.parent = parent;
+    this.stage = stage;
+    this.depth = (parent == null) ? 1 : parent.depth + 1;
+  }
+
+  static StagePath root(String stage) {
+    return ROOTS.intern(new StagePath(null, STAGE_NAMES.intern(stage)));
+  }
+
+  // a path set as a string, i.e. read from JSON, is kept as a single node, it is not split into stages
+  static StagePath valueOf(String path) {
+    StagePath stagePath = new StagePath(null, path);
+    stagePath.path = path;
+    return stagePath;
+  }
+
+  StagePath append(String stage) {
+    // races between threads are harmless, at worst an equivalent node is created twice
+    StagePath child = lastChild;
+    if (child == null || !child.stage.equals(stage)) {
+      child = new StagePath(this, STAGE_NAMES.intern(stage));
+      lastChild = child;
+    }
+    return child;
+  }
+
+  @Override
+  public String toString() {
+    String str = path;
+    if (str == null) {
+      StagePath[] nodes = new StagePath[depth];
+      int length = depth - 1;
+      StagePath node = this;
+      for (int i = depth - 1; i >= 0; i--) {
+        nodes[i] = node;
+        length += node.stage.length();
+        node = node.parent;
+      }
+      StringBuilder sb = new StringBuilder(length);
+      for (int i = 0; i < nodes.length; i++) {
+        if (i > 0) {
+          sb.append(':');
+        }
+        sb.append(nodes[i].stage);
+      }
+      str = sb.toString();
+      path = str;
+    }
+    return str;
+  }
+
+  @Override
+  public int hashCode() {
+    return toString().hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return this == obj || (obj instanceof StagePath && toString().equals(obj.toString()));
+  }
+
+}
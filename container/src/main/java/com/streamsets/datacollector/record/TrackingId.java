@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record;
+
+/**
+ * Immutable tracking ID of a record, the record source ID and its stage path separated by '::'.
+ * <p/>
+ * The string form is built only when it is read and then it is cached.
+ */
+final class TrackingId {
+  private final String sourceId;
+  private final StagePath stagePath;
+  private String trackingId;
+
+  TrackingId(String sourceId, StagePath stagePath) {
+    this.sourceId = sourceId;
+    this.stagePath = stagePath;
+  }
+
+  @Override
+  public String toString() {
+    String str = trackingId;
+    if (str == null) {
+      str = sourceId + "::" + stagePath;
+      trackingId = str;
+    }
+    return str;
+  }
+
+  @Override
+  public int hashCode() {
+    return toString().hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return this == obj || (obj instanceof TrackingId && toString().equals(obj.toString()));
+  }
+
+}
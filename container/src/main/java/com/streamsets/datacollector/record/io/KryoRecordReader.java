@@ -19,9 +19,11 @@ package com.streamsets.datacollector.record.io;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Input;
+import com.google.common.base.Preconditions;
 import com.streamsets.datacollector.record.RecordImpl;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.ext.RecordReader;
+import com.streamsets.pipeline.api.impl.Utils;
 
 import org.apache.commons.io.IOUtils;
 
@@ -29,12 +31,22 @@ import java.io.IOException;
 import java.io.InputStream;
 
 public class KryoRecordReader implements RecordReader {
+  private final RecordEncoding encoding;
   private final Kryo kryo;
   private final Input input;
   private boolean closed;
 
   public KryoRecordReader(InputStream inputStream, long initialPosition) throws IOException {
-    kryo = new Kryo();
+    this(inputStream, initialPosition, RecordEncoding.KRYO1);
+  }
+
+  public KryoRecordReader(InputStream inputStream, long initialPosition, RecordEncoding encoding)
+      throws IOException {
+    Preconditions.checkArgument(encoding == RecordEncoding.KRYO1 || encoding == RecordEncoding.KRYO2,
+                                Utils.formatL("Invalid Kryo encoding '{}'", encoding));
+    this.encoding = encoding;
+    // KRYO2 uses the per thread Kryo instance with the registered record serializers
+    kryo = (encoding == RecordEncoding.KRYO1) ? new Kryo() : null;
     IOUtils.skipFully(inputStream, initialPosition);
     input = new Input(inputStream);
     input.setTotal(initialPosition);
@@ -42,7 +54,7 @@ public class KryoRecordReader implements RecordReader {
 
   @Override
   public String getEncoding() {
-    return RecordEncoding.KRYO1.name();
+    return encoding.name();
   }
 
   @Override
@@ -55,7 +67,11 @@ public class KryoRecordReader implements RecordReader {
     if (closed) {
       throw new IOException("input has been closed");
     }
-    return input.eof() ? null : kryo.readObject(input, RecordImpl.class);
+    if (input.eof()) {
+      return null;
+    }
+    return (kryo != null) ? kryo.readObject(input, RecordImpl.class)
+                          : KryoRecordSerializers.getKryo().readObject(input, RecordImpl.class);
   }
 
   @Override
@@ -0,0 +1,449 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record.io;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.streamsets.datacollector.record.HeaderImpl;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.impl.LocalizableString;
+import com.streamsets.pipeline.api.impl.Utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand written Kryo serializers for the KRYO2 record encoding.
+ * <p/>
+ * Records, headers and fields are written explicitly (type tags, varints and length prefixed strings), no class
+ * names or reflective field data ever goes into the stream. The encoding of a field type is a fixed tag, it does
+ * not depend on the ordinal of <code>Field.Type</code>, so new types can be added without breaking existing data.
+ */
+class KryoRecordSerializers {
+
+  // registration IDs, they must never change as they are part of the KRYO2 encoding contract
+  static final int RECORD_ID = 100;
+  static final int HEADER_ID = 101;
+  static final int FIELD_ID = 102;
+
+  // header attribute value tags
+  private static final byte ATTR_NULL = 0;
+  private static final byte ATTR_STRING = 1;
+  private static final byte ATTR_BYTES = 2;
+  private static final byte ATTR_LONG = 3;
+
+  // field type tags, the NULL_VALUE bit flags a field with a null value
+  private static final byte NULL_VALUE = (byte) 0x80;
+  private static final byte BOOLEAN = 1;
+  private static final byte CHAR = 2;
+  private static final byte BYTE = 3;
+  private static final byte SHORT = 4;
+  private static final byte INTEGER = 5;
+  private static final byte LONG = 6;
+  private static final byte FLOAT = 7;
+  private static final byte DOUBLE = 8;
+  private static final byte DATE = 9;
+  private static final byte DATETIME = 10;
+  private static final byte DECIMAL = 11;
+  private static final byte STRING = 12;
+  private static final byte BYTE_ARRAY = 13;
+  private static final byte MAP = 14;
+  private static final byte LIST = 15;
+  private static final byte LIST_MAP = 16;
+
+  private static final ThreadLocal<Kryo> KRYO = new ThreadLocal<Kryo>() {
+    @Override
+    protected Kryo initialValue() {
+      return createKryo();
+    }
+  };
+
+  private KryoRecordSerializers() {
+  }
+
+  /**
+   * Returns the Kryo instance of the current thread, Kryo instances are not thread safe but they are expensive
+   * to create, so a single instance is reused by all the streams handled by a thread.
+   */
+  static Kryo getKryo() {
+    return KRYO.get();
+  }
+
+  static Kryo createKryo() {
+    Kryo kryo = new Kryo();
+    kryo.setRegistrationRequired(true);
+    kryo.setReferences(false);
+    kryo.register(RecordImpl.class, new RecordSerializer(), RECORD_ID);
+    kryo.register(HeaderImpl.class, new HeaderSerializer(), HEADER_ID);
+    kryo.register(Field.class, new FieldSerializer(), FIELD_ID);
+    return kryo;
+  }
+
+  static class RecordSerializer extends Serializer<RecordImpl> {
+
+    @Override
+    public void write(Kryo kryo, Output output, RecordImpl record) {
+      kryo.writeObject(output, record.getHeader());
+      kryo.writeObjectOrNull(output, record.get(), Field.class);
+    }
+
+    @Override
+    public RecordImpl read(Kryo kryo, Input input, Class<RecordImpl> type) {
+      HeaderImpl header = kryo.readObject(input, HeaderImpl.class);
+      Field value = kryo.readObjectOrNull(input, Field.class);
+      return new RecordImpl(header, value);
+    }
+
+    @Override
+    public RecordImpl copy(Kryo kryo, RecordImpl original) {
+      return original.clone();
+    }
+  }
+
+  static class HeaderSerializer extends Serializer<HeaderImpl> {
+
+    @Override
+    public void write(Kryo kryo, Output output, HeaderImpl header) {
+      Map<String, Object> attributes = header.getAllAttributes();
+      output.writeVarInt(attributes.size(), true);
+      for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+        output.writeString(entry.getKey());
+        Object value = entry.getValue();
+        if (value == null || value instanceof Record || value instanceof SerializedRecord) {
+          // the source record is an in-memory reference only, same as the JSON encoding it is not serialized
+          output.writeByte(ATTR_NULL);
+        } else if (value instanceof String) {
+          output.writeByte(ATTR_STRING);
+          output.writeString((String) value);
+        } else if (value instanceof byte[]) {
+          byte[] bytes = (byte[]) value;
+          output.writeByte(ATTR_BYTES);
+          output.writeVarInt(bytes.length, true);
+          output.writeBytes(bytes);
+        } else if (value instanceof Long) {
+          output.writeByte(ATTR_LONG);
+          output.writeVarLong((Long) value, false);
+        } else if (value instanceof LocalizableString) {
+          output.writeByte(ATTR_STRING);
+          output.writeString(((LocalizableString) value).getLocalized());
+        } else {
+          output.writeByte(ATTR_STRING);
+          output.writeString(value.toString());
+        }
+      }
+    }
+
+    @Override
+    public HeaderImpl read(Kryo kryo, Input input, Class<HeaderImpl> type) {
+      int size = input.readVarInt(true);
+      Map<String, Object> attributes = new HashMap<>(size * 2);
+      for (int i = 0; i < size; i++) {
+        String name = input.readString();
+        Object value;
+        byte tag = input.readByte();
+        switch (tag) {
+          case ATTR_NULL:
+            value = null;
+            break;
+          case ATTR_STRING:
+            value = input.readString();
+            break;
+          case ATTR_BYTES:
+            value = input.readBytes(input.readVarInt(true));
+            break;
+          case ATTR_LONG:
+            value = input.readVarLong(false);
+            break;
+          default:
+            throw new KryoException(Utils.format("Invalid header attribute tag '{}'", tag));
+        }
+        attributes.put(name, value);
+      }
+      HeaderImpl header = new HeaderImpl();
+      header.setAllAttributes(attributes);
+      return header;
+    }
+
+    @Override
+    public HeaderImpl copy(Kryo kryo, HeaderImpl original) {
+      return original.clone();
+    }
+  }
+
+  static class FieldSerializer extends Serializer<Field> {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void write(Kryo kryo, Output output, Field field) {
+      byte tag = getTag(field.getType());
+      Object value = field.getValue();
+      if (value == null) {
+        output.writeByte(tag | NULL_VALUE);
+        return;
+      }
+      output.writeByte(tag);
+      switch (tag) {
+        case BOOLEAN:
+          output.writeBoolean((Boolean) value);
+          break;
+        case CHAR:
+          output.writeChar((Character) value);
+          break;
+        case BYTE:
+          output.writeByte((Byte) value);
+          break;
+        case SHORT:
+          output.writeShort((Short) value);
+          break;
+        case INTEGER:
+          output.writeVarInt((Integer) value, false);
+          break;
+        case LONG:
+          output.writeVarLong((Long) value, false);
+          break;
+        case FLOAT:
+          output.writeFloat((Float) value);
+          break;
+        case DOUBLE:
+          output.writeDouble((Double) value);
+          break;
+        case DATE:
+        case DATETIME:
+          output.writeVarLong(((Date) value).getTime(), false);
+          break;
+        case DECIMAL:
+          BigDecimal decimal = (BigDecimal) value;
+          byte[] unscaled = decimal.unscaledValue().toByteArray();
+          output.writeVarInt(decimal.scale(), false);
+          output.writeVarInt(unscaled.length, true);
+          output.writeBytes(unscaled);
+          break;
+        case STRING:
+          output.writeString((String) value);
+          break;
+        case BYTE_ARRAY:
+          byte[] bytes = (byte[]) value;
+          output.writeVarInt(bytes.length, true);
+          output.writeBytes(bytes);
+          break;
+        case MAP:
+        case LIST_MAP:
+          Map<String, Field> map = (Map<String, Field>) value;
+          output.writeVarInt(map.size(), true);
+          for (Map.Entry<String, Field> entry : map.entrySet()) {
+            output.writeString(entry.getKey());
+            write(kryo, output, entry.getValue());
+          }
+          break;
+        case LIST:
+          List<Field> list = (List<Field>) value;
+          output.writeVarInt(list.size(), true);
+          for (Field element : list) {
+            write(kryo, output, element);
+          }
+          break;
+        default:
+          throw new KryoException(Utils.format("Unsupported field type '{}'", field.getType()));
+      }
+    }
+
+    @Override
+    public Field read(Kryo kryo, Input input, Class<Field> type) {
+      return read(input);
+    }
+
+    private Field read(Input input) {
+      byte tag = input.readByte();
+      boolean nullValue = (tag & NULL_VALUE) != 0;
+      tag = (byte) (tag & ~NULL_VALUE);
+      Field.Type fieldType = getType(tag);
+      if (nullValue) {
+        return Field.create(fieldType, null);
+      }
+      Field field;
+      switch (tag) {
+        case BOOLEAN:
+          field = Field.create(input.readBoolean());
+          break;
+        case CHAR:
+          field = Field.create(input.readChar());
+          break;
+        case BYTE:
+          field = Field.create(input.readByte());
+          break;
+        case SHORT:
+          field = Field.create(input.readShort());
+          break;
+        case INTEGER:
+          field = Field.create(input.readVarInt(false));
+          break;
+        case LONG:
+          field = Field.create(input.readVarLong(false));
+          break;
+        case FLOAT:
+          field = Field.create(input.readFloat());
+          break;
+        case DOUBLE:
+          field = Field.create(input.readDouble());
+          break;
+        case DATE:
+        case DATETIME:
+          field = Field.create(fieldType, new Date(input.readVarLong(false)));
+          break;
+        case DECIMAL:
+          int scale = input.readVarInt(false);
+          byte[] unscaled = input.readBytes(input.readVarInt(true));
+          field = Field.create(new BigDecimal(new BigInteger(unscaled), scale));
+          break;
+        case STRING:
+          field = Field.create(input.readString());
+          break;
+        case BYTE_ARRAY:
+          field = Field.create(input.readBytes(input.readVarInt(true)));
+          break;
+        case MAP: {
+          int size = input.readVarInt(true);
+          Map<String, Field> map = new HashMap<>(size * 2);
+          for (int i = 0; i < size; i++) {
+            String name = input.readString();
+            map.put(name, read(input));
+          }
+          field = Field.create(map);
+          break;
+        }
+        case LIST_MAP: {
+          int size = input.readVarInt(true);
+          LinkedHashMap<String, Field> map = new LinkedHashMap<>(size * 2);
+          for (int i = 0; i < size; i++) {
+            String name = input.readString();
+            map.put(name, read(input));
+          }
+          field = Field.createListMap(map);
+          break;
+        }
+        case LIST: {
+          int size = input.readVarInt(true);
+          List<Field> list = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            list.add(read(input));
+          }
+          field = Field.create(list);
+          break;
+        }
+        default:
+          throw new KryoException(Utils.format("Unsupported field tag '{}'", tag));
+      }
+      return field;
+    }
+
+    @Override
+    public Field copy(Kryo kryo, Field original) {
+      return original.clone();
+    }
+  }
+
+  static byte getTag(Field.Type type) {
+    switch (type) {
+      case BOOLEAN:
+        return BOOLEAN;
+      case CHAR:
+        return CHAR;
+      case BYTE:
+        return BYTE;
+      case SHORT:
+        return SHORT;
+      case INTEGER:
+        return INTEGER;
+      case LONG:
+        return LONG;
+      case FLOAT:
+        return FLOAT;
+      case DOUBLE:
+        return DOUBLE;
+      case DATE:
+        return DATE;
+      case DATETIME:
+        return DATETIME;
+      case DECIMAL:
+        return DECIMAL;
+      case STRING:
+        return STRING;
+      case BYTE_ARRAY:
+        return BYTE_ARRAY;
+      case MAP:
+        return MAP;
+      case LIST:
+        return LIST;
+      case LIST_MAP:
+        return LIST_MAP;
+      default:
+        throw new KryoException(Utils.format("Unsupported field type '{}'", type));
+    }
+  }
+
+  static Field.Type getType(byte tag) {
+    switch (tag) {
+      case BOOLEAN:
+        return Field.Type.BOOLEAN;
+      case CHAR:
+        return Field.Type.CHAR;
+      case BYTE:
+        return Field.Type.BYTE;
+      case SHORT:
+        return Field.Type.SHORT;
+      case INTEGER:
+        return Field.Type.INTEGER;
+      case LONG:
+        return Field.Type.LONG;
+      case FLOAT:
+        return Field.Type.FLOAT;
+      case DOUBLE:
+        return Field.Type.DOUBLE;
+      case DATE:
+        return Field.Type.DATE;
+      case DATETIME:
+        return Field.Type.DATETIME;
+      case DECIMAL:
+        return Field.Type.DECIMAL;
+      case STRING:
+        return Field.Type.STRING;
+      case BYTE_ARRAY:
+        return Field.Type.BYTE_ARRAY;
+      case MAP:
+        return Field.Type.MAP;
+      case LIST:
+        return Field.Type.LIST;
+      case LIST_MAP:
+        return Field.Type.LIST_MAP;
+      default:
+        throw new KryoException(Utils.format("Unsupported field tag '{}'", tag));
+    }
+  }
+
+}
@@ -19,6 +19,8 @@ package com.streamsets.datacollector.record.io;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Output;
+import com.google.common.base.Preconditions;
+import com.streamsets.datacollector.record.RecordImpl;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.ext.RecordWriter;
 import com.streamsets.pipeline.api.impl.Utils;
@@ -27,18 +29,27 @@ import java.io.IOException;
 import java.io.OutputStream;
 
 public class KryoRecordWriter implements RecordWriter {
+  private final RecordEncoding encoding;
   private final Kryo kryo;
   private final Output output;
   private boolean closed;
 
   public KryoRecordWriter(OutputStream outputStream) throws IOException {
-    kryo = new Kryo();
+    this(outputStream, RecordEncoding.KRYO1);
+  }
+
+  public KryoRecordWriter(OutputStream outputStream, RecordEncoding encoding) throws IOException {
+    Preconditions.checkArgument(encoding == RecordEncoding.KRYO1 || encoding == RecordEncoding.KRYO2,
+                                Utils.formatL("Invalid Kryo encoding '{}'", encoding));
+    this.encoding = encoding;
+    // KRYO2 uses the per thread Kryo instance with the registered record serializers
+    kryo = (encoding == RecordEncoding.KRYO1) ? new Kryo() : null;
     output = new Output(outputStream);
   }
 
   @Override
   public String getEncoding() {
-    return RecordEncoding.KRYO1.name();
+    return encoding.name();
   }
 
   @Override
@@ -47,7 +58,13 @@ public class KryoRecordWriter implements RecordWriter {
       throw new IOException("output has been closed");
     }
     Utils.checkNotNull(record, "record");
-    kryo.writeObject(output, record);
+    if (kryo != null) {
+      // KRYO1 serializes the header reflectively, it must only contain plain values
+      RecordImpl recordImpl = (RecordImpl) record;
+      kryo.writeObject(output, new RecordImpl(recordImpl.getHeader().copyForSerialization(), recordImpl.get()));
+    } else {
+      KryoRecordSerializers.getKryo().writeObject(output, (RecordImpl) record);
+    }
   }
 
   @Override
@@ -47,7 +47,8 @@ public class RecordWriterReaderFactory {
             reader = new JsonRecordReader(is, initialPosition, maxObjectLen);
             break;
           case KRYO1:
-            reader = new KryoRecordReader(is, initialPosition);
+          case KRYO2:
+            reader = new KryoRecordReader(is, initialPosition, encoding);
             break;
           default:
             throw new RuntimeException("It cannot happen");
@@ -78,8 +79,9 @@ public class RecordWriterReaderFactory {
         writer = new JsonRecordWriter(os);
         break;
       case KRYO1:
-        os.write(RecordEncodingConstants.KRYO1_MAGIC_NUMBER);
-        writer = new KryoRecordWriter(os);
+      case KRYO2:
+        os.write(encoding.getMagicNumber());
+        writer = new KryoRecordWriter(os, encoding);
         break;
       default:
         throw new RuntimeException("It cannot happen");
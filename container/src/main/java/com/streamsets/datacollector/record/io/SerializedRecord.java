@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record.io;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.google.common.base.Preconditions;
+import com.streamsets.datacollector.record.RecordImpl;
+
+/**
+ * Immutable KRYO2 encoded copy of a record.
+ * <p/>
+ * It is meant for records that have to be retained but are rarely read back, like the source record of every
+ * record produced by an origin, which is only needed if the record ends up in the error sink. The encoded form is a
+ * single byte array, a fraction of the heap taken by a cloned record, and a new record is decoded on every
+ * {@link #get()} call.
+ */
+public final class SerializedRecord {
+
+  private static final ThreadLocal<Output> OUTPUT = new ThreadLocal<Output>() {
+    @Override
+    protected Output initialValue() {
+      return new Output(1024, -1);
+    }
+  };
+
+  private final byte[] bytes;
+
+  private SerializedRecord(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  public static SerializedRecord serialize(RecordImpl record) {
+    Preconditions.checkNotNull(record, "record cannot be null");
+    // the output buffer is reused by the thread, only the encoded bytes are copied out of it
+    Output output = OUTPUT.get();
+    output.clear();
+    KryoRecordSerializers.getKryo().writeObject(output, record);
+    return new SerializedRecord(output.toBytes());
+  }
+
+  public RecordImpl get() {
+    return KryoRecordSerializers.getKryo().readObject(new Input(bytes), RecordImpl.class);
+  }
+
+  public int getSize() {
+    return bytes.length;
+  }
+
+}
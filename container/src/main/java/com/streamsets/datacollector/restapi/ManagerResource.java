@@ -34,7 +34,9 @@ import com.streamsets.datacollector.restapi.bean.RecordJson;
 import com.streamsets.datacollector.restapi.bean.SampledRecordJson;
 import com.streamsets.datacollector.restapi.bean.SnapshotDataJson;
 import com.streamsets.datacollector.restapi.bean.SnapshotInfoJson;
+import com.streamsets.datacollector.restapi.bean.StageOutputJson;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
+import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.store.PipelineStoreException;
 import com.streamsets.datacollector.util.AuthzRole;
 import com.streamsets.datacollector.util.ContainerError;
@@ -300,6 +302,37 @@ public class ManagerResource {
     return Response.noContent().build();
   }
 
+  @Path("/pipeline/{pipelineName}/snapshot/{snapshotName}/batch/{batch}/stage/{stageInstanceName}")
+  @GET
+  @ApiOperation(value = "Return a page of the snapshot output of a stage for a batch", response = StageOutputJson.class,
+    authorizations = @Authorization(value = "basic"))
+  @Produces(MediaType.APPLICATION_JSON)
+  @RolesAllowed({ AuthzRole.MANAGER, AuthzRole.CREATOR, AuthzRole.ADMIN })
+  public Response getSnapshotStageOutput(
+      @PathParam("pipelineName") String pipelineName,
+      @PathParam("snapshotName") String snapshotName,
+      @PathParam("batch") int batch,
+      @PathParam("stageInstanceName") String stageInstanceName,
+      @QueryParam("rev") @DefaultValue("0") String rev,
+      @QueryParam("offset") @DefaultValue("0") int offset,
+      @QueryParam("len") @DefaultValue("100") int len) throws PipelineException {
+    RestAPIUtils.injectPipelineInMDC(pipelineName);
+    if (batch < 0 || len < 0) {
+      return Response.status(Response.Status.BAD_REQUEST).entity(
+        Utils.format("Batch '{}' and len '{}' cannot be negative", batch, len)).build();
+    }
+    offset = offset < 0 ? 0 : offset;
+    len = len > 1000 ? 1000 : len;
+    Runner runner = manager.getRunner(user, pipelineName, rev);
+    if(runner != null) {
+      StageOutput stageOutput = runner.getSnapshot(snapshotName).getStageOutput(batch, stageInstanceName, offset, len);
+      if (stageOutput != null) {
+        return Response.ok().type(MediaType.APPLICATION_JSON).entity(new StageOutputJson(stageOutput)).build();
+      }
+    }
+    return Response.noContent().build();
+  }
+
   @Path("/pipeline/{pipelineName}/snapshot/{snapshotName}")
   @DELETE
   @ApiOperation(value = "Delete Snapshot data", authorizations = @Authorization(value = "basic"))
@@ -17,18 +17,21 @@
  */
 package com.streamsets.datacollector.restapi.bean;
 
+import java.util.List;
+
 public class HistogramJson {
   private long count;
   private long max;
-  private long mean;
+  private double mean;
   private long min;
-  private long p50;
-  private long p75;
-  private long p95;
-  private long p98;
-  private long p99;
-  private long p999;
-  private long stddev;
+  private double p50;
+  private double p75;
+  private double p95;
+  private double p98;
+  private double p99;
+  private double p999;
+  private double stddev;
+  private List<Long> buckets;
 
   public HistogramJson() {
 
@@ -42,7 +45,7 @@ public class HistogramJson {
     return max;
   }
 
-  public long getMean() {
+  public double getMean() {
     return mean;
   }
 
@@ -50,31 +53,31 @@ public class HistogramJson {
     return min;
   }
 
-  public long getP50() {
+  public double getP50() {
     return p50;
   }
 
-  public long getP75() {
+  public double getP75() {
     return p75;
   }
 
-  public long getP95() {
+  public double getP95() {
     return p95;
   }
 
-  public long getP98() {
+  public double getP98() {
     return p98;
   }
 
-  public long getP99() {
+  public double getP99() {
     return p99;
   }
 
-  public long getP999() {
+  public double getP999() {
     return p999;
   }
 
-  public long getStddev() {
+  public double getStddev() {
     return stddev;
   }
 
@@ -86,7 +89,7 @@ public class HistogramJson {
     this.max = max;
   }
 
-  public void setMean(long mean) {
+  public void setMean(double mean) {
     this.mean = mean;
   }
 
@@ -94,31 +97,39 @@ public class HistogramJson {
     this.min = min;
   }
 
-  public void setP50(long p50) {
+  public void setP50(double p50) {
     this.p50 = p50;
   }
 
-  public void setP75(long p75) {
+  public void setP75(double p75) {
     this.p75 = p75;
   }
 
-  public void setP95(long p95) {
+  public void setP95(double p95) {
     this.p95 = p95;
   }
 
-  public void setP98(long p98) {
+  public void setP98(double p98) {
     this.p98 = p98;
   }
 
-  public void setP99(long p99) {
+  public void setP99(double p99) {
     this.p99 = p99;
   }
 
-  public void setP999(long p999) {
+  public void setP999(double p999) {
     this.p999 = p999;
   }
 
-  public void setStddev(long stddev) {
+  public void setStddev(double stddev) {
     this.stddev = stddev;
   }
+
+  public List<Long> getBuckets() {
+    return buckets;
+  }
+
+  public void setBuckets(List<Long> buckets) {
+    this.buckets = buckets;
+  }
 }
@@ -21,8 +21,10 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.streamsets.datacollector.config.SourceRecordRetention;
 import com.streamsets.datacollector.config.StageType;
 import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.datacollector.record.io.SerializedRecord;
 import com.streamsets.pipeline.api.BatchMaker;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.impl.Utils;
@@ -49,12 +51,18 @@ public class BatchMakerImpl implements BatchMaker {
   private int recordAllowance;
   private int size;
   private boolean recordByRef;
+  private final SourceRecordRetention sourceRecordRetention;
 
   public BatchMakerImpl(StagePipe stagePipe, boolean keepSnapshot) {
     this(stagePipe, keepSnapshot, Integer.MAX_VALUE);
   }
 
   public BatchMakerImpl(StagePipe stagePipe, boolean keepSnapshot, int recordAllowance) {
+    this(stagePipe, keepSnapshot, recordAllowance, SourceRecordRetention.FULL);
+  }
+
+  public BatchMakerImpl(StagePipe stagePipe, boolean keepSnapshot, int recordAllowance,
+      SourceRecordRetention sourceRecordRetention) {
     this.stagePipe = stagePipe;
     this.instanceName= stagePipe.getStage().getInfo().getInstanceName();
     outputLanes = ImmutableList.copyOf(stagePipe.getStage().getConfiguration().getOutputLanes());
@@ -72,6 +80,9 @@ public class BatchMakerImpl implements BatchMaker {
     // we can skip one copy here (just here though), except if we are in preview
     recordByRef = !stagePipe.getStage().getContext().isPreview() &&
                   stagePipe.getStage().getDefinition().getRecordsByRef();
+    // only origins retain the records they produce, for other stages there is nothing to retain
+    this.sourceRecordRetention = (stagePipe.getStage().getDefinition().getType() == StageType.SOURCE)
+                                 ? sourceRecordRetention : null;
   }
 
   boolean isRecordByRef() {
@@ -107,9 +118,8 @@ public class BatchMakerImpl implements BatchMaker {
     recordCopy.addStageToStagePath(instanceName);
     recordCopy.createTrackingId();
 
-    if (getStagePipe().getStage().getDefinition().getType() == StageType.SOURCE) {
-      RecordImpl recordSource = recordCopy.clone();
-      recordCopy.getHeader().setSourceRecord(recordSource);
+    if (sourceRecordRetention != null) {
+      retainSourceRecord(recordCopy);
     }
 
     if (lanes.length == 0) {
@@ -141,6 +151,22 @@ public class BatchMakerImpl implements BatchMaker {
     size++;
   }
 
+  // the source record is reported for the record in the error output, with NONE the error record is reported
+  private void retainSourceRecord(RecordImpl record) {
+    switch (sourceRecordRetention) {
+      case FULL:
+        record.getHeader().setSourceRecord(record.clone());
+        break;
+      case COMPACT:
+        record.getHeader().setSourceRecord(SerializedRecord.serialize(record));
+        break;
+      case NONE:
+        break;
+      default:
+        throw new IllegalStateException(Utils.format("Unknown source record retention '{}'", sourceRecordRetention));
+    }
+  }
+
   public Map<String, List<Record>> getStageOutput() {
     return stageOutput;
   }
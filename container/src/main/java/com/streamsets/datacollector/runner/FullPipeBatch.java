@@ -19,6 +19,7 @@ package com.streamsets.datacollector.runner;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.streamsets.datacollector.config.SourceRecordRetention;
 import com.streamsets.datacollector.config.StageType;
 import com.streamsets.datacollector.record.RecordImpl;
 import com.streamsets.pipeline.api.Record;
@@ -39,12 +40,19 @@ public class FullPipeBatch implements PipeBatch {
   private final Set<String> processedStages;
   private final List<StageOutput> stageOutputSnapshot;
   private final ErrorSink errorSink;
+  private final SourceRecordRetention sourceRecordRetention;
   private String newOffset;
   private int inputRecords;
   private int outputRecords;
 
   public FullPipeBatch(SourceOffsetTracker offsetTracker, int batchSize, boolean snapshotStagesOutput) {
+    this(offsetTracker, batchSize, snapshotStagesOutput, SourceRecordRetention.FULL);
+  }
+
+  public FullPipeBatch(SourceOffsetTracker offsetTracker, int batchSize, boolean snapshotStagesOutput,
+      SourceRecordRetention sourceRecordRetention) {
     this.offsetTracker = offsetTracker;
+    this.sourceRecordRetention = sourceRecordRetention;
     this.batchSize = batchSize;
     fullPayload = new HashMap<>();
     processedStages = new HashSet<>();
@@ -97,7 +105,7 @@ public class FullPipeBatch implements PipeBatch {
     }
     int recordAllowance = (pipe.getStage().getDefinition().getType() == StageType.SOURCE)
                           ? getBatchSize() : Integer.MAX_VALUE;
-    return new BatchMakerImpl(pipe, stageOutputSnapshot != null, recordAllowance);
+    return new BatchMakerImpl(pipe, stageOutputSnapshot != null, recordAllowance, sourceRecordRetention);
   }
 
   @Override
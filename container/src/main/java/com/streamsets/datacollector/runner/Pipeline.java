@@ -41,8 +41,10 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class Pipeline {
@@ -166,6 +168,50 @@ public class Pipeline {
     }
   }
 
+  /**
+   * Replaces the given stages with the ones of the given pipeline and initializes them, the rest of the stages remain
+   * as they are. Both pipelines must have the same stages and lanes, only the configuration of the replaced stages may
+   * differ. The given pipeline must not have been initialized, it is discarded.
+   * <p/>
+   * Used by preview sessions to apply configuration changes without re-initializing the whole pipeline.
+   */
+  public List<Issue> reinitStages(Pipeline pipeline, Set<String> instanceNames) {
+    Map<String, StageRuntime> newStages = new HashMap<>();
+    for (Pipe pipe : pipeline.pipes) {
+      if (pipe instanceof StagePipe) {
+        newStages.put(pipe.getStage().getInfo().getInstanceName(), pipe.getStage());
+      }
+    }
+    List<Issue> issues = new ArrayList<>();
+    for (Pipe pipe : pipes) {
+      String instanceName = pipe.getStage().getInfo().getInstanceName();
+      if (pipe instanceof StagePipe && instanceNames.contains(instanceName)) {
+        StageRuntime newStage = Utils.checkNotNull(newStages.remove(instanceName), instanceName);
+        try {
+          pipe.getStage().destroy();
+        } catch (RuntimeException ex) {
+          LOG.warn(Utils.format("Exception thrown during stage '{}' destroy: {}", instanceName, ex), ex);
+        }
+        pipe.getStage().replaceStage(newStage);
+        try {
+          issues.addAll(pipe.getStage().init());
+        } catch (Exception ex) {
+          LOG.warn(ContainerError.CONTAINER_0701.getMessage(), instanceName, ex.toString(), ex);
+          issues.add(IssueCreator.getStage(instanceName).create(ContainerError.CONTAINER_0701, instanceName,
+            ex.toString()));
+        }
+      }
+    }
+    for (StageRuntime stage : newStages.values()) {
+      stage.releaseClassLoader();
+    }
+    pipeline.badRecordsHandler.release();
+    if (pipeline.scheduledExecutorService != null) {
+      pipeline.scheduledExecutorService.shutdown();
+    }
+    return issues;
+  }
+
   public void run() throws StageException, PipelineRuntimeException {
     this.running = true;
     try {
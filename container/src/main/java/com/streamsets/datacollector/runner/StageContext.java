@@ -123,6 +123,13 @@ public class StageContext implements Source.Context, Target.Context, Processor.C
     this.resourcesDir = resourcesDir;
   }
 
+  // for a stage replacing the stage of an initialized pipeline, the stage gets its own metric registry as it will
+  // register again the metrics the replaced stage registered
+  StageContext(StageContext context, StageRuntime stageRuntime) {
+    this(context.pipelineName, context.rev, context.pipelineInfo, context.stageType, context.isPreview,
+         new MetricRegistry(), stageRuntime, context.pipelineMaxMemory, context.isClusterMode, context.resourcesDir);
+  }
+
   private Map<String, Class<?>[]> getConfigToElDefMap(StageRuntime stageRuntime) {
     Map<String, Class<?>[]> configToElDefMap = new HashMap<>();
     for(ConfigDefinition configDefinition : stageRuntime.getDefinition().getConfigDefinitions()) {
@@ -41,9 +41,9 @@ import java.util.concurrent.Callable;
 
 public class StageRuntime {
   private final PipelineBean pipelineBean;
-  private final StageDefinition def;
-  private final StageConfiguration conf;
-  private final StageBean stageBean;
+  private StageDefinition def;
+  private StageConfiguration conf;
+  private StageBean stageBean;
   private final Stage.Info info;
   private StageContext context;
 
@@ -117,6 +117,21 @@ public class StageRuntime {
     return (T) context;
   }
 
+  // takes the stage of the given runtime, which must be for the same stage instance, the current stage must have been
+  // destroyed already
+  void replaceStage(StageRuntime stageRuntime) {
+    Preconditions.checkArgument(conf.getInstanceName().equals(stageRuntime.getConfiguration().getInstanceName()),
+                                "stage instance mismatch");
+    def = stageRuntime.def;
+    conf = stageRuntime.conf;
+    stageBean = stageRuntime.stageBean;
+    context = new StageContext(context, this);
+  }
+
+  public void releaseClassLoader() {
+    stageBean.releaseClassLoader();
+  }
+
   @SuppressWarnings("unchecked")
   public List<Issue> init() {
     Preconditions.checkState(context != null, "context has not been set");
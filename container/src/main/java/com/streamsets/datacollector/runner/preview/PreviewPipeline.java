@@ -70,4 +70,12 @@ public class PreviewPipeline {
     pipeline.destroy();
   }
 
+  Pipeline getPipeline() {
+    return pipeline;
+  }
+
+  Issues getIssues() {
+    return issues;
+  }
+
 }
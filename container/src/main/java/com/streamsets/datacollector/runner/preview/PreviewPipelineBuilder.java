@@ -76,6 +76,11 @@ public class PreviewPipelineBuilder {
     this.endStageInstanceName = endStageInstanceName;
   }
 
+  // the configuration of the last built pipeline, once validated
+  PipelineConfiguration getPipelineConfiguration() {
+    return pipelineConf;
+  }
+
   public PreviewPipeline build(PipelineRunner runner) throws PipelineRuntimeException, StageException {
     if(endStageInstanceName != null && endStageInstanceName.trim().length() > 0) {
       List<StageConfiguration> stages = new ArrayList<>();
@@ -47,12 +47,13 @@ import java.util.concurrent.TimeUnit;
 
 public class PreviewPipelineRunner implements PipelineRunner {
   private final RuntimeInfo runtimeInfo;
-  private final SourceOffsetTracker offsetTracker;
-  private final int batchSize;
-  private final int batches;
-  private final boolean skipTargets;
+  private SourceOffsetTracker offsetTracker;
+  private int batchSize;
+  private int batches;
+  private boolean skipTargets;
   private final MetricRegistry metrics;
-  private final List<List<StageOutput>> batchesOutput;
+  private List<List<StageOutput>> batchesOutput;
+  private List<StageOutput> sourceOutputs;
   private final String name;
   private final String rev;
   private String sourceOffset;
@@ -71,6 +72,24 @@ public class PreviewPipelineRunner implements PipelineRunner {
     this.metrics = new MetricRegistry();
     processingTimer = MetricsConfigurator.createTimer(metrics, "pipeline.batchProcessing", name, rev);
     batchesOutput = new ArrayList<>();
+    sourceOutputs = Collections.emptyList();
+  }
+
+  // preview sessions run the same pipeline several times
+
+  public void reset(SourceOffsetTracker offsetTracker, int batchSize, int batches, boolean skipTargets) {
+    this.offsetTracker = offsetTracker;
+    this.batchSize = batchSize;
+    this.batches = batches;
+    this.skipTargets = skipTargets;
+    batchesOutput = new ArrayList<>();
+    sourceOutputs = Collections.emptyList();
+  }
+
+  // outputs to use instead of running the source, one per batch, batches beyond them run the source
+
+  public void setSourceOutputs(List<StageOutput> sourceOutputs) {
+    this.sourceOutputs = sourceOutputs;
   }
 
   @Override
@@ -107,11 +126,19 @@ public class PreviewPipelineRunner implements PipelineRunner {
       stagesToSkip.put(stageOutput.getInstanceName(), stageOutput);
     }
     for (int i = 0; i < batches; i++) {
+      Map<String, StageOutput> batchStagesToSkip = stagesToSkip;
+      if (i < sourceOutputs.size()) {
+        batchStagesToSkip = new HashMap<>(stagesToSkip);
+        StageOutput sourceOutput = sourceOutputs.get(i);
+        if (!batchStagesToSkip.containsKey(sourceOutput.getInstanceName())) {
+          batchStagesToSkip.put(sourceOutput.getInstanceName(), sourceOutput);
+        }
+      }
       PipeBatch pipeBatch = new FullPipeBatch(offsetTracker, batchSize, true);
       long start = System.currentTimeMillis();
       sourceOffset = pipeBatch.getPreviousOffset();
       for (Pipe pipe : pipes) {
-        StageOutput stageOutput = stagesToSkip.get(pipe.getStage().getInfo().getInstanceName());
+        StageOutput stageOutput = batchStagesToSkip.get(pipe.getStage().getInfo().getInstanceName());
         if (stageOutput == null || (pipe instanceof ObserverPipe) || (pipe instanceof MultiplexerPipe) ) {
           if (!skipTargets || pipe.getStage().getDefinition().getType() != StageType.TARGET) {
             pipe.process(pipeBatch);
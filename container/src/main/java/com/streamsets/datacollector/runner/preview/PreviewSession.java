@@ -0,0 +1,250 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.runner.preview;
+
+import com.google.common.base.Preconditions;
+import com.streamsets.datacollector.config.PipelineConfiguration;
+import com.streamsets.datacollector.config.StageConfiguration;
+import com.streamsets.datacollector.main.RuntimeInfo;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.datacollector.runner.PipelineRuntimeException;
+import com.streamsets.datacollector.runner.StageOutput;
+import com.streamsets.datacollector.stagelibrary.StageLibraryTask;
+import com.streamsets.datacollector.util.Configuration;
+import com.streamsets.datacollector.validation.Issue;
+import com.streamsets.datacollector.validation.Issues;
+import com.streamsets.pipeline.api.Config;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the preview pipeline of a pipeline initialized across previews.
+ * <p/>
+ * Every preview builds the pipeline from the current configuration and compares it with the one being kept. If only
+ * the configuration of processors and targets changed, those stages are replaced and initialized again, the origin
+ * and the unchanged stages are not touched. Any other change initializes a new preview pipeline.
+ * <p/>
+ * If source replay is enabled, the output of the origin is kept and the following previews with the same batch size
+ * use it instead of producing new data, previews with more batches than the kept ones run the origin for the rest.
+ */
+public class PreviewSession {
+  private final StageLibraryTask stageLib;
+  private final Configuration configuration;
+  private final RuntimeInfo runtimeInfo;
+  private final String name;
+  private final String rev;
+  private final boolean replaySource;
+  private final List<StageOutput> sourceOutputs;
+  private int sourceOutputsBatchSize;
+  private volatile PreviewPipeline previewPipeline;
+  private PreviewPipelineRunner runner;
+  private List<Object> pipelineKey;
+  private Map<String, List<Object>> stageKeys;
+  private volatile boolean closed;
+  private int initializations;
+
+  public PreviewSession(StageLibraryTask stageLib, Configuration configuration, RuntimeInfo runtimeInfo, String name,
+                        String rev, boolean replaySource) {
+    this.stageLib = stageLib;
+    this.configuration = configuration;
+    this.runtimeInfo = runtimeInfo;
+    this.name = name;
+    this.rev = rev;
+    this.replaySource = replaySource;
+    sourceOutputs = new ArrayList<>();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getRev() {
+    return rev;
+  }
+
+  // number of times the whole preview pipeline has been initialized
+  int getInitializations() {
+    return initializations;
+  }
+
+  public synchronized PreviewPipelineOutput run(PipelineConfiguration pipelineConf, String endStageInstanceName,
+      int batchSize, int batches, boolean skipTargets, List<StageOutput> stagesOverride)
+      throws PipelineRuntimeException, StageException {
+    Preconditions.checkState(!closed, "Preview session has been closed");
+    boolean success = false;
+    try {
+      PreviewPipelineRunner newRunner = new PreviewPipelineRunner(name, rev, runtimeInfo,
+        new PreviewSourceOffsetTracker(null), batchSize, batches, skipTargets);
+      PreviewPipelineBuilder builder = new PreviewPipelineBuilder(stageLib, configuration, name, rev, pipelineConf,
+        endStageInstanceName);
+      PreviewPipeline newPipeline = builder.build(newRunner);
+      Map<String, List<Object>> newStageKeys = getStageKeys(builder.getPipelineConfiguration());
+      List<Object> newPipelineKey = getPipelineKey(builder.getPipelineConfiguration(), newStageKeys);
+
+      if (previewPipeline == null || !newPipelineKey.equals(pipelineKey)) {
+        destroyPipeline();
+        List<Issue> initIssues = newPipeline.getPipeline().init();
+        if (!initIssues.isEmpty()) {
+          newPipeline.destroy();
+          newPipeline.getIssues().addAll(initIssues);
+          throw new PipelineRuntimeException(newPipeline.getIssues());
+        }
+        initializations++;
+        previewPipeline = newPipeline;
+        runner = newRunner;
+      } else {
+        Set<String> changedStages = new HashSet<>();
+        for (Map.Entry<String, List<Object>> entry : newStageKeys.entrySet()) {
+          if (!entry.getValue().equals(stageKeys.get(entry.getKey()))) {
+            changedStages.add(entry.getKey());
+          }
+        }
+        List<Issue> initIssues = previewPipeline.getPipeline().reinitStages(newPipeline.getPipeline(), changedStages);
+        if (!initIssues.isEmpty()) {
+          throw new PipelineRuntimeException(new Issues(initIssues));
+        }
+      }
+      pipelineKey = newPipelineKey;
+      stageKeys = newStageKeys;
+
+      String sourceInstanceName = builder.getPipelineConfiguration().getStages().get(0).getInstanceName();
+      boolean sourceOverridden = false;
+      for (StageOutput stageOutput : stagesOverride) {
+        sourceOverridden |= stageOutput.getInstanceName().equals(sourceInstanceName);
+      }
+      if (!replaySource || sourceOverridden || batchSize != sourceOutputsBatchSize) {
+        sourceOutputs.clear();
+      }
+      runner.reset(new PreviewSourceOffsetTracker(null), batchSize, batches, skipTargets);
+      List<StageOutput> replay = new ArrayList<>(sourceOutputs.size());
+      for (StageOutput sourceOutput : sourceOutputs) {
+        replay.add(copy(sourceOutput));
+      }
+      runner.setSourceOutputs(replay);
+
+      previewPipeline.getPipeline().run(stagesOverride);
+
+      if (replaySource && !sourceOverridden) {
+        List<List<StageOutput>> batchesOutput = runner.getBatchesOutput();
+        for (int i = sourceOutputs.size(); i < batchesOutput.size(); i++) {
+          sourceOutputs.add(copy(batchesOutput.get(i).get(0)));
+        }
+        sourceOutputsBatchSize = batchSize;
+      }
+      success = true;
+      return new PreviewPipelineOutput(newPipeline.getIssues(), runner);
+    } finally {
+      // a failed preview may leave stages in any state, the next preview starts from scratch
+      if (!success || closed) {
+        destroyPipeline();
+      }
+    }
+  }
+
+  public void close() {
+    closed = true;
+    PreviewPipeline pipeline = previewPipeline;
+    if (pipeline != null) {
+      // stops a running preview at the end of the current batch
+      pipeline.getPipeline().stop();
+    }
+    synchronized (this) {
+      destroyPipeline();
+    }
+  }
+
+  private void destroyPipeline() {
+    if (previewPipeline != null) {
+      previewPipeline.destroy();
+      previewPipeline = null;
+      runner = null;
+      pipelineKey = null;
+      stageKeys = null;
+      sourceOutputs.clear();
+    }
+  }
+
+  private static List<Object> getStageKey(StageConfiguration stageConf, boolean withConfigs) {
+    List<Object> key = new ArrayList<>();
+    key.addAll(Arrays.asList(stageConf.getInstanceName(), stageConf.getLibrary(), stageConf.getStageName(),
+      stageConf.getStageVersion(), new ArrayList<>(stageConf.getInputLanes()),
+      new ArrayList<>(stageConf.getOutputLanes())));
+    if (withConfigs) {
+      key.add(getConfigs(stageConf.getConfiguration()));
+    }
+    return key;
+  }
+
+  private static Map<String, Object> getConfigs(List<Config> configs) {
+    Map<String, Object> map = new HashMap<>();
+    for (Config config : configs) {
+      map.put(config.getName(), config.getValue());
+    }
+    return map;
+  }
+
+  private static Map<String, List<Object>> getStageKeys(PipelineConfiguration pipelineConf) {
+    Map<String, List<Object>> keys = new LinkedHashMap<>();
+    for (StageConfiguration stageConf : pipelineConf.getStages()) {
+      if (!stageConf.isSystemGenerated()) {
+        keys.put(stageConf.getInstanceName(), getStageKey(stageConf, true));
+      }
+    }
+    return keys;
+  }
+
+  // what requires initializing the whole pipeline if it changes: the pipeline configuration, the error stage, the
+  // origin and the stages and lanes of the pipeline
+  private static List<Object> getPipelineKey(PipelineConfiguration pipelineConf,
+      Map<String, List<Object>> stageKeys) {
+    List<Object> key = new ArrayList<>();
+    key.add(getConfigs(pipelineConf.getConfiguration()));
+    key.add((pipelineConf.getErrorStage() == null) ? null : getStageKey(pipelineConf.getErrorStage(), true));
+    key.add(stageKeys.isEmpty() ? null : stageKeys.values().iterator().next());
+    for (StageConfiguration stageConf : pipelineConf.getStages()) {
+      if (!stageConf.isSystemGenerated()) {
+        key.add(getStageKey(stageConf, false));
+      }
+    }
+    return key;
+  }
+
+  // replayed records go through the stages of the pipeline which modify them, they must not be the kept ones
+  private static StageOutput copy(StageOutput stageOutput) {
+    Map<String, List<Record>> output = new HashMap<>();
+    for (Map.Entry<String, List<Record>> entry : stageOutput.getOutput().entrySet()) {
+      List<Record> records = new ArrayList<>(entry.getValue().size());
+      for (Record record : entry.getValue()) {
+        records.add(((RecordImpl) record).clone());
+      }
+      output.put(entry.getKey(), records);
+    }
+    return new StageOutput(stageOutput.getInstanceName(), output, stageOutput.getErrorRecords(),
+      stageOutput.getStageErrors());
+  }
+
+}
@@ -50,4 +50,9 @@ public class BadRecordsHandler {
     errorStage.destroy();
   }
 
+  // for a handler that has not been initialized
+  public void release() {
+    errorStage.releaseClassLoader();
+  }
+
 }
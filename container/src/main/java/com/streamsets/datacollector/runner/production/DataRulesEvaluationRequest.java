@@ -26,9 +26,12 @@ public class DataRulesEvaluationRequest {
 
   private final Map<String, Map<String, List<Record>>> snapshot;
   private final Map<String, Integer> laneToRecordsSize;
+  private final long createdNanos;
+
   public DataRulesEvaluationRequest(Map<String, Map<String, List<Record>>> snapshot, Map<String, Integer> laneToRecordsSize) {
     this.snapshot = snapshot;
     this.laneToRecordsSize = laneToRecordsSize;
+    this.createdNanos = System.nanoTime();
   }
 
   public Map<String, Map<String, List<Record>>> getSnapshot() {
@@ -38,4 +41,9 @@ public class DataRulesEvaluationRequest {
   public Map<String, Integer> getLaneToRecordsSize() {
     return laneToRecordsSize;
   }
+
+  // System.nanoTime() when the request was created, used to measure how long it waited in the observer queue
+  public long getCreatedNanos() {
+    return createdNanos;
+  }
 }
@@ -39,6 +39,7 @@ import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.impl.LocaleInContext;
 import com.streamsets.pipeline.api.impl.Utils;
+import com.streamsets.pipeline.lib.executor.SafeScheduledExecutorService;
 
 import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
 import org.apache.commons.pool2.KeyedObjectPool;
@@ -59,16 +60,24 @@ import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLibraryTask {
   public static final String MAX_PRIVATE_STAGE_CLASS_LOADERS_KEY = "max.stage.private.classloaders";
   public static final int MAX_PRIVATE_STAGE_CLASS_LOADERS_DEFAULT = 50;
 
+  public static final String LOAD_THREADS_KEY = "stage.libraries.load.threads";
+  public static final int LOAD_THREADS_DEFAULT = Runtime.getRuntime().availableProcessors();
+
   private static final String CONFIG_LIBRARY_ALIAS_PREFIX = "library.alias.";
   private static final String CONFIG_STAGE_ALIAS_PREFIX = "stage.alias.";
 
@@ -84,6 +93,7 @@ public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLi
   private LoadingCache<Locale, List<StageDefinition>> localizedStageList;
   private ObjectMapper json;
   private KeyedObjectPool<String, ClassLoader> privateClassLoaderPool;
+  private Map<String, Long> libraryLoadTimes;
 
   @Inject
   public ClassLoaderStageLibraryTask(RuntimeInfo runtimeInfo, Configuration configuration) {
@@ -234,53 +244,133 @@ public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLi
         Utils.format("Could not load runtime configuration, '{}'", e.toString()), e);
     }
 
+    ExecutorService executor = null;
     try {
-      int libs = 0;
-      int stages = 0;
       long start = System.currentTimeMillis();
-      LocaleInContext.set(Locale.getDefault());
-      for (ClassLoader cl : stageClassLoaders) {
-        libs++;
-        StageLibraryDefinition libDef = StageLibraryDefinitionExtractor.get().extract(cl);
-        LOG.debug("Loading stages from library '{}'", libDef.getName());
-        try {
-          Enumeration<URL> resources = cl.getResources(STAGES_DEFINITION_RESOURCE);
-          while (resources.hasMoreElements()) {
-            Map<String, String> stagesInLibrary = new HashMap<>();
-            URL url = resources.nextElement();
-            try (InputStream is = url.openStream()) {
-              List<String> stageList = json.readValue(is, List.class);
-              for (String className : stageList) {
-                stages++;
-                Class<? extends Stage> klass = (Class<? extends Stage>) cl.loadClass(className);
-                StageDefinition stage = StageDefinitionExtractor.get().
-                    extract(libDef, klass, Utils.formatL("Library='{}'", libDef.getName()));
-                String key = createKey(libDef.getName(), stage.getName());
-                LOG.debug("Loaded stage '{}' (library:name)", key);
-                if (stagesInLibrary.containsKey(key)) {
-                  throw new IllegalStateException(Utils.format(
-                      "Library '{}' contains more than one definition for stage '{}', class '{}' and class '{}'",
-                      libDef.getName(), key, stagesInLibrary.get(key), stage.getStageClass()));
-                }
-                stagesInLibrary.put(key, stage.getClassName());
-                this.stageList.add(stage);
-                stageMap.put(key, stage);
-                computeDependsOnChain(stage);
+      int threads = Math.min(configuration.get(LOAD_THREADS_KEY, LOAD_THREADS_DEFAULT), stageClassLoaders.size());
+      List<Future<LibraryStages>> futures = new ArrayList<>(stageClassLoaders.size());
+      if (threads > 1) {
+        executor = new SafeScheduledExecutorService(threads, "StageLibraryLoader");
+      }
+      // libraries are loaded concurrently, their stages are added in class loader order to keep the stage list stable
+      for (final ClassLoader cl : stageClassLoaders) {
+        Callable<LibraryStages> loader = new Callable<LibraryStages>() {
+          @Override
+          public LibraryStages call() {
+            return loadLibrary(cl);
+          }
+        };
+        if (executor != null) {
+          futures.add(executor.submit(loader));
+        } else {
+          FutureTask<LibraryStages> task = new FutureTask<>(loader);
+          task.run();
+          futures.add(task);
+        }
+      }
+      int stages = 0;
+      Map<String, Long> loadTimes = new LinkedHashMap<>();
+      for (Future<LibraryStages> future : futures) {
+        LibraryStages library = getLibraryStages(future);
+        for (StageDefinition stage : library.stages) {
+          stages++;
+          this.stageList.add(stage);
+          stageMap.put(createKey(library.libDef.getName(), stage.getName()), stage);
+        }
+        loadTimes.put(library.libDef.getName(), library.loadTime);
+      }
+      libraryLoadTimes = ImmutableMap.copyOf(loadTimes);
+      LOG.debug("Loaded '{}' libraries with a total of '{}' stages in '{}ms' using '{}' threads", futures.size(),
+                stages, System.currentTimeMillis() - start, Math.max(threads, 1));
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  private static class LibraryStages {
+    private final StageLibraryDefinition libDef;
+    private final List<StageDefinition> stages;
+    private final long loadTime;
+
+    public LibraryStages(StageLibraryDefinition libDef, List<StageDefinition> stages, long loadTime) {
+      this.libDef = libDef;
+      this.stages = stages;
+      this.loadTime = loadTime;
+    }
+  }
+
+  private LibraryStages getLibraryStages(Future<LibraryStages> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while loading stage libraries", ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new RuntimeException(cause.toString(), cause);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private LibraryStages loadLibrary(ClassLoader cl) {
+    long start = System.currentTimeMillis();
+    List<StageDefinition> stages = new ArrayList<>();
+    LocaleInContext.set(Locale.getDefault());
+    try {
+      StageLibraryDefinition libDef = StageLibraryDefinitionExtractor.get().extract(cl);
+      LOG.debug("Loading stages from library '{}'", libDef.getName());
+      try {
+        Enumeration<URL> resources = cl.getResources(STAGES_DEFINITION_RESOURCE);
+        while (resources.hasMoreElements()) {
+          Map<String, String> stagesInLibrary = new HashMap<>();
+          URL url = resources.nextElement();
+          try (InputStream is = url.openStream()) {
+            List<String> stageList = json.readValue(is, List.class);
+            for (String className : stageList) {
+              Class<? extends Stage> klass = (Class<? extends Stage>) cl.loadClass(className);
+              StageDefinition stage = StageDefinitionExtractor.get().
+                  extract(libDef, klass, Utils.formatL("Library='{}'", libDef.getName()));
+              String key = createKey(libDef.getName(), stage.getName());
+              LOG.debug("Loaded stage '{}' (library:name)", key);
+              if (stagesInLibrary.containsKey(key)) {
+                throw new IllegalStateException(Utils.format(
+                    "Library '{}' contains more than one definition for stage '{}', class '{}' and class '{}'",
+                    libDef.getName(), key, stagesInLibrary.get(key), stage.getStageClass()));
               }
+              stagesInLibrary.put(key, stage.getClassName());
+              stages.add(stage);
+              computeDependsOnChain(stage);
             }
           }
-        } catch (IOException | ClassNotFoundException ex) {
-          throw new RuntimeException(
-              Utils.format("Could not load stages definition from '{}', {}", cl, ex.toString()), ex);
         }
+      } catch (IOException | ClassNotFoundException ex) {
+        throw new RuntimeException(
+            Utils.format("Could not load stages definition from '{}', {}", cl, ex.toString()), ex);
       }
-      LOG.debug("Loaded '{}' libraries with a total of '{}' stages in '{}ms'", libs, stages,
-                System.currentTimeMillis() - start);
+      long loadTime = System.currentTimeMillis() - start;
+      LOG.debug("Loaded '{}' stages from library '{}' in '{}ms'", stages.size(), libDef.getName(), loadTime);
+      return new LibraryStages(libDef, stages, loadTime);
     } finally {
       LocaleInContext.set(null);
     }
   }
 
+  /**
+   * Returns the time, in milliseconds, it took to load each stage library.
+   */
+  @VisibleForTesting
+  Map<String, Long> getLibraryLoadTimes() {
+    return libraryLoadTimes;
+  }
+
   void validateStageVersions(List<StageDefinition> stageList) {
     boolean err = false;
     Map<String, Set<Integer>> stageVersions = new HashMap<>();
@@ -65,10 +65,17 @@ public class BaseWebSocket extends WebSocketAdapter {
 
   public void notification(String message) {
     if(webSocketSession != null && webSocketSession.isOpen()) {
-      if (!queue.offer(new WebSocketMessage(webSocketSession, message))) {
+      if (!queue.offer(new WebSocketMessage(this, webSocketSession, message))) {
         LOG.warn("WebSocket queue is full, discarding '{}' message", type);
+        onNotificationFailed();
       }
     }
   }
 
+  /**
+   * Called when a message was discarded or could not be sent, possibly from the thread sending the messages.
+   */
+  protected void onNotificationFailed() {
+  }
+
 }
\ No newline at end of file
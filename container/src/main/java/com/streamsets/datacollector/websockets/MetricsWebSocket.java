@@ -17,15 +17,63 @@
  */
 package com.streamsets.datacollector.websockets;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.metrics.MetricsEventListener;
+import com.streamsets.datacollector.metrics.MetricsSubscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 
+/**
+ * Pushes the metrics of a pipeline. Clients get the complete metrics on every refresh unless they send a
+ * subscription message, <code>{"metrics" : ["stage.a.outputRecords.meter", "stage.b.*"], "delta" : true}</code>,
+ * after which they only get the subscribed metrics, in delta mode only the ones that changed since the last frame.
+ * Sending a new subscription message restarts from a complete frame.
+ */
 public class MetricsWebSocket extends BaseWebSocket implements MetricsEventListener {
+  private final static Logger LOG = LoggerFactory.getLogger(MetricsWebSocket.class);
+
   public static final String TYPE = "metrics";
 
+  private volatile MetricsSubscription subscription;
+
   public MetricsWebSocket(ListenerManager<MetricsEventListener> listenerManager, Queue<WebSocketMessage> queue) {
     super(TYPE, listenerManager, queue);
   }
 
-}
\ No newline at end of file
+  @Override
+  public void onWebSocketText(String message) {
+    try {
+      JsonNode json = ObjectMapperFactory.get().readTree(message);
+      List<String> metricNames = new ArrayList<>();
+      if (json.has("metrics")) {
+        for (JsonNode metricName : json.get("metrics")) {
+          metricNames.add(metricName.asText());
+        }
+      }
+      subscription = new MetricsSubscription(metricNames, json.path("delta").asBoolean(false));
+    } catch (IOException ex) {
+      LOG.warn("Invalid metrics subscription '{}': {}", message, ex.toString(), ex);
+    }
+  }
+
+  @Override
+  public MetricsSubscription getSubscription() {
+    return subscription;
+  }
+
+  // the client missed a delta, the next frame has to carry all the subscribed metrics again
+  @Override
+  protected void onNotificationFailed() {
+    MetricsSubscription subscription = this.subscription;
+    if (subscription != null) {
+      subscription.reset();
+    }
+  }
+
+}
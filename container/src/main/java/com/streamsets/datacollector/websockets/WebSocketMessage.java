@@ -18,21 +18,29 @@
 package com.streamsets.datacollector.websockets;
 
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WebSocketException;
 
 import java.io.IOException;
 
 public class WebSocketMessage {
+  private final BaseWebSocket webSocket;
   private final Session webSocketSession;
   private final String message;
 
-  public WebSocketMessage(Session webSocketSession, String message) {
+  public WebSocketMessage(BaseWebSocket webSocket, Session webSocketSession, String message) {
+    this.webSocket = webSocket;
     this.webSocketSession = webSocketSession;
     this.message = message;
   }
 
   public void send() throws IOException {
     if(webSocketSession.isOpen()) {
-      webSocketSession.getRemote().sendString(message);
+      try {
+        webSocketSession.getRemote().sendString(message);
+      } catch (IOException | WebSocketException ex) {
+        webSocket.onNotificationFailed();
+        throw ex;
+      }
     }
   }
 
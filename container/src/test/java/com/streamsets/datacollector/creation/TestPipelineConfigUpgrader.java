@@ -17,6 +17,7 @@
  */
 package com.streamsets.datacollector.creation;
 
+import com.streamsets.datacollector.config.SourceRecordRetention;
 import com.streamsets.pipeline.api.Config;
 import com.streamsets.pipeline.api.ExecutionMode;
 import com.streamsets.pipeline.api.StageException;
@@ -32,8 +33,8 @@ public class TestPipelineConfigUpgrader {
   public void testPipelineConfigUpgrader() throws StageException {
     PipelineConfigUpgrader pipelineConfigUpgrader = new PipelineConfigUpgrader();
 
-    List<Config> upgrade = pipelineConfigUpgrader.upgrade("x", "y", "z", 1, 3, new ArrayList<Config>());
-    Assert.assertEquals(5, upgrade.size());
+    List<Config> upgrade = pipelineConfigUpgrader.upgrade("x", "y", "z", 1, 4, new ArrayList<Config>());
+    Assert.assertEquals(6, upgrade.size());
     Assert.assertEquals("executionMode", upgrade.get(0).getName());
     Assert.assertEquals(ExecutionMode.STANDALONE, upgrade.get(0).getValue());
 
@@ -41,6 +42,9 @@ public class TestPipelineConfigUpgrader {
     Assert.assertEquals(-1, upgrade.get(2).getValue());
     Assert.assertNotNull(upgrade.get(3).getValue());
     Assert.assertNotNull(upgrade.get(4).getValue());
+
+    Assert.assertEquals("sourceRecordRetention", upgrade.get(5).getName());
+    Assert.assertEquals(SourceRecordRetention.COMPACT, upgrade.get(5).getValue());
   }
 
 }
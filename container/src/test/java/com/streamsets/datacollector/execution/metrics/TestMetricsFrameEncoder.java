@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.metrics.MetricsSubscription;
+import com.streamsets.datacollector.restapi.bean.CounterJson;
+import com.streamsets.datacollector.restapi.bean.MetricRegistryJson;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestMetricsFrameEncoder {
+  private ObjectMapper objectMapper;
+  private MetricRegistry metrics;
+  private Counter aCounter;
+  private Counter bCounter;
+
+  @Before
+  public void setUp() {
+    objectMapper = ObjectMapperFactory.get();
+    metrics = new MetricRegistry();
+    aCounter = metrics.counter("stage.a.outputRecords.counter");
+    bCounter = metrics.counter("stage.b.outputRecords.counter");
+    metrics.meter("stage.a.outputRecords.meter");
+  }
+
+  @Test
+  public void testFullFrame() throws Exception {
+    MetricsFrameEncoder encoder = new MetricsFrameEncoder(objectMapper);
+    encoder.reset(metrics);
+    String frame = encoder.encode(null);
+    Assert.assertEquals(objectMapper.writeValueAsString(metrics), frame);
+    // shared by all listeners without subscription
+    Assert.assertSame(frame, encoder.encode(null));
+  }
+
+  @Test
+  public void testSubscription() throws Exception {
+    MetricsFrameEncoder encoder = new MetricsFrameEncoder(objectMapper);
+    MetricsSubscription subscription = new MetricsSubscription(ImmutableList.of("stage.a.*"), false);
+    encoder.reset(metrics);
+    JsonNode frame = objectMapper.readTree(encoder.encode(subscription));
+    Assert.assertFalse(frame.get(MetricsFrameEncoder.DELTA).asBoolean());
+    Assert.assertTrue(frame.get("counters").has("stage.a.outputRecords.counter"));
+    Assert.assertFalse(frame.get("counters").has("stage.b.outputRecords.counter"));
+    Assert.assertTrue(frame.get("meters").has("stage.a.outputRecords.meter"));
+
+    // not in delta mode, unchanged metrics are sent again
+    encoder.reset(metrics);
+    frame = objectMapper.readTree(encoder.encode(subscription));
+    Assert.assertTrue(frame.get("counters").has("stage.a.outputRecords.counter"));
+  }
+
+  @Test
+  public void testDelta() throws Exception {
+    MetricsFrameEncoder encoder = new MetricsFrameEncoder(objectMapper);
+    MetricsSubscription subscription = new MetricsSubscription(
+        ImmutableList.of("stage.a.outputRecords.counter", "stage.b.outputRecords.counter"), true);
+
+    encoder.reset(metrics);
+    JsonNode frame = objectMapper.readTree(encoder.encode(subscription));
+    Assert.assertTrue(frame.get(MetricsFrameEncoder.DELTA).asBoolean());
+    Assert.assertEquals(2, frame.get("counters").size());
+    Assert.assertFalse(frame.has("meters"));
+
+    // nothing changed, nothing to send
+    encoder.reset(metrics);
+    Assert.assertNull(encoder.encode(subscription));
+
+    bCounter.inc();
+    encoder.reset(metrics);
+    frame = objectMapper.readTree(encoder.encode(subscription));
+    Assert.assertEquals(1, frame.get("counters").size());
+    Assert.assertEquals(1, frame.get("counters").get("stage.b.outputRecords.counter").get("count").asLong());
+
+    // a frame was lost, the unchanged metrics are sent again
+    subscription.reset();
+    encoder.reset(metrics);
+    frame = objectMapper.readTree(encoder.encode(subscription));
+    Assert.assertEquals(2, frame.get("counters").size());
+    encoder.reset(metrics);
+    Assert.assertNull(encoder.encode(subscription));
+
+    // a new subscription starts over with all subscribed metrics
+    aCounter.inc();
+    subscription = new MetricsSubscription(ImmutableList.of("stage.a.outputRecords.counter"), true);
+    encoder.reset(metrics);
+    frame = objectMapper.readTree(encoder.encode(subscription));
+    Assert.assertEquals(1, frame.get("counters").size());
+    Assert.assertEquals(1, frame.get("counters").get("stage.a.outputRecords.counter").get("count").asLong());
+  }
+
+  @Test
+  public void testAggregatedMetrics() throws Exception {
+    MetricRegistryJson registryJson = new MetricRegistryJson();
+    registryJson.setVersion("3.0.0");
+    Map<String, CounterJson> counters = new HashMap<>();
+    CounterJson counter = new CounterJson();
+    counter.setCount(5);
+    counters.put("stage.a.outputRecords.counter", counter);
+    counters.put("stage.b.outputRecords.counter", new CounterJson());
+    registryJson.setCounters(counters);
+
+    MetricsFrameEncoder encoder = new MetricsFrameEncoder(objectMapper);
+    MetricsSubscription subscription = new MetricsSubscription(ImmutableList.of("stage.a.*"), true);
+    encoder.reset(registryJson);
+    JsonNode frame = objectMapper.readTree(encoder.encode(subscription));
+    Assert.assertEquals("3.0.0", frame.get("version").asText());
+    Assert.assertEquals(1, frame.get("counters").size());
+    Assert.assertEquals(5, frame.get("counters").get("stage.a.outputRecords.counter").get("count").asLong());
+
+    counter.setCount(6);
+    encoder.reset(registryJson);
+    frame = objectMapper.readTree(encoder.encode(subscription));
+    Assert.assertFalse(frame.has("version"));
+    Assert.assertEquals(6, frame.get("counters").get("stage.a.outputRecords.counter").get("count").asLong());
+  }
+
+}
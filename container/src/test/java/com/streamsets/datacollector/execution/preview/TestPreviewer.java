@@ -25,6 +25,7 @@ import com.streamsets.datacollector.execution.PreviewStatus;
 import com.streamsets.datacollector.execution.Previewer;
 import com.streamsets.datacollector.execution.PreviewerListener;
 import com.streamsets.datacollector.execution.RawPreview;
+import com.streamsets.datacollector.execution.preview.common.PreviewSessionManager;
 import com.streamsets.datacollector.execution.preview.sync.SyncPreviewer;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.main.RuntimeModule;
@@ -47,6 +48,7 @@ import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.base.BaseSource;
 import com.streamsets.pipeline.api.base.BaseTarget;
 import com.streamsets.pipeline.api.base.SingleLaneRecordProcessor;
+import com.streamsets.pipeline.lib.executor.SafeScheduledExecutorService;
 
 import dagger.Module;
 import dagger.ObjectGraph;
@@ -109,6 +111,11 @@ public abstract class TestPreviewer {
       return MockStages.createStageLibrary(new URLClassLoader(new URL[0]));
     }
 
+    @Provides @Singleton
+    public PreviewSessionManager providePreviewSessionManager(Configuration configuration) {
+      return new PreviewSessionManager(configuration, new SafeScheduledExecutorService(1, "preview"));
+    }
+
   }
 
   //Mock Error Code implementation
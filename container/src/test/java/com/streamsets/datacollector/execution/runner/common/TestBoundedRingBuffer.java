@@ -0,0 +1,211 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.runner.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestBoundedRingBuffer {
+
+  @Test
+  public void testOfferPoll() {
+    BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(3);
+    Assert.assertNull(buffer.poll());
+    Assert.assertNull(buffer.peek());
+    Assert.assertEquals(3, buffer.remainingCapacity());
+    Assert.assertTrue(buffer.offer(1));
+    Assert.assertTrue(buffer.offer(2));
+    Assert.assertTrue(buffer.offer(3));
+    Assert.assertFalse(buffer.offer(4));
+    Assert.assertEquals(3, buffer.size());
+    Assert.assertEquals(0, buffer.remainingCapacity());
+    Assert.assertEquals(1, (int) buffer.peek());
+    Assert.assertEquals(1, (int) buffer.poll());
+    Assert.assertTrue(buffer.offer(4));
+    Assert.assertEquals(2, (int) buffer.poll());
+    Assert.assertEquals(3, (int) buffer.poll());
+    Assert.assertEquals(4, (int) buffer.poll());
+    Assert.assertNull(buffer.poll());
+    Assert.assertTrue(buffer.isEmpty());
+  }
+
+  @Test
+  public void testWrapAround() {
+    BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(5);
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertTrue(buffer.offer(i));
+      Assert.assertTrue(buffer.offer(-i));
+      Assert.assertEquals(i, (int) buffer.poll());
+      Assert.assertEquals(-i, (int) buffer.poll());
+    }
+    Assert.assertEquals(0, buffer.size());
+  }
+
+  @Test
+  public void testIteratorAndDrain() {
+    BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(4);
+    buffer.offer(1);
+    buffer.offer(2);
+    buffer.offer(3);
+    Iterator<Integer> iterator = buffer.iterator();
+    Assert.assertEquals(1, (int) iterator.next());
+    Assert.assertEquals(2, (int) iterator.next());
+    Assert.assertEquals(3, (int) iterator.next());
+    Assert.assertFalse(iterator.hasNext());
+    List<Integer> drained = new ArrayList<>();
+    Assert.assertEquals(2, buffer.drainTo(drained, 2));
+    Assert.assertEquals(1, buffer.drainTo(drained));
+    Assert.assertEquals(3, drained.size());
+    Assert.assertTrue(buffer.isEmpty());
+  }
+
+  @Test
+  public void testTimeouts() throws Exception {
+    BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(1);
+    long start = System.currentTimeMillis();
+    Assert.assertNull(buffer.poll(50, TimeUnit.MILLISECONDS));
+    Assert.assertTrue(System.currentTimeMillis() - start >= 50);
+    Assert.assertTrue(buffer.offer(1, 50, TimeUnit.MILLISECONDS));
+    start = System.currentTimeMillis();
+    Assert.assertFalse(buffer.offer(2, 50, TimeUnit.MILLISECONDS));
+    Assert.assertTrue(System.currentTimeMillis() - start >= 50);
+    Assert.assertEquals(1, (int) buffer.take());
+  }
+
+  @Test(timeout = 30000)
+  public void testIdlePollDoesNotWakeUp() throws Exception {
+    final BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(1);
+    final AtomicReference<Integer> polled = new AtomicReference<>();
+    final AtomicLong polledAt = new AtomicLong();
+    Thread consumer = new Thread() {
+      @Override
+      public void run() {
+        try {
+          polled.set(buffer.poll(20, TimeUnit.SECONDS));
+          polledAt.set(System.nanoTime());
+        } catch (InterruptedException ex) {
+          // the assertions below fail
+        }
+      }
+    };
+    consumer.start();
+    ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    Thread.sleep(100);
+    long waited = threadMXBean.getThreadInfo(consumer.getId()).getWaitedCount();
+    Thread.sleep(500);
+    // polling with back off would have parked and woken up dozens of times by now
+    Assert.assertTrue(threadMXBean.getThreadInfo(consumer.getId()).getWaitedCount() - waited <= 1);
+
+    long offeredAt = System.nanoTime();
+    Assert.assertTrue(buffer.offer(1));
+    consumer.join();
+    Assert.assertEquals(1, (int) polled.get());
+    // the waiting consumer is signalled rather than finding the element at its next wake up
+    Assert.assertTrue(polledAt.get() - offeredAt < TimeUnit.SECONDS.toNanos(1));
+  }
+
+  @Test(timeout = 30000)
+  public void testFullOfferIsSignalled() throws Exception {
+    final BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(1);
+    Assert.assertTrue(buffer.offer(1));
+    Thread producer = new Thread() {
+      @Override
+      public void run() {
+        try {
+          buffer.put(2);
+        } catch (InterruptedException ex) {
+          // the assertions below fail
+        }
+      }
+    };
+    producer.start();
+    while (producer.getState() != Thread.State.WAITING) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(1, (int) buffer.poll());
+    producer.join();
+    Assert.assertEquals(2, (int) buffer.poll());
+  }
+
+  @Test(expected = InterruptedException.class)
+  public void testInterrupted() throws Exception {
+    BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(1);
+    Thread.currentThread().interrupt();
+    buffer.take();
+  }
+
+  @Test(timeout = 30000)
+  public void testConcurrentProducers() throws Exception {
+    final int producers = 4;
+    final int perProducer = 10000;
+    final BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(16);
+    final CountDownLatch start = new CountDownLatch(1);
+    final AtomicInteger errors = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      final int producer = p;
+      Thread thread = new Thread() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+            for (int i = 0; i < perProducer; i++) {
+              buffer.put(producer * perProducer + i);
+            }
+          } catch (InterruptedException ex) {
+            errors.incrementAndGet();
+          }
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    int[] lastSeen = new int[producers];
+    for (int p = 0; p < producers; p++) {
+      lastSeen[p] = -1;
+    }
+    for (int i = 0; i < producers * perProducer; i++) {
+      int value = buffer.take();
+      int producer = value / perProducer;
+      // elements of a producer come out in the order it put them in
+      Assert.assertTrue(value % perProducer > lastSeen[producer]);
+      lastSeen[producer] = value % perProducer;
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Assert.assertEquals(0, errors.get());
+    Assert.assertTrue(buffer.isEmpty());
+    for (int p = 0; p < producers; p++) {
+      Assert.assertEquals(perProducer - 1, lastSeen[p]);
+    }
+  }
+
+}
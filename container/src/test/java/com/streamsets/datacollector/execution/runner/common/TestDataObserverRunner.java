@@ -109,6 +109,45 @@ public class TestDataObserverRunner {
     Assert.assertEquals(3, meter.getCount());
   }
 
+  @Test
+  public void testHandleObserverRequestParallelEvaluation() {
+    Configuration configuration = new Configuration();
+    configuration.set(Constants.DATA_RULES_EVALUATION_THREADS_KEY, 4);
+    DataObserverRunner runner = new DataObserverRunner(PIPELINE_NAME, REVISION, metrics,
+      new AlertManager(PIPELINE_NAME, REVISION, null, metrics, runtimeInfo, new EventListenerManager()), configuration);
+    try {
+      List<DataRuleDefinition> dataRuleDefinitions = new ArrayList<>();
+      Map<String, Map<String, List<Record>>> snapshot = TestUtil.createSnapshot(LANE, ID);
+      List<Record> records = snapshot.get(LANE + "::s").get(ID);
+      for (int i = 0; i < 5; i++) {
+        String id = "rule" + i;
+        dataRuleDefinitions.add(new DataRuleDefinition(id, "myRule", LANE + "::s", 100, 5,
+          (i % 2 == 0) ? "${record:value(\"/name\")==null}" : "${record:value(\"/name\")!=null}", false,
+          "alertText", ThresholdType.COUNT, "2", 5, true, false, true));
+        snapshot.get(LANE + "::s").put(id, records);
+      }
+      Map<String, List<DataRuleDefinition>> laneToRuleDefinition = new HashMap<>();
+      laneToRuleDefinition.put(LANE + "::s", dataRuleDefinitions);
+      runner.handleConfigurationChangeRequest(new RulesConfigurationChangeRequest(
+        new RuleDefinitions(null, dataRuleDefinitions, Collections.<String>emptyList(), UUID.randomUUID()),
+        new HashSet<String>(), Collections.<String>emptySet(), laneToRuleDefinition, new HashMap<String, Integer>()));
+
+      // evaluators are reused across requests
+      for (int request = 0; request < 2; request++) {
+        runner.handleDataRulesEvaluationRequest(new DataRulesEvaluationRequest(snapshot,
+          TestUtil.createLaneToRecordSizeMap(LANE)));
+      }
+      for (int i = 0; i < 5; i++) {
+        Meter meter = MetricsConfigurator.getMeter(metrics, AlertsUtil.getUserMetricName("rule" + i));
+        Assert.assertNotNull(meter);
+        Assert.assertEquals(6, meter.getCount());
+        Assert.assertEquals(5, runner.getSampledRecords("rule" + i, 10).size());
+      }
+    } finally {
+      runner.stop();
+    }
+  }
+
   private DataRulesEvaluationRequest createProductionObserverRequest() {
     DataRulesEvaluationRequest request = new DataRulesEvaluationRequest(TestUtil.createSnapshot(LANE, ID),
       TestUtil.createLaneToRecordSizeMap(LANE));
@@ -18,9 +18,12 @@
 package com.streamsets.datacollector.execution.runner.common;
 
 import com.streamsets.datacollector.config.DataRuleDefinition;
+import com.streamsets.datacollector.config.RuleDefinitions;
 import com.streamsets.datacollector.config.ThresholdType;
 import com.streamsets.datacollector.execution.alerts.TestUtil;
 import com.streamsets.datacollector.execution.runner.common.ProductionObserver;
+import com.streamsets.datacollector.runner.production.DataRulesEvaluationRequest;
+import com.streamsets.datacollector.runner.production.RulesConfigurationChangeRequest;
 import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.pipeline.api.Record;
 
@@ -29,10 +32,14 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 public class TestProductionObserver {
 
@@ -124,4 +131,37 @@ public class TestProductionObserver {
     System.out.println("Records for rule myID4 : " + ruleIdToSampledRecordsSize.get(ID + 4));
     System.out.println("Records for rule myID5 : " + ruleIdToSampledRecordsSize.get(ID + 5));*/
   }
+
+  @Test
+  public void testDropPolicy() {
+    Configuration configuration = new Configuration();
+    configuration.set(Constants.OBSERVER_QUEUE_FULL_POLICY_KEY, ProductionObserver.QueueFullPolicy.DROP.name());
+    ProductionObserver observer = new ProductionObserver(configuration, null);
+    BlockingQueue<Object> queue = new BoundedRingBuffer<>(2);
+    observer.setObserveRequests(queue);
+
+    List<DataRuleDefinition> dataRuleDefinitions = new ArrayList<>();
+    dataRuleDefinitions.add(new DataRuleDefinition(ID, "myRule", LANE + "::s", 100 /*Sampling %*/, 5,
+      "${record:value(\"/name\")==null}", true, "alertText", ThresholdType.COUNT, "2", 5, true, false, true));
+    Map<String, List<DataRuleDefinition>> laneToRuleDefinition = new HashMap<>();
+    laneToRuleDefinition.put(LANE + "::s", dataRuleDefinitions);
+    observer.setConfiguration(new RulesConfigurationChangeRequest(new RuleDefinitions(null, dataRuleDefinitions,
+      Collections.<String>emptyList(), UUID.randomUUID()), new HashSet<String>(), Collections.<String>emptySet(),
+      laneToRuleDefinition, new HashMap<String, Integer>()));
+    observer.reconfigure();
+    Assert.assertTrue(queue.poll() instanceof RulesConfigurationChangeRequest);
+
+    Map<String, List<Record>> snapshot = new HashMap<>();
+    snapshot.put(LANE + "::s", TestUtil.createRecords(10));
+    for (int i = 0; i < 5; i++) {
+      observer.observe(null, snapshot);
+    }
+    //the queue holds 2 requests, the other 3 are dropped without blocking the pipeline
+    Assert.assertEquals(2, queue.size());
+    Assert.assertEquals(3, observer.getDroppedRequests());
+
+    DataRulesEvaluationRequest request = (DataRulesEvaluationRequest) queue.poll();
+    Assert.assertEquals(10, request.getSnapshot().get(LANE + "::s").get(ID).size());
+    Assert.assertEquals(10, (int) request.getLaneToRecordsSize().get(LANE + "::s"));
+  }
 }
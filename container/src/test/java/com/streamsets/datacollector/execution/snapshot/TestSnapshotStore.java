@@ -20,7 +20,9 @@ package com.streamsets.datacollector.execution.snapshot;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.SnapshotStore;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.datacollector.restapi.bean.SnapshotDataJson;
 import com.streamsets.datacollector.runner.ErrorSink;
 import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.util.PipelineException;
@@ -192,6 +194,74 @@ public abstract class TestSnapshotStore {
 
   }
 
+  @Test
+  public void testAppendBatchAndGetOutput() throws Exception {
+    snapshotStore.create(USER, PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID);
+    snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, createSnapshotData());
+    snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, createSnapshotData());
+
+    //in progress, data is not available yet
+    Assert.assertTrue(snapshotStore.getInfo(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).isInProgress());
+    Assert.assertNull(snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).getOutput());
+
+    snapshotStore.save(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, createSnapshotBatches(1));
+    Assert.assertFalse(snapshotStore.getInfo(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).isInProgress());
+
+    try (Snapshot snapshot = snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID)) {
+      SnapshotDataJson data = ObjectMapperFactory.get().readValue(snapshot.getOutput(), SnapshotDataJson.class);
+      List<List<StageOutput>> batches = data.getSnapshotData().getSnapshotBatches();
+      Assert.assertEquals(3, batches.size());
+      for (List<StageOutput> batch : batches) {
+        Assert.assertEquals(2, batch.size());
+        Assert.assertEquals("source", batch.get(0).getInstanceName());
+        Assert.assertEquals(2, batch.get(0).getOutput().get("lane").size());
+        Assert.assertEquals("processor", batch.get(1).getInstanceName());
+        Assert.assertEquals(1, batch.get(1).getOutput().get("lane").size());
+      }
+    }
+
+    //re-capturing with the same ID discards the previous data
+    snapshotStore.create(USER, PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID);
+    snapshotStore.save(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, createSnapshotBatches(1));
+    try (Snapshot snapshot = snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID)) {
+      SnapshotDataJson data = ObjectMapperFactory.get().readValue(snapshot.getOutput(), SnapshotDataJson.class);
+      Assert.assertEquals(1, data.getSnapshotData().getSnapshotBatches().size());
+    }
+  }
+
+  @Test
+  public void testGetStageOutputPage() throws Exception {
+    snapshotStore.create(USER, PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID);
+    snapshotStore.save(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, createSnapshotBatches(3));
+
+    try (Snapshot snapshot = snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID)) {
+      StageOutput stageOutput = snapshot.getStageOutput(2, "source", 1, 10);
+      Assert.assertNotNull(stageOutput);
+      Assert.assertEquals("source", stageOutput.getInstanceName());
+      List<Record> records = stageOutput.getOutput().get("lane");
+      Assert.assertEquals(1, records.size());
+      Assert.assertEquals("s:2", records.get(0).getHeader().getSourceId());
+
+      stageOutput = snapshot.getStageOutput(1, "processor", 0, 1);
+      Assert.assertEquals(1, stageOutput.getOutput().get("lane").size());
+      Assert.assertEquals("s:3", stageOutput.getOutput().get("lane").get(0).getHeader().getSourceId());
+
+      stageOutput = snapshot.getStageOutput(0, "source", 5, 10);
+      Assert.assertTrue(stageOutput.getOutput().get("lane").isEmpty());
+
+      Assert.assertNull(snapshot.getStageOutput(3, "source", 0, 10));
+      Assert.assertNull(snapshot.getStageOutput(0, "target", 0, 10));
+    }
+  }
+
+  private List<List<StageOutput>> createSnapshotBatches(int batches) {
+    List<List<StageOutput>> snapshotBatches = new ArrayList<>();
+    for (int i = 0; i < batches; i++) {
+      snapshotBatches.add(createSnapshotData());
+    }
+    return snapshotBatches;
+  }
+
   private List<List<StageOutput>> getSnapshotData() {
     List<List<StageOutput>> snapshotBatches = new ArrayList<>();
     snapshotBatches.add(createSnapshotData());
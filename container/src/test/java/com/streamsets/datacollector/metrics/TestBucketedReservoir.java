@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Snapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class TestBucketedReservoir {
+
+  private static class ManualClock extends Clock {
+    long tick;
+
+    @Override
+    public long getTick() {
+      return tick;
+    }
+  }
+
+  @Test
+  public void testBucketBoundaries() {
+    long previousHighest = -1;
+    for (int i = 0; i < BucketedReservoir.BUCKETS; i++) {
+      long lowest = BucketedReservoir.lowestEquivalentValue(i);
+      long highest = BucketedReservoir.highestEquivalentValue(i);
+      Assert.assertEquals(previousHighest + 1, lowest);
+      Assert.assertEquals(i, BucketedReservoir.bucketIndex(lowest));
+      Assert.assertEquals(i, BucketedReservoir.bucketIndex(highest));
+      if (lowest >= 64) {
+        // bucket width within 1/32 of its values
+        Assert.assertTrue(highest - lowest + 1 <= lowest / 32);
+      }
+      previousHighest = highest;
+    }
+    Assert.assertEquals(0, BucketedReservoir.bucketIndex(-1));
+    Assert.assertEquals(BucketedReservoir.BUCKETS - 1, BucketedReservoir.bucketIndex(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testSnapshot() {
+    BucketedReservoir reservoir = new BucketedReservoir(60, TimeUnit.SECONDS, 6, new ManualClock());
+    for (int i = 1; i <= 1000; i++) {
+      reservoir.update(i);
+    }
+    Snapshot snapshot = reservoir.getSnapshot();
+    Assert.assertEquals(1000, snapshot.size());
+    Assert.assertEquals(1, snapshot.getMin());
+    Assert.assertEquals(1000, snapshot.getMax(), 1000 / 32);
+    Assert.assertEquals(500, snapshot.getMedian(), 500 / 32);
+    Assert.assertEquals(990, snapshot.get99thPercentile(), 990 / 32);
+    Assert.assertEquals(500.5, snapshot.getMean(), 500.5 / 32);
+  }
+
+  @Test
+  public void testWindow() {
+    ManualClock clock = new ManualClock();
+    BucketedReservoir reservoir = new BucketedReservoir(60, TimeUnit.SECONDS, 6, clock);
+    reservoir.update(10);
+    clock.tick = TimeUnit.SECONDS.toNanos(30);
+    reservoir.update(20);
+    Assert.assertEquals(2, reservoir.size());
+    clock.tick = TimeUnit.SECONDS.toNanos(65);
+    Assert.assertEquals(1, reservoir.size());
+    Assert.assertEquals(20, reservoir.getSnapshot().getMin());
+    clock.tick = TimeUnit.SECONDS.toNanos(200);
+    Assert.assertEquals(0, reservoir.size());
+    reservoir.update(30);
+    Assert.assertEquals(30, reservoir.getSnapshot().getMax());
+  }
+
+  @Test
+  public void testMergeBuckets() {
+    BucketedReservoir reservoir1 = new BucketedReservoir(60, TimeUnit.SECONDS, 6, new ManualClock());
+    BucketedReservoir reservoir2 = new BucketedReservoir(60, TimeUnit.SECONDS, 6, new ManualClock());
+    BucketedReservoir all = new BucketedReservoir(60, TimeUnit.SECONDS, 6, new ManualClock());
+    for (int i = 0; i < 1000; i++) {
+      reservoir1.update(i * 7);
+      reservoir2.update(i * 1000);
+      all.update(i * 7);
+      all.update(i * 1000);
+    }
+    long[] counts = new long[BucketedReservoir.BUCKETS];
+    BucketedSnapshot.addBuckets(counts, ((BucketedSnapshot) reservoir1.getSnapshot()).getBuckets());
+    BucketedSnapshot.addBuckets(counts, ((BucketedSnapshot) reservoir2.getSnapshot()).getBuckets());
+    BucketedSnapshot merged = new BucketedSnapshot(counts);
+    BucketedSnapshot expected = (BucketedSnapshot) all.getSnapshot();
+
+    List<Long> buckets = expected.getBuckets();
+    Assert.assertEquals(buckets, merged.getBuckets());
+    Assert.assertEquals(expected.getCount(), merged.getCount());
+    Assert.assertEquals(expected.get99thPercentile(), merged.get99thPercentile(), 0);
+    Assert.assertEquals(expected.getMedian(), merged.getMedian(), 0);
+    Assert.assertEquals(buckets, BucketedSnapshot.fromBuckets(buckets).getBuckets());
+  }
+
+}
@@ -18,6 +18,9 @@
 
 package com.streamsets.datacollector.metrics;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.streamsets.datacollector.callback.CallbackInfo;
 import com.streamsets.datacollector.execution.EventListenerManager;
 import com.streamsets.datacollector.execution.PipelineStateStore;
@@ -26,9 +29,12 @@ import com.streamsets.datacollector.execution.manager.PipelineStateImpl;
 import com.streamsets.datacollector.execution.metrics.MetricsEventRunnable;
 import com.streamsets.datacollector.execution.runner.cluster.SlaveCallbackManager;
 import com.streamsets.datacollector.execution.runner.common.ThreadHealthReporter;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.restapi.bean.CounterJson;
+import com.streamsets.datacollector.restapi.bean.HistogramJson;
 import com.streamsets.datacollector.restapi.bean.MeterJson;
 import com.streamsets.datacollector.restapi.bean.MetricRegistryJson;
+import com.streamsets.datacollector.restapi.bean.TimerJson;
 import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.pipeline.api.ExecutionMode;
 import org.junit.Assert;
@@ -44,6 +50,7 @@ import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class TestMetricsAggregation {
   Collection<CallbackInfo> callbackInfoCollection;
@@ -103,6 +110,87 @@ public class TestMetricsAggregation {
     validateAggregatedResults(aggregatedMetrics);
   }
 
+  @Test
+  public void testAggregatedHistogramsAndTimers() throws Exception {
+    Collection<CallbackInfo> callbackInfos = new HashSet<>();
+    MetricRegistry all = new MetricRegistry();
+    Histogram allHistogram = MetricsConfigurator.createHistogram5Min(all, "pipeline.inputRecordsPerBatch", "a", "0");
+    Timer allTimer = MetricsConfigurator.createTimer(all, "pipeline.batchProcessing", "a", "0");
+    for (int slave = 1; slave <= 3; slave++) {
+      MetricRegistry metrics = new MetricRegistry();
+      Histogram histogram = MetricsConfigurator.createHistogram5Min(metrics, "pipeline.inputRecordsPerBatch", "a", "0");
+      Timer timer = MetricsConfigurator.createTimer(metrics, "pipeline.batchProcessing", "a", "0");
+      for (int i = 0; i < 100; i++) {
+        histogram.update(i * slave);
+        allHistogram.update(i * slave);
+        timer.update(i * slave, TimeUnit.MILLISECONDS);
+        allTimer.update(i * slave, TimeUnit.MILLISECONDS);
+      }
+      callbackInfos.add(new CallbackInfo(null, null, null, null, "worker" + slave, null, null, null, null, null,
+        ObjectMapperFactory.get().writeValueAsString(metrics)));
+    }
+    SlaveCallbackManager callbackManager = Mockito.mock(SlaveCallbackManager.class);
+    Mockito.when(callbackManager.getSlaveCallbackList()).thenReturn(callbackInfos);
+
+    MetricsEventRunnable metricsEventRunnable = new MetricsEventRunnable("a", "0", new Configuration(), pipelineStateStore
+      , Mockito.mock(ThreadHealthReporter.class), new EventListenerManager(),
+      null, callbackManager);
+    MetricRegistryJson aggregatedMetrics = metricsEventRunnable.getAggregatedMetrics();
+
+    // merging the slave buckets gives the same percentiles as a single histogram/timer with all the values
+    MetricRegistryJson expected = ObjectMapperFactory.get().readValue(ObjectMapperFactory.get().writeValueAsString(all),
+      MetricRegistryJson.class);
+    HistogramJson expectedHistogram = expected.getHistograms().get("pipeline.inputRecordsPerBatch.histogramM5");
+    HistogramJson histogram = aggregatedMetrics.getHistograms().get("pipeline.inputRecordsPerBatch.histogramM5");
+    Assert.assertEquals(300, histogram.getCount());
+    Assert.assertEquals(expectedHistogram.getBuckets(), histogram.getBuckets());
+    Assert.assertEquals(expectedHistogram.getP50(), histogram.getP50(), 0);
+    Assert.assertEquals(expectedHistogram.getP99(), histogram.getP99(), 0);
+    Assert.assertEquals(expectedHistogram.getMax(), histogram.getMax());
+
+    TimerJson expectedTimer = expected.getTimers().get("pipeline.batchProcessing.timer");
+    TimerJson timer = aggregatedMetrics.getTimers().get("pipeline.batchProcessing.timer");
+    Assert.assertEquals(300, timer.getCount());
+    Assert.assertEquals("seconds", timer.getDuration_units());
+    Assert.assertEquals(expectedTimer.getP50(), timer.getP50(), 0.000001);
+    Assert.assertEquals(expectedTimer.getP99(), timer.getP99(), 0.000001);
+    Assert.assertEquals(0.297, timer.getMax(), 0.297 / 32);
+  }
+
+  @Test
+  public void testAggregatedHistogramsMixedSlaves() throws Exception {
+    Collection<CallbackInfo> callbackInfos = new HashSet<>();
+    // older slaves, histograms without buckets
+    for (int slave = 1; slave <= 2; slave++) {
+      MetricRegistry metrics = new MetricRegistry();
+      Histogram histogram = metrics.histogram("pipeline.inputRecordsPerBatch.histogramM5");
+      for (int i = 10 * slave; i <= 100 * slave; i++) {
+        histogram.update(i);
+      }
+      callbackInfos.add(new CallbackInfo(null, null, null, null, "worker" + slave, null, null, null, null, null,
+        ObjectMapperFactory.get().writeValueAsString(metrics)));
+    }
+    MetricRegistry metrics = new MetricRegistry();
+    Histogram histogram = MetricsConfigurator.createHistogram5Min(metrics, "pipeline.inputRecordsPerBatch", "a", "0");
+    for (int i = 5; i <= 50; i++) {
+      histogram.update(i);
+    }
+    callbackInfos.add(new CallbackInfo(null, null, null, null, "worker3", null, null, null, null, null,
+      ObjectMapperFactory.get().writeValueAsString(metrics)));
+    SlaveCallbackManager callbackManager = Mockito.mock(SlaveCallbackManager.class);
+    Mockito.when(callbackManager.getSlaveCallbackList()).thenReturn(callbackInfos);
+
+    MetricsEventRunnable metricsEventRunnable = new MetricsEventRunnable("a", "0", new Configuration(), pipelineStateStore
+      , Mockito.mock(ThreadHealthReporter.class), new EventListenerManager(),
+      null, callbackManager);
+    HistogramJson aggregated =
+      metricsEventRunnable.getAggregatedMetrics().getHistograms().get("pipeline.inputRecordsPerBatch.histogramM5");
+    Assert.assertEquals(91 + 181 + 46, aggregated.getCount());
+    // lowest min and highest max of all slaves, the bucketed slave does not override the older ones
+    Assert.assertEquals(5, aggregated.getMin());
+    Assert.assertEquals(200, aggregated.getMax());
+  }
+
   private void validateAggregatedResults(MetricRegistryJson aggregatedMetrics) {
     Map<String, CounterJson> counters = aggregatedMetrics.getCounters();
     CounterJson randomSourceOutputCounter =
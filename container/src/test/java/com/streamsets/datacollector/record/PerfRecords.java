@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record;
+
+import com.streamsets.pipeline.api.Field;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Records of a typical shape, a list-map with scalar fields of the common types and a small list, shared by the
+ * performance tests so their numbers can be compared.
+ */
+public class PerfRecords {
+
+  private PerfRecords() {
+  }
+
+  public static RecordImpl createRecord(int i) {
+    RecordImpl record = new RecordImpl("stage", "source::" + i, null, null);
+    record.getHeader().setAttribute("file", "/var/log/app.log");
+    LinkedHashMap<String, Field> map = new LinkedHashMap<>();
+    map.put("id", Field.create(i));
+    map.put("timestamp", Field.createDatetime(new Date()));
+    map.put("name", Field.create("name-" + i));
+    map.put("amount", Field.create(new BigDecimal("1234.56")));
+    map.put("ratio", Field.create(0.5d));
+    map.put("active", Field.create(i % 2 == 0));
+    List<Field> tags = new ArrayList<>();
+    for (int j = 0; j < 5; j++) {
+      tags.add(Field.create("tag" + j));
+    }
+    map.put("tags", Field.create(tags));
+    record.set(Field.createListMap(map));
+    return record;
+  }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+public class TestAttributeMap {
+
+  @Test
+  public void testMapOperations() {
+    AttributeMap map = new AttributeMap();
+    Assert.assertTrue(map.isEmpty());
+    Assert.assertNull(map.put("a", "A"));
+    Assert.assertNull(map.put("b", null));
+    Assert.assertEquals("A", map.put("a", "AA"));
+    Assert.assertEquals(2, map.size());
+    Assert.assertEquals("AA", map.get("a"));
+    Assert.assertTrue(map.containsKey("b"));
+    Assert.assertNull(map.get("b"));
+    Assert.assertFalse(map.containsKey("c"));
+    Assert.assertEquals("AA", map.remove("a"));
+    Assert.assertNull(map.remove("a"));
+    Assert.assertEquals(1, map.size());
+    map.clear();
+    Assert.assertTrue(map.isEmpty());
+  }
+
+  @Test
+  public void testGrow() {
+    Map<String, Object> expected = new HashMap<>();
+    AttributeMap map = new AttributeMap();
+    for (int i = 0; i < 100; i++) {
+      map.put("k" + i, i);
+      expected.put("k" + i, i);
+    }
+    Assert.assertEquals(expected, map);
+    Assert.assertEquals(expected, new AttributeMap(expected));
+    Assert.assertEquals(expected.hashCode(), map.hashCode());
+  }
+
+  @Test
+  public void testIteratorRemove() {
+    AttributeMap map = new AttributeMap(ImmutableMap.<String, Object>of("a", "A", "b", "B", "c", "C"));
+    Iterator<Map.Entry<String, Object>> it = map.entrySet().iterator();
+    while (it.hasNext()) {
+      if (it.next().getKey().equals("b")) {
+        it.remove();
+      }
+    }
+    Assert.assertEquals(ImmutableMap.of("a", "A", "c", "C"), map);
+  }
+
+  @Test
+  public void testCopyOnWrite() {
+    AttributeMap map = new AttributeMap(ImmutableMap.<String, Object>of("a", "A", "b", "B"));
+    AttributeMap copy = map.copy();
+    Assert.assertEquals(map, copy);
+
+    copy.put("a", "X");
+    copy.remove("b");
+    Assert.assertEquals(ImmutableMap.of("a", "A", "b", "B"), map);
+    Assert.assertEquals(ImmutableMap.of("a", "X"), copy);
+
+    map.put("c", "C");
+    Assert.assertEquals(ImmutableMap.of("a", "A", "b", "B", "c", "C"), map);
+    Assert.assertEquals(ImmutableMap.of("a", "X"), copy);
+
+    AttributeMap copy2 = map.copy();
+    map.clear();
+    Assert.assertTrue(map.isEmpty());
+    Assert.assertEquals(ImmutableMap.of("a", "A", "b", "B", "c", "C"), copy2);
+  }
+
+}
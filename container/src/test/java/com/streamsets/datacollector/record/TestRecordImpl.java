@@ -120,6 +120,45 @@ public class TestRecordImpl {
     Assert.assertNotSame(clone, record);
   }
 
+  @Test
+  public void testLineage() {
+    RecordImpl record = new RecordImpl("origin", "source", null, null);
+    record.addStageToStagePath("origin");
+    record.createTrackingId();
+    Assert.assertEquals("origin", record.getHeader().getStagesPath());
+    Assert.assertEquals("source::origin", record.getHeader().getTrackingId());
+    Assert.assertNull(record.getHeader().getPreviousTrackingId());
+
+    RecordImpl clone = record.clone();
+    record.addStageToStagePath("p1");
+    record.createTrackingId();
+    clone.addStageToStagePath("p2");
+    clone.createTrackingId();
+    Assert.assertEquals("origin:p1", record.getHeader().getStagesPath());
+    Assert.assertEquals("source::origin:p1", record.getHeader().getTrackingId());
+    Assert.assertEquals("source::origin", record.getHeader().getPreviousTrackingId());
+    Assert.assertEquals("origin:p2", clone.getHeader().getStagesPath());
+    Assert.assertEquals("source::origin:p2", clone.getHeader().getTrackingId());
+    Assert.assertEquals("source::origin", clone.getHeader().getPreviousTrackingId());
+
+    // lineage built from strings and lineage built by the pipeline are equivalent
+    RecordImpl other = new RecordImpl("origin", "source", null, null);
+    other.getHeader().setStagesPath("origin:p1");
+    other.getHeader().setTrackingId("source::origin:p1");
+    other.getHeader().setPreviousTrackingId("source::origin");
+    Assert.assertEquals(other.getHeader(), record.getHeader());
+
+    // a stage path set as string can be extended
+    other.addStageToStagePath("p3");
+    Assert.assertEquals("origin:p1:p3", other.getHeader().getStagesPath());
+
+    HeaderImpl copy = record.getHeader().copyForSerialization();
+    for (Object value : copy.getAllAttributes().values()) {
+      Assert.assertTrue(value == null || value instanceof String);
+    }
+    Assert.assertEquals(record.getHeader(), copy);
+  }
+
   // tests for field-path expressions
 
   @Test
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record.io;
+
+import com.streamsets.datacollector.record.PerfRecords;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.ext.RecordReader;
+import com.streamsets.pipeline.api.ext.RecordWriter;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@Ignore
+public class TestRecordEncodingPerf {
+  private static final int RECORDS = 100000;
+  private static final int RUNS = 5;
+
+  private static Record createRecord(int i) {
+    RecordImpl record = PerfRecords.createRecord(i);
+    record.getHeader().setStagesPath("stage:processor1:processor2");
+    record.getHeader().setTrackingId("source::" + i + "::stage:processor1:processor2");
+    return record;
+  }
+
+  private void run(RecordEncoding encoding, List<Record> records) throws Exception {
+    long writeTime = 0;
+    long readTime = 0;
+    long bytes = 0;
+    for (int run = 0; run < RUNS; run++) {
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      long start = System.nanoTime();
+      RecordWriter writer = RecordWriterReaderFactory.createRecordWriter(encoding, os);
+      for (Record record : records) {
+        writer.write(record);
+      }
+      writer.close();
+      writeTime += System.nanoTime() - start;
+      bytes = os.size();
+
+      start = System.nanoTime();
+      RecordReader reader = RecordWriterReaderFactory.createRecordReader(new ByteArrayInputStream(os.toByteArray()), 0,
+                                                                         100000);
+      while (reader.readRecord() != null) {
+      }
+      reader.close();
+      readTime += System.nanoTime() - start;
+    }
+    System.out.println(String.format("%-6s bytes/record: %6.1f  write records/sec: %10.0f  read records/sec: %10.0f",
+                                     encoding, (double) bytes / records.size(),
+                                     (double) records.size() * RUNS * 1000000000 / writeTime,
+                                     (double) records.size() * RUNS * 1000000000 / readTime));
+  }
+
+  @Test
+  public void testEncodings() throws Exception {
+    List<Record> records = new ArrayList<>(RECORDS);
+    for (int i = 0; i < RECORDS; i++) {
+      records.add(createRecord(i));
+    }
+    // warm up
+    for (RecordEncoding encoding : RecordEncoding.values()) {
+      run(encoding, records.subList(0, RECORDS / 10));
+    }
+    for (RecordEncoding encoding : RecordEncoding.values()) {
+      run(encoding, records);
+    }
+  }
+
+}
@@ -23,6 +23,7 @@ import com.streamsets.datacollector.record.io.RecordEncoding;
 import com.streamsets.datacollector.record.io.RecordEncodingConstants;
 import com.streamsets.datacollector.record.io.RecordWriterReaderFactory;
 import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.ext.RecordReader;
 import com.streamsets.pipeline.api.ext.RecordWriter;
@@ -37,6 +38,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -86,6 +89,7 @@ public  class TestRecordWriterReaderFactory {
     testEncodingSelection(null, RecordEncodingConstants.JSON1_MAGIC_NUMBER);
     testEncodingSelection(RecordEncoding.JSON1.name(), RecordEncodingConstants.JSON1_MAGIC_NUMBER);
     testEncodingSelection(RecordEncoding.KRYO1.name(), RecordEncodingConstants.KRYO1_MAGIC_NUMBER);
+    testEncodingSelection(RecordEncoding.KRYO2.name(), RecordEncodingConstants.KRYO2_MAGIC_NUMBER);
   }
 
   private void testRecordWriterReader(RecordEncoding encoding) throws IOException {
@@ -195,6 +199,11 @@ public  class TestRecordWriterReaderFactory {
     testRecordWriterReader(RecordEncoding.KRYO1);
   }
 
+  @Test
+  public void testKryo2RecordWriter() throws IOException {
+    testRecordWriterReader(RecordEncoding.KRYO2);
+  }
+
   @Test
   public void testJsonRecorWithOffset() throws IOException {
     testRecordReaderWithOffset(RecordEncoding.JSON1);
@@ -205,4 +214,59 @@ public  class TestRecordWriterReaderFactory {
     testRecordReaderWithOffset(RecordEncoding.KRYO1);
   }
 
+  @Test
+  public void testKryo2RecordWithOffset() throws IOException {
+    testRecordReaderWithOffset(RecordEncoding.KRYO2);
+  }
+
+  @Test
+  public void testKryo2AllFieldTypes() throws IOException {
+    RecordImpl record = new RecordImpl("stage", "source", new byte[] { 0, 1, 2}, "mode");
+    record.getHeader().setStagesPath("stagePath");
+    record.getHeader().setTrackingId("trackingId");
+    record.getHeader().setPreviousTrackingId("previousTrackingId");
+    record.getHeader().setAttribute("attr", "value");
+    record.getHeader().setErrorContext("sdc", "pipeline");
+    record.getHeader().copyErrorFrom(new RecordImpl("stage", "source", null, null));
+    record.getHeader().setSourceRecord(new RecordImpl("stage", "source", null, null));
+    LinkedHashMap<String, Field> listMap = new LinkedHashMap<>();
+    listMap.put("boolean", Field.create(true));
+    listMap.put("char", Field.create('c'));
+    listMap.put("byte", Field.create((byte) 1));
+    listMap.put("short", Field.create((short) -2));
+    listMap.put("int", Field.create(Integer.MIN_VALUE));
+    listMap.put("long", Field.create(Long.MAX_VALUE));
+    listMap.put("float", Field.create(1.5f));
+    listMap.put("double", Field.create(-2.5d));
+    listMap.put("date", Field.createDate(new Date(1000)));
+    listMap.put("datetime", Field.createDatetime(new Date(2000)));
+    listMap.put("decimal", Field.create(new BigDecimal("-12345678901234567890.0123")));
+    listMap.put("string", Field.create("\u00e1\u00e9 string"));
+    listMap.put("bytes", Field.create(new byte[] { 3, 4}));
+    listMap.put("nullString", Field.create(Field.Type.STRING, null));
+    listMap.put("nullMap", Field.create(Field.Type.MAP, null));
+    listMap.put("list", Field.create(Arrays.asList(Field.create(1), Field.create(Field.Type.LONG, null))));
+    Map<String, Field> map = new HashMap<>();
+    map.put("a", Field.create("A"));
+    listMap.put("map", Field.create(map));
+    record.set(Field.createListMap(listMap));
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    RecordWriter writer = RecordWriterReaderFactory.createRecordWriter(RecordEncoding.KRYO2, os);
+    writer.write(record);
+    writer.close();
+
+    RecordReader reader = RecordWriterReaderFactory.createRecordReader(new ByteArrayInputStream(os.toByteArray()), 0,
+                                                                       1000);
+    Record read = reader.readRecord();
+    Assert.assertEquals(record, read);
+    Assert.assertEquals(Field.Type.DATETIME, read.get("/datetime").getType());
+    Assert.assertEquals(Field.Type.LIST_MAP, read.get().getType());
+    Assert.assertEquals(new ArrayList<>(listMap.keySet()), new ArrayList<>(read.get().getValueAsListMap().keySet()));
+    Assert.assertNull(read.get("/nullMap").getValue());
+    Assert.assertNull(((RecordImpl) read).getHeader().getSourceRecord());
+    Assert.assertNull(reader.readRecord());
+    reader.close();
+  }
+
 }
@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.restapi;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.datacollector.execution.Manager;
+import com.streamsets.datacollector.execution.Runner;
+import com.streamsets.datacollector.execution.SnapshotInfo;
+import com.streamsets.datacollector.execution.snapshot.common.SnapshotData;
+import com.streamsets.datacollector.execution.snapshot.common.SnapshotDataFile;
+import com.streamsets.datacollector.execution.snapshot.common.SnapshotImpl;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.datacollector.restapi.bean.SnapshotDataJson;
+import com.streamsets.datacollector.runner.ErrorSink;
+import com.streamsets.datacollector.runner.StageOutput;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.inject.Singleton;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
+
+import java.io.File;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class TestManagerResource extends JerseyTest {
+
+  private static final String PIPELINE_NAME = "myPipeline";
+  private static final String LEGACY_SNAPSHOT = "legacy";
+  private static final String INDEXED_SNAPSHOT = "indexed";
+
+  @Test
+  public void testGetSnapshotStageOutputLegacyFormat() {
+    testGetSnapshotStageOutput(LEGACY_SNAPSHOT);
+  }
+
+  @Test
+  public void testGetSnapshotStageOutputIndexedFormat() {
+    testGetSnapshotStageOutput(INDEXED_SNAPSHOT);
+  }
+
+  private void testGetSnapshotStageOutput(String snapshotName) {
+    Response response = getStageOutput(snapshotName, 0, 1, 1);
+    Assert.assertEquals(200, response.getStatus());
+    String stageOutput = response.readEntity(String.class);
+    Assert.assertTrue(stageOutput.contains("s:2"));
+    Assert.assertFalse(stageOutput.contains("s:1"));
+
+    Assert.assertEquals(200, getStageOutput(snapshotName, 0, -1, 1).getStatus());
+    Assert.assertEquals(200, getStageOutput(snapshotName, 0, 0, 0).getStatus());
+    Assert.assertEquals(204, getStageOutput(snapshotName, 1, 0, 1).getStatus());
+
+    // negative batch or page length are rejected for both formats
+    Assert.assertEquals(400, getStageOutput(snapshotName, -1, 0, 1).getStatus());
+    Assert.assertEquals(400, getStageOutput(snapshotName, 0, 0, -1).getStatus());
+  }
+
+  private Response getStageOutput(String snapshotName, int batch, int offset, int len) {
+    return target("/v1/pipeline/" + PIPELINE_NAME + "/snapshot/" + snapshotName + "/batch/" + batch + "/stage/source")
+      .queryParam("offset", offset).queryParam("len", len).request().get();
+  }
+
+  @Override
+  protected Application configure() {
+    return new ResourceConfig() {
+      {
+        register(new ManagerResourceConfig());
+        register(ManagerResource.class);
+      }
+    };
+  }
+
+  static class ManagerResourceConfig extends AbstractBinder {
+    @Override
+    protected void configure() {
+      bindFactory(ManagerTestInjector.class).to(Manager.class);
+      bindFactory(TestUtil.PrincipalTestInjector.class).to(Principal.class);
+    }
+  }
+
+  static class ManagerTestInjector implements Factory<Manager> {
+
+    @Singleton
+    @Override
+    public Manager provide() {
+      try {
+        File dir = new File("target", UUID.randomUUID().toString()).getAbsoluteFile();
+        Assert.assertTrue(dir.mkdirs());
+        List<StageOutput> batch = createBatch();
+
+        File legacyFile = new File(dir, "snapshot.json");
+        ObjectMapperFactory.get().writeValue(legacyFile,
+          new SnapshotDataJson(new SnapshotData(ImmutableList.of(batch))));
+
+        SnapshotDataFile snapshotDataFile = new SnapshotDataFile(new File(dir, "snapshot.data"),
+          new File(dir, "snapshot.index"));
+        snapshotDataFile.appendBatch(batch);
+
+        Runner runner = Mockito.mock(Runner.class);
+        SnapshotInfo snapshotInfo = Mockito.mock(SnapshotInfo.class);
+        Mockito.when(runner.getSnapshot(LEGACY_SNAPSHOT)).thenReturn(new SnapshotImpl(snapshotInfo, legacyFile));
+        Mockito.when(runner.getSnapshot(INDEXED_SNAPSHOT)).thenReturn(
+          new SnapshotImpl(snapshotInfo, snapshotDataFile));
+        Manager manager = Mockito.mock(Manager.class);
+        Mockito.when(manager.getRunner("nobody", PIPELINE_NAME, "0")).thenReturn(runner);
+        return manager;
+      } catch (Exception ex) {
+        throw new RuntimeException(ex);
+      }
+    }
+
+    @Override
+    public void dispose(Manager manager) {
+    }
+
+    private static List<StageOutput> createBatch() {
+      List<Record> records = new ArrayList<>();
+      for (int i = 1; i <= 3; i++) {
+        Record record = new RecordImpl("s", "s:" + i, null, null);
+        record.set(Field.create(i));
+        records.add(record);
+      }
+      Map<String, List<Record>> output = new HashMap<>();
+      output.put("lane", records);
+      List<StageOutput> batch = new ArrayList<>();
+      batch.add(new StageOutput("source", output, new ErrorSink()));
+      return batch;
+    }
+  }
+
+}
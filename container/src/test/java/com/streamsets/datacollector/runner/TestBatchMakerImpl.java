@@ -20,6 +20,7 @@ package com.streamsets.datacollector.runner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.streamsets.datacollector.config.SourceRecordRetention;
 import com.streamsets.datacollector.config.StageConfiguration;
 import com.streamsets.datacollector.config.StageDefinition;
 import com.streamsets.datacollector.config.StageType;
@@ -223,6 +224,35 @@ public class TestBatchMakerImpl {
     //Some sources could translate one event to multiple records and my go over the batch size.
   }
 
+  private Record addRecordAndGetSourceRecord(SourceRecordRetention retention) {
+    StagePipe pipe = createStagePipe(ImmutableList.of("o"));
+    BatchMakerImpl batchMaker = new BatchMakerImpl(pipe, false, Integer.MAX_VALUE, retention);
+    Record record = new RecordImpl("i", "source", null, null);
+    record.getHeader().setAttribute("r", "1");
+    record.set(Field.create(ImmutableMap.of("a", Field.create(1), "b", Field.create("b"))));
+    batchMaker.addRecord(record);
+    RecordImpl output = (RecordImpl) batchMaker.getStageOutput().get("o").get(0);
+    // the source record must not see changes done by downstream stages
+    output.set("/a", Field.create(2));
+    output.getHeader().setAttribute("r", "2");
+    return output.getHeader().getSourceRecord();
+  }
+
+  @Test
+  public void testSourceRecordRetention() {
+    for (SourceRecordRetention retention : ImmutableList.of(SourceRecordRetention.FULL,
+                                                            SourceRecordRetention.COMPACT)) {
+      Record sourceRecord = addRecordAndGetSourceRecord(retention);
+      Assert.assertNotNull(sourceRecord);
+      Assert.assertEquals("1", sourceRecord.getHeader().getAttribute("r"));
+      Assert.assertEquals("i", sourceRecord.getHeader().getStagesPath());
+      Assert.assertNotNull(sourceRecord.getHeader().getTrackingId());
+      Assert.assertEquals(1, sourceRecord.get("/a").getValueAsInteger());
+      Assert.assertEquals("b", sourceRecord.get("/b").getValueAsString());
+    }
+    Assert.assertNull(addRecordAndGetSourceRecord(SourceRecordRetention.NONE));
+  }
+
   @Test
   public void testRecordByRef() {
     StageConfiguration stageConfiguration = new StageConfiguration("i", "l", "n", 1,
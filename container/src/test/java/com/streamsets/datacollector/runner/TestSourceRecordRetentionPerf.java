@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.runner;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.datacollector.config.SourceRecordRetention;
+import com.streamsets.datacollector.config.StageConfiguration;
+import com.streamsets.datacollector.config.StageDefinition;
+import com.streamsets.datacollector.config.StageType;
+import com.streamsets.datacollector.record.PerfRecords;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.Stage;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Ignore
+public class TestSourceRecordRetentionPerf {
+  private static final int RECORDS = 100000;
+  private static final int RUNS = 5;
+
+  @SuppressWarnings("unchecked")
+  private static StagePipe createSourcePipe() {
+    StageConfiguration stageConfiguration = new StageConfiguration("i", "l", "n", 1, Collections.EMPTY_LIST,
+                                                                   Collections.EMPTY_MAP, Collections.EMPTY_LIST,
+                                                                   ImmutableList.of("o"));
+    StageDefinition stageDef = Mockito.mock(StageDefinition.class);
+    Mockito.when(stageDef.getType()).thenReturn(StageType.SOURCE);
+    Stage.Info stageInfo = Mockito.mock(Stage.Info.class);
+    Mockito.when(stageInfo.getInstanceName()).thenReturn("i");
+    StageContext context = Mockito.mock(StageContext.class);
+    Mockito.when(context.isPreview()).thenReturn(false);
+    StageRuntime stageRuntime = Mockito.mock(StageRuntime.class);
+    Mockito.when(stageRuntime.getInfo()).thenReturn(stageInfo);
+    Mockito.when(stageRuntime.getConfiguration()).thenReturn(stageConfiguration);
+    Mockito.when(stageRuntime.getDefinition()).thenReturn(stageDef);
+    Mockito.when(stageRuntime.getContext()).thenReturn(context);
+    return new StagePipe(stageRuntime, Collections.EMPTY_LIST, Collections.EMPTY_LIST);
+  }
+
+  private static long usedHeap() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private void run(SourceRecordRetention retention, StagePipe pipe, List<Record> records) {
+    long time = 0;
+    long heap = 0;
+    for (int run = 0; run < RUNS; run++) {
+      long before = usedHeap();
+      long start = System.nanoTime();
+      BatchMakerImpl batchMaker = new BatchMakerImpl(pipe, false, Integer.MAX_VALUE, retention);
+      for (Record record : records) {
+        batchMaker.addRecord(record);
+      }
+      time += System.nanoTime() - start;
+      heap += usedHeap() - before;
+      // keeps the batch reachable until the heap has been measured
+      if (batchMaker.getSize() != records.size()) {
+        throw new IllegalStateException();
+      }
+    }
+    System.out.println(String.format("%-8s retained bytes/record: %6.0f  records/sec: %10.0f", retention,
+                                     (double) heap / RUNS / records.size(),
+                                     (double) records.size() * RUNS * 1000000000 / time));
+  }
+
+  @Test
+  public void testRetention() {
+    StagePipe pipe = createSourcePipe();
+    List<Record> records = new ArrayList<>(RECORDS);
+    for (int i = 0; i < RECORDS; i++) {
+      records.add(PerfRecords.createRecord(i));
+    }
+    // warm up
+    for (SourceRecordRetention retention : SourceRecordRetention.values()) {
+      run(retention, pipe, records.subList(0, RECORDS / 10));
+    }
+    for (SourceRecordRetention retention : SourceRecordRetention.values()) {
+      run(retention, pipe, records);
+    }
+  }
+
+}
@@ -0,0 +1,226 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.runner.preview;
+
+import com.streamsets.datacollector.config.PipelineConfiguration;
+import com.streamsets.datacollector.main.RuntimeInfo;
+import com.streamsets.datacollector.runner.MockStages;
+import com.streamsets.datacollector.runner.StageOutput;
+import com.streamsets.datacollector.util.Configuration;
+import com.streamsets.pipeline.api.Batch;
+import com.streamsets.pipeline.api.BatchMaker;
+import com.streamsets.pipeline.api.Config;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.api.base.BaseSource;
+import com.streamsets.pipeline.api.base.BaseTarget;
+import com.streamsets.pipeline.api.base.SingleLaneRecordProcessor;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TestPreviewSession {
+  private Configuration configuration;
+  private RuntimeInfo runtimeInfo;
+  private CountingSource source;
+  private CountingProcessor processor;
+  private CountingTarget target;
+
+  private static class CountingSource extends BaseSource {
+    private int inits;
+    private int destroys;
+    private int produces;
+
+    @Override
+    protected List<ConfigIssue> init() {
+      inits++;
+      return super.init();
+    }
+
+    @Override
+    public void destroy() {
+      destroys++;
+    }
+
+    @Override
+    public String produce(String lastSourceOffset, int maxBatchSize, BatchMaker batchMaker) throws StageException {
+      produces++;
+      Record record = getContext().createRecord("x");
+      record.set(Field.create(produces));
+      batchMaker.addRecord(record);
+      return "1";
+    }
+  }
+
+  private static class CountingProcessor extends SingleLaneRecordProcessor {
+    private int inits;
+    private int destroys;
+
+    @Override
+    protected List<ConfigIssue> init() {
+      inits++;
+      return super.init();
+    }
+
+    @Override
+    public void destroy() {
+      destroys++;
+    }
+
+    @Override
+    protected void process(Record record, SingleLaneBatchMaker batchMaker) throws StageException {
+      record.set(Field.create(record.get().getValueAsInteger() * 10));
+      batchMaker.addRecord(record);
+    }
+  }
+
+  private static class CountingTarget extends BaseTarget {
+    private int inits;
+    private int destroys;
+
+    @Override
+    protected List<ConfigIssue> init() {
+      inits++;
+      return super.init();
+    }
+
+    @Override
+    public void destroy() {
+      destroys++;
+    }
+
+    @Override
+    public void write(Batch batch) throws StageException {
+    }
+  }
+
+  @Before
+  public void setUp() {
+    MockStages.resetStageCaptures();
+    configuration = new Configuration();
+    runtimeInfo = Mockito.mock(RuntimeInfo.class);
+    source = new CountingSource();
+    processor = new CountingProcessor();
+    target = new CountingTarget();
+    MockStages.setSourceCapture(source);
+    MockStages.setProcessorCapture(processor);
+    MockStages.setTargetCapture(target);
+  }
+
+  private PreviewSession createSession(boolean replaySource) {
+    return new PreviewSession(MockStages.createStageLibrary(), configuration, runtimeInfo, "name", "0", replaySource);
+  }
+
+  private static PipelineConfiguration createPipelineConfiguration(List<String> targetRequiredFields) {
+    PipelineConfiguration pipelineConf = MockStages.createPipelineConfigurationSourceProcessorTarget();
+    pipelineConf.getStages().get(2).setConfig(Arrays.asList(new Config("stageRequiredFields", targetRequiredFields)));
+    return pipelineConf;
+  }
+
+  private static Object getProcessorOutput(PreviewPipelineOutput output, int batch) {
+    return output.getBatchesOutput().get(batch).get(1).getOutput().get("p").get(0).get().getValue();
+  }
+
+  @Test
+  public void testRepeatedPreview() throws Exception {
+    PreviewSession session = createSession(true);
+    List<StageOutput> noOverrides = Collections.emptyList();
+
+    PreviewPipelineOutput output = session.run(createPipelineConfiguration(Collections.<String>emptyList()), null, 10,
+      1, true, noOverrides);
+    Assert.assertEquals(10, getProcessorOutput(output, 0));
+
+    // same configuration, nothing is initialized again and the source output is replayed
+    output = session.run(createPipelineConfiguration(Collections.<String>emptyList()), null, 10, 1, true, noOverrides);
+    Assert.assertEquals(10, getProcessorOutput(output, 0));
+    Assert.assertEquals(1, source.inits);
+    Assert.assertEquals(1, source.produces);
+    Assert.assertEquals(1, processor.inits);
+    Assert.assertEquals(1, target.inits);
+    Assert.assertEquals(1, session.getInitializations());
+
+    // the target configuration changed, only the target is initialized again
+    output = session.run(createPipelineConfiguration(Arrays.asList("/a")), null, 10, 1, true, noOverrides);
+    Assert.assertEquals(10, getProcessorOutput(output, 0));
+    Assert.assertEquals(1, source.inits);
+    Assert.assertEquals(1, processor.inits);
+    Assert.assertEquals(2, target.inits);
+    Assert.assertEquals(1, target.destroys);
+    Assert.assertEquals(1, session.getInitializations());
+
+    // more batches than the replayed ones, the source produces the rest
+    output = session.run(createPipelineConfiguration(Arrays.asList("/a")), null, 10, 2, true, noOverrides);
+    Assert.assertEquals(10, getProcessorOutput(output, 0));
+    Assert.assertEquals(20, getProcessorOutput(output, 1));
+    Assert.assertEquals(2, source.produces);
+
+    session.close();
+    Assert.assertEquals(1, source.destroys);
+    Assert.assertEquals(1, processor.destroys);
+    Assert.assertEquals(2, target.destroys);
+  }
+
+  @Test
+  public void testPipelineChange() throws Exception {
+    PreviewSession session = createSession(true);
+    List<StageOutput> noOverrides = Collections.emptyList();
+
+    session.run(createPipelineConfiguration(Collections.<String>emptyList()), null, 10, 1, true, noOverrides);
+
+    // removing a stage initializes the whole pipeline again
+    PipelineConfiguration pipelineConf = createPipelineConfiguration(Collections.<String>emptyList());
+    pipelineConf.getStages().remove(2);
+    PreviewPipelineOutput output = session.run(pipelineConf, null, 10, 1, true, noOverrides);
+    Assert.assertEquals(20, getProcessorOutput(output, 0));
+    Assert.assertEquals(2, session.getInitializations());
+    Assert.assertEquals(2, source.inits);
+    Assert.assertEquals(1, source.destroys);
+    Assert.assertEquals(2, source.produces);
+    session.close();
+  }
+
+  @Test
+  public void testNoReplay() throws Exception {
+    PreviewSession session = createSession(false);
+    List<StageOutput> noOverrides = Collections.emptyList();
+
+    session.run(createPipelineConfiguration(Collections.<String>emptyList()), null, 10, 1, true, noOverrides);
+    PreviewPipelineOutput output = session.run(createPipelineConfiguration(Collections.<String>emptyList()), null, 10,
+      1, true, noOverrides);
+    Assert.assertEquals(20, getProcessorOutput(output, 0));
+    Assert.assertEquals(1, source.inits);
+    Assert.assertEquals(2, source.produces);
+    session.close();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testClosedSession() throws Exception {
+    PreviewSession session = createSession(true);
+    session.close();
+    session.run(createPipelineConfiguration(Collections.<String>emptyList()), null, 10, 1, true,
+      Collections.<StageOutput>emptyList());
+  }
+
+}
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.stagelibrary;
+
+import com.streamsets.datacollector.main.RuntimeInfo;
+import com.streamsets.datacollector.util.Configuration;
+import com.streamsets.pipeline.ApplicationPackage;
+import com.streamsets.pipeline.SDCClassLoader;
+import com.streamsets.pipeline.SystemPackage;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Measures the stage libraries loading time, per library and in total, with different number of threads.
+ * <p/>
+ * If the 'stage.libraries.dir' system property points to a directory with stage libraries (a sub-directory per library
+ * with its JARs in a 'lib' sub-directory) those are used, else it uses 40 libraries with the test stages.
+ */
+@Ignore
+public class TestClassLoaderStageLibraryTaskPerf {
+  private static final int[] THREADS = {1, 2, 4, 8};
+
+  private List<ClassLoader> createClassLoaders() throws Exception {
+    List<ClassLoader> classLoaders = new ArrayList<>();
+    String libsDir = System.getProperty("stage.libraries.dir");
+    if (libsDir != null) {
+      File[] libs = new File(libsDir).listFiles();
+      if (libs != null) {
+        for (File lib : libs) {
+          List<URL> urls = new ArrayList<>();
+          File[] jars = new File(lib, "lib").listFiles();
+          if (jars != null) {
+            for (File jar : jars) {
+              urls.add(jar.toURI().toURL());
+            }
+          }
+          classLoaders.add(createClassLoader(lib.getName(), urls));
+        }
+      }
+    } else {
+      for (int i = 0; i < 40; i++) {
+        classLoaders.add(createClassLoader("library" + i, Collections.<URL>emptyList()));
+      }
+    }
+    return classLoaders;
+  }
+
+  private ClassLoader createClassLoader(String name, List<URL> urls) {
+    return new SDCClassLoader("library", name, urls, getClass().getClassLoader(), new String[0],
+                              new SystemPackage(new String[0]), new ApplicationPackage(new TreeSet<String>()), false,
+                              false);
+  }
+
+  private void run(int threads, boolean print) throws Exception {
+    // new class loaders on every run so classes are loaded again
+    List<ClassLoader> classLoaders = createClassLoaders();
+    RuntimeInfo runtimeInfo = Mockito.mock(RuntimeInfo.class);
+    Mockito.when(runtimeInfo.getStageLibraryClassLoaders()).thenReturn((List) classLoaders);
+    Configuration configuration = new Configuration();
+    configuration.set(ClassLoaderStageLibraryTask.LOAD_THREADS_KEY, threads);
+    ClassLoaderStageLibraryTask library = new ClassLoaderStageLibraryTask(runtimeInfo, configuration);
+
+    long start = System.currentTimeMillis();
+    library.initTask();
+    long time = System.currentTimeMillis() - start;
+    if (print) {
+      System.out.println(String.format("threads: %d  libraries: %d  stages: %d  total time: %d ms", threads,
+                                       classLoaders.size(), library.getStages().size(), time));
+      for (Map.Entry<String, Long> entry : library.getLibraryLoadTimes().entrySet()) {
+        System.out.println(String.format("  %-50s %6d ms", entry.getKey(), entry.getValue()));
+      }
+    }
+    library.stopTask();
+  }
+
+  @Test
+  public void testLoadStages() throws Exception {
+    // warm up
+    run(1, false);
+    for (int threads : THREADS) {
+      run(threads, true);
+    }
+  }
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.websockets;
+
+import com.codahale.metrics.MetricRegistry;
+import com.streamsets.datacollector.execution.metrics.MetricsFrameEncoder;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public class TestMetricsWebSocket {
+  private MetricRegistry metrics;
+  private MetricsFrameEncoder encoder;
+  private BlockingQueue<WebSocketMessage> queue;
+  private Session session;
+  private MetricsWebSocket webSocket;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    metrics = new MetricRegistry();
+    metrics.counter("stage.a.outputRecords.counter");
+    encoder = new MetricsFrameEncoder(ObjectMapperFactory.get());
+    queue = new ArrayBlockingQueue<>(1);
+    session = Mockito.mock(Session.class);
+    Mockito.when(session.isOpen()).thenReturn(true);
+    webSocket = new MetricsWebSocket(Mockito.mock(ListenerManager.class), queue);
+    webSocket.onWebSocketConnect(session);
+    webSocket.onWebSocketText("{\"metrics\" : [\"stage.a.*\"], \"delta\" : true}");
+  }
+
+  private String encode() throws IOException {
+    encoder.reset(metrics);
+    return encoder.encode(webSocket.getSubscription());
+  }
+
+  @Test
+  public void testDroppedFrame() throws Exception {
+    webSocket.notification(encode());
+    Assert.assertNull(encode());
+
+    // the queue is full, the frame is discarded and the next frame carries the subscribed metrics again
+    webSocket.notification("{}");
+    Assert.assertNotNull(encode());
+  }
+
+  @Test
+  public void testFailedFrame() throws Exception {
+    RemoteEndpoint remote = Mockito.mock(RemoteEndpoint.class);
+    Mockito.doThrow(new IOException()).when(remote).sendString(Mockito.anyString());
+    Mockito.when(session.getRemote()).thenReturn(remote);
+    webSocket.notification(encode());
+    Assert.assertNull(encode());
+    try {
+      queue.take().send();
+      Assert.fail();
+    } catch (IOException ex) {
+      // the frame has not been delivered, the next frame carries the subscribed metrics again
+      Assert.assertNotNull(encode());
+    }
+  }
+
+}
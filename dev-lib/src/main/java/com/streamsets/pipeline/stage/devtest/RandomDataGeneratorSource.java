@@ -162,7 +162,7 @@ public class RandomDataGeneratorSource extends BaseSource {
     public Type type;
   }
 
-  enum Type {
+  public enum Type {
     STRING,
     INTEGER,
     LONG,
@@ -173,7 +173,7 @@ public class RandomDataGeneratorSource extends BaseSource {
     BYTE_ARRAY
   }
 
-  enum RootType {
+  public enum RootType {
     MAP,
     LIST_MAP
   }
@@ -35,9 +35,10 @@ import java.util.Map;
 
 @GenerateResourceBundle
 @StageDef(
-    version = 1,
+    version = 2,
     label = "Elasticsearch",
     description = "Upload data to an Elasticsearch cluster",
+    upgrader = ElasticSearchTargetUpgrader.class,
     icon = "elasticsearch.png"
 )
 @ConfigGroups(Groups.class)
@@ -125,9 +126,46 @@ public class ElasticSearchDTarget extends DTarget {
   @ValueChooserModel(CharsetChooserValues.class)
   public String charset;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1000",
+      label = "Max Documents per Bulk Request",
+      description = "A batch is sent in several bulk requests if it has more documents",
+      displayPosition = 60,
+      group = "ELASTIC_SEARCH",
+      min = 1
+  )
+  public int maxBulkDocuments;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "5",
+      label = "Max Bulk Request Size (MB)",
+      description = "A batch is sent in several bulk requests if its documents are larger",
+      displayPosition = 70,
+      group = "ELASTIC_SEARCH",
+      min = 1
+  )
+  public int maxBulkSizeMB;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1",
+      label = "Concurrent Bulk Requests",
+      description = "Maximum number of bulk requests of a batch sent to the cluster at the same time",
+      displayPosition = 80,
+      group = "ELASTIC_SEARCH",
+      min = 1
+  )
+  public int maxConcurrentBulks;
+
   @Override
   protected Target createTarget() {
-    return new ElasticSearchTarget(clusterName, uris, configs, indexTemplate, typeTemplate, docIdTemplate, charset);
+    return new ElasticSearchTarget(clusterName, uris, configs, indexTemplate, typeTemplate, docIdTemplate, charset,
+                                   maxBulkDocuments, maxBulkSizeMB, maxConcurrentBulks);
   }
 
 }
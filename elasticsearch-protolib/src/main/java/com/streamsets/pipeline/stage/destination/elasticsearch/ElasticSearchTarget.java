@@ -33,10 +33,12 @@ import com.streamsets.pipeline.lib.generator.DataGenerator;
 import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.DataGeneratorFactoryBuilder;
 import com.streamsets.pipeline.lib.generator.DataGeneratorFormat;
+import org.elasticsearch.action.ListenableActionFuture;
 import org.elasticsearch.action.admin.cluster.health.ClusterHealthRequest;
 import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequestBuilder;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.client.transport.TransportClient;
 import org.elasticsearch.common.settings.ImmutableSettings;
@@ -44,16 +46,26 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
 import org.elasticsearch.common.transport.TransportAddress;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 public class ElasticSearchTarget extends BaseTarget {
+  private static final Logger LOG = LoggerFactory.getLogger(ElasticSearchTarget.class);
+
+  static final int DEFAULT_MAX_BULK_DOCUMENTS = 1000;
+  static final int DEFAULT_MAX_BULK_SIZE_MB = 5;
+  static final int DEFAULT_MAX_CONCURRENT_BULKS = 1;
 
   private final String clusterName;
   private final List<String> uris;
@@ -62,9 +74,19 @@ public class ElasticSearchTarget extends BaseTarget {
   private final String typeTemplate;
   private final String docIdTemplate;
   private final String charset;
+  private final int maxBulkDocuments;
+  private final long maxBulkBytes;
+  private final int maxConcurrentBulks;
 
   public ElasticSearchTarget(String clusterName, List<String> uris,
       Map<String, String> configs, String indexTemplate, String typeTemplate, String docIdTemplate, String charset) {
+    this(clusterName, uris, configs, indexTemplate, typeTemplate, docIdTemplate, charset, DEFAULT_MAX_BULK_DOCUMENTS,
+         DEFAULT_MAX_BULK_SIZE_MB, DEFAULT_MAX_CONCURRENT_BULKS);
+  }
+
+  public ElasticSearchTarget(String clusterName, List<String> uris,
+      Map<String, String> configs, String indexTemplate, String typeTemplate, String docIdTemplate, String charset,
+      int maxBulkDocuments, int maxBulkSizeMB, int maxConcurrentBulks) {
     this.clusterName = clusterName;
     this.uris = uris;
     this.configs = configs;
@@ -72,13 +94,21 @@ public class ElasticSearchTarget extends BaseTarget {
     this.typeTemplate = typeTemplate;
     this.docIdTemplate = docIdTemplate;
     this.charset = charset;
+    this.maxBulkDocuments = maxBulkDocuments;
+    this.maxBulkBytes = maxBulkSizeMB * 1024L * 1024L;
+    this.maxConcurrentBulks = maxConcurrentBulks;
   }
 
   private Date batchTime;
   private ELEval indexEval;
   private ELEval typeEval;
   private ELEval docIdEval;
+  private boolean indexBatchConstant;
+  private boolean typeBatchConstant;
+  private boolean utf8;
+  private Charset dataCharset;
   private DataGeneratorFactory generatorFactory;
+  private ByteArrayOutputStream baos;
   private Client elasticClient;
 
   private void validateEL(ELEval elEval, String elStr, String config, ErrorCode parseError, ErrorCode evalError,
@@ -101,6 +131,12 @@ public class ElasticSearchTarget extends BaseTarget {
       }
     }
   }
+
+  // a template that does not use record functions evaluates to the same value for every record of a batch
+  static boolean isBatchConstant(String template) {
+    return !template.contains(RecordEL.RECORD_EL_PREFIX + ":");
+  }
+
   @Override
   protected List<ConfigIssue> init() {
     List<ConfigIssue> issues = super.init();
@@ -115,6 +151,19 @@ public class ElasticSearchTarget extends BaseTarget {
       validateEL(typeEval, docIdTemplate, "docIdTemplate", Errors.ELASTICSEARCH_04, Errors.ELASTICSEARCH_05, issues);
     }
 
+    if (maxBulkDocuments < 1) {
+      issues.add(getContext().createConfigIssue(Groups.ELASTIC_SEARCH.name(), "maxBulkDocuments",
+                                                Errors.ELASTICSEARCH_13, maxBulkDocuments));
+    }
+    if (maxBulkBytes < 1) {
+      issues.add(getContext().createConfigIssue(Groups.ELASTIC_SEARCH.name(), "maxBulkSizeMB",
+                                                Errors.ELASTICSEARCH_13, maxBulkBytes / 1024 / 1024));
+    }
+    if (maxConcurrentBulks < 1) {
+      issues.add(getContext().createConfigIssue(Groups.ELASTIC_SEARCH.name(), "maxConcurrentBulks",
+                                                Errors.ELASTICSEARCH_13, maxConcurrentBulks));
+    }
+
     boolean clusterInfo = true;
     if (clusterName == null || clusterName.isEmpty()) {
       clusterInfo = false;
@@ -143,8 +192,14 @@ public class ElasticSearchTarget extends BaseTarget {
     }
 
     if (issues.isEmpty()) {
+      indexBatchConstant = isBatchConstant(indexTemplate);
+      typeBatchConstant = isBatchConstant(typeTemplate);
+      dataCharset = Charset.forName(charset);
+      // Elasticsearch takes raw JSON bytes as UTF-8, other charsets have to go through a String
+      utf8 = StandardCharsets.UTF_8.equals(dataCharset);
       generatorFactory = new DataGeneratorFactoryBuilder(getContext(), DataGeneratorFormat.JSON)
-          .setMode(JsonMode.MULTIPLE_OBJECTS).setCharset(Charset.forName(charset)).build();
+          .setMode(JsonMode.MULTIPLE_OBJECTS).setCharset(dataCharset).build();
+      baos = new ByteArrayOutputStream(1024);
     }
     return issues;
   }
@@ -172,6 +227,33 @@ public class ElasticSearchTarget extends BaseTarget {
     super.destroy();
   }
 
+  /**
+   * A bulk request that has been sent and the records of its items, in item order, so that failed items can be
+   * traced back to their records.
+   */
+  private static class InFlightBulk {
+    private final ListenableActionFuture<BulkResponse> response;
+    private final List<Record> records;
+
+    public InFlightBulk(ListenableActionFuture<BulkResponse> response, List<Record> records) {
+      this.response = response;
+      this.records = records;
+    }
+  }
+
+  // evaluates a batch constant template, if it cannot be evaluated it is evaluated per record to report the errors
+  private String evalForBatch(ELEval elEval, ELVars elVars, String template, boolean batchConstant) {
+    String value = null;
+    if (batchConstant) {
+      try {
+        value = elEval.eval(elVars, template, String.class);
+      } catch (ELEvalException ex) {
+        LOG.debug("Could not evaluate '{}' for the batch: {}", template, ex.toString(), ex);
+      }
+    }
+    return value;
+  }
+
   @Override
   public void write(final Batch batch) throws StageException {
     setBatchTime();
@@ -179,72 +261,116 @@ public class ElasticSearchTarget extends BaseTarget {
     TimeNowEL.setTimeNowInContext(elVars, getBatchTime());
     Iterator<Record> it = batch.getRecords();
 
-    BulkRequestBuilder bulkRequest = elasticClient.prepareBulk();
-    boolean atLeastOne = false;
+    String batchIndex = evalForBatch(indexEval, elVars, indexTemplate, indexBatchConstant);
+    String batchType = evalForBatch(typeEval, elVars, typeTemplate, typeBatchConstant);
 
+    Deque<InFlightBulk> inFlight = new ArrayDeque<>(maxConcurrentBulks);
+    BulkRequestBuilder bulkRequest = null;
     //we need to keep the records in order of appearance in case we have indexing errors
     //and error handling is TO_ERROR
-    List<Record> records = new ArrayList<>();
+    List<Record> records = null;
+    long bulkBytes = 0;
 
-    while (it.hasNext()) {
-      atLeastOne = true;
-      Record record = it.next();
+    try {
+      while (it.hasNext()) {
+        Record record = it.next();
 
-      records.add(record);
+        try {
+          RecordEL.setRecordInContext(elVars, record);
+          String index = (batchIndex != null) ? batchIndex : indexEval.eval(elVars, indexTemplate, String.class);
+          String type = (batchType != null) ? batchType : typeEval.eval(elVars, typeTemplate, String.class);
+          String id = null;
+          if (docIdTemplate != null && !docIdTemplate.isEmpty()) {
+            id = docIdEval.eval(elVars, docIdTemplate, String.class);
+          }
+          baos.reset();
+          DataGenerator generator = generatorFactory.getGenerator(baos);
+          generator.write(record);
+          generator.close();
+          IndexRequestBuilder indexRequest = elasticClient.prepareIndex(index, type, id)
+              .setContentType(XContentType.JSON);
+          if (utf8) {
+            indexRequest.setSource(baos.toByteArray());
+          } else {
+            indexRequest.setSource(new String(baos.toByteArray(), dataCharset));
+          }
+          if (bulkRequest == null) {
+            bulkRequest = elasticClient.prepareBulk();
+            records = new ArrayList<>();
+            bulkBytes = 0;
+          }
+          bulkRequest.add(indexRequest);
+          records.add(record);
+          bulkBytes += baos.size();
+        } catch (Exception ex) {
+          switch (getContext().getOnErrorRecord()) {
+            case DISCARD:
+              break;
+            case TO_ERROR:
+              getContext().toError(record, ex);
+              break;
+            case STOP_PIPELINE:
+              throw new StageException(Errors.ELASTICSEARCH_10, record.getHeader().getSourceId(), ex.toString(), ex);
+            default:
+              throw new IllegalStateException(Utils.format("It should never happen. OnError '{}'",
+                                                           getContext().getOnErrorRecord(), ex));
+          }
+        }
 
-      try {
-        RecordEL.setRecordInContext(elVars, record);
-        String index = indexEval.eval(elVars, indexTemplate, String.class);
-        String type = typeEval.eval(elVars, typeTemplate, String.class);
-        String id = null;
-        if (docIdTemplate != null && !docIdTemplate.isEmpty()) {
-          id = docIdEval.eval(elVars, docIdTemplate, String.class);
+        if (bulkRequest != null && (records.size() >= maxBulkDocuments || bulkBytes >= maxBulkBytes)) {
+          send(bulkRequest, records, inFlight);
+          bulkRequest = null;
         }
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DataGenerator generator = generatorFactory.getGenerator(baos);
-        generator.write(record);
-        generator.close();
-        String json = new String(baos.toByteArray());
-        bulkRequest.add(elasticClient.prepareIndex(index, type, id).setContentType(XContentType.JSON).setSource(json));
-      } catch (Exception ex) {
-        switch (getContext().getOnErrorRecord()) {
-          case DISCARD:
-            break;
-          case TO_ERROR:
-            getContext().toError(record, ex);
-            break;
-          case STOP_PIPELINE:
-            throw new StageException(Errors.ELASTICSEARCH_10, record.getHeader().getSourceId(), ex.toString(), ex);
-          default:
-            throw new IllegalStateException(Utils.format("It should never happen. OnError '{}'",
-                                                         getContext().getOnErrorRecord(), ex));
+      }
+      if (bulkRequest != null) {
+        send(bulkRequest, records, inFlight);
+      }
+      while (!inFlight.isEmpty()) {
+        processResponse(inFlight.removeFirst());
+      }
+    } finally {
+      // if the batch failed, wait for the bulks that are still in flight before giving up on it
+      while (!inFlight.isEmpty()) {
+        try {
+          inFlight.removeFirst().response.actionGet();
+        } catch (RuntimeException ex) {
+          LOG.warn("Bulk request failed: {}", ex.toString(), ex);
         }
       }
     }
-    if (atLeastOne) {
-      BulkResponse bulkResponse = bulkRequest.execute().actionGet();
-      if (bulkResponse.hasFailures()) {
-        switch (getContext().getOnErrorRecord()) {
-          case DISCARD:
-            break;
-          case TO_ERROR:
-            for (BulkItemResponse item : bulkResponse.getItems()) {
-              if (item.isFailed()) {
-                Record record = records.get(item.getItemId());
-                getContext().toError(record, Errors.ELASTICSEARCH_11, item.getFailureMessage());
-              }
-            }
-            break;
-          case STOP_PIPELINE:
-            String msg = bulkResponse.buildFailureMessage();
-            if (msg != null && msg.length() > 100) {
-              msg = msg.substring(0, 100) + " ...";
+  }
+
+  private void send(BulkRequestBuilder bulkRequest, List<Record> records, Deque<InFlightBulk> inFlight)
+      throws StageException {
+    while (inFlight.size() >= maxConcurrentBulks) {
+      processResponse(inFlight.removeFirst());
+    }
+    inFlight.addLast(new InFlightBulk(bulkRequest.execute(), records));
+  }
+
+  private void processResponse(InFlightBulk bulk) throws StageException {
+    BulkResponse bulkResponse = bulk.response.actionGet();
+    if (bulkResponse.hasFailures()) {
+      switch (getContext().getOnErrorRecord()) {
+        case DISCARD:
+          break;
+        case TO_ERROR:
+          for (BulkItemResponse item : bulkResponse.getItems()) {
+            if (item.isFailed()) {
+              Record record = bulk.records.get(item.getItemId());
+              getContext().toError(record, Errors.ELASTICSEARCH_11, item.getFailureMessage());
             }
-            throw new StageException(Errors.ELASTICSEARCH_12, msg);
-          default:
-            throw new IllegalStateException(Utils.format("It should never happen. OnError '{}'",
-                                                         getContext().getOnErrorRecord()));
-        }
+          }
+          break;
+        case STOP_PIPELINE:
+          String msg = bulkResponse.buildFailureMessage();
+          if (msg != null && msg.length() > 100) {
+            msg = msg.substring(0, 100) + " ...";
+          }
+          throw new StageException(Errors.ELASTICSEARCH_12, msg);
+        default:
+          throw new IllegalStateException(Utils.format("It should never happen. OnError '{}'",
+                                                       getContext().getOnErrorRecord()));
       }
     }
   }
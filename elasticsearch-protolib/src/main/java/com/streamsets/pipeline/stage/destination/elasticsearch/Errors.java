@@ -36,6 +36,7 @@ public enum Errors implements ErrorCode {
   ELASTICSEARCH_10("Could not write record '{}': {}"),
   ELASTICSEARCH_11("Could not index record '{}': {}"),
   ELASTICSEARCH_12("Could not index '{}' records: {}"),
+  ELASTICSEARCH_13("Invalid value '{}', it must be greater than zero"),
 
   ;
   private final String msg;
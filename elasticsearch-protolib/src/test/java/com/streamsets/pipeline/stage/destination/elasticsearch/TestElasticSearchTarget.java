@@ -241,6 +241,44 @@ public class TestElasticSearchTarget {
     }
   }
 
+  @Test
+  public void testBatchConstantTemplates() {
+    Assert.assertTrue(ElasticSearchTarget.isBatchConstant("index"));
+    Assert.assertTrue(ElasticSearchTarget.isBatchConstant("${time:now()}"));
+    Assert.assertFalse(ElasticSearchTarget.isBatchConstant("${record:value('/index')}"));
+  }
+
+  @Test
+  public void testWriteRecordsInSeveralBulks() throws Exception {
+    Target target = new ElasticSearchTarget(esName, ImmutableList.of("127.0.0.1:" + esPort), Collections.EMPTY_MAP,
+                                            "${record:value('/index')}", "t", "", "UTF-8", 2, 1, 2);
+    TargetRunner runner = new TargetRunner.Builder(ElasticSearchDTarget.class, target)
+        .setOnRecordError(OnRecordError.TO_ERROR).build();
+    try {
+      runner.runInit();
+      List<Record> records = new ArrayList<>();
+      for (int i = 0; i < 7; i++) {
+        Record record = RecordCreator.create();
+        // uppercase index names are rejected by Elasticsearch
+        String index = (i == 4) ? "BULKS" : "bulks";
+        record.set(Field.create(ImmutableMap.of("a", Field.create("v" + i), "index", Field.create(index))));
+        records.add(record);
+      }
+      runner.runWrite(records);
+      Assert.assertEquals(1, runner.getErrorRecords().size());
+      Assert.assertEquals("v4", runner.getErrorRecords().get(0).get("/a").getValueAsString());
+      Assert.assertTrue(runner.getErrors().isEmpty());
+
+      prepareElasticSearchServerForQueries();
+
+      SearchResponse response = esServer.client().prepareSearch("bulks").setTypes("t")
+                                        .setSearchType(SearchType.DEFAULT).execute().actionGet();
+      Assert.assertEquals(6, response.getHits().getTotalHits());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
   @Test(expected = StageException.class)
   public void testWriteRecordsOnErrorStopPipeline() throws Exception {
     Target target = createTarget();
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.elasticsearch;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.Target;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import com.streamsets.pipeline.sdk.TargetRunner;
+import org.elasticsearch.common.settings.ImmutableSettings;
+import org.elasticsearch.node.Node;
+import org.elasticsearch.node.NodeBuilder;
+import org.elasticsearch.plugins.PluginsService;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.File;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+
+@Ignore
+public class TestElasticSearchTargetPerf {
+  private static final int RECORDS = 100000;
+  private static final int BATCH_SIZE = 10000;
+
+  private static String esName = UUID.randomUUID().toString();
+  private static Node esServer;
+  private static int esPort;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    File esDir = new File("target", UUID.randomUUID().toString());
+    ServerSocket ss = new ServerSocket(0);
+    esPort = ss.getLocalPort();
+    ss.close();
+    Assert.assertTrue(esDir.mkdirs());
+    ImmutableSettings.Builder settings = ImmutableSettings.builder();
+    settings.put("cluster.name", esName);
+    settings.put("http.enabled", false);
+    settings.put("transport.tcp.port", esPort);
+    settings.put("path.conf", esDir.getAbsolutePath());
+    settings.put("path.data", esDir.getAbsolutePath());
+    settings.put("path.logs", esDir.getAbsolutePath());
+    settings.put("plugins." + PluginsService.LOAD_PLUGIN_FROM_CLASSPATH, false);
+    esServer = NodeBuilder.nodeBuilder().settings(settings.build()).build();
+    esServer.start();
+  }
+
+  @AfterClass
+  public static void cleanUp() {
+    if (esServer != null) {
+      esServer.stop();
+    }
+  }
+
+  private static List<Record> createRecords(int count) {
+    List<Record> records = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Record record = RecordCreator.create();
+      LinkedHashMap<String, Field> map = new LinkedHashMap<>();
+      map.put("id", Field.create(i));
+      map.put("name", Field.create("name-" + i));
+      map.put("description", Field.create("a not so short description of the record number " + i));
+      map.put("amount", Field.create(i * 1.5d));
+      record.set(Field.createListMap(map));
+      records.add(record);
+    }
+    return records;
+  }
+
+  private void run(String index, List<Record> records, int maxBulkDocuments, int maxConcurrentBulks)
+      throws Exception {
+    Target target = new ElasticSearchTarget(esName, ImmutableList.of("127.0.0.1:" + esPort), Collections.EMPTY_MAP,
+                                            index, "t", "", "UTF-8", maxBulkDocuments, 5, maxConcurrentBulks);
+    TargetRunner runner = new TargetRunner.Builder(ElasticSearchDTarget.class, target).build();
+    runner.runInit();
+    try {
+      long start = System.nanoTime();
+      for (int i = 0; i < records.size(); i += BATCH_SIZE) {
+        runner.runWrite(records.subList(i, Math.min(i + BATCH_SIZE, records.size())));
+      }
+      long time = System.nanoTime() - start;
+      Assert.assertTrue(runner.getErrorRecords().isEmpty());
+      System.out.println(String.format("bulk documents: %5d  concurrent bulks: %2d  records/sec: %10.0f",
+                                       maxBulkDocuments, maxConcurrentBulks,
+                                       (double) records.size() * 1000000000 / time));
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testBulkIndexing() throws Exception {
+    List<Record> records = createRecords(RECORDS);
+    // warm up
+    run("warmup", records.subList(0, RECORDS / 10), 1000, 1);
+
+    run("perf1", records, BATCH_SIZE, 1);
+    run("perf2", records, 1000, 1);
+    run("perf3", records, 1000, 2);
+    run("perf4", records, 1000, 4);
+    run("perf5", records, 500, 4);
+  }
+
+}
@@ -50,7 +50,8 @@ public enum Errors implements ErrorCode {
   HBASE_24("HBase Configuration Directory '{}' must be relative to SDC resources directory in cluster mode"),
   HBASE_25("Missing column field '{}' in record"),
   HBASE_26("Errors while writing to HBase: '{}'"),
-  HBASE_27("Missing row key field '{}' in record")
+  HBASE_27("Missing row key field '{}' in record"),
+  HBASE_28("Invalid number of concurrent writes '{}', it must be greater than zero")
   ;
   private final String msg;
 
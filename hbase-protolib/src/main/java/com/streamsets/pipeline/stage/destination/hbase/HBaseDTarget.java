@@ -32,10 +32,11 @@ import java.util.Map;
 
 @GenerateResourceBundle
 @StageDef(
-    version = 1,
+    version = 2,
     label = "HBase",
     description = "Writes data to HBase",
     icon = "hbase.png",
+    upgrader = HBaseTargetUpgrader.class,
     privateClassLoader = true
 )
 @ConfigGroups(Groups.class)
@@ -151,10 +152,22 @@ public class HBaseDTarget extends DTarget {
       group = "HBASE")
   public Map<String, String> hbaseConfigs;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "4",
+      label = "Max Concurrent Writes",
+      description = "Maximum number of regions written to at the same time",
+      displayPosition = 120,
+      group = "HBASE",
+      min = 1)
+  public int maxConcurrentWrites;
+
   @Override
   protected Target createTarget() {
     return new HBaseTarget(zookeeperQuorum, clientPort, zookeeperParentZnode, tableName, hbaseRowKey,
-        rowKeyStorageType, hbaseFieldColumnMapping, kerberosAuth, hbaseConfDir, hbaseConfigs, hbaseUser);
+        rowKeyStorageType, hbaseFieldColumnMapping, kerberosAuth, hbaseConfDir, hbaseConfigs, hbaseUser,
+        maxConcurrentWrites);
 
   }
 
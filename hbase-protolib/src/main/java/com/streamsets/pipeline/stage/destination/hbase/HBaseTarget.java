@@ -19,6 +19,7 @@
 package com.streamsets.pipeline.stage.destination.hbase;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Field.Type;
@@ -34,12 +35,16 @@ import org.apache.hadoop.fs.CommonConfigurationKeys;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.HRegionInfo;
 import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
-import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.HConnection;
+import org.apache.hadoop.hbase.client.HConnectionManager;
+import org.apache.hadoop.hbase.client.HTableInterface;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
-import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.regionserver.NoSuchColumnFamilyException;
 import org.apache.hadoop.hbase.security.User;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.security.UserGroupInformation;
@@ -51,17 +56,20 @@ import javax.security.auth.Subject;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InterruptedIOException;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.security.AccessController;
 import java.security.PrivilegedExceptionAction;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class HBaseTarget extends BaseTarget {
   private static final Logger LOG = LoggerFactory.getLogger(HBaseTarget.class);
@@ -69,6 +77,8 @@ public class HBaseTarget extends BaseTarget {
   private static final String MASTER_KERBEROS_PRINCIPAL = "hbase.master.kerberos.principal";
   private static final String REGIONSERVER_KERBEROS_PRINCIPAL = "hbase.regionserver.kerberos.principal";
   private static final String HBASE_CONF_DIR_CONFIG = "hbaseConfDir";
+  private static final String HBASE_CLIENT_WRITE_BUFFER = "hbase.client.write.buffer";
+  private static final long DEFAULT_HBASE_CLIENT_WRITE_BUFFER = 2 * 1024 * 1024;
 
   private final String zookeeperQuorum;
   private final int clientPort;
@@ -82,9 +92,14 @@ public class HBaseTarget extends BaseTarget {
   private final StorageType rowKeyStorageType;
   private final String hbaseConfDir;
   private final String hbaseUser;
+  private final int maxConcurrentWrites;
 
   private Configuration hbaseConf;
   private UserGroupInformation loginUgi;
+  private TableName hbaseTableName;
+  private HConnection connection;
+  private ExecutorService writers;
+  private long writeBufferSize;
 
   public HBaseTarget(
       String zookeeperQuorum,
@@ -97,7 +112,8 @@ public class HBaseTarget extends BaseTarget {
       boolean kerberosAuth,
       String hbaseConfDir,
       Map<String, String> hbaseConfigs,
-      String hbaseUser
+      String hbaseUser,
+      int maxConcurrentWrites
   ) {
     this.zookeeperQuorum = zookeeperQuorum;
     this.clientPort = clientPort;
@@ -110,6 +126,7 @@ public class HBaseTarget extends BaseTarget {
     this.rowKeyStorageType = rowKeyStorageType;
     this.hbaseConfDir = hbaseConfDir;
     this.hbaseUser = hbaseUser;
+    this.maxConcurrentWrites = maxConcurrentWrites;
   }
 
   @Override
@@ -131,14 +148,52 @@ public class HBaseTarget extends BaseTarget {
       checkConnectionAndTableExistence(issues, this.tableName);
     }
     validateStorageTypes(issues);
+    if (maxConcurrentWrites < 1) {
+      issues.add(getContext().createConfigIssue(Groups.HBASE.name(), "maxConcurrentWrites", Errors.HBASE_28,
+        maxConcurrentWrites));
+    }
     if (issues.isEmpty()) {
       for (HBaseFieldMappingConfig column : hbaseFieldColumnMapping) {
         columnMappings.put(column.columnName, new ColumnInfo(column.columnValue, column.columnStorageType));
       }
+      hbaseTableName = TableName.valueOf(tableName);
+      writeBufferSize = hbaseConf.getLong(HBASE_CLIENT_WRITE_BUFFER, DEFAULT_HBASE_CLIENT_WRITE_BUFFER);
+      createConnection(issues);
     }
     return issues;
   }
 
+  private void createConnection(List<ConfigIssue> issues) {
+    try {
+      connection = getUGI().doAs(new PrivilegedExceptionAction<HConnection>() {
+        @Override
+        public HConnection run() throws Exception {
+          return HConnectionManager.createConnection(hbaseConf);
+        }
+      });
+      writers = Executors.newFixedThreadPool(maxConcurrentWrites, new ThreadFactoryBuilder()
+          .setNameFormat("HBaseTarget-" + tableName + "-writer-%d").setDaemon(true).build());
+    } catch (Exception ex) {
+      LOG.warn("Received exception while connecting to cluster: ", ex);
+      issues.add(getContext().createConfigIssue(Groups.HBASE.name(), null, Errors.HBASE_06, ex.toString(), ex));
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (writers != null) {
+      writers.shutdownNow();
+    }
+    if (connection != null) {
+      try {
+        connection.close();
+      } catch (IOException ex) {
+        LOG.warn("Cannot close connection ", ex);
+      }
+    }
+    super.destroy();
+  }
+
   private Configuration getHBaseConfiguration(List<ConfigIssue> issues) {
     Configuration hbaseConf = HBaseConfiguration.create();
     if (hbaseConfDir != null && !hbaseConfDir.isEmpty()) {
@@ -380,29 +435,25 @@ public class HBaseTarget extends BaseTarget {
   }
 
   private void writeBatch(Batch batch) throws StageException {
-    HTable hTable = null;
     Iterator<Record> it = batch.getRecords();
-    Map<String, Record> rowKeyToRecord = new HashMap<>();
+    // Puts of each region, in order of appearance
+    Map<HRegionInfo, RegionWrite> regionWrites = new LinkedHashMap<>();
+    List<RegionWrite> sentWrites = new ArrayList<>();
+    long batchSize = 0;
     try {
-      hTable = new HTable(hbaseConf, tableName);
-      // Disable auto-flush to increase performance by reducing the number of RPCs.
-      // HTable is deprecated as of HBase 1.0 and replaced by Table which does not use autoFlush
-      hTable.setAutoFlushTo(false);
       while (it.hasNext()) {
         Record record = it.next();
         try {
           byte[] rowKeyBytes = getBytesForRowKey(record);
-          // Map hbase rows to sdc records.
-          rowKeyToRecord.put(Bytes.toString(rowKeyBytes), record);
           Put p = getHBasePut(record, rowKeyBytes);
-          try {
-            // HTable internally keeps a buffer, a put() will keep on buffering till the buffer
-            // limit is reached
-            // Once it hits the buffer limit or autoflush is set to true, commit will happen
-            hTable.put(p);
-          } catch (Exception ex) {
-            throw new StageException(Errors.HBASE_02, ex);
+          HRegionInfo region = connection.getRegionLocation(hbaseTableName, rowKeyBytes, false).getRegionInfo();
+          RegionWrite regionWrite = regionWrites.get(region);
+          if (regionWrite == null) {
+            regionWrite = new RegionWrite();
+            regionWrites.put(region, regionWrite);
           }
+          regionWrite.add(record, p);
+          batchSize += p.heapSize();
         } catch (OnRecordErrorException ex) {
           LOG.debug("Got exception while writing to HBase", ex);
           switch (getContext().getOnErrorRecord()) {
@@ -419,20 +470,150 @@ public class HBaseTarget extends BaseTarget {
           }
         }
       }
-      // This will flush the internal buffer
-      hTable.flushCommits();
+      long flushSize = getRegionFlushSize(batchSize, regionWrites.size(), writeBufferSize);
+      for (RegionWrite regionWrite : regionWrites.values()) {
+        // a region with more than its share of the batch gets several requests so the writers split its load
+        RegionWrite request = new RegionWrite();
+        for (int i = 0; i < regionWrite.puts.size(); i++) {
+          request.add(regionWrite.records.get(i), regionWrite.puts.get(i));
+          if (request.size >= flushSize) {
+            send(request, sentWrites);
+            request = new RegionWrite();
+          }
+        }
+        if (!request.puts.isEmpty()) {
+          send(request, sentWrites);
+        }
+      }
+    } catch (StageException ex) {
+      waitFor(sentWrites);
+      throw ex;
     } catch (Exception ex) {
-      LOG.debug("Got exception while flushing commits to HBase", ex);
+      waitFor(sentWrites);
+      LOG.debug("Got exception while writing to HBase", ex);
       throw new StageException(Errors.HBASE_02, ex);
-    } finally {
+    }
+
+    StageException stageException = null;
+    for (RegionWrite regionWrite : sentWrites) {
       try {
-        if (hTable != null) {
-          hTable.close();
+        processResult(regionWrite);
+      } catch (StageException ex) {
+        // fail the batch only after all region writes have completed
+        if (stageException == null) {
+          stageException = ex;
         }
-      } catch (IOException e) {
-        LOG.warn("Cannot close table ", e);
       }
     }
+    if (stageException != null) {
+      throw stageException;
+    }
+  }
+
+  /**
+   * Returns the size at which the puts of a region are cut into a separate request: the average size per region
+   * touched by the batch, bounded by the client write buffer size. A region with an even share of the batch is sent
+   * in one request, a region with more than its share is cut into several requests spread over the writers.
+   */
+  @VisibleForTesting
+  static long getRegionFlushSize(long batchSize, int regions, long writeBufferSize) {
+    if (regions == 0) {
+      return writeBufferSize;
+    }
+    return Math.max(1, Math.min(writeBufferSize, batchSize / regions));
+  }
+
+  private void send(RegionWrite regionWrite, List<RegionWrite> sentWrites) {
+    regionWrite.future = writers.submit(regionWrite);
+    sentWrites.add(regionWrite);
+  }
+
+  private void waitFor(List<RegionWrite> sentWrites) {
+    for (RegionWrite regionWrite : sentWrites) {
+      try {
+        regionWrite.future.get();
+      } catch (Exception ex) {
+        LOG.debug("Region write failed after the batch was aborted: {}", ex.toString(), ex);
+      }
+    }
+  }
+
+  private void processResult(RegionWrite regionWrite) throws StageException {
+    Throwable failure = null;
+    try {
+      regionWrite.future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new StageException(Errors.HBASE_02, ex);
+    } catch (ExecutionException ex) {
+      // when some of the puts failed, the results have the failure of each of them
+      if (!(ex.getCause() instanceof RetriesExhaustedWithDetailsException)) {
+        failure = ex.getCause();
+      }
+    }
+    for (int i = 0; i < regionWrite.records.size(); i++) {
+      Object result = regionWrite.results[i];
+      Throwable putFailure = (result instanceof Throwable) ? (Throwable) result : (result == null) ? failure : null;
+      if (putFailure != null) {
+        handlePutFailure(regionWrite.records.get(i), putFailure);
+      }
+    }
+  }
+
+  private void handlePutFailure(Record record, Throwable failure) throws StageException {
+    LOG.debug("Got exception while writing to HBase", failure);
+    if (failure instanceof NoSuchColumnFamilyException || !(failure instanceof Exception)) {
+      // a wrong column family fails every record, it is a configuration problem
+      throw new StageException(Errors.HBASE_02, failure);
+    }
+    switch (getContext().getOnErrorRecord()) {
+      case DISCARD:
+        break;
+      case TO_ERROR:
+        getContext().toError(record, Errors.HBASE_10, record.getHeader().getSourceId(), failure.toString());
+        break;
+      case STOP_PIPELINE:
+        throw new StageException(Errors.HBASE_10, record.getHeader().getSourceId(), failure.toString(), failure);
+      default:
+        throw new IllegalStateException(Utils.format("It should never happen. OnError '{}'", getContext()
+          .getOnErrorRecord(), failure));
+    }
+  }
+
+  /**
+   * Puts of a single region sent to HBase in one multi request from a writer thread. The records are kept in the
+   * same order as the puts so failures are mapped back to their records by index.
+   */
+  private class RegionWrite implements Callable<Void> {
+    private final List<Record> records = new ArrayList<>();
+    private final List<Put> puts = new ArrayList<>();
+    private long size;
+    private Object[] results;
+    private Future<Void> future;
+
+    private void add(Record record, Put put) {
+      records.add(record);
+      puts.add(put);
+      size += put.heapSize();
+    }
+
+    @Override
+    public Void call() throws Exception {
+      // writer threads do not inherit the Subject of the stage thread, the write runs as the HBase user again
+      return getUGI().doAs(new PrivilegedExceptionAction<Void>() {
+        @Override
+        public Void run() throws Exception {
+          results = new Object[puts.size()];
+          HTableInterface table = connection.getTable(hbaseTableName);
+          try {
+            table.batch(puts, results);
+          } finally {
+            table.close();
+          }
+          return null;
+        }
+      });
+    }
   }
 
   private byte[] getBytesForValue(Record record, ColumnInfo columnInfo) throws OnRecordErrorException, StageException {
@@ -122,6 +122,7 @@ public class TestHBaseTarget {
             .addConfiguration("hbaseConfigs", new HashMap<String, String>())
             .addConfiguration("hbaseUser", "")
             .addConfiguration("hbaseConfDir", "")
+            .addConfiguration("maxConcurrentWrites", 4)
             .addConfiguration("rowKeyStorageType", StorageType.BINARY)
             .setOnRecordError(OnRecordError.DISCARD).build();
     assertTrue(targetRunner.runValidateConfigs().isEmpty());
@@ -329,6 +330,64 @@ public class TestHBaseTarget {
 
   }
 
+  @Test(timeout=60000)
+  public void testMultipleRegions() throws Exception {
+    String splitTableName = "TestHBaseSinkSplit";
+    HTableDescriptor htd = new HTableDescriptor(TableName.valueOf(splitTableName));
+    htd.addFamily(new HColumnDescriptor(familyName));
+    byte[][] splitKeys = {Bytes.toBytes("row-025"), Bytes.toBytes("row-050"), Bytes.toBytes("row-075")};
+    utility.getHBaseAdmin().createTable(htd, splitKeys);
+    try {
+      TargetRunner targetRunner = new TargetRunner.Builder(HBaseDTarget.class)
+          .addConfiguration("zookeeperQuorum", "127.0.0.1")
+          .addConfiguration("clientPort", miniZK.getClientPort())
+          .addConfiguration("zookeeperParentZnode", "/hbase")
+          .addConfiguration("tableName", splitTableName)
+          .addConfiguration("hbaseRowKey", "[0]")
+          .addConfiguration("hbaseFieldColumnMapping",
+            ImmutableList.of(new HBaseFieldMappingConfig("cf:a", "[1]", StorageType.TEXT)))
+          .addConfiguration("kerberosAuth", false)
+          .addConfiguration("hbaseConfigs", new HashMap<String, String>())
+          .addConfiguration("hbaseUser", "")
+          .addConfiguration("hbaseConfDir", "")
+          .addConfiguration("maxConcurrentWrites", 2)
+          .addConfiguration("rowKeyStorageType", StorageType.TEXT)
+          .setOnRecordError(OnRecordError.TO_ERROR)
+          .build();
+
+      List<Record> records = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        Record record = RecordCreator.create();
+        List<Field> fields = new ArrayList<>();
+        fields.add(Field.create(String.format("row-%03d", i)));
+        fields.add(Field.create(i));
+        record.set(Field.create(fields));
+        records.add(record);
+      }
+      // missing column field, goes to error without failing the other records
+      Record record = RecordCreator.create();
+      record.set(Field.create(ImmutableList.of(Field.create("row-100"))));
+      records.add(record);
+
+      targetRunner.runInit();
+      targetRunner.runWrite(records);
+      assertEquals(1, targetRunner.getErrorRecords().size());
+      assertTrue(targetRunner.getErrors().isEmpty());
+      targetRunner.runDestroy();
+
+      HTable htable = new HTable(conf, splitTableName);
+      assertEquals(4, htable.getStartKeys().length);
+      for (int i = 0; i < 100; i++) {
+        Result r = htable.get(new Get(Bytes.toBytes(String.format("row-%03d", i))));
+        assertEquals(String.valueOf(i), Bytes.toString(r.getValue(Bytes.toBytes(familyName), Bytes.toBytes("a"))));
+      }
+      htable.close();
+    } finally {
+      utility.getHBaseAdmin().disableTable(splitTableName);
+      utility.getHBaseAdmin().deleteTable(splitTableName);
+    }
+  }
+
   @Test(timeout=60000)
   public void testCollectionTypes() throws InterruptedException, StageException, IOException {
     // first column binary, second text and last two are json string
@@ -585,7 +644,8 @@ public class TestHBaseTarget {
     @Override
     protected Target createTarget() {
       return new HBaseTarget(zookeeperQuorum, clientPort, zookeeperParentZnode, tableName, hbaseRowKey,
-        rowKeyStorageType, hbaseFieldColumnMapping, kerberosAuth, hbaseConfDir, hbaseConfigs, hbaseUser) {
+        rowKeyStorageType, hbaseFieldColumnMapping, kerberosAuth, hbaseConfDir, hbaseConfigs, hbaseUser,
+        maxConcurrentWrites) {
         @Override
         public void write(Batch batch) throws StageException {
         }
@@ -645,6 +705,7 @@ public class TestHBaseTarget {
     target.hbaseFieldColumnMapping
         .add(new HBaseFieldMappingConfig("cf:a", "[1]", StorageType.TEXT));
     target.hbaseUser = "";
+    target.maxConcurrentWrites = 4;
   }
 
   private TargetRunner buildRunner(List<HBaseFieldMappingConfig> fieldMappings,
@@ -658,6 +719,7 @@ public class TestHBaseTarget {
             .addConfiguration("hbaseFieldColumnMapping", fieldMappings)
             .addConfiguration("kerberosAuth", false)
             .addConfiguration("hbaseConfDir", "")
+            .addConfiguration("maxConcurrentWrites", 4)
             .addConfiguration("hbaseConfigs", new HashMap<String, String>())
             .addConfiguration("rowKeyStorageType", storageType).setOnRecordError(onRecordError)
             .addConfiguration("hbaseUser", hbaseUser)
@@ -697,6 +759,16 @@ public class TestHBaseTarget {
     assertEquals("50", Bytes.toString(r.getValue(Bytes.toBytes(familyName), Bytes.toBytes("d"))));
   }
 
+  @Test
+  public void testGetRegionFlushSize() {
+    Assert.assertEquals(100, HBaseTarget.getRegionFlushSize(0, 0, 100));
+    // average size per region touched by the batch
+    Assert.assertEquals(25, HBaseTarget.getRegionFlushSize(100, 4, 1000));
+    // bounded by the client write buffer size
+    Assert.assertEquals(100, HBaseTarget.getRegionFlushSize(1000, 2, 100));
+    Assert.assertEquals(1, HBaseTarget.getRegionFlushSize(2, 4, 100));
+  }
+
   @Test
   public void testRegularUser() throws Exception {
     testUser("");
@@ -726,6 +798,7 @@ public class TestHBaseTarget {
         .addConfiguration("hbaseConfigs", new HashMap<String, String>())
         .addConfiguration("hbaseUser", "")
         .addConfiguration("hbaseConfDir", dir.getAbsolutePath())
+        .addConfiguration("maxConcurrentWrites", 4)
         .addConfiguration("rowKeyStorageType", StorageType.BINARY)
       .setOnRecordError(OnRecordError.DISCARD)
       .setClusterMode(true).build();
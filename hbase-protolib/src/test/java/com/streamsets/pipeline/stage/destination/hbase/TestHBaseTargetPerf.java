@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.hbase;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import com.streamsets.pipeline.sdk.TargetRunner;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.HBaseTestingUtility;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+@Ignore
+public class TestHBaseTargetPerf {
+  private static final int RECORDS = 200000;
+  private static final int BATCH_SIZE = 10000;
+  private static final String familyName = "cf";
+
+  private static HBaseTestingUtility utility;
+  private static final Configuration conf = HBaseConfiguration.create();
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    conf.set(HConstants.ZOOKEEPER_ZNODE_PARENT, "/hbase");
+    utility = new HBaseTestingUtility(conf);
+    utility.startMiniCluster(4);
+  }
+
+  @AfterClass
+  public static void tearDown() throws Exception {
+    utility.shutdownMiniCluster();
+  }
+
+  private static String rowKey(int i) {
+    // spreads consecutive records over all the regions
+    return String.format("%08d", i * 2654435761L % 100000000);
+  }
+
+  private static List<Record> createRecords() {
+    List<Record> records = new ArrayList<>(RECORDS);
+    for (int i = 0; i < RECORDS; i++) {
+      Record record = RecordCreator.create();
+      List<Field> fields = new ArrayList<>();
+      fields.add(Field.create(rowKey(i)));
+      fields.add(Field.create(i));
+      fields.add(Field.create("value-" + i));
+      fields.add(Field.create(i * 1.5d));
+      record.set(Field.create(fields));
+      records.add(record);
+    }
+    return records;
+  }
+
+  private String createTable(int regions) throws Exception {
+    String tableName = "TestHBaseTargetPerf" + regions;
+    HTableDescriptor htd = new HTableDescriptor(TableName.valueOf(tableName));
+    htd.addFamily(new HColumnDescriptor(familyName));
+    if (regions == 1) {
+      utility.getHBaseAdmin().createTable(htd);
+    } else {
+      byte[][] splitKeys = new byte[regions - 1][];
+      for (int i = 1; i < regions; i++) {
+        splitKeys[i - 1] = Bytes.toBytes(String.format("%08d", (int) (100000000L * i / regions)));
+      }
+      utility.getHBaseAdmin().createTable(htd, splitKeys);
+    }
+    return tableName;
+  }
+
+  private void run(List<Record> records, int regions, int maxConcurrentWrites) throws Exception {
+    String tableName = createTable(regions);
+    TargetRunner targetRunner = new TargetRunner.Builder(HBaseDTarget.class)
+        .addConfiguration("zookeeperQuorum", "127.0.0.1")
+        .addConfiguration("clientPort", utility.getZkCluster().getClientPort())
+        .addConfiguration("zookeeperParentZnode", "/hbase")
+        .addConfiguration("tableName", tableName)
+        .addConfiguration("hbaseRowKey", "[0]")
+        .addConfiguration("hbaseFieldColumnMapping", ImmutableList.of(
+            new HBaseFieldMappingConfig("cf:a", "[1]", StorageType.BINARY),
+            new HBaseFieldMappingConfig("cf:b", "[2]", StorageType.TEXT),
+            new HBaseFieldMappingConfig("cf:c", "[3]", StorageType.BINARY)))
+        .addConfiguration("kerberosAuth", false)
+        .addConfiguration("hbaseConfigs", new HashMap<String, String>())
+        .addConfiguration("hbaseUser", "")
+        .addConfiguration("hbaseConfDir", "")
+        .addConfiguration("maxConcurrentWrites", maxConcurrentWrites)
+        .addConfiguration("rowKeyStorageType", StorageType.TEXT)
+        .setOnRecordError(OnRecordError.STOP_PIPELINE)
+        .build();
+    targetRunner.runInit();
+    try {
+      long start = System.nanoTime();
+      for (int i = 0; i < records.size(); i += BATCH_SIZE) {
+        targetRunner.runWrite(records.subList(i, Math.min(i + BATCH_SIZE, records.size())));
+      }
+      long time = System.nanoTime() - start;
+      Assert.assertTrue(targetRunner.getErrorRecords().isEmpty());
+      System.out.println(String.format("regions: %2d  concurrent writes: %2d  records/sec: %10.0f", regions,
+                                       maxConcurrentWrites, (double) records.size() * 1000000000 / time));
+    } finally {
+      targetRunner.runDestroy();
+      utility.deleteTable(TableName.valueOf(tableName));
+    }
+  }
+
+  @Test
+  public void testRegionScaling() throws Exception {
+    List<Record> records = createRecords();
+    // warm up
+    run(records.subList(0, RECORDS / 10), 4, 4);
+
+    run(records, 1, 1);
+    run(records, 4, 1);
+    run(records, 4, 4);
+    run(records, 8, 4);
+    run(records, 8, 8);
+  }
+
+}
@@ -62,9 +62,13 @@ abstract public class JdbcBaseRecordWriter implements JdbcRecordWriter {
     createCustomFieldMappings();
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public void destroy() {
+  }
+
   protected void createDefaultFieldMappings() throws StageException {
-    try {
-      Connection connection = dataSource.getConnection();
+    try (Connection connection = dataSource.getConnection()) {
       ResultSet columns = JdbcUtil.getColumnMetadata(connection, tableName);
       while (columns.next()) {
         String columnName = columns.getString(4);
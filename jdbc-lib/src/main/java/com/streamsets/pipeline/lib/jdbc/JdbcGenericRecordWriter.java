@@ -17,7 +17,6 @@
  */
 package com.streamsets.pipeline.lib.jdbc;
 
-import com.google.common.base.Strings;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
@@ -35,18 +34,38 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.SortedSet;
-import java.util.TreeMap;
+import java.util.Set;
 import java.util.TreeSet;
 
 public class JdbcGenericRecordWriter extends JdbcBaseRecordWriter {
   private static final Logger LOG = LoggerFactory.getLogger(JdbcGenericRecordWriter.class);
 
+  // Keeps multi-row inserts under the bind parameter limit of the most restrictive databases (SQL Server: 2100)
+  static final int MAX_MULTI_ROW_PARAMETERS = 2000;
+  // Statements are cached per set of columns present in the records (and number of rows), the least recently used
+  // ones are closed beyond this to avoid an unbounded cache for records with very heterogeneous shapes
+  static final int MAX_CACHED_STATEMENTS = 100;
+  private static final int CONNECTION_VALIDATION_TIMEOUT_SECS = 5;
+  private static final long CONNECTION_IDLE_CHECK_MILLIS = 30000;
+
+  private final boolean useMultiRowInsert;
+
+  // Column binding plan, computed once: column i is bound from the field at fieldPaths[i] using parameters[i]
+  private final List<String> columns;
+  private final String[] fieldPaths;
+
+  private Connection connection;
+  private PreparedStatementMap statements;
+  private long lastUsed;
+
   /**
    * Class constructor
    * @param connectionString database connection string
@@ -62,92 +81,238 @@ public class JdbcGenericRecordWriter extends JdbcBaseRecordWriter {
       String tableName,
       boolean rollbackOnError,
       List<JdbcFieldMappingConfig> customMappings) throws StageException {
+    this(connectionString, dataSource, tableName, rollbackOnError, customMappings, false);
+  }
+
+  /**
+   * Class constructor
+   * @param connectionString database connection string
+   * @param dataSource a JDBC {@link javax.sql.DataSource} to get a connection from
+   * @param tableName the name of the table to write to
+   * @param rollbackOnError whether to attempt rollback of failed queries
+   * @param customMappings any custom mappings the user provided
+   * @param useMultiRowInsert whether to insert records with the same fields using multi-row INSERT statements
+   * @throws StageException
+   */
+  public JdbcGenericRecordWriter(
+      String connectionString,
+      DataSource dataSource,
+      String tableName,
+      boolean rollbackOnError,
+      List<JdbcFieldMappingConfig> customMappings,
+      boolean useMultiRowInsert) throws StageException {
     super(connectionString, dataSource, tableName, rollbackOnError, customMappings);
+    this.useMultiRowInsert = useMultiRowInsert;
+    columns = new ArrayList<>(new TreeSet<>(getColumnsToFields().keySet()));
+    fieldPaths = new String[columns.size()];
+    for (int i = 0; i < columns.size(); i++) {
+      fieldPaths[i] = getColumnsToFields().get(columns.get(i));
+    }
   }
 
   /** {@inheritDoc} */
-  @SuppressWarnings("unchecked")
   @Override
   public List<OnRecordErrorException> writeBatch(Batch batch) throws StageException {
     List<OnRecordErrorException> errorRecords = new LinkedList<>();
-    Connection connection = null;
+    boolean fatal = true;
     try {
+      Connection connection = getConnection();
+      if (useMultiRowInsert) {
+        writeMultiRow(connection, batch, errorRecords);
+      } else {
+        write(connection, batch, errorRecords);
+      }
+      connection.commit();
+      fatal = false;
+    } catch (SQLException e) {
+      handleSqlException(e);
+    } finally {
+      lastUsed = System.currentTimeMillis();
+      if (fatal) {
+        // the connection may be unusable, start over with a new one on the next batch
+        closeConnection();
+      }
+    }
+    return errorRecords;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void destroy() {
+    closeConnection();
+  }
+
+  private Connection getConnection() throws SQLException {
+    if (connection != null && System.currentTimeMillis() - lastUsed > CONNECTION_IDLE_CHECK_MILLIS &&
+        !connection.isValid(CONNECTION_VALIDATION_TIMEOUT_SECS)) {
+      LOG.debug("Connection is not valid anymore, getting a new one");
+      closeConnection();
+    }
+    if (connection == null) {
       connection = getDataSource().getConnection();
+      statements = new PreparedStatementMap(connection, getTableName(), columns, getParameters());
+    } else {
+      statements.evict(MAX_CACHED_STATEMENTS);
+    }
+    return connection;
+  }
 
-      PreparedStatementMap statementsForBatch = new PreparedStatementMap(connection, getTableName());
+  private List<String> getParameters() {
+    List<String> parameters = new ArrayList<>(columns.size());
+    for (String column : columns) {
+      parameters.add(getColumnsToParameters().get(column));
+    }
+    return parameters;
+  }
 
-      // The batch holding the current batch to INSERT.
-      Iterator<Record> recordIterator = batch.getRecords();
+  private void closeConnection() {
+    if (statements != null) {
+      statements.close();
+      statements = null;
+    }
+    if (connection != null) {
+      try {
+        connection.close();
+      } catch (SQLException e) {
+        LOG.debug("Error closing connection: {}", JdbcUtil.formatSqlException(e), e);
+      }
+      connection = null;
+    }
+  }
 
-      while (recordIterator.hasNext()) {
-        Record record = recordIterator.next();
+  /**
+   * Gets the fields of the record mapped to columns, returns the set of columns present in the record.
+   */
+  private BitSet getFields(Record record, Field[] fields, BitSet columnSet) {
+    columnSet.clear();
+    for (int i = 0; i < fieldPaths.length; i++) {
+      fields[i] = record.get(fieldPaths[i]);
+      if (fields[i] != null) {
+        columnSet.set(i);
+      }
+    }
+    return columnSet;
+  }
 
-        Map<String, String> parameters = getColumnsToParameters();
-        SortedMap<String, String> columnsToParameters = new TreeMap<>();
-        for (Map.Entry<String, String> entry : getColumnsToFields().entrySet()) {
-          String columnName = entry.getKey();
-          String fieldPath = entry.getValue();
+  private void write(Connection connection, Batch batch, List<OnRecordErrorException> errorRecords)
+      throws SQLException, StageException {
+    Set<PreparedStatement> statementsForBatch = new LinkedHashSet<>();
+    Field[] fields = new Field[columns.size()];
+    BitSet columnSet = new BitSet(columns.size());
 
-          if (record.has(fieldPath)) {
-            columnsToParameters.put(columnName, parameters.get(columnName));
-          }
-        }
-        PreparedStatement statement = statementsForBatch.getInsertFor(columnsToParameters);
-
-        int i = 1;
-        for (String column : columnsToParameters.keySet()) {
-
-          Field field = record.get(getColumnsToFields().get(column));
-          Field.Type fieldType = field.getType();
-          Object value = field.getValue();
-
-          switch (fieldType) {
-            case LIST:
-              List<Object> unpackedList = new ArrayList<>();
-              for (Field item : (List<Field>) value) {
-                unpackedList.add(item.getValue());
-              }
-              Array array = connection.createArrayOf(getSQLTypeName(fieldType), unpackedList.toArray());
-              statement.setArray(i, array);
-              break;
-            case DATE:
-            case DATETIME:
-              // Java Date types are not accepted by JDBC drivers, so we need to convert ot java.sql.Date
-              java.util.Date date = field.getValueAsDate();
-              statement.setObject(i, new java.sql.Date(date.getTime()));
-              break;
-            default:
-              statement.setObject(i, value);
-              break;
-          }
-          ++i;
+    Iterator<Record> recordIterator = batch.getRecords();
+    while (recordIterator.hasNext()) {
+      Record record = recordIterator.next();
+      PreparedStatement statement = statements.getInsertFor(getFields(record, fields, columnSet));
+      setParameters(connection, statement, 1, fields, columnSet);
+      statement.addBatch();
+      statementsForBatch.add(statement);
+    }
+
+    for (PreparedStatement statement : statementsForBatch) {
+      try {
+        statement.executeBatch();
+      } catch (SQLException e) {
+        statement.clearBatch();
+        if (getRollbackOnError()) {
+          connection.rollback();
         }
-        statement.addBatch();
+        handleBatchUpdateException(batch.getRecords(), e, errorRecords);
+      }
+    }
+  }
+
+  private void writeMultiRow(Connection connection, Batch batch, List<OnRecordErrorException> errorRecords)
+      throws SQLException, StageException {
+    // group the records by set of columns, keeping their order
+    Map<BitSet, List<Record>> recordsByColumns = new LinkedHashMap<>();
+    Map<BitSet, List<Field[]>> fieldsByColumns = new HashMap<>();
+    BitSet columnSet = new BitSet(columns.size());
+    Iterator<Record> recordIterator = batch.getRecords();
+    while (recordIterator.hasNext()) {
+      Record record = recordIterator.next();
+      Field[] fields = new Field[columns.size()];
+      getFields(record, fields, columnSet);
+      List<Record> records = recordsByColumns.get(columnSet);
+      if (records == null) {
+        BitSet key = (BitSet) columnSet.clone();
+        records = new ArrayList<>();
+        recordsByColumns.put(key, records);
+        fieldsByColumns.put(key, new ArrayList<Field[]>());
       }
+      records.add(record);
+      fieldsByColumns.get(columnSet).add(fields);
+    }
 
-      for (PreparedStatement statement : statementsForBatch.getStatements()) {
+    for (Map.Entry<BitSet, List<Record>> entry : recordsByColumns.entrySet()) {
+      BitSet recordColumns = entry.getKey();
+      List<Record> records = entry.getValue();
+      List<Field[]> fields = fieldsByColumns.get(recordColumns);
+      int maxRows = Math.max(1, MAX_MULTI_ROW_PARAMETERS / Math.max(1, recordColumns.cardinality()));
+      int rows;
+      for (int start = 0; start < records.size(); start += rows) {
+        rows = getStatementRows(maxRows, records.size() - start);
+        PreparedStatement statement = statements.getInsertFor(recordColumns, rows);
+        int parameter = 1;
+        for (int row = start; row < start + rows; row++) {
+          parameter = setParameters(connection, statement, parameter, fields.get(row), recordColumns);
+        }
         try {
-          statement.executeBatch();
+          statement.executeUpdate();
         } catch (SQLException e) {
           if (getRollbackOnError()) {
             connection.rollback();
+            handleBatchUpdateException(batch.getRecords(), e, errorRecords);
+            return;
           }
-          handleBatchUpdateException(batch, e, errorRecords);
+          handleBatchUpdateException(records.subList(start, start + rows).iterator(), e, errorRecords);
         }
       }
-      connection.commit();
-    } catch (SQLException e) {
-      handleSqlException(e);
-    } finally {
-      if (connection != null) {
-        try {
-          connection.close();
-        } catch (SQLException e) {
-          handleSqlException(e);
-        }
+    }
+  }
+
+  /**
+   * Statements have a power of two number of rows, up to the given maximum, so there are only a few statements per
+   * set of columns whatever the batch sizes are. The remaining rows go to the following statements.
+   */
+  static int getStatementRows(int maxRows, int remainingRows) {
+    return Integer.highestOneBit(Math.min(maxRows, remainingRows));
+  }
+
+  /**
+   * Sets the fields of the given columns as statement parameters, starting at the given parameter index.
+   * Returns the index of the next parameter.
+   */
+  @SuppressWarnings("unchecked")
+  private int setParameters(Connection connection, PreparedStatement statement, int parameter, Field[] fields,
+      BitSet columnSet) throws SQLException, StageException {
+    for (int column = columnSet.nextSetBit(0); column >= 0; column = columnSet.nextSetBit(column + 1)) {
+      Field field = fields[column];
+      Field.Type fieldType = field.getType();
+      Object value = field.getValue();
+
+      switch (fieldType) {
+        case LIST:
+          List<Object> unpackedList = new ArrayList<>();
+          for (Field item : (List<Field>) value) {
+            unpackedList.add(item.getValue());
+          }
+          Array array = connection.createArrayOf(getSQLTypeName(fieldType), unpackedList.toArray());
+          statement.setArray(parameter, array);
+          break;
+        case DATE:
+        case DATETIME:
+          // Java Date types are not accepted by JDBC drivers, so we need to convert ot java.sql.Date
+          java.util.Date date = field.getValueAsDate();
+          statement.setObject(parameter, new java.sql.Date(date.getTime()));
+          break;
+        default:
+          statement.setObject(parameter, value);
+          break;
       }
+      ++parameter;
     }
-    return errorRecords;
+    return parameter;
   }
 
   /**
@@ -171,12 +336,12 @@ public class JdbcGenericRecordWriter extends JdbcBaseRecordWriter {
    *   In the case that we have a list of update counts, we can mark just the record as erroneous.
    *   Otherwise we must send the entire batch to error.
    * </p>
-   * @param batch Current batch
+   * @param failedRecords Records of the failed statement
    * @param e BatchUpdateException
    * @param errorRecords List of error records for this batch
    */
   private void handleBatchUpdateException(
-      Batch batch,
+      Iterator<Record> failedRecords,
       SQLException e,
       List<OnRecordErrorException> errorRecords
   ) throws StageException {
@@ -185,7 +350,6 @@ public class JdbcGenericRecordWriter extends JdbcBaseRecordWriter {
       LOG.error(formattedError);
       LOG.debug(formattedError, e);
 
-      Iterator<Record> failedRecords = batch.getRecords();
       if (!getRollbackOnError() && e instanceof BatchUpdateException &&
           ((BatchUpdateException) e).getUpdateCounts().length > 0) {
         BatchUpdateException bue = (BatchUpdateException) e;
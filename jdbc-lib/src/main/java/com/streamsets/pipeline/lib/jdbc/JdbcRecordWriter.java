@@ -36,4 +36,9 @@ public interface JdbcRecordWriter {
    * @throws StageException
    */
   List<OnRecordErrorException> writeBatch(Batch batch) throws StageException;
+
+  /**
+   * Releases any resource (connections, prepared statements) kept by the writer between batches.
+   */
+  void destroy();
 }
@@ -225,4 +225,9 @@ public class MicrosoftJdbcRecordWriter implements JdbcRecordWriter {
 
     return mappings;
   }
+
+  /** {@inheritDoc} */
+  @Override
+  public void destroy() {
+  }
 }
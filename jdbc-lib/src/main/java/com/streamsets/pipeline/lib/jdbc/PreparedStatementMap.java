@@ -17,54 +17,141 @@
  */
 package com.streamsets.pipeline.lib.jdbc;
 
-import com.google.common.base.Joiner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.SortedSet;
 
+/**
+ * INSERT statements of a table, one per set of columns (and number of rows for multi-row inserts). The statements
+ * are kept prepared for as long as the connection is used, the least recently used ones are closed by
+ * {@link #evict(int)}.
+ */
 class PreparedStatementMap {
+  private static final Logger LOG = LoggerFactory.getLogger(PreparedStatementMap.class);
+
   private final Connection connection;
   private final String tableName;
-  private final Map<SortedMap<String, String>, PreparedStatement> cache = new HashMap<>();
+  private final List<String> columns;
+  private final List<String> parameters;
+  private final Map<Key, PreparedStatement> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+  private static final class Key {
+    private final BitSet columns;
+    private final int rows;
+
+    Key(BitSet columns, int rows) {
+      this.columns = columns;
+      this.rows = rows;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return rows == key.rows && columns.equals(key.columns);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * columns.hashCode() + rows;
+    }
+  }
 
-  public PreparedStatementMap(Connection connection, String tableName) {
+  /**
+   * @param connection connection to prepare the statements with
+   * @param tableName the name of the table to insert into
+   * @param columns all the columns of the table, the column sets used to get statements are indexes in this list
+   * @param parameters the parameter of each column, usually <code>?</code>
+   */
+  public PreparedStatementMap(Connection connection, String tableName, List<String> columns, List<String> parameters) {
     this.connection = connection;
     this.tableName = tableName;
+    this.columns = columns;
+    this.parameters = parameters;
   }
 
-  public PreparedStatement getInsertFor(SortedMap<String, String> columns) throws SQLException {
-    // The INSERT query we're going to perform (parameterized).
-    if (cache.containsKey(columns)) {
-      return cache.get(columns);
-    } else {
-      String query = String.format(
-          "INSERT INTO %s (%s) VALUES (%s)",
-          tableName,
-          // keySet and values will both return the same ordering, due to using a SortedMap
-          Joiner.on(", ").join(columns.keySet()),
-          Joiner.on(", ").join(columns.values())
-      );
-      PreparedStatement statement = connection.prepareStatement(query);
-      cache.put(columns, statement);
-      return statement;
+  public PreparedStatement getInsertFor(BitSet columnSet) throws SQLException {
+    return getInsertFor(columnSet, 1);
+  }
+
+  public PreparedStatement getInsertFor(BitSet columnSet, int rows) throws SQLException {
+    Key key = new Key(columnSet, rows);
+    PreparedStatement statement = cache.get(key);
+    if (statement == null) {
+      statement = connection.prepareStatement(createInsertQuery(columnSet, rows));
+      // the column set may be reused by the caller
+      cache.put(new Key((BitSet) columnSet.clone(), rows), statement);
     }
+    return statement;
+  }
+
+  // INSERT INTO <table> (<column>, ...) VALUES (<parameter>, ...)[, (<parameter>, ...)]*
+  private String createInsertQuery(BitSet columnSet, int rows) {
+    StringBuilder names = new StringBuilder();
+    StringBuilder values = new StringBuilder("(");
+    for (int i = columnSet.nextSetBit(0); i >= 0; i = columnSet.nextSetBit(i + 1)) {
+      if (names.length() > 0) {
+        names.append(", ");
+        values.append(", ");
+      }
+      names.append(columns.get(i));
+      values.append(parameters.get(i));
+    }
+    values.append(")");
+    StringBuilder query = new StringBuilder("INSERT INTO ").append(tableName).append(" (").append(names)
+        .append(") VALUES ").append(values);
+    for (int row = 1; row < rows; row++) {
+      query.append(", ").append(values);
+    }
+    return query.toString();
+  }
+
+  public int size() {
+    return cache.size();
   }
 
   public final Collection<PreparedStatement> getStatements() {
     return cache.values();
   }
 
-  public void executeStatements() throws SQLException {
-    for (PreparedStatement statement : cache.values()) {
-      statement.executeBatch();
+  /**
+   * Closes the least recently used statements to keep at most the given number of statements. Statements may have
+   * pending batches while a batch is written, this must be called between batches only.
+   */
+  public void evict(int maxStatements) {
+    Iterator<PreparedStatement> iterator = cache.values().iterator();
+    while (cache.size() > maxStatements && iterator.hasNext()) {
+      close(iterator.next());
+      iterator.remove();
+    }
+  }
+
+  private static void close(PreparedStatement statement) {
+    try {
       statement.close();
+    } catch (SQLException e) {
+      LOG.debug("Error closing statement: {}", e.toString(), e);
+    }
+  }
+
+  public void close() {
+    for (PreparedStatement statement : cache.values()) {
+      close(statement);
     }
+    cache.clear();
   }
-}
\ No newline at end of file
+}
@@ -32,7 +32,7 @@ import java.util.Map;
 
 @GenerateResourceBundle
 @StageDef(
-    version = 2,
+    version = 3,
     label = "JDBC Producer",
     description = "Writes data to a JDBC destination.",
     upgrader = JdbcTargetUpgrader.class,
@@ -143,6 +143,18 @@ public class JdbcDTarget extends DTarget {
   )
   public boolean rollbackOnError;
 
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.BOOLEAN,
+      defaultValue = "false",
+      label = "Use Multi-Row Insert",
+      description = "Inserts records with the same fields using multi-row INSERT statements instead of JDBC batches. " +
+          "Faster with many databases, but a failed statement sends all of its records to error.",
+      displayPosition = 60,
+      group = "JDBC"
+  )
+  public boolean useMultiRowInsert;
+
   @ConfigDef(
       required = false,
       type = ConfigDef.Type.STRING,
@@ -173,6 +185,7 @@ public class JdbcDTarget extends DTarget {
         tableName,
         columnNames,
         rollbackOnError,
+        useMultiRowInsert,
         driverProperties,
         changeLogFormat,
         driverClassName,
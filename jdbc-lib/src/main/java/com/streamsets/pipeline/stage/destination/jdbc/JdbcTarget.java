@@ -57,6 +57,7 @@ public class JdbcTarget extends BaseTarget {
   private final String username;
   private final String password;
   private final boolean rollbackOnError;
+  private final boolean useMultiRowInsert;
 
   private final String tableName;
   private final List<JdbcFieldMappingConfig> customMappings;
@@ -78,6 +79,7 @@ public class JdbcTarget extends BaseTarget {
       final String tableName,
       final List<JdbcFieldMappingConfig> customMappings,
       final boolean rollbackOnError,
+      final boolean useMultiRowInsert,
       final Map<String, String> driverProperties,
       final ChangeLogFormat changeLogFormat,
       final String driverClassName,
@@ -89,6 +91,7 @@ public class JdbcTarget extends BaseTarget {
     this.tableName = tableName;
     this.customMappings = customMappings;
     this.rollbackOnError = rollbackOnError;
+    this.useMultiRowInsert = useMultiRowInsert;
     if (driverProperties != null) {
       this.driverProperties.putAll(driverProperties);
     }
@@ -125,6 +128,10 @@ public class JdbcTarget extends BaseTarget {
   public void destroy() {
     closeQuietly(connection);
 
+    if (null != recordWriter) {
+      recordWriter.destroy();
+    }
+
     if (null != dataSource) {
       dataSource.close();
     }
@@ -142,7 +149,14 @@ public class JdbcTarget extends BaseTarget {
   private void createRecordWriter() throws StageException {
     switch (changeLogFormat) {
       case NONE:
-        recordWriter = new JdbcGenericRecordWriter(connectionString, dataSource, tableName, rollbackOnError, customMappings);
+        recordWriter = new JdbcGenericRecordWriter(
+            connectionString,
+            dataSource,
+            tableName,
+            rollbackOnError,
+            customMappings,
+            useMultiRowInsert
+        );
         break;
       case MSSQL:
         recordWriter = new MicrosoftJdbcRecordWriter(connectionString, dataSource, tableName);
@@ -33,6 +33,8 @@ public class JdbcTargetUpgrader implements StageUpgrader {
     switch(fromVersion) {
       case 1:
         upgradeV1ToV2(configs);
+      case 2:
+        upgradeV2ToV3(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -66,4 +68,8 @@ public class JdbcTargetUpgrader implements StageUpgrader {
       columnName.put("paramValue", "?");
     }
   }
+
+  private void upgradeV2ToV3(List<Config> configs) {
+    configs.add(new Config("useMultiRowInsert", false));
+  }
 }
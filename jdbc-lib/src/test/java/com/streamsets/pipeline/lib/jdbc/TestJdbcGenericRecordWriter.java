@@ -0,0 +1,234 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.datacollector.runner.BatchImpl;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.base.OnRecordErrorException;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import com.streamsets.pipeline.stage.destination.jdbc.JdbcFieldMappingConfig;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestJdbcGenericRecordWriter {
+  private final String username = "sa";
+  private final String password = "sa";
+  private static final String connectionString = "jdbc:h2:mem:generic";
+  private static final String tableName = "TEST.TEST_TABLE";
+  private HikariDataSource dataSource;
+  private Connection connection;
+
+  @Before
+  public void setUp() throws SQLException {
+    HikariConfig config = new HikariConfig();
+    config.setJdbcUrl(connectionString);
+    config.setUsername(username);
+    config.setPassword(password);
+    config.setAutoCommit(false);
+    config.setMaximumPoolSize(2);
+    dataSource = new HikariDataSource(config);
+
+    connection = dataSource.getConnection();
+    try (Statement statement = connection.createStatement()) {
+      statement.addBatch("CREATE SCHEMA IF NOT EXISTS TEST;");
+      statement.addBatch(
+          "CREATE TABLE IF NOT EXISTS TEST.TEST_TABLE " +
+              "(P_ID INT NOT NULL, FIRST_NAME VARCHAR(255), LAST_NAME VARCHAR(255), UNIQUE(P_ID), PRIMARY KEY(P_ID));"
+      );
+      statement.executeBatch();
+    }
+    connection.commit();
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS TEST.TEST_TABLE;");
+    }
+    connection.commit();
+    connection.close();
+    dataSource.close();
+  }
+
+  private static Record createRecord(int id, String firstName, String lastName) {
+    Record record = RecordCreator.create();
+    Map<String, Field> fields = new HashMap<>();
+    fields.put("P_ID", Field.create(id));
+    if (firstName != null) {
+      fields.put("FIRST_NAME", Field.create(firstName));
+    }
+    if (lastName != null) {
+      fields.put("LAST_NAME", Field.create(lastName));
+    }
+    record.set(Field.create(fields));
+    return record;
+  }
+
+  private int count(String where) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM TEST.TEST_TABLE " + where);
+      rs.next();
+      return rs.getInt(1);
+    }
+  }
+
+  private JdbcGenericRecordWriter createWriter(boolean useMultiRowInsert) throws Exception {
+    return new JdbcGenericRecordWriter(connectionString, dataSource, tableName, false,
+        ImmutableList.<JdbcFieldMappingConfig>of(), useMultiRowInsert);
+  }
+
+  @Test
+  public void testMultipleBatches() throws Exception {
+    JdbcGenericRecordWriter writer = createWriter(false);
+    try {
+      for (int batch = 0; batch < 3; batch++) {
+        List<Record> records = ImmutableList.of(
+            createRecord(batch * 10, "Adam", "Kunicki"),
+            createRecord(batch * 10 + 1, "Jon", null),
+            createRecord(batch * 10 + 2, null, null)
+        );
+        List<OnRecordErrorException> errors = writer.writeBatch(new BatchImpl("test", "0", records));
+        assertTrue(errors.isEmpty());
+      }
+    } finally {
+      writer.destroy();
+    }
+    assertEquals(9, count(""));
+    assertEquals(3, count("WHERE FIRST_NAME IS NULL"));
+    assertEquals(6, count("WHERE LAST_NAME IS NULL"));
+  }
+
+  @Test
+  public void testMultiRowInsert() throws Exception {
+    // 3 columns per row, enough rows for two full statements and a partial one
+    int rows = 2 * (JdbcGenericRecordWriter.MAX_MULTI_ROW_PARAMETERS / 3) + 10;
+    JdbcGenericRecordWriter writer = createWriter(true);
+    try {
+      for (int batch = 0; batch < 2; batch++) {
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+          int id = batch * rows + i;
+          records.add(createRecord(id, "first" + id, (i % 2 == 0) ? "last" + id : null));
+        }
+        List<OnRecordErrorException> errors = writer.writeBatch(new BatchImpl("test", "0", records));
+        assertTrue(errors.isEmpty());
+      }
+    } finally {
+      writer.destroy();
+    }
+    assertEquals(2 * rows, count(""));
+    assertEquals(rows, count("WHERE LAST_NAME IS NULL"));
+    assertEquals(1, count("WHERE P_ID = 11 AND FIRST_NAME = 'first11'"));
+  }
+
+  @Test
+  public void testMultiRowInsertError() throws Exception {
+    JdbcGenericRecordWriter writer = createWriter(true);
+    try {
+      List<Record> records = ImmutableList.of(
+          createRecord(1, "Adam", "Kunicki"),
+          createRecord(1, "Jon", "Natkins"),
+          createRecord(2, "Jon", null)
+      );
+      List<OnRecordErrorException> errors = writer.writeBatch(new BatchImpl("test", "0", records));
+      // the statement with the duplicate key fails as a whole, the other one succeeds
+      assertEquals(2, errors.size());
+    } finally {
+      writer.destroy();
+    }
+    assertEquals(1, count(""));
+    assertEquals(1, count("WHERE P_ID = 2"));
+  }
+
+  @Test
+  public void testStatementRows() throws Exception {
+    // 1000 rows with up to 666 rows per statement: 512 + 256 + 128 + 64 + 32 + 8
+    int statements = 0;
+    int rows;
+    for (int remaining = 1000; remaining > 0; remaining -= rows) {
+      rows = JdbcGenericRecordWriter.getStatementRows(666, remaining);
+      assertEquals(rows, Integer.highestOneBit(rows));
+      statements++;
+    }
+    assertEquals(6, statements);
+    assertEquals(512, JdbcGenericRecordWriter.getStatementRows(666, 10000));
+    assertEquals(1, JdbcGenericRecordWriter.getStatementRows(666, 1));
+  }
+
+  @Test
+  public void testMultiRowInsertTailBatches() throws Exception {
+    JdbcGenericRecordWriter writer = createWriter(true);
+    int id = 0;
+    try {
+      // every tail size, the statements are reused through the cache
+      for (int batchSize = 1; batchSize <= 2 * JdbcGenericRecordWriter.MAX_CACHED_STATEMENTS; batchSize++) {
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+          records.add(createRecord(id, "first" + id, "last" + id));
+          id++;
+        }
+        assertTrue(writer.writeBatch(new BatchImpl("test", "0", records)).isEmpty());
+      }
+    } finally {
+      writer.destroy();
+    }
+    assertEquals(id, count(""));
+  }
+
+  @Test
+  public void testEvictLeastRecentlyUsed() throws Exception {
+    PreparedStatementMap statements = new PreparedStatementMap(connection, tableName,
+        ImmutableList.of("FIRST_NAME", "LAST_NAME", "P_ID"), ImmutableList.of("?", "?", "?"));
+    BitSet all = new BitSet();
+    all.set(0, 3);
+    BitSet idOnly = new BitSet();
+    idOnly.set(2);
+    PreparedStatement hot = statements.getInsertFor(all);
+    PreparedStatement cold = statements.getInsertFor(idOnly);
+    PreparedStatement multiRow = statements.getInsertFor(all, 2);
+    assertTrue(hot == statements.getInsertFor(all));
+
+    statements.evict(2);
+    assertEquals(2, statements.size());
+    assertTrue(cold.isClosed());
+    assertFalse(hot.isClosed());
+    assertFalse(multiRow.isClosed());
+    statements.close();
+  }
+
+}
@@ -42,6 +42,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class TestJdbcTarget {
 
@@ -196,6 +197,52 @@ public class TestJdbcTarget {
     }
   }
 
+  @Test
+  public void testMultiRowInsert() throws Exception {
+    List<JdbcFieldMappingConfig> fieldMappings = ImmutableList.of(
+        new JdbcFieldMappingConfig("[0]", "P_ID"),
+        new JdbcFieldMappingConfig("[1]", "FIRST_NAME"),
+        new JdbcFieldMappingConfig("[2]", "LAST_NAME"),
+        new JdbcFieldMappingConfig("[3]", "TS")
+    );
+
+    TargetRunner targetRunner = new TargetRunner.Builder(JdbcDTarget.class)
+        .addConfiguration("connectionString", h2ConnectionString)
+        .addConfiguration("useCredentials", true)
+        .addConfiguration("rollbackOnError", false)
+        .addConfiguration("useMultiRowInsert", true)
+        .addConfiguration("tableName", tableName)
+        .addConfiguration("columnNames", fieldMappings)
+        .addConfiguration("username", username)
+        .addConfiguration("password", password)
+        .addConfiguration("changeLogFormat", ChangeLogFormat.NONE)
+        .build();
+
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Record record = RecordCreator.create();
+      List<Field> fields = new ArrayList<>();
+      fields.add(Field.create(i));
+      fields.add(Field.create("Adam"));
+      fields.add(Field.create("Kunicki"));
+      fields.add(Field.createDatetime(new Instant().toDate()));
+      record.set(Field.create(fields));
+      records.add(record);
+    }
+
+    targetRunner.runInit();
+    targetRunner.runWrite(records);
+    assertTrue(targetRunner.getErrorRecords().isEmpty());
+    targetRunner.runDestroy();
+
+    connection = DriverManager.getConnection(h2ConnectionString, username, password);
+    try (Statement statement = connection.createStatement()) {
+      ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM TEST.TEST_TABLE");
+      rs.next();
+      assertEquals(3, rs.getInt(1));
+    }
+  }
+
   @Test
   public void testRecordWithBatchUpdateException() throws Exception {
     List<JdbcFieldMappingConfig> fieldMappings = ImmutableList.of(
@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.throughput;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.streamsets.datacollector.MiniSDC;
+import com.streamsets.datacollector.MiniSDCTestingUtility;
+import com.streamsets.datacollector.util.VerifyUtils;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End to end throughput of standard topologies run by a standalone mini SDC, writes a JSON report.
+ * <p/>
+ * It only runs when the measuring duration is given, for example:
+ * <pre>
+ *   mvn test -PminiIT -Dtest=TestPipelineThroughput -Dsdc.throughput.duration.secs=60
+ * </pre>
+ * The warm up duration defaults to 30 seconds ('sdc.throughput.warmup.secs') and the report is written to
+ * 'target/throughput-report.json' ('sdc.throughput.report').
+ */
+public class TestPipelineThroughput {
+  private static final String DURATION_KEY = "sdc.throughput.duration.secs";
+  private static final String WARMUP_KEY = "sdc.throughput.warmup.secs";
+  private static final String REPORT_KEY = "sdc.throughput.report";
+  private static final String REV = "0";
+
+  private static MiniSDCTestingUtility miniSDCTestingUtility;
+  private static MiniSDC miniSDC;
+
+  @BeforeClass
+  public static void beforeClass() throws Exception {
+    Assume.assumeTrue(System.getProperty(DURATION_KEY) != null);
+    System.setProperty("sdc.testing-mode", "true");
+    miniSDCTestingUtility = new MiniSDCTestingUtility();
+    miniSDC = miniSDCTestingUtility.createMiniSDC(MiniSDC.ExecutionMode.STANDALONE);
+    miniSDC.startSDC();
+  }
+
+  @AfterClass
+  public static void afterClass() {
+    if (miniSDCTestingUtility != null) {
+      miniSDCTestingUtility.stopMiniSDC();
+    }
+  }
+
+  private static List<ThroughputPipelineBuilder> getTopologies() {
+    List<ThroughputPipelineBuilder> topologies = new ArrayList<>();
+    topologies.add(new ThroughputPipelineBuilder("throughput-origin-trash"));
+    topologies.add(new ThroughputPipelineBuilder("throughput-5-processors").setProcessors(5));
+    topologies.add(new ThroughputPipelineBuilder("throughput-5-processors-fanout-3").setProcessors(5)
+        .setDestinations(3));
+    topologies.add(new ThroughputPipelineBuilder("throughput-10-processors-fanout-5").setProcessors(10)
+        .setDestinations(5));
+    return topologies;
+  }
+
+  @Test
+  public void testThroughput() throws Exception {
+    long durationSecs = Long.parseLong(System.getProperty(DURATION_KEY));
+    long warmupSecs = Long.parseLong(System.getProperty(WARMUP_KEY, "30"));
+    URI serverURI = miniSDC.getServerURI();
+    ThroughputHarness harness = new ThroughputHarness(serverURI, warmupSecs, durationSecs);
+
+    List<Map<String, Object>> pipelines = new ArrayList<>();
+    for (ThroughputPipelineBuilder topology : getTopologies()) {
+      miniSDC.createAndStartPipeline(topology.build());
+      VerifyUtils.waitForPipelineToStart(serverURI, topology.getName(), REV);
+      try {
+        pipelines.add(harness.measure(topology, REV));
+      } finally {
+        miniSDC.stopPipeline();
+        VerifyUtils.waitForPipelineToStop(serverURI, topology.getName(), REV);
+      }
+    }
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("javaVersion", System.getProperty("java.version"));
+    report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+    report.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+    report.put("warmupSecs", warmupSecs);
+    report.put("pipelines", pipelines);
+    File reportFile = new File(System.getProperty(REPORT_KEY, "target/throughput-report.json"));
+    new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+  }
+
+}
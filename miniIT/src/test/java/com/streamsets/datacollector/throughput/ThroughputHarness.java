@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.throughput;
+
+import com.streamsets.datacollector.util.VerifyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a running pipeline of a mini SDC for a fixed duration.
+ * <p/>
+ * Batch and record counts and the batch latency come from the pipeline metrics exposed by the REST API, the
+ * allocation and GC figures from the JVM MXBeans. The mini SDC runs in the same JVM as the harness, the JVM figures
+ * include the (small) overhead of the harness polling the REST API.
+ */
+public class ThroughputHarness {
+  private static final Logger LOG = LoggerFactory.getLogger(ThroughputHarness.class);
+
+  private static final String BATCH_COUNT = "pipeline.batchCount.meter";
+  private static final String BATCH_INPUT_RECORDS = "pipeline.batchInputRecords.meter";
+  private static final String BATCH_PROCESSING = "pipeline.batchProcessing.timer";
+
+  private final URI serverURI;
+  private final long warmupSecs;
+  private final long durationSecs;
+
+  public ThroughputHarness(URI serverURI, long warmupSecs, long durationSecs) {
+    this.serverURI = serverURI;
+    this.warmupSecs = warmupSecs;
+    this.durationSecs = durationSecs;
+  }
+
+  private static class Sample {
+    private final long nanoTime;
+    private final long batches;
+    private final long records;
+    private final long gcCount;
+    private final long gcTimeMillis;
+    private final long allocatedBytes;
+
+    Sample(Map<String, Map<String, Map<String, Object>>> metrics) {
+      nanoTime = System.nanoTime();
+      batches = getCount(metrics, BATCH_COUNT);
+      records = getCount(metrics, BATCH_INPUT_RECORDS);
+      long count = 0;
+      long time = 0;
+      for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+        count += Math.max(0, gc.getCollectionCount());
+        time += Math.max(0, gc.getCollectionTime());
+      }
+      gcCount = count;
+      gcTimeMillis = time;
+      allocatedBytes = getAllocatedBytes();
+    }
+
+    private static long getCount(Map<String, Map<String, Map<String, Object>>> metrics, String meter) {
+      return ((Number) metrics.get("meters").get(meter).get("count")).longValue();
+    }
+
+    // -1 if the JVM does not track thread allocations; threads that died between samples are not accounted for
+    private static long getAllocatedBytes() {
+      ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+      if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+        return -1;
+      }
+      com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+      if (!sunThreadMXBean.isThreadAllocatedMemorySupported() || !sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+        return -1;
+      }
+      long allocated = 0;
+      for (long bytes : sunThreadMXBean.getThreadAllocatedBytes(threadMXBean.getAllThreadIds())) {
+        allocated += Math.max(0, bytes);
+      }
+      return allocated;
+    }
+  }
+
+  /**
+   * Measures the given running pipeline, the returned report is ready to be serialized as JSON.
+   */
+  public Map<String, Object> measure(ThroughputPipelineBuilder topology, String rev) throws Exception {
+    String name = topology.getName();
+    LOG.info("Warming up pipeline '{}' for {} secs", name, warmupSecs);
+    Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSecs));
+
+    LOG.info("Measuring pipeline '{}' for {} secs", name, durationSecs);
+    Sample start = new Sample(VerifyUtils.getMetrics(serverURI, name, rev));
+    Thread.sleep(TimeUnit.SECONDS.toMillis(durationSecs));
+    Map<String, Map<String, Map<String, Object>>> metrics = VerifyUtils.getMetrics(serverURI, name, rev);
+    Sample end = new Sample(metrics);
+
+    double secs = (end.nanoTime - start.nanoTime) / 1e9;
+    long batches = end.batches - start.batches;
+    long records = end.records - start.records;
+    long gcCount = end.gcCount - start.gcCount;
+    long gcTimeMillis = end.gcTimeMillis - start.gcTimeMillis;
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("pipeline", name);
+    report.put("processors", topology.getProcessors());
+    report.put("destinations", topology.getDestinations());
+    report.put("durationSecs", secs);
+    report.put("batches", batches);
+    report.put("records", records);
+    report.put("batchesPerSec", batches / secs);
+    report.put("recordsPerSec", records / secs);
+
+    // the timer reservoir covers the last minute of batches, durations are reported in seconds
+    Map<String, Object> timer = metrics.get("timers").get(BATCH_PROCESSING);
+    report.put("batchLatencyMeanMs", ((Number) timer.get("mean")).doubleValue() * 1000);
+    report.put("batchLatencyP99Ms", ((Number) timer.get("p99")).doubleValue() * 1000);
+
+    if (start.allocatedBytes >= 0 && end.allocatedBytes >= 0) {
+      long allocated = end.allocatedBytes - start.allocatedBytes;
+      report.put("allocationBytesPerSec", allocated / secs);
+      report.put("allocationBytesPerRecord", (records > 0) ? (double) allocated / records : 0);
+    }
+    report.put("gcCount", gcCount);
+    report.put("gcTimeMs", gcTimeMillis);
+    report.put("gcTimeMsPerMillionRecords", (records > 0) ? gcTimeMillis * 1e6 / records : 0);
+    LOG.info("Pipeline '{}': {}", name, report);
+    return report;
+  }
+
+}
@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.throughput;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Resources;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates the pipeline JSON of a throughput topology: a 'Dev Random Record Source' origin without delay between
+ * batches, followed by a chain of Expression Evaluator processors fanning out to Trash destinations.
+ * <p/>
+ * The pipeline level configuration and the error stage come from the 'throughput_pipeline.json' template.
+ */
+public class ThroughputPipelineBuilder {
+  private static final String TEMPLATE = "throughput_pipeline.json";
+  private static final String DEV_LIB = "streamsets-datacollector-dev-lib";
+  private static final String BASIC_LIB = "streamsets-datacollector-basic-lib";
+  private static final String SOURCE = "com_streamsets_pipeline_stage_devtest_RandomSource";
+  private static final String PROCESSOR = "com_streamsets_pipeline_stage_processor_expression_ExpressionDProcessor";
+  private static final String TARGET = "com_streamsets_pipeline_stage_destination_devnull_NullDTarget";
+
+  private final String name;
+  private String fields = "a,b,c,d,e";
+  private int processors;
+  private int destinations = 1;
+
+  public ThroughputPipelineBuilder(String name) {
+    this.name = name;
+  }
+
+  public ThroughputPipelineBuilder setFields(String fields) {
+    this.fields = fields;
+    return this;
+  }
+
+  public ThroughputPipelineBuilder setProcessors(int processors) {
+    this.processors = processors;
+    return this;
+  }
+
+  public ThroughputPipelineBuilder setDestinations(int destinations) {
+    this.destinations = destinations;
+    return this;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getProcessors() {
+    return processors;
+  }
+
+  public int getDestinations() {
+    return destinations;
+  }
+
+  @SuppressWarnings("unchecked")
+  public String build() throws IOException {
+    ObjectMapper json = new ObjectMapper();
+    Map<String, Object> pipeline = json.readValue(Resources.getResource(TEMPLATE), Map.class);
+    ((Map<String, Object>) pipeline.get("info")).put("name", name);
+
+    List<Map<String, Object>> stages = new ArrayList<>();
+    String lane = SOURCE + "OutputLane";
+    stages.add(createStage(SOURCE + "1", DEV_LIB, SOURCE, "SOURCE",
+        ImmutableList.of(
+            config("fields", fields),
+            config("delay", 0),
+            config("maxRecordsToGenerate", Long.MAX_VALUE - 1),
+            config("stageOnRecordError", "TO_ERROR")),
+        Collections.<String>emptyList(), ImmutableList.of(lane)));
+
+    for (int i = 1; i <= processors; i++) {
+      String outputLane = PROCESSOR + i + "OutputLane";
+      // every processor evaluates an EL reading a field and writes the result to a new field
+      Map<String, Object> expression = ImmutableMap.<String, Object>of(
+          "fieldToSet", "/p" + i,
+          "expression", "${record:value('/a')}");
+      stages.add(createStage(PROCESSOR + i, BASIC_LIB, PROCESSOR, "PROCESSOR",
+          ImmutableList.of(
+              config("expressionProcessorConfigs", ImmutableList.of(expression)),
+              config("stageOnRecordError", "TO_ERROR"),
+              config("stageRequiredFields", Collections.emptyList()),
+              config("stageRecordPreconditions", Collections.emptyList())),
+          ImmutableList.of(lane), ImmutableList.of(outputLane)));
+      lane = outputLane;
+    }
+
+    // all destinations read the same lane, fanning out the last processor output
+    for (int i = 1; i <= destinations; i++) {
+      stages.add(createStage(TARGET + i, BASIC_LIB, TARGET, "TARGET", Collections.<Map<String, Object>>emptyList(),
+          ImmutableList.of(lane), Collections.<String>emptyList()));
+    }
+    pipeline.put("stages", stages);
+    return json.writeValueAsString(pipeline);
+  }
+
+  private static Map<String, Object> config(String name, Object value) {
+    Map<String, Object> config = new LinkedHashMap<>();
+    config.put("name", name);
+    config.put("value", value);
+    return config;
+  }
+
+  private static Map<String, Object> createStage(String instanceName, String library, String stageName,
+      String stageType, List<Map<String, Object>> configuration, List<String> inputLanes, List<String> outputLanes) {
+    Map<String, Object> stage = new LinkedHashMap<>();
+    stage.put("instanceName", instanceName);
+    stage.put("library", library);
+    stage.put("stageName", stageName);
+    stage.put("stageVersion", "1");
+    stage.put("configuration", configuration);
+    stage.put("uiInfo", ImmutableMap.of("label", instanceName, "stageType", stageType));
+    stage.put("inputLanes", inputLanes);
+    stage.put("outputLanes", outputLanes);
+    return stage;
+  }
+
+}
@@ -33,7 +33,9 @@ public enum Errors implements ErrorCode {
   MONGODB_09("Unknown host: '{}'"),
   MONGODB_10("Failed to parse entry: {}"),
   MONGODB_11("Offset tracking field: '{}' missing from document: '{}'"),
-  MONGODB_12("Error writing to database: {}")
+  MONGODB_12("Error writing to database: {}"),
+  MONGODB_13("Initial load of offset range '{}' failed: {}"),
+  MONGODB_14("Invalid number of initial load threads '{}', it must be greater than zero"),
 
   ;
   private final String msg;
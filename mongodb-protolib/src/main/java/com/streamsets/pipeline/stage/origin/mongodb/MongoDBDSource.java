@@ -28,12 +28,13 @@ import com.streamsets.pipeline.configurablestage.DSource;
 import com.streamsets.pipeline.lib.el.TimeEL;
 
 @StageDef(
-    version = 1,
+    version = 2,
     label = "MongoDB",
     description = "Reads records from a MongoDB collection",
     icon="mongodb.png",
     execution = ExecutionMode.STANDALONE,
-    recordsByRef = true
+    recordsByRef = true,
+    upgrader = MongoDBSourceUpgrader.class
 )
 @ConfigGroups(Groups.class)
 @GenerateResourceBundle
@@ -166,6 +167,20 @@ public class MongoDBDSource extends DSource {
   @ValueChooserModel(ReadPreferenceChooserValues.class)
   public ReadPreferenceLabel readPreference;
 
+  @ConfigDef(
+      type = ConfigDef.Type.NUMBER,
+      label = "Initial Load Threads",
+      defaultValue = "1",
+      description = "Number of cursors used to read the documents already in the collection when the pipeline " +
+          "starts. The offset field range is split between them, use 1 to read with a single cursor.",
+      required = true,
+      min = 1,
+      max = 32,
+      group = "ADVANCED",
+      displayPosition = 160
+  )
+  public int initialLoadThreads;
+
   @Override
   protected Source createSource() {
     return new MongoDBSource(
@@ -180,7 +195,8 @@ public class MongoDBDSource extends DSource {
         authenticationType,
         username,
         password,
-        readPreference.getReadPreference()
+        readPreference.getReadPreference(),
+        initialLoadThreads
     );
   }
 }
@@ -34,31 +34,25 @@ import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.Sorts;
 import com.streamsets.pipeline.api.BatchMaker;
 import com.streamsets.pipeline.api.ErrorCode;
-import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Source;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.base.BaseSource;
 import com.streamsets.pipeline.api.impl.Utils;
-import com.streamsets.pipeline.lib.util.JsonUtil;
 import com.streamsets.pipeline.lib.util.ThreadUtil;
 import org.apache.commons.io.IOUtils;
-import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 public class MongoDBSource extends BaseSource {
   private static final Logger LOG = LoggerFactory.getLogger(MongoDBSource.class);
@@ -78,13 +72,16 @@ public class MongoDBSource extends BaseSource {
   private final String username;
   private final String password;
   private final ReadPreference readPreference;
+  private final int initialLoadThreads;
 
   private ObjectId initialObjectId;
 
   private MongoClient mongoClient;
   private MongoDatabase mongoDatabase;
-  private MongoCollection<Document> mongoCollection;
-  private MongoCursor<Document> cursor;
+  private MongoCollection<MongoDocument> mongoCollection;
+  private MongoCursor<MongoDocument> cursor;
+  private boolean initialLoadChecked;
+  private ParallelInitialLoad initialLoad;
 
   public MongoDBSource(
       String mongoConnectionString,
@@ -98,7 +95,8 @@ public class MongoDBSource extends BaseSource {
       AuthenticationType authenticationType,
       String username,
       String password,
-      ReadPreference readPreference
+      ReadPreference readPreference,
+      int initialLoadThreads
   ) {
     this.mongoConnectionString = mongoConnectionString;
     this.mongoDatabaseName = mongoDatabaseName;
@@ -112,12 +110,18 @@ public class MongoDBSource extends BaseSource {
     this.username = username;
     this.password = password;
     this.readPreference = readPreference;
+    this.initialLoadThreads = initialLoadThreads;
   }
 
   @Override
   protected List<ConfigIssue> init() {
     List<ConfigIssue> issues = super.init();
 
+    if (initialLoadThreads < 1) {
+      issues.add(getContext().createConfigIssue(Groups.ADVANCED.name(), "initialLoadThreads", Errors.MONGODB_14,
+          initialLoadThreads));
+    }
+
     try {
       initialObjectId = new ObjectId(dateFormat.parse(initialOffset));
     } catch (ParseException e) {
@@ -146,6 +150,10 @@ public class MongoDBSource extends BaseSource {
 
   @Override
   public void destroy() {
+    if (initialLoad != null) {
+      initialLoad.close();
+      initialLoad = null;
+    }
     IOUtils.closeQuietly(cursor);
     IOUtils.closeQuietly(mongoClient);
     super.destroy();
@@ -158,13 +166,37 @@ public class MongoDBSource extends BaseSource {
     String nextSourceOffset = lastSourceOffset;
     int numRecords = 0;
 
-    prepareCursor(maxBatchSize, offsetField, lastSourceOffset);
+    if (!initialLoadChecked) {
+      initialLoadChecked = true;
+      if (initialLoadThreads > 1) {
+        createMongoClient();
+        initialLoad = ParallelInitialLoad.start(mongoCollection, offsetField, getOffset(lastSourceOffset),
+            initialLoadThreads, batchSize);
+      }
+    }
+    if (null == initialLoad) {
+      prepareCursor(maxBatchSize, offsetField, lastSourceOffset);
+    }
     long batchWaitTime = System.currentTimeMillis() + maxBatchWaitTime;
 
     try {
       while (numRecords < Math.min(batchSize, maxBatchSize) && System.currentTimeMillis() < batchWaitTime) {
-        LOG.trace("Trying to get next doc from cursor");
-        Document doc = cursor.tryNext();
+        MongoDocument doc;
+        if (null != initialLoad) {
+          doc = initialLoad.poll(Math.max(0, batchWaitTime - System.currentTimeMillis()));
+          if (null == doc) {
+            if (initialLoad.isDone()) {
+              LOG.debug("Initial load done, continuing from offset '{}' with a single cursor", nextSourceOffset);
+              initialLoad.close();
+              initialLoad = null;
+              prepareCursor(maxBatchSize, offsetField, nextSourceOffset);
+            }
+            continue;
+          }
+        } else {
+          LOG.trace("Trying to get next doc from cursor");
+          doc = cursor.tryNext();
+        }
         if (null == doc) {
           LOG.trace("Doc was null");
           if (!isCapped) {
@@ -183,56 +215,48 @@ public class MongoDBSource extends BaseSource {
           continue;
         }
 
-        Set<Map.Entry<String, Object>> entrySet = doc.entrySet();
-        Map<String, Field> fields = new HashMap<>(entrySet.size());
-
-        try {
-          for (Map.Entry<String, Object> entry : entrySet) {
-            Field value;
-            if (entry.getValue() instanceof ObjectId) {
-              String objectId = entry.getValue().toString();
-              value = JsonUtil.jsonToField(objectId);
-            } else {
-              value = JsonUtil.jsonToField(entry.getValue());
-            }
-            fields.put(entry.getKey(), value);
-          }
-        } catch (IOException e) {
-          handleError(Errors.MONGODB_10, e.toString(), e);
+        // documents are decoded straight into fields by MongoDocumentCodec
+        if (null != doc.getError()) {
+          handleError(Errors.MONGODB_10, doc.getError());
           continue;
         }
 
-        if (!doc.containsKey(_ID)) {
-          handleError(Errors.MONGODB_11, offsetField, doc.toString());
+        if (null == doc.getOffset()) {
+          handleError(Errors.MONGODB_11, offsetField, doc.getField().getValue());
           continue;
         }
-        nextSourceOffset = doc.getObjectId(offsetField).toHexString();
+        nextSourceOffset = doc.getOffset().toHexString();
 
         final String recordContext = mongoConnectionString + "::" +
             mongoDatabaseName + "::" + mongoCollectionName + "::" +
             nextSourceOffset;
 
         Record record = getContext().createRecord(recordContext);
-        record.set(Field.create(fields));
+        record.set(doc.getField());
         batchMaker.addRecord(record);
         ++numRecords;
       }
     } catch (MongoClientException e) {
       throw new StageException(Errors.MONGODB_12, e.toString(), e);
+    } catch (InterruptedException e) {
+      // the pipeline is being stopped, return what we have so far
+      Thread.currentThread().interrupt();
     }
     return nextSourceOffset;
   }
 
+  private ObjectId getOffset(String lastSourceOffset) {
+    if (null == lastSourceOffset || lastSourceOffset.isEmpty()) {
+      return initialObjectId;
+    }
+    return new ObjectId(lastSourceOffset);
+  }
+
   private void prepareCursor(int maxBatchSize, String offsetField, String lastSourceOffset) {
     createMongoClient();
 
-    ObjectId offset;
     if (null == cursor) {
-      if (null == lastSourceOffset || lastSourceOffset.isEmpty()) {
-        offset = initialObjectId;
-      } else {
-        offset = new ObjectId(lastSourceOffset);
-      }
+      ObjectId offset = getOffset(lastSourceOffset);
       LOG.debug("Getting new cursor with params: {} {} {}", maxBatchSize, offsetField, lastSourceOffset);
       if (isCapped) {
         cursor = mongoCollection
@@ -341,7 +365,13 @@ public class MongoDBSource extends BaseSource {
   private boolean checkMongoCollection(List<ConfigIssue> issues) {
     boolean isOk = true;
     try {
-      mongoCollection = mongoDatabase.getCollection(mongoCollectionName).withReadPreference(readPreference);
+      mongoCollection = mongoDatabase
+          .getCollection(mongoCollectionName, MongoDocument.class)
+          .withCodecRegistry(CodecRegistries.fromRegistries(
+              CodecRegistries.fromCodecs(new MongoDocumentCodec(offsetField)),
+              MongoClient.getDefaultCodecRegistry()
+          ))
+          .withReadPreference(readPreference);
     } catch (MongoClientException e) {
       issues.add(getContext().createConfigIssue(
           Groups.MONGODB.name(),
@@ -0,0 +1,58 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.mongodb;
+
+import com.streamsets.pipeline.api.Field;
+import org.bson.types.ObjectId;
+
+/**
+ * A MongoDB document decoded by {@link MongoDocumentCodec}, its fields already converted to SDC fields.
+ */
+class MongoDocument {
+  private final Field field;
+  private final ObjectId offset;
+  private final String error;
+
+  MongoDocument(Field field, ObjectId offset, String error) {
+    this.field = field;
+    this.offset = offset;
+    this.error = error;
+  }
+
+  /**
+   * Returns the document as a MAP field.
+   */
+  public Field getField() {
+    return field;
+  }
+
+  /**
+   * Returns the value of the offset field or NULL if the document does not have it or it is not an ObjectId.
+   */
+  public ObjectId getOffset() {
+    return offset;
+  }
+
+  /**
+   * Returns the reason the document could not be fully converted or NULL if it was.
+   */
+  public String getError() {
+    return error;
+  }
+
+}
@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.mongodb;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.impl.Utils;
+import org.bson.BsonBinary;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes BSON documents straight into SDC fields, without materializing them as {@link org.bson.Document}s first.
+ * Encoding writes the fields back as BSON, with the offset field as an ObjectId again.
+ * <p/>
+ * Types are mapped the same way they were when going through <code>Document</code> and <code>JsonUtil</code>, except
+ * that ObjectIds are converted to their hex string at any depth. Values of types without an SDC equivalent are skipped
+ * and reported through {@link MongoDocument#getError()}, a decoding error would otherwise fail the whole cursor batch.
+ */
+class MongoDocumentCodec implements Codec<MongoDocument> {
+  private final String offsetField;
+
+  public MongoDocumentCodec(String offsetField) {
+    this.offsetField = offsetField;
+  }
+
+  @Override
+  public MongoDocument decode(BsonReader reader, DecoderContext decoderContext) {
+    Context context = new Context();
+    Map<String, Field> map = new LinkedHashMap<>();
+    ObjectId offset = null;
+    reader.readStartDocument();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      String name = reader.readName();
+      if (name.equals(offsetField) && reader.getCurrentBsonType() == BsonType.OBJECT_ID) {
+        offset = reader.readObjectId();
+        map.put(name, Field.create(offset.toHexString()));
+      } else {
+        map.put(name, readValue(reader, name, context));
+      }
+    }
+    reader.readEndDocument();
+    return new MongoDocument(Field.create(map), offset, context.error);
+  }
+
+  private Field readValue(BsonReader reader, String name, Context context) {
+    Field field;
+    BsonType type = reader.getCurrentBsonType();
+    switch (type) {
+      case DOCUMENT:
+        Map<String, Field> map = new LinkedHashMap<>();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+          String key = reader.readName();
+          map.put(key, readValue(reader, key, context));
+        }
+        reader.readEndDocument();
+        field = Field.create(map);
+        break;
+      case ARRAY:
+        List<Field> list = new ArrayList<>();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+          list.add(readValue(reader, name, context));
+        }
+        reader.readEndArray();
+        field = Field.create(list);
+        break;
+      case STRING:
+        field = Field.create(reader.readString());
+        break;
+      case SYMBOL:
+        field = Field.create(reader.readSymbol());
+        break;
+      case OBJECT_ID:
+        field = Field.create(reader.readObjectId().toHexString());
+        break;
+      case INT32:
+        field = Field.create(reader.readInt32());
+        break;
+      case INT64:
+        field = Field.create(reader.readInt64());
+        break;
+      case DOUBLE:
+        field = Field.create(reader.readDouble());
+        break;
+      case BOOLEAN:
+        field = Field.create(reader.readBoolean());
+        break;
+      case DATE_TIME:
+        field = Field.createDate(new Date(reader.readDateTime()));
+        break;
+      case BINARY:
+        field = Field.create(reader.readBinaryData().getData());
+        break;
+      case NULL:
+        reader.readNull();
+        field = Field.create(Field.Type.STRING, null);
+        break;
+      case UNDEFINED:
+        reader.readUndefined();
+        field = Field.create(Field.Type.STRING, null);
+        break;
+      default:
+        reader.skipValue();
+        if (context.error == null) {
+          context.error = Utils.format("Not recognized type '{}' for field '{}'", type, name);
+        }
+        field = Field.create(Field.Type.STRING, null);
+        break;
+    }
+    return field;
+  }
+
+  @Override
+  public void encode(BsonWriter writer, MongoDocument value, EncoderContext encoderContext) {
+    writer.writeStartDocument();
+    for (Map.Entry<String, Field> entry : value.getField().getValueAsMap().entrySet()) {
+      writer.writeName(entry.getKey());
+      if (entry.getKey().equals(offsetField) && value.getOffset() != null) {
+        writer.writeObjectId(value.getOffset());
+      } else {
+        writeValue(writer, entry.getValue());
+      }
+    }
+    writer.writeEndDocument();
+  }
+
+  private void writeValue(BsonWriter writer, Field field) {
+    if (field == null || field.getValue() == null) {
+      writer.writeNull();
+      return;
+    }
+    switch (field.getType()) {
+      case MAP:
+      case LIST_MAP:
+        writer.writeStartDocument();
+        for (Map.Entry<String, Field> entry : field.getValueAsMap().entrySet()) {
+          writer.writeName(entry.getKey());
+          writeValue(writer, entry.getValue());
+        }
+        writer.writeEndDocument();
+        break;
+      case LIST:
+        writer.writeStartArray();
+        for (Field element : field.getValueAsList()) {
+          writeValue(writer, element);
+        }
+        writer.writeEndArray();
+        break;
+      case BYTE:
+      case SHORT:
+      case INTEGER:
+        writer.writeInt32(field.getValueAsInteger());
+        break;
+      case LONG:
+        writer.writeInt64(field.getValueAsLong());
+        break;
+      case FLOAT:
+      case DOUBLE:
+        writer.writeDouble(field.getValueAsDouble());
+        break;
+      case BOOLEAN:
+        writer.writeBoolean(field.getValueAsBoolean());
+        break;
+      case DATE:
+      case DATETIME:
+        writer.writeDateTime(field.getValueAsDate().getTime());
+        break;
+      case BYTE_ARRAY:
+        writer.writeBinaryData(new BsonBinary(field.getValueAsByteArray()));
+        break;
+      default:
+        // STRING, CHAR and DECIMAL, BSON has no decimal type
+        writer.writeString(field.getValueAsString());
+        break;
+    }
+  }
+
+  @Override
+  public Class<MongoDocument> getEncoderClass() {
+    return MongoDocument.class;
+  }
+
+  private static class Context {
+    private String error;
+  }
+
+}
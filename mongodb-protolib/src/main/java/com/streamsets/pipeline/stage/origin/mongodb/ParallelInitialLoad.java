@@ -0,0 +1,179 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.mongodb;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.streamsets.pipeline.api.StageException;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads the documents that already exist in a collection with several cursors at once.
+ * <p/>
+ * The offset field range between the starting offset and the highest offset in the collection is split by the
+ * timestamp of the ObjectIds into contiguous ranges, each one read by its own thread into a bounded queue. Documents
+ * are handed out range after range, so they come out in offset order just like from a single sorted cursor while the
+ * following ranges are being fetched and decoded in the background.
+ */
+class ParallelInitialLoad {
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelInitialLoad.class);
+
+  private static final MongoDocument END = new MongoDocument(null, null, null);
+
+  private final List<RangeReader> ranges;
+  private final ExecutorService executor;
+  private int current;
+
+  private ParallelInitialLoad(List<RangeReader> ranges) {
+    this.ranges = ranges;
+    final AtomicInteger count = new AtomicInteger();
+    executor = Executors.newFixedThreadPool(ranges.size(), new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, "MongoDBSource-initial-load-" + count.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    for (RangeReader range : ranges) {
+      executor.submit(range);
+    }
+  }
+
+  /**
+   * Starts reading the documents after the given offset with up to 'threads' cursors. Returns NULL if the range is too
+   * small to be split, the caller should read it with a single cursor then.
+   */
+  public static ParallelInitialLoad start(MongoCollection<MongoDocument> collection, String offsetField,
+      ObjectId start, int threads, int batchSize) {
+    MongoDocument last = collection.find().sort(Sorts.descending(offsetField)).limit(1).first();
+    if (last == null || last.getOffset() == null || last.getOffset().compareTo(start) <= 0) {
+      return null;
+    }
+    ObjectId end = last.getOffset();
+    long span = (long) end.getTimestamp() - start.getTimestamp();
+    int n = (int) Math.min(threads, span);
+    if (n < 2) {
+      return null;
+    }
+    List<RangeReader> ranges = new ArrayList<>(n);
+    ObjectId from = start;
+    for (int i = 1; i <= n; i++) {
+      // the lowest possible ObjectId for the boundary second, adjacent ranges share it so nothing is missed
+      ObjectId to = (i == n) ? end : new ObjectId((int) (start.getTimestamp() + span * i / n), 0, (short) 0, 0);
+      ranges.add(new RangeReader(collection, offsetField, from, to, batchSize));
+      from = to;
+    }
+    LOG.debug("Reading documents from '{}' to '{}' with '{}' cursors", start, end, n);
+    return new ParallelInitialLoad(ranges);
+  }
+
+  /**
+   * Returns the next document in offset order, waiting up to the given time for it. Returns NULL if there is no
+   * document within that time or if all the ranges have been read, see {@link #isDone()}.
+   */
+  public MongoDocument poll(long waitMillis) throws InterruptedException, StageException {
+    long deadline = System.currentTimeMillis() + waitMillis;
+    while (current < ranges.size()) {
+      RangeReader range = ranges.get(current);
+      MongoDocument doc = range.queue.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+      if (doc == null) {
+        return null;
+      } else if (doc == END) {
+        if (range.error != null) {
+          throw new StageException(Errors.MONGODB_13, range, range.error.toString(), range.error);
+        }
+        current++;
+      } else {
+        return doc;
+      }
+    }
+    return null;
+  }
+
+  public boolean isDone() {
+    return current == ranges.size();
+  }
+
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private static class RangeReader implements Runnable {
+    private final MongoCollection<MongoDocument> collection;
+    private final String offsetField;
+    private final ObjectId from;
+    private final ObjectId to;
+    private final int batchSize;
+    private final BlockingQueue<MongoDocument> queue;
+    private volatile MongoException error;
+
+    public RangeReader(MongoCollection<MongoDocument> collection, String offsetField, ObjectId from, ObjectId to,
+        int batchSize) {
+      this.collection = collection;
+      this.offsetField = offsetField;
+      this.from = from;
+      this.to = to;
+      this.batchSize = batchSize;
+      queue = new ArrayBlockingQueue<>(batchSize);
+    }
+
+    @Override
+    public void run() {
+      try {
+        try (MongoCursor<MongoDocument> cursor = collection
+            .find()
+            .filter(Filters.and(Filters.gt(offsetField, from), Filters.lte(offsetField, to)))
+            .sort(Sorts.ascending(offsetField))
+            .batchSize(batchSize)
+            .iterator()) {
+          while (cursor.hasNext()) {
+            queue.put(cursor.next());
+          }
+        } catch (MongoException ex) {
+          LOG.error("Reading range '{}' failed: {}", this, ex.toString(), ex);
+          error = ex;
+        }
+        queue.put(END);
+      } catch (InterruptedException ex) {
+        // the initial load has been closed
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "(" + from + ", " + to + "]";
+    }
+  }
+
+}
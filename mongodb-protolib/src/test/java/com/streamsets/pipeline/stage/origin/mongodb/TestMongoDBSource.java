@@ -35,6 +35,7 @@ import de.flapdoodle.embed.mongo.config.Net;
 import de.flapdoodle.embed.mongo.distribution.Version;
 import de.flapdoodle.embed.process.runtime.Network;
 import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -43,6 +44,8 @@ import org.slf4j.LoggerFactory;
 
 import java.net.ServerSocket;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -52,12 +55,15 @@ public class TestMongoDBSource {
   private static final String DATABASE_NAME = "test";
   private static final String CAPPED_COLLECTION = "capped";
   private static final String COLLECTION = "uncapped";
+  private static final String INITIAL_LOAD_COLLECTION = "initialload";
+  private static final int INITIAL_LOAD_COLLECTION_SIZE = 100;
   private static final int TEST_COLLECTION_SIZE = 4;
   private static final int ONE_MB = 1000 * 1000;
 
   private static final List<Document> documents = new ArrayList<>(TEST_COLLECTION_SIZE);
   private static MongodExecutable mongodExecutable = null;
   private static int port = 0;
+  private static long initialLoadStart;
 
   @BeforeClass
   public static void setUpClass() throws Exception {
@@ -90,6 +96,18 @@ public class TestMongoDBSource {
     capped.insertMany(documents);
     uncapped.insertMany(documents);
 
+    // ObjectIds one minute apart so that the initial load has a range to split
+    List<Document> initialLoadDocuments = new ArrayList<>(INITIAL_LOAD_COLLECTION_SIZE);
+    initialLoadStart = System.currentTimeMillis() - INITIAL_LOAD_COLLECTION_SIZE * 60 * 1000L;
+    for (int i = 0; i < INITIAL_LOAD_COLLECTION_SIZE; i++) {
+      ObjectId id = new ObjectId(new Date(initialLoadStart + i * 60 * 1000L));
+      initialLoadDocuments.add(new Document(MongoDBSource._ID, id)
+          .append("value", "document " + i)
+          .append("nested", new Document("index", i).append("list", Arrays.asList(i, i + 1))));
+    }
+    db.createCollection(INITIAL_LOAD_COLLECTION);
+    db.getCollection(INITIAL_LOAD_COLLECTION).insertMany(initialLoadDocuments);
+
     mongo.close();
   }
 
@@ -113,7 +131,8 @@ public class TestMongoDBSource {
         AuthenticationType.NONE,
         null,
         null,
-        ReadPreference.nearest()
+        ReadPreference.nearest(),
+        1
     );
 
     SourceRunner runner = new SourceRunner.Builder(MongoDBSource.class, origin)
@@ -140,7 +159,8 @@ public class TestMongoDBSource {
         AuthenticationType.NONE,
         null,
         null,
-        ReadPreference.nearest()
+        ReadPreference.nearest(),
+        1
     );
 
     SourceRunner runner = new SourceRunner.Builder(MongoDBSource.class, origin)
@@ -166,7 +186,8 @@ public class TestMongoDBSource {
         AuthenticationType.NONE,
         null,
         null,
-        ReadPreference.nearest()
+        ReadPreference.nearest(),
+        1
     );
 
     SourceRunner runner = new SourceRunner.Builder(MongoDBSource.class, origin)
@@ -192,7 +213,8 @@ public class TestMongoDBSource {
         AuthenticationType.NONE,
         null,
         null,
-        ReadPreference.nearest()
+        ReadPreference.nearest(),
+        1
     );
 
     SourceRunner runner = new SourceRunner.Builder(MongoDBSource.class, origin)
@@ -218,7 +240,8 @@ public class TestMongoDBSource {
         AuthenticationType.NONE,
         null,
         null,
-        ReadPreference.nearest()
+        ReadPreference.nearest(),
+        1
     );
 
     SourceRunner runner = new SourceRunner.Builder(MongoDBSource.class, origin)
@@ -274,7 +297,8 @@ public class TestMongoDBSource {
         AuthenticationType.NONE,
         null,
         null,
-        ReadPreference.nearest()
+        ReadPreference.nearest(),
+        1
     );
 
     SourceRunner runner = new SourceRunner.Builder(MongoDBSource.class, origin)
@@ -318,6 +342,62 @@ public class TestMongoDBSource {
     assertEquals("document 12345", parsedRecords.get(0).get("/value").getValueAsString());
   }
 
+  @Test
+  public void testReadCollectionInitialLoad() throws Exception {
+    MongoDBSource origin = new MongoDBSource(
+        "mongodb://localhost:" + port,
+        DATABASE_NAME,
+        INITIAL_LOAD_COLLECTION,
+        false,
+        "_id",
+        "2015-06-01 00:00:00",
+        100,
+        1,
+        AuthenticationType.NONE,
+        null,
+        null,
+        ReadPreference.nearest(),
+        4
+    );
+
+    SourceRunner runner = new SourceRunner.Builder(MongoDBSource.class, origin)
+        .addOutputLane("lane")
+        .build();
+
+    List<Stage.ConfigIssue> issues = runner.runValidateConfigs();
+    assertEquals(0, issues.size());
+
+    runner.runInit();
+    try {
+      List<Record> records = new ArrayList<>();
+      // start right before the first document so that every cursor gets a share of the documents
+      String offset = new ObjectId(new Date(initialLoadStart - 1000), 0, (short) 0, 0).toHexString();
+      for (int i = 0; i < 5; i++) {
+        StageRunner.Output output = runner.runProduce(offset, 30);
+        records.addAll(output.getRecords().get("lane"));
+        offset = output.getNewOffset();
+      }
+
+      // in offset order across the ranges read in parallel
+      assertEquals(INITIAL_LOAD_COLLECTION_SIZE, records.size());
+      for (int i = 0; i < INITIAL_LOAD_COLLECTION_SIZE; i++) {
+        assertEquals("document " + i, records.get(i).get("/value").getValueAsString());
+        assertEquals(i, records.get(i).get("/nested/index").getValueAsInteger());
+        assertEquals(i + 1, records.get(i).get("/nested/list[1]").getValueAsInteger());
+      }
+      assertEquals(records.get(INITIAL_LOAD_COLLECTION_SIZE - 1).get("/_id").getValueAsString(), offset);
+
+      // once the initial load is done new documents are read with a single cursor
+      insertNewDocs(INITIAL_LOAD_COLLECTION);
+      StageRunner.Output output = runner.runProduce(offset, 2);
+      List<Record> parsedRecords = output.getRecords().get("lane");
+      assertEquals(1, parsedRecords.size());
+      assertEquals("document 12345", parsedRecords.get(0).get("/value").getValueAsString());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
   private void insertNewDocs(String collectionName) {
     MongoClient mongo = new MongoClient("localhost", port);
     MongoDatabase db = mongo.getDatabase(DATABASE_NAME);
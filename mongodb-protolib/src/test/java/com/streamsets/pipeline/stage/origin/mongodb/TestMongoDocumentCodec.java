@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.mongodb;
+
+import com.streamsets.pipeline.api.Field;
+import org.bson.BsonArray;
+import org.bson.BsonBinary;
+import org.bson.BsonBoolean;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonNull;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.BsonTimestamp;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+
+public class TestMongoDocumentCodec {
+
+  private MongoDocument decode(String offsetField, BsonDocument document) {
+    return new MongoDocumentCodec(offsetField).decode(new BsonDocumentReader(document),
+        DecoderContext.builder().build());
+  }
+
+  @Test
+  public void testDecode() {
+    ObjectId id = new ObjectId();
+    ObjectId nestedId = new ObjectId();
+    BsonDocument document = new BsonDocument("_id", new BsonObjectId(id))
+        .append("string", new BsonString("hello"))
+        .append("int", new BsonInt32(1))
+        .append("long", new BsonInt64(2L))
+        .append("double", new BsonDouble(3.5))
+        .append("boolean", BsonBoolean.TRUE)
+        .append("date", new BsonDateTime(1000L))
+        .append("binary", new BsonBinary(new byte[] {1, 2}))
+        .append("null", BsonNull.VALUE)
+        .append("nested", new BsonDocument("id", new BsonObjectId(nestedId))
+            .append("list", new BsonArray(Arrays.asList(new BsonInt32(1), new BsonString("a")))));
+
+    MongoDocument doc = decode("_id", document);
+    Assert.assertNull(doc.getError());
+    Assert.assertEquals(id, doc.getOffset());
+
+    Field field = doc.getField();
+    Assert.assertEquals(Field.Type.MAP, field.getType());
+    Assert.assertEquals(id.toHexString(), field.getValueAsMap().get("_id").getValueAsString());
+    Assert.assertEquals("hello", field.getValueAsMap().get("string").getValueAsString());
+    Assert.assertEquals(Field.Type.INTEGER, field.getValueAsMap().get("int").getType());
+    Assert.assertEquals(1, field.getValueAsMap().get("int").getValueAsInteger());
+    Assert.assertEquals(Field.Type.LONG, field.getValueAsMap().get("long").getType());
+    Assert.assertEquals(2L, field.getValueAsMap().get("long").getValueAsLong());
+    Assert.assertEquals(3.5, field.getValueAsMap().get("double").getValueAsDouble(), 0);
+    Assert.assertTrue(field.getValueAsMap().get("boolean").getValueAsBoolean());
+    Assert.assertEquals(Field.Type.DATE, field.getValueAsMap().get("date").getType());
+    Assert.assertEquals(new Date(1000L), field.getValueAsMap().get("date").getValueAsDate());
+    Assert.assertArrayEquals(new byte[] {1, 2}, field.getValueAsMap().get("binary").getValueAsByteArray());
+    Assert.assertNull(field.getValueAsMap().get("null").getValue());
+
+    Field nested = field.getValueAsMap().get("nested");
+    Assert.assertEquals(nestedId.toHexString(), nested.getValueAsMap().get("id").getValueAsString());
+    Assert.assertEquals(Field.Type.LIST, nested.getValueAsMap().get("list").getType());
+    Assert.assertEquals(1, nested.getValueAsMap().get("list").getValueAsList().get(0).getValueAsInteger());
+    Assert.assertEquals("a", nested.getValueAsMap().get("list").getValueAsList().get(1).getValueAsString());
+  }
+
+  @Test
+  public void testOffsetField() {
+    ObjectId id = new ObjectId();
+    BsonDocument document = new BsonDocument("_id", new BsonString("not an ObjectId"))
+        .append("ts", new BsonObjectId(id));
+
+    Assert.assertNull(decode("_id", document).getOffset());
+    Assert.assertEquals(id, decode("ts", document).getOffset());
+  }
+
+  @Test
+  public void testUnsupportedType() {
+    BsonDocument document = new BsonDocument("_id", new BsonObjectId(new ObjectId()))
+        .append("timestamp", new BsonTimestamp(1, 1))
+        .append("value", new BsonString("after"));
+
+    MongoDocument doc = decode("_id", document);
+    Assert.assertNotNull(doc.getError());
+    Assert.assertTrue(doc.getError().contains("timestamp"));
+    // the rest of the document is still read
+    Assert.assertEquals("after", doc.getField().getValueAsMap().get("value").getValueAsString());
+  }
+
+  @Test
+  public void testEncode() {
+    ObjectId id = new ObjectId();
+    BsonDocument document = new BsonDocument("_id", new BsonObjectId(id))
+        .append("string", new BsonString("hello"))
+        .append("int", new BsonInt32(1))
+        .append("long", new BsonInt64(2L))
+        .append("double", new BsonDouble(3.5))
+        .append("boolean", BsonBoolean.TRUE)
+        .append("date", new BsonDateTime(1000L))
+        .append("binary", new BsonBinary(new byte[] {1, 2}))
+        .append("null", BsonNull.VALUE)
+        .append("nested", new BsonDocument("list",
+            new BsonArray(Arrays.asList(new BsonInt32(1), new BsonString("a")))));
+
+    MongoDocumentCodec codec = new MongoDocumentCodec("_id");
+    BsonDocument encoded = new BsonDocument();
+    codec.encode(new BsonDocumentWriter(encoded), decode("_id", document), EncoderContext.builder().build());
+    Assert.assertEquals(document, encoded);
+  }
+
+}